@@ -132,6 +132,14 @@ public class SessionDataSet implements ISessionDataSet {
     ioTDBRpcDataSet.setFetchSize(fetchSize);
   }
 
+  public long getFetchCreditInBytes() {
+    return ioTDBRpcDataSet.getFetchCreditInBytes();
+  }
+
+  public void setFetchCreditInBytes(long fetchCreditInBytes) {
+    ioTDBRpcDataSet.setFetchCreditInBytes(fetchCreditInBytes);
+  }
+
   @Override
   public List<String> getColumnNames() {
     return new ArrayList<>(ioTDBRpcDataSet.getColumnNameList());
@@ -84,5 +84,8 @@ public class Config {
 
   public static final String SQL_DIALECT = "sql_dialect";
 
+  /** Key of bytes of query results buffered by one fetch, 0 to fetch only fetch size rows. */
+  public static final String FETCH_CREDIT_IN_BYTES = "fetch_credit_in_bytes";
+
   public static final String DATABASE = "db";
 }
@@ -22,6 +22,7 @@ package org.apache.iotdb.jdbc;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.jdbc.relational.IoTDBRelationalDatabaseMetadata;
 import org.apache.iotdb.rpc.DeepCopyRpcTransportFactory;
+import org.apache.iotdb.rpc.IoTDBRpcDataSet;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.StatementExecutionException;
 import org.apache.iotdb.service.rpc.thrift.IClientRPCService;
@@ -93,6 +94,7 @@ public class IoTDBConnection implements Connection {
    * means that there's no timeout in the client side.
    */
   private int networkTimeout = Config.DEFAULT_CONNECTION_TIMEOUT_MS;
+  private long fetchCreditInBytes = IoTDBRpcDataSet.DEFAULT_FETCH_CREDIT_IN_BYTES;
 
   private ZoneId zoneId;
   private Charset charset;
@@ -130,6 +132,7 @@ public class IoTDBConnection implements Connection {
     this.url = url;
     this.userName = info.get("user").toString();
     this.networkTimeout = params.getNetworkTimeout();
+    this.fetchCreditInBytes = params.getFetchCreditInBytes();
     this.zoneId = ZoneId.of(params.getTimeZone());
     this.charset = params.getCharset();
     openTransport();
@@ -333,6 +336,13 @@ public class IoTDBConnection implements Connection {
     return networkTimeout;
   }
 
+  /**
+   * @return bytes of query results buffered by one fetch of the result sets of this connection
+   */
+  public long getFetchCreditInBytes() {
+    return fetchCreditInBytes;
+  }
+
   @Override
   public String getSchema() throws SQLException {
     if (getSqlDialect().equals(Constant.TABLE_DIALECT)) {
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.jdbc;
 
+import org.apache.iotdb.rpc.IoTDBRpcDataSet;
 import org.apache.iotdb.rpc.RpcUtils;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
@@ -44,6 +45,7 @@ public class IoTDBConnectionParams {
   private int thriftDefaultBufferSize = RpcUtils.THRIFT_DEFAULT_BUF_CAPACITY;
   private int thriftMaxFrameSize = RpcUtils.THRIFT_FRAME_MAX_SIZE;
   private int networkTimeout = Config.DEFAULT_CONNECTION_TIMEOUT_MS;
+  private long fetchCreditInBytes = IoTDBRpcDataSet.DEFAULT_FETCH_CREDIT_IN_BYTES;
 
   private String timeZone = ZoneId.systemDefault().toString();
   private Charset charset = TSFileConfig.STRING_CHARSET;
@@ -144,6 +146,14 @@ public class IoTDBConnectionParams {
     return this.networkTimeout;
   }
 
+  public void setFetchCreditInBytes(long fetchCreditInBytes) {
+    this.fetchCreditInBytes = Math.max(fetchCreditInBytes, 0);
+  }
+
+  public long getFetchCreditInBytes() {
+    return fetchCreditInBytes;
+  }
+
   public void setTimeZone(String timeZone) {
     this.timeZone = timeZone;
   }
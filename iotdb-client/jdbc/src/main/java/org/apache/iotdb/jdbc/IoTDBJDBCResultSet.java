@@ -476,6 +476,14 @@ public class IoTDBJDBCResultSet implements ResultSet {
     throw new SQLException(Constant.METHOD_NOT_SUPPORTED);
   }
 
+  /**
+   * @param fetchCreditInBytes bytes of results buffered by one fetch, 0 to fetch only fetchSize
+   *     rows each time
+   */
+  void setFetchCreditInBytes(long fetchCreditInBytes) {
+    ioTDBRpcDataSet.setFetchCreditInBytes(fetchCreditInBytes);
+  }
+
   @Override
   public int getFetchSize() throws SQLException {
     throw new SQLException(Constant.METHOD_NOT_SUPPORTED);
@@ -386,7 +386,7 @@ public class IoTDBStatement implements Statement {
       if (execResp.queryResult == null) {
         throw new SQLException("execResp.queryResult should never be null.");
       } else {
-        this.resultSet =
+        IoTDBJDBCResultSet jdbcResultSet =
             new IoTDBJDBCResultSet(
                 this,
                 execResp.getColumns(),
@@ -405,6 +405,8 @@ public class IoTDBStatement implements Statement {
                 charset,
                 execResp.isSetTableModel() && execResp.isTableModel(),
                 execResp.getColumnIndex2TsBlockColumnIndexList());
+        jdbcResultSet.setFetchCreditInBytes(connection.getFetchCreditInBytes());
+        this.resultSet = jdbcResultSet;
       }
       return true;
     }
@@ -510,7 +512,7 @@ public class IoTDBStatement implements Statement {
     if (!execResp.isSetQueryResult()) {
       throw new SQLException("execResp.queryResult should never be null.");
     } else {
-      this.resultSet =
+      IoTDBJDBCResultSet jdbcResultSet =
           new IoTDBJDBCResultSet(
               this,
               execResp.getColumns(),
@@ -529,6 +531,8 @@ public class IoTDBStatement implements Statement {
               charset,
               execResp.isSetTableModel() && execResp.isTableModel(),
               execResp.getColumnIndex2TsBlockColumnIndexList());
+      jdbcResultSet.setFetchCreditInBytes(connection.getFetchCreditInBytes());
+      this.resultSet = jdbcResultSet;
     }
     return resultSet;
   }
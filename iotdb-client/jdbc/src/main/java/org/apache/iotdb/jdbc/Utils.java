@@ -139,6 +139,9 @@ public class Utils {
     if (info.containsKey(Config.SQL_DIALECT)) {
       params.setSqlDialect(info.getProperty(Config.SQL_DIALECT));
     }
+    if (info.containsKey(Config.FETCH_CREDIT_IN_BYTES)) {
+      params.setFetchCreditInBytes(Long.parseLong(info.getProperty(Config.FETCH_CREDIT_IN_BYTES)));
+    }
 
     return params;
   }
@@ -197,6 +200,14 @@ public class Utils {
           }
           info.put(key, value);
           break;
+        case Config.FETCH_CREDIT_IN_BYTES:
+          try {
+            Long.parseLong(value);
+          } catch (NumberFormatException e) {
+            return false;
+          }
+          info.put(key, value);
+          break;
         default:
           return false;
       }
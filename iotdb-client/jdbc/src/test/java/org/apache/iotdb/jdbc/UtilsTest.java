@@ -153,6 +153,28 @@ public class UtilsTest {
     fail();
   }
 
+  @Test
+  public void testFetchCredit() throws IoTDBURLException {
+    Properties properties = new Properties();
+    IoTDBConnectionParams params = Utils.parseUrl("jdbc:iotdb://127.0.0.1:6667", properties);
+    // disabled by default
+    assertEquals(0, params.getFetchCreditInBytes());
+
+    params =
+        Utils.parseUrl("jdbc:iotdb://127.0.0.1:6667?fetch_credit_in_bytes=1048576", properties);
+    assertEquals(1048576, params.getFetchCreditInBytes());
+
+    properties = new Properties();
+    properties.setProperty(Config.FETCH_CREDIT_IN_BYTES, "-1");
+    params = Utils.parseUrl("jdbc:iotdb://127.0.0.1:6667", properties);
+    assertEquals(0, params.getFetchCreditInBytes());
+  }
+
+  @Test(expected = IoTDBURLException.class)
+  public void testWrongFetchCredit() throws IoTDBURLException {
+    Utils.parseUrl("jdbc:iotdb://127.0.0.1:6667?fetch_credit_in_bytes=8MB", new Properties());
+  }
+
   @Test
   public void testRpcCompress() throws IoTDBURLException {
     Properties properties = new Properties();
@@ -51,6 +51,12 @@ public class IoTDBRpcDataSet {
   private static final String TIMESTAMP_STR = "Time";
   private static final TsBlockSerde SERDE = new TsBlockSerde();
 
+  // bytes of results buffered by one fetch, the server returns more than fetchSize rows that are
+  // already produced in one fetch until they are as large as this, so that reading a large result
+  // set needs fewer fetches. 0 by default, so only fetchSize rows are fetched each time unless the
+  // client sets a credit and the server enables it by max_fetch_credit_in_bytes
+  public static final long DEFAULT_FETCH_CREDIT_IN_BYTES = 0;
+
   private final String sql;
   private boolean isClosed = false;
   private IClientRPCService.Iface client;
@@ -65,6 +71,7 @@ public class IoTDBRpcDataSet {
 
   private final List<TSDataType> dataTypeForTsBlockColumn;
   private int fetchSize;
+  private long fetchCreditInBytes = DEFAULT_FETCH_CREDIT_IN_BYTES;
   private final long timeout;
   private boolean hasCachedRecord = false;
   private boolean lastReadWasNull;
@@ -261,6 +268,9 @@ public class IoTDBRpcDataSet {
     TSFetchResultsReq req = new TSFetchResultsReq(sessionId, sql, fetchSize, queryId, true);
     req.setStatementId(statementId);
     req.setTimeout(timeout);
+    if (fetchCreditInBytes > 0) {
+      req.setFetchCreditInBytes(fetchCreditInBytes);
+    }
     try {
       TSFetchResultsResp resp = client.fetchResultsV2(req);
       RpcUtils.verifySuccess(resp.getStatus());
@@ -671,6 +681,18 @@ public class IoTDBRpcDataSet {
     this.fetchSize = fetchSize;
   }
 
+  public long getFetchCreditInBytes() {
+    return fetchCreditInBytes;
+  }
+
+  /**
+   * @param fetchCreditInBytes bytes of results buffered by one fetch, 0 to fetch only fetchSize
+   *     rows each time
+   */
+  public void setFetchCreditInBytes(long fetchCreditInBytes) {
+    this.fetchCreditInBytes = fetchCreditInBytes;
+  }
+
   public boolean hasCachedRecord() {
     return hasCachedRecord;
   }
@@ -42,6 +42,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constant
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.timeindex.TimeIndexLevel;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALMode;
 import org.apache.iotdb.db.storageengine.load.disk.ILoadDiskSelector.LoadDiskSelectorType;
+import org.apache.iotdb.db.storageengine.rescon.memory.FlushVictimSelectionPolicy;
 import org.apache.iotdb.db.utils.datastructure.TVListSortAlgorithm;
 import org.apache.iotdb.metrics.config.MetricConfigDescriptor;
 import org.apache.iotdb.metrics.metricsets.system.SystemMetrics;
@@ -146,6 +147,19 @@ public class IoTDBConfig {
   /** Flush proportion for system */
   private double flushProportion = 0.4;
 
+  /** How to choose the memtables to flush when the flush proportion is exceeded */
+  private FlushVictimSelectionPolicy flushVictimSelectionPolicy = FlushVictimSelectionPolicy.SIZE;
+
+  /**
+   * With {@link FlushVictimSelectionPolicy#ADAPTIVE}, the best flush victim is flushed in the
+   * background once the active memtable memory exceeds this proportion of the memtable memory,
+   * before flush_proportion and reject_proportion are reached
+   */
+  private double proactiveFlushProportion = 0.3;
+
+  /** The interval to check whether a memtable should be flushed proactively, in ms */
+  private long proactiveFlushCheckIntervalInMs = 1000;
+
   /**
    * If memory cost of data region increased more than proportion of {@linkplain
    * DataNodeMemoryConfig#getStorageEngineMemoryManager()} *{@linkplain
@@ -181,6 +195,21 @@ public class IoTDBConfig {
   /** Buffer size of each wal node. Unit: byte */
   private int walBufferSize = 32 * 1024 * 1024;
 
+  /**
+   * Number of threads of each wal node to serialize insert WALEntries in parallel. When it's no
+   * more than 1, WALEntries are serialized by the single serialize thread of the wal node.
+   */
+  private int walSerializeThreadCount = 1;
+
+  /** Whether to replay sealed wal files through memory-mapped readers when recovering. */
+  private boolean enableWalMmapRecovery = false;
+
+  /**
+   * Number of threads to redo wal entries of different memTables in parallel when recovering. When
+   * it's no more than 1, wal entries are redone by the recover thread of each wal node.
+   */
+  private int walRecoverRedoThreadCount = 1;
+
   /** Blocking queue capacity of each delete ahead log buffer */
   private int deletionAheadLogBufferQueueCapacity = 500;
 
@@ -332,6 +361,15 @@ public class IoTDBConfig {
 
   private int degreeOfParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
 
+  /**
+   * How many chunks a series scan reads ahead asynchronously. When <= 0, chunks are only read when
+   * the scan gets to them.
+   */
+  private int chunkPrefetchNum = 0;
+
+  /** How many threads read chunks ahead for series scans. When <= 0, use CPU core number. */
+  private int chunkPrefetchThreadCount = Runtime.getRuntime().availableProcessors();
+
   private int mergeThresholdOfExplainAnalyze = 10;
 
   private int modeMapSizeThreshold = 10000;
@@ -396,6 +434,13 @@ public class IoTDBConfig {
   /** The sort algorithm used in TVList */
   private TVListSortAlgorithm tvListSortAlgorithm = TVListSortAlgorithm.TIM;
 
+  /**
+   * whether the values of INT32, INT64, FLOAT, DOUBLE, DATE and TIMESTAMP TVLists are stored in
+   * pooled direct memory blocks instead of primitive arrays on the heap. Only non-aligned series are
+   * affected, AlignedTVList keeps its value columns on the heap.
+   */
+  private boolean tvListOffHeapValueEnabled = false;
+
   /**
    * the threshold when working TVList is sorted and added into immutable TVList list in the
    * writable memtable
@@ -420,6 +465,31 @@ public class IoTDBConfig {
   /** The buffer for sort operation */
   private long sortBufferSize = 32 * 1024 * 1024L;
 
+  /**
+   * Whether equi-joins and semi joins of the table model may build a hash table on their smaller
+   * input instead of sorting both inputs on the join keys, when it's estimated to fit in the sort
+   * buffer
+   */
+  private volatile boolean enableHashJoin = false;
+
+  /**
+   * Whether hash aggregations of the table model write partially aggregated groups to disk when
+   * their memory exceeds hashAggregationBufferSize
+   */
+  private volatile boolean enableHashAggregationSpill = false;
+
+  /** The memory a hash aggregation can hold before spilling to disk */
+  private long hashAggregationBufferSize = 32 * 1024 * 1024L;
+
+  /**
+   * Whether nested DOUBLE arithmetic of the table model is evaluated in one pass over primitive
+   * arrays instead of materializing a column for each operator
+   */
+  private volatile boolean enableFusedArithmeticEvaluation = false;
+
+  /** Whether the inner joins of the table model are reordered by their estimated row counts */
+  private volatile boolean enableJoinReorder = false;
+
   /** Mods cache size limit per fi */
   private long modsCacheSizeLimitPerFI = 32 * 1024 * 1024;
 
@@ -484,6 +554,14 @@ public class IoTDBConfig {
    */
   private long chunkPointNumLowerBoundInCompaction = 1000;
 
+  /**
+   * In cross space compaction, seal the unsealed page of the target chunk even if it is smaller
+   * than the lower bound, so that the following pages without overlap can be flushed directly
+   * instead of being deserialized. Only the overlapped pages are rewritten then, at the cost of
+   * some small pages next to them.
+   */
+  private boolean enableCrossCompactionPageGranularRewrite = false;
+
   /**
    * If compaction thread cannot acquire the write lock within this timeout, the compaction task
    * will be abort.
@@ -570,6 +648,12 @@ public class IoTDBConfig {
   /** the max executing time of query in ms. Unit: millisecond */
   private long queryTimeoutThreshold = 60000;
 
+  /**
+   * Max bytes of query results returned by one fetch beyond the fetch size of the client, 0 means
+   * the fetch credit of clients is ignored and only fetch size rows are returned
+   */
+  private volatile long maxFetchCreditInBytes = 0;
+
   /** the max time to live of a session in ms. Unit: millisecond */
   private int sessionTimeoutThreshold = 0;
 
@@ -667,6 +751,13 @@ public class IoTDBConfig {
   /** The limit of compaction read operation can reach per second. When <= 0, no limit. */
   private int compactionReadOperationPerSec = 0;
 
+  /**
+   * The compaction rate limits of a data folder are scaled down when the average latency of the
+   * chunks read by queries from the folder is over this, and scaled back when it's not. When <= 0,
+   * the rate limits are not adjusted. unit: millisecond
+   */
+  private long compactionIoTargetQueryReadLatencyInMs = 0;
+
   /**
    * How many thread will be set up to perform compaction, 10 by default. Set to 1 when less than or
    * equal to 0.
@@ -771,6 +862,18 @@ public class IoTDBConfig {
 
   private boolean enable13DataInsertAdapt = false;
 
+  /**
+   * Whether insertions of one data region lock the time partitions they write into instead of the
+   * whole data region, so that insertions into different time partitions can run concurrently.
+   * Only takes effect with {@link ConsensusFactory#SIMPLE_CONSENSUS}. It has no effect with the
+   * default {@link ConsensusFactory#IOT_CONSENSUS} or any other consensus protocol, which serialize
+   * the writes of one data region in their state machines to assign the WAL search indexes in order.
+   */
+  private boolean enableStripedInsertLock = false;
+
+  /** The number of time partition stripes of one data region if striped insert lock is enabled */
+  private int stripedInsertLockNum = 16;
+
   /**
    * Used to estimate the memory usage of text fields in a UDF query. It is recommended to set this
    * value to be slightly larger than the average length of all text records.
@@ -812,6 +915,12 @@ public class IoTDBConfig {
   /** the size of ioTaskQueue */
   private int ioTaskQueueSizeForFlushing = 10;
 
+  /**
+   * the number of threads used to encode chunk groups of one memtable in parallel during flushing,
+   * 1 means chunk groups are encoded one by one by the encoding task of the flush pipeline
+   */
+  private int flushEncodingThreadCount = 1;
+
   /** the number of data regions per user-defined database */
   private int dataRegionNum = 1;
 
@@ -905,6 +1014,9 @@ public class IoTDBConfig {
   /** Thread keep alive time in ms of mpp data exchange. */
   private int mppDataExchangeKeepAliveTimeInMs = 1000;
 
+  /** Compression algorithm of the TsBlocks pulled from the fragment instances on other nodes. */
+  private CompressionType mppDataExchangeCompressionAlgorithm = CompressionType.UNCOMPRESSED;
+
   /** Thrift socket and connection timeout between data node and config node. */
   private int connectionTimeoutInMS = (int) TimeUnit.SECONDS.toMillis(60);
 
@@ -931,6 +1043,13 @@ public class IoTDBConfig {
    */
   private int partitionCacheSize = 1000;
 
+  /**
+   * Max number of statement shapes whose parse trees are cached in {@link
+   * org.apache.iotdb.db.queryengine.plan.parser.ParseTreeCache}, 0 means disabled. Only the ANTLR
+   * parsing is skipped, statements are still analyzed and planned.
+   */
+  private int parseTreeCacheSize = 0;
+
   /** Cache size of user and role */
   private int authorCacheSize = 100;
 
@@ -983,6 +1102,12 @@ public class IoTDBConfig {
   /** Maximum execution time of a DriverTask */
   private int driverTaskExecutionTimeSliceInMs = 200;
 
+  /**
+   * Whether each query worker thread has its own ready queue and steals tasks from others when its
+   * own queue is empty, instead of all workers sharing one ready queue.
+   */
+  private boolean enableWorkStealingDriverScheduler = false;
+
   /** Maximum size of wal buffer used in IoTConsensus. Unit: byte */
   private long throttleThreshold = 200 * 1024 * 1024 * 1024L;
 
@@ -1738,6 +1863,22 @@ public class IoTDBConfig {
     return degreeOfParallelism;
   }
 
+  public int getChunkPrefetchNum() {
+    return chunkPrefetchNum;
+  }
+
+  public void setChunkPrefetchNum(int chunkPrefetchNum) {
+    this.chunkPrefetchNum = chunkPrefetchNum;
+  }
+
+  public int getChunkPrefetchThreadCount() {
+    return chunkPrefetchThreadCount;
+  }
+
+  public void setChunkPrefetchThreadCount(int chunkPrefetchThreadCount) {
+    this.chunkPrefetchThreadCount = chunkPrefetchThreadCount;
+  }
+
   public void setMergeThresholdOfExplainAnalyze(int mergeThresholdOfExplainAnalyze) {
     this.mergeThresholdOfExplainAnalyze = mergeThresholdOfExplainAnalyze;
   }
@@ -1848,6 +1989,14 @@ public class IoTDBConfig {
     this.queryTimeoutThreshold = queryTimeoutThreshold;
   }
 
+  public long getMaxFetchCreditInBytes() {
+    return maxFetchCreditInBytes;
+  }
+
+  public void setMaxFetchCreditInBytes(long maxFetchCreditInBytes) {
+    this.maxFetchCreditInBytes = maxFetchCreditInBytes;
+  }
+
   public int getSessionTimeoutThreshold() {
     return sessionTimeoutThreshold;
   }
@@ -1904,6 +2053,30 @@ public class IoTDBConfig {
     this.walBufferSize = walBufferSize;
   }
 
+  public int getWalSerializeThreadCount() {
+    return walSerializeThreadCount;
+  }
+
+  public void setWalSerializeThreadCount(int walSerializeThreadCount) {
+    this.walSerializeThreadCount = walSerializeThreadCount;
+  }
+
+  public boolean isEnableWalMmapRecovery() {
+    return enableWalMmapRecovery;
+  }
+
+  public void setEnableWalMmapRecovery(boolean enableWalMmapRecovery) {
+    this.enableWalMmapRecovery = enableWalMmapRecovery;
+  }
+
+  public int getWalRecoverRedoThreadCount() {
+    return walRecoverRedoThreadCount;
+  }
+
+  public void setWalRecoverRedoThreadCount(int walRecoverRedoThreadCount) {
+    this.walRecoverRedoThreadCount = walRecoverRedoThreadCount;
+  }
+
   public int getDeletionAheadLogBufferQueueCapacity() {
     return deletionAheadLogBufferQueueCapacity;
   }
@@ -2025,6 +2198,30 @@ public class IoTDBConfig {
     this.flushProportion = flushProportion;
   }
 
+  public FlushVictimSelectionPolicy getFlushVictimSelectionPolicy() {
+    return flushVictimSelectionPolicy;
+  }
+
+  public void setFlushVictimSelectionPolicy(FlushVictimSelectionPolicy flushVictimSelectionPolicy) {
+    this.flushVictimSelectionPolicy = flushVictimSelectionPolicy;
+  }
+
+  public double getProactiveFlushProportion() {
+    return proactiveFlushProportion;
+  }
+
+  public void setProactiveFlushProportion(double proactiveFlushProportion) {
+    this.proactiveFlushProportion = proactiveFlushProportion;
+  }
+
+  public long getProactiveFlushCheckIntervalInMs() {
+    return proactiveFlushCheckIntervalInMs;
+  }
+
+  public void setProactiveFlushCheckIntervalInMs(long proactiveFlushCheckIntervalInMs) {
+    this.proactiveFlushCheckIntervalInMs = proactiveFlushCheckIntervalInMs;
+  }
+
   public double getWriteMemoryVariationReportProportion() {
     return writeMemoryVariationReportProportion;
   }
@@ -2041,6 +2238,22 @@ public class IoTDBConfig {
     this.enablePartialInsert = enablePartialInsert;
   }
 
+  public boolean isEnableStripedInsertLock() {
+    return enableStripedInsertLock;
+  }
+
+  public void setEnableStripedInsertLock(boolean enableStripedInsertLock) {
+    this.enableStripedInsertLock = enableStripedInsertLock;
+  }
+
+  public int getStripedInsertLockNum() {
+    return stripedInsertLockNum;
+  }
+
+  public void setStripedInsertLockNum(int stripedInsertLockNum) {
+    this.stripedInsertLockNum = stripedInsertLockNum;
+  }
+
   public boolean isEnable13DataInsertAdapt() {
     return enable13DataInsertAdapt;
   }
@@ -2130,6 +2343,15 @@ public class IoTDBConfig {
     this.compactionReadOperationPerSec = compactionReadOperationPerSec;
   }
 
+  public long getCompactionIoTargetQueryReadLatencyInMs() {
+    return compactionIoTargetQueryReadLatencyInMs;
+  }
+
+  public void setCompactionIoTargetQueryReadLatencyInMs(
+      long compactionIoTargetQueryReadLatencyInMs) {
+    this.compactionIoTargetQueryReadLatencyInMs = compactionIoTargetQueryReadLatencyInMs;
+  }
+
   public boolean isEnableTimedFlushSeqMemtable() {
     return enableTimedFlushSeqMemtable;
   }
@@ -2186,6 +2408,14 @@ public class IoTDBConfig {
     this.tvListSortAlgorithm = tvListSortAlgorithm;
   }
 
+  public boolean isTvListOffHeapValueEnabled() {
+    return tvListOffHeapValueEnabled;
+  }
+
+  public void setTvListOffHeapValueEnabled(boolean tvListOffHeapValueEnabled) {
+    this.tvListOffHeapValueEnabled = tvListOffHeapValueEnabled;
+  }
+
   public int getTvListSortThreshold() {
     return tvListSortThreshold;
   }
@@ -2691,6 +2921,14 @@ public class IoTDBConfig {
     this.ioTaskQueueSizeForFlushing = ioTaskQueueSizeForFlushing;
   }
 
+  public int getFlushEncodingThreadCount() {
+    return flushEncodingThreadCount;
+  }
+
+  public void setFlushEncodingThreadCount(int flushEncodingThreadCount) {
+    this.flushEncodingThreadCount = flushEncodingThreadCount;
+  }
+
   public boolean isEnableSeqSpaceCompaction() {
     return enableSeqSpaceCompaction;
   }
@@ -2848,6 +3086,15 @@ public class IoTDBConfig {
     this.chunkPointNumLowerBoundInCompaction = chunkPointNumLowerBoundInCompaction;
   }
 
+  public boolean isEnableCrossCompactionPageGranularRewrite() {
+    return enableCrossCompactionPageGranularRewrite;
+  }
+
+  public void setEnableCrossCompactionPageGranularRewrite(
+      boolean enableCrossCompactionPageGranularRewrite) {
+    this.enableCrossCompactionPageGranularRewrite = enableCrossCompactionPageGranularRewrite;
+  }
+
   public long getCompactionAcquireWriteLockTimeout() {
     return compactionAcquireWriteLockTimeout;
   }
@@ -3096,6 +3343,15 @@ public class IoTDBConfig {
     this.mppDataExchangeKeepAliveTimeInMs = mppDataExchangeKeepAliveTimeInMs;
   }
 
+  public CompressionType getMppDataExchangeCompressionAlgorithm() {
+    return mppDataExchangeCompressionAlgorithm;
+  }
+
+  public void setMppDataExchangeCompressionAlgorithm(
+      CompressionType mppDataExchangeCompressionAlgorithm) {
+    this.mppDataExchangeCompressionAlgorithm = mppDataExchangeCompressionAlgorithm;
+  }
+
   public int getConnectionTimeoutInMS() {
     return connectionTimeoutInMS;
   }
@@ -3169,6 +3425,14 @@ public class IoTDBConfig {
     this.partitionCacheSize = partitionCacheSize;
   }
 
+  public int getParseTreeCacheSize() {
+    return parseTreeCacheSize;
+  }
+
+  public void setParseTreeCacheSize(int parseTreeCacheSize) {
+    this.parseTreeCacheSize = parseTreeCacheSize;
+  }
+
   public int getAuthorCacheSize() {
     return authorCacheSize;
   }
@@ -3354,6 +3618,14 @@ public class IoTDBConfig {
     this.driverTaskExecutionTimeSliceInMs = driverTaskExecutionTimeSliceInMs;
   }
 
+  public boolean isEnableWorkStealingDriverScheduler() {
+    return enableWorkStealingDriverScheduler;
+  }
+
+  public void setEnableWorkStealingDriverScheduler(boolean enableWorkStealingDriverScheduler) {
+    this.enableWorkStealingDriverScheduler = enableWorkStealingDriverScheduler;
+  }
+
   public static String getEnvironmentVariables() {
     return "\n\t"
         + IoTDBConstant.IOTDB_HOME
@@ -4110,6 +4382,46 @@ public class IoTDBConfig {
     return sortBufferSize;
   }
 
+  public boolean isEnableHashJoin() {
+    return enableHashJoin;
+  }
+
+  public void setEnableHashJoin(boolean enableHashJoin) {
+    this.enableHashJoin = enableHashJoin;
+  }
+
+  public boolean isEnableHashAggregationSpill() {
+    return enableHashAggregationSpill;
+  }
+
+  public void setEnableHashAggregationSpill(boolean enableHashAggregationSpill) {
+    this.enableHashAggregationSpill = enableHashAggregationSpill;
+  }
+
+  public long getHashAggregationBufferSize() {
+    return hashAggregationBufferSize;
+  }
+
+  public void setHashAggregationBufferSize(long hashAggregationBufferSize) {
+    this.hashAggregationBufferSize = hashAggregationBufferSize;
+  }
+
+  public boolean isEnableFusedArithmeticEvaluation() {
+    return enableFusedArithmeticEvaluation;
+  }
+
+  public void setEnableFusedArithmeticEvaluation(boolean enableFusedArithmeticEvaluation) {
+    this.enableFusedArithmeticEvaluation = enableFusedArithmeticEvaluation;
+  }
+
+  public boolean isEnableJoinReorder() {
+    return enableJoinReorder;
+  }
+
+  public void setEnableJoinReorder(boolean enableJoinReorder) {
+    this.enableJoinReorder = enableJoinReorder;
+  }
+
   public void setModsCacheSizeLimitPerFI(long modsCacheSizeLimitPerFI) {
     this.modsCacheSizeLimitPerFI = modsCacheSizeLimitPerFI;
   }
@@ -53,6 +53,7 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALMode;
 import org.apache.iotdb.db.storageengine.load.disk.ILoadDiskSelector;
 import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+import org.apache.iotdb.db.storageengine.rescon.memory.FlushVictimSelectionPolicy;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.DateTimeUtils;
 import org.apache.iotdb.db.utils.datastructure.TVListSortAlgorithm;
@@ -306,6 +307,23 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "flush_proportion", Double.toString(conf.getFlushProportion()))));
 
+    conf.setFlushVictimSelectionPolicy(
+        FlushVictimSelectionPolicy.valueOf(
+            properties.getProperty(
+                "flush_victim_selection_policy", conf.getFlushVictimSelectionPolicy().toString())));
+
+    conf.setProactiveFlushProportion(
+        Double.parseDouble(
+            properties.getProperty(
+                "proactive_flush_proportion",
+                Double.toString(conf.getProactiveFlushProportion()))));
+
+    conf.setProactiveFlushCheckIntervalInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "proactive_flush_check_interval_in_ms",
+                Long.toString(conf.getProactiveFlushCheckIntervalInMs()))));
+
     conf.setWriteMemoryVariationReportProportion(
         Double.parseDouble(
             properties.getProperty(
@@ -368,6 +386,12 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "tvlist_sort_algorithm", conf.getTvListSortAlgorithm().toString())));
 
+    conf.setTvListOffHeapValueEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "tvlist_off_heap_value_enabled",
+                Boolean.toString(conf.isTvListOffHeapValueEnabled()))));
+
     conf.setTVListSortThreshold(
         Integer.parseInt(
             properties.getProperty(
@@ -391,6 +415,12 @@ public class IoTDBDescriptor {
                 "io_task_queue_size_for_flushing",
                 Integer.toString(conf.getIoTaskQueueSizeForFlushing()))));
 
+    conf.setFlushEncodingThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "flush_encoding_thread_count",
+                Integer.toString(conf.getFlushEncodingThreadCount()))));
+
     boolean enableWALCompression =
         Boolean.parseBoolean(properties.getProperty("enable_wal_compression", "true"));
     conf.setWALCompressionAlgorithm(
@@ -484,6 +514,11 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "query_timeout_threshold", Long.toString(conf.getQueryTimeoutThreshold()))));
 
+    conf.setMaxFetchCreditInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "max_fetch_credit_in_bytes", Long.toString(conf.getMaxFetchCreditInBytes()))));
+
     conf.setSessionTimeoutThreshold(
         Integer.parseInt(
             properties.getProperty(
@@ -531,6 +566,20 @@ public class IoTDBDescriptor {
       conf.setDegreeOfParallelism(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
     }
 
+    conf.setChunkPrefetchNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_num", Integer.toString(conf.getChunkPrefetchNum()))));
+
+    conf.setChunkPrefetchThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_prefetch_thread_count",
+                Integer.toString(conf.getChunkPrefetchThreadCount()))));
+    if (conf.getChunkPrefetchThreadCount() <= 0) {
+      conf.setChunkPrefetchThreadCount(Runtime.getRuntime().availableProcessors());
+    }
+
     conf.setMergeThresholdOfExplainAnalyze(
         Integer.parseInt(
             properties.getProperty(
@@ -632,6 +681,12 @@ public class IoTDBDescriptor {
                 "chunk_point_num_lower_bound_in_compaction",
                 Long.toString(conf.getChunkPointNumLowerBoundInCompaction()))));
 
+    conf.setEnableCrossCompactionPageGranularRewrite(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_cross_compaction_page_granular_rewrite",
+                Boolean.toString(conf.isEnableCrossCompactionPageGranularRewrite()))));
+
     conf.setChunkSizeLowerBoundInCompaction(
         Long.parseLong(
             properties.getProperty(
@@ -680,6 +735,12 @@ public class IoTDBDescriptor {
                 "compaction_read_operation_per_sec",
                 Integer.toString(conf.getCompactionReadOperationPerSec()))));
 
+    conf.setCompactionIoTargetQueryReadLatencyInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "compaction_io_target_query_read_latency_in_ms",
+                Long.toString(conf.getCompactionIoTargetQueryReadLatencyInMs()))));
+
     conf.setEnableTsFileValidation(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -722,6 +783,19 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "0.13_data_insert_adapt", String.valueOf(conf.isEnable13DataInsertAdapt()))));
 
+    conf.setEnableStripedInsertLock(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_striped_insert_lock", String.valueOf(conf.isEnableStripedInsertLock()))));
+
+    int stripedInsertLockNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "striped_insert_lock_num", Integer.toString(conf.getStripedInsertLockNum())));
+    if (stripedInsertLockNum > 0) {
+      conf.setStripedInsertLockNum(stripedInsertLockNum);
+    }
+
     int rpcSelectorThreadNum =
         Integer.parseInt(
             properties.getProperty(
@@ -1049,6 +1123,30 @@ public class IoTDBDescriptor {
     // The buffer for sort operator to calculate
     loadFixedSizeLimitForQuery(properties, "sort_buffer_size_in_bytes", conf::setSortBufferSize);
 
+    conf.setEnableHashJoin(
+        Boolean.parseBoolean(
+            properties.getProperty("enable_hash_join", String.valueOf(conf.isEnableHashJoin()))));
+
+    conf.setEnableHashAggregationSpill(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_hash_aggregation_spill",
+                String.valueOf(conf.isEnableHashAggregationSpill()))));
+
+    loadFixedSizeLimitForQuery(
+        properties, "hash_aggregation_buffer_size_in_bytes", conf::setHashAggregationBufferSize);
+
+    conf.setEnableFusedArithmeticEvaluation(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_fused_arithmetic_evaluation",
+                String.valueOf(conf.isEnableFusedArithmeticEvaluation()))));
+
+    conf.setEnableJoinReorder(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_join_reorder", String.valueOf(conf.isEnableJoinReorder()))));
+
     loadFixedSizeLimitForQuery(
         properties, "mods_cache_size_limit_per_fi_in_bytes", conf::setModsCacheSizeLimitPerFI);
 
@@ -1245,6 +1343,23 @@ public class IoTDBDescriptor {
       conf.setWalBufferSize(walBufferSize);
     }
 
+    conf.setWalSerializeThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_serialize_thread_count",
+                Integer.toString(conf.getWalSerializeThreadCount()))));
+
+    conf.setEnableWalMmapRecovery(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_wal_mmap_recovery", Boolean.toString(conf.isEnableWalMmapRecovery()))));
+
+    conf.setWalRecoverRedoThreadCount(
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_recover_redo_thread_count",
+                Integer.toString(conf.getWalRecoverRedoThreadCount()))));
+
     boolean WALInsertNodeCacheShrinkClearEnabled =
         Boolean.parseBoolean(
             properties.getProperty(
@@ -2135,6 +2250,49 @@ public class IoTDBDescriptor {
       // sort_buffer_size_in_bytes
       loadFixedSizeLimitForQuery(properties, "sort_buffer_size_in_bytes", conf::setSortBufferSize);
 
+      // max_fetch_credit_in_bytes
+      conf.setMaxFetchCreditInBytes(
+          Long.parseLong(
+              properties.getProperty(
+                  "max_fetch_credit_in_bytes",
+                  ConfigurationFileUtils.getConfigurationDefaultValue(
+                      "max_fetch_credit_in_bytes"))));
+
+      // enable_hash_join
+      conf.setEnableHashJoin(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_hash_join",
+                  ConfigurationFileUtils.getConfigurationDefaultValue("enable_hash_join"))));
+
+      // enable_hash_aggregation_spill
+      conf.setEnableHashAggregationSpill(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_hash_aggregation_spill",
+                  ConfigurationFileUtils.getConfigurationDefaultValue(
+                      "enable_hash_aggregation_spill"))));
+
+      loadFixedSizeLimitForQuery(
+          properties,
+          "hash_aggregation_buffer_size_in_bytes",
+          conf::setHashAggregationBufferSize);
+
+      // enable_fused_arithmetic_evaluation
+      conf.setEnableFusedArithmeticEvaluation(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_fused_arithmetic_evaluation",
+                  ConfigurationFileUtils.getConfigurationDefaultValue(
+                      "enable_fused_arithmetic_evaluation"))));
+
+      // enable_join_reorder
+      conf.setEnableJoinReorder(
+          Boolean.parseBoolean(
+              properties.getProperty(
+                  "enable_join_reorder",
+                  ConfigurationFileUtils.getConfigurationDefaultValue("enable_join_reorder"))));
+
       loadFixedSizeLimitForQuery(
           properties, "mods_cache_size_limit_per_fi_in_bytes", conf::setModsCacheSizeLimitPerFI);
 
@@ -2639,17 +2797,33 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "mpp_data_exchange_keep_alive_time_in_ms",
                 Integer.toString(conf.getMppDataExchangeKeepAliveTimeInMs()))));
+    boolean enableMppDataExchangeCompression =
+        Boolean.parseBoolean(
+            properties.getProperty("enable_mpp_data_exchange_compression", "false"));
+    conf.setMppDataExchangeCompressionAlgorithm(
+        enableMppDataExchangeCompression ? CompressionType.LZ4 : CompressionType.UNCOMPRESSED);
 
     conf.setPartitionCacheSize(
         Integer.parseInt(
             properties.getProperty(
                 "partition_cache_size", Integer.toString(conf.getPartitionCacheSize()))));
 
+    conf.setParseTreeCacheSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "parse_tree_cache_size", Integer.toString(conf.getParseTreeCacheSize()))));
+
     conf.setDriverTaskExecutionTimeSliceInMs(
         Integer.parseInt(
             properties.getProperty(
                 "driver_task_execution_time_slice_in_ms",
                 Integer.toString(conf.getDriverTaskExecutionTimeSliceInMs()))));
+
+    conf.setEnableWorkStealingDriverScheduler(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_work_stealing_driver_scheduler",
+                Boolean.toString(conf.isEnableWorkStealingDriverScheduler()))));
   }
 
   /** Get default encode algorithm by data type */
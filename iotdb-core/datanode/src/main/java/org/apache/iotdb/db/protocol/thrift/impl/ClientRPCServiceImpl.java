@@ -271,6 +271,10 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
   private static final int DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES =
       TSFileDescriptor.getInstance().getConfig().getMaxTsBlockSizeInBytes();
 
+  // the results of one fetch must fit in a thrift frame, including the TsBlock exceeding the credit
+  private static final long MAX_FETCH_CREDIT_IN_BYTES =
+      IoTDBDescriptor.getInstance().getConfig().getThriftMaxFrameSize() / 2;
+
   @FunctionalInterface
   public interface SelectResult {
 
@@ -1368,8 +1372,15 @@ public class ClientRPCServiceImpl implements IClientRPCServiceWithHandler {
       statementType = queryExecution.getStatementType();
 
       try (SetThreadName queryName = new SetThreadName(queryExecution.getQueryId())) {
+        long fetchCreditInBytes =
+            req.isSetFetchCreditInBytes()
+                ? Math.min(
+                    req.getFetchCreditInBytes(),
+                    Math.min(config.getMaxFetchCreditInBytes(), MAX_FETCH_CREDIT_IN_BYTES))
+                : 0;
         Pair<List<ByteBuffer>, Boolean> pair =
-            QueryDataSetUtils.convertQueryResultByFetchSize(queryExecution, req.fetchSize);
+            QueryDataSetUtils.convertQueryResultByFetchSize(
+                queryExecution, req.fetchSize, fetchCreditInBytes);
         List<ByteBuffer> result = pair.left;
         finished = pair.right;
         boolean hasResultSet = !result.isEmpty();
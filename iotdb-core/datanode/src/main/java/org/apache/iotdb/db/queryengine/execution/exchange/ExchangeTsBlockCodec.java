@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.exchange;
+
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses the serialized TsBlocks sent from a SinkChannel to a remote SourceHandle. The receiver
+ * asks for a {@link CompressionType} in TGetDataBlockRequest, and the sender marks the response if
+ * it compressed the TsBlocks, so that the peers of older versions keep exchanging uncompressed
+ * TsBlocks.
+ *
+ * <p>Each compressed TsBlock is [CompressionType (1 byte)][uncompressedSize (4 bytes)][data], the
+ * uncompressedSize is omitted if the CompressionType is UNCOMPRESSED, which is used for the small
+ * TsBlocks and the ones that can't be compressed.
+ */
+public final class ExchangeTsBlockCodec {
+
+  /** TsBlocks smaller than this are not worth compressing. */
+  static final int MIN_COMPRESSION_SIZE = 512;
+
+  private ExchangeTsBlockCodec() {}
+
+  /**
+   * @param isSet whether the CompressionType is set in TGetDataBlockRequest
+   * @param compressionType the CompressionType in TGetDataBlockRequest
+   * @return the CompressionType to compress the TsBlocks with, UNCOMPRESSED if the receiver didn't
+   *     ask for compression or asked for an unsupported one
+   */
+  public static CompressionType getCompressionType(boolean isSet, byte compressionType) {
+    // only LZ4 is supported for now, the other compressors can't compress heap buffers
+    return isSet && compressionType == CompressionType.LZ4.serialize()
+        ? CompressionType.LZ4
+        : CompressionType.UNCOMPRESSED;
+  }
+
+  public static ByteBuffer compress(ByteBuffer serializedTsBlock, CompressionType compressionType)
+      throws IOException {
+    int uncompressedSize = serializedTsBlock.remaining();
+    if (compressionType != CompressionType.UNCOMPRESSED
+        && uncompressedSize >= MIN_COMPRESSION_SIZE) {
+      ICompressor compressor = ICompressor.getCompressor(compressionType);
+      ByteBuffer result =
+          ByteBuffer.allocate(
+              Byte.BYTES + Integer.BYTES + compressor.getMaxBytesForCompression(uncompressedSize));
+      result.put(compressionType.serialize());
+      result.putInt(uncompressedSize);
+      compressor.compress(serializedTsBlock.duplicate(), result);
+      // keep the uncompressed one if the compressed one with its header is not smaller
+      if (result.position() < Byte.BYTES + uncompressedSize) {
+        result.flip();
+        return result;
+      }
+    }
+
+    ByteBuffer result = ByteBuffer.allocate(Byte.BYTES + uncompressedSize);
+    result.put(CompressionType.UNCOMPRESSED.serialize());
+    result.put(serializedTsBlock.duplicate());
+    result.flip();
+    return result;
+  }
+
+  /**
+   * @return the TsBlock serialized by TsBlockSerde, which shares the content of the compressed one
+   *     without copying if it's not compressed
+   */
+  public static ByteBuffer uncompress(ByteBuffer compressedTsBlock) throws IOException {
+    ByteBuffer buffer = compressedTsBlock.duplicate();
+    CompressionType compressionType = CompressionType.deserialize(buffer.get());
+    if (compressionType == CompressionType.UNCOMPRESSED) {
+      return buffer.slice();
+    }
+    int uncompressedSize = buffer.getInt();
+    ByteBuffer uncompressed = ByteBuffer.allocate(uncompressedSize);
+    IUnCompressor.getUnCompressor(compressionType).uncompress(buffer, uncompressed);
+    uncompressed.clear();
+    return uncompressed;
+  }
+}
@@ -54,6 +54,7 @@ import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.apache.commons.lang3.Validate;
 import org.apache.thrift.TException;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.read.common.block.column.TsBlockSerde;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -116,9 +117,18 @@ public class MPPDataExchangeManager implements IMPPDataExchangeManager {
         }
         // index of the channel must be a SinkChannel
         SinkChannel sinkChannel = (SinkChannel) (sinkHandle.getChannel(req.getIndex()));
+        CompressionType compressionType =
+            ExchangeTsBlockCodec.getCompressionType(
+                req.isSetCompressionType(), req.getCompressionType());
+        if (compressionType != CompressionType.UNCOMPRESSED) {
+          resp.setCompressionType(compressionType.serialize());
+        }
         for (int i = req.getStartSequenceId(); i < req.getEndSequenceId(); i++) {
           try {
             ByteBuffer serializedTsBlock = sinkChannel.getSerializedTsBlock(i);
+            if (compressionType != CompressionType.UNCOMPRESSED) {
+              serializedTsBlock = ExchangeTsBlockCodec.compress(serializedTsBlock, compressionType);
+            }
             resp.addToTsBlocks(serializedTsBlock);
           } catch (GetTsBlockFromClosedOrAbortedChannelException e) {
             // Return an empty block list to indicate that getting data block failed this time.
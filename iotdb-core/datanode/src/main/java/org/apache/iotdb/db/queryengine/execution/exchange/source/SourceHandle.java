@@ -25,6 +25,7 @@ import org.apache.iotdb.commons.client.sync.SyncDataNodeMPPDataExchangeServiceCl
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.execution.exchange.ExchangeTsBlockCodec;
 import org.apache.iotdb.db.queryengine.execution.exchange.MPPDataExchangeManager.SourceHandleListener;
 import org.apache.iotdb.db.queryengine.execution.memory.LocalMemoryManager;
 import org.apache.iotdb.db.queryengine.metric.DataExchangeCostMetricSet;
@@ -39,6 +40,7 @@ import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockResponse;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import org.apache.commons.lang3.Validate;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.column.TsBlockSerde;
 import org.apache.tsfile.utils.Pair;
@@ -110,6 +112,10 @@ public class SourceHandle implements ISourceHandle {
   private long maxBytesCanReserve =
       IoTDBDescriptor.getInstance().getMemoryConfig().getMaxBytesPerFragmentInstance();
 
+  /** CompressionType asked for the TsBlocks pulled from the upstream SinkChannel. */
+  private final CompressionType compressionType =
+      IoTDBDescriptor.getInstance().getConfig().getMppDataExchangeCompressionAlgorithm();
+
   /**
    * this is set to true after calling isBlocked() at least once which indicates that this
    * SourceHandle needs to output data.
@@ -548,6 +554,9 @@ public class SourceHandle implements ISourceHandle {
                 startSequenceId,
                 endSequenceId,
                 indexOfUpstreamSinkHandle);
+        if (compressionType != CompressionType.UNCOMPRESSED) {
+          req.setCompressionType(compressionType.serialize());
+        }
         int attempt = 0;
         while (attempt < MAX_ATTEMPT_TIMES) {
           attempt += 1;
@@ -571,7 +580,15 @@ public class SourceHandle implements ISourceHandle {
               return;
             }
             List<ByteBuffer> tsBlocks = new ArrayList<>(tsBlockNum);
-            tsBlocks.addAll(resp.getTsBlocks());
+            if (resp.isSetCompressionType()) {
+              // uncompressed here rather than in the driver threads, the result is what
+              // TsBlockSerde serialized, which is also sent to the client as it is
+              for (ByteBuffer tsBlock : resp.getTsBlocks()) {
+                tsBlocks.add(ExchangeTsBlockCodec.uncompress(tsBlock));
+              }
+            } else {
+              tsBlocks.addAll(resp.getTsBlocks());
+            }
 
             if (LOGGER.isDebugEnabled()) {
               LOGGER.debug("[EndPullTsBlocksFromRemote] Count:{}", tsBlockNum);
@@ -202,7 +202,10 @@ public class FragmentInstanceContext extends QueryContext {
   }
 
   public static FragmentInstanceContext createFragmentInstanceContextForCompaction(long queryId) {
-    return new FragmentInstanceContext(queryId, null, null, null);
+    FragmentInstanceContext instanceContext =
+        new FragmentInstanceContext(queryId, null, null, null);
+    instanceContext.setCompaction(true);
+    return instanceContext;
   }
 
   public void setQueryDataSourceType(QueryDataSourceType queryDataSourceType) {
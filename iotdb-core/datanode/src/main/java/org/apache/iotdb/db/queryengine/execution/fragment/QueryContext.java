@@ -74,6 +74,9 @@ public class QueryContext {
   // for tree model, it will be true
   private boolean ignoreAllNullRows = true;
 
+  // whether the data is read by a compaction instead of a query
+  private boolean compaction = false;
+
   // referenced TVLists for the query
   protected final Set<TVList> tvListSet = new HashSet<>();
 
@@ -259,6 +262,14 @@ public class QueryContext {
     this.ignoreAllNullRows = ignoreAllNullRows;
   }
 
+  public boolean isCompaction() {
+    return compaction;
+  }
+
+  public void setCompaction(boolean compaction) {
+    this.compaction = compaction;
+  }
+
   public void addTVListToSet(Map<TVList, Integer> tvListMap) {
     tvListSet.addAll(tvListMap.keySet());
   }
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.join.hash;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.Binary;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Values of one join key collected from the build side of a hash inner join after the hash table is
+ * built. Scans on the probe side use it to skip the devices and time ranges which can never be
+ * matched. Distinct values are kept for STRING, TEXT and BLOB keys, min and max are kept for the
+ * other integral keys.
+ *
+ * <p>The filter is only a hint, the join still checks every probe row. So the scan can run before
+ * the filter is ready, and the distinct values are dropped if there are too many of them.
+ */
+public class JoinDynamicFilter {
+  private static final int MAX_DISTINCT_VALUES = 10_000;
+
+  private final int buildKeyChannel;
+  private final Type keyType;
+
+  // set after all the other fields, which makes them visible to the scans in other drivers
+  private volatile boolean ready;
+
+  private boolean empty = true;
+  // null if the key is not a binary type or there are too many distinct values
+  private Set<Binary> values;
+  private long min = Long.MAX_VALUE;
+  private long max = Long.MIN_VALUE;
+
+  public JoinDynamicFilter(int buildKeyChannel, Type keyType) {
+    this.buildKeyChannel = buildKeyChannel;
+    this.keyType = keyType;
+  }
+
+  /** Collect the key of all the rows in the built hash table. */
+  public void collect(JoinHashTable hashTable) {
+    boolean binaryKey = isBinaryType(keyType);
+    boolean integralKey = isIntegralType(keyType);
+    if (binaryKey) {
+      values = new HashSet<>();
+    }
+    for (int row = 0; row < hashTable.getRowCount(); row++) {
+      Column column = hashTable.getBlock(row).getColumn(buildKeyChannel);
+      int position = hashTable.getPosition(row);
+      empty = false;
+      if (values != null) {
+        values.add(column.getBinary(position));
+        if (values.size() > MAX_DISTINCT_VALUES) {
+          values = null;
+        }
+      } else if (integralKey) {
+        long value = isIntType(keyType) ? column.getInt(position) : column.getLong(position);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+    }
+    ready = true;
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /** Whether no row of the build side has a non-null key, then no probe row can be matched. */
+  public boolean isEmpty() {
+    return empty;
+  }
+
+  /**
+   * @return false only if the value is NULL or definitely not in the build side
+   */
+  public boolean mightContain(Binary value) {
+    if (value == null || empty) {
+      return false;
+    }
+    return values == null || values.contains(value);
+  }
+
+  /** Whether {@link #getMin()} and {@link #getMax()} are available. */
+  public boolean hasRange() {
+    return !empty && isIntegralType(keyType);
+  }
+
+  public long getMin() {
+    return min;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public static boolean isSupportedType(Type type) {
+    return isBinaryType(type) || isIntegralType(type);
+  }
+
+  private static boolean isBinaryType(Type type) {
+    switch (type.getTypeEnum()) {
+      case STRING:
+      case TEXT:
+      case BLOB:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isIntegralType(Type type) {
+    switch (type.getTypeEnum()) {
+      case INT32:
+      case DATE:
+      case INT64:
+      case TIMESTAMP:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isIntType(Type type) {
+    switch (type.getTypeEnum()) {
+      case INT32:
+      case DATE:
+        return true;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.process.join.hash;
+
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.comparator.JoinKeyComparator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.comparator.JoinKeyComparatorFactory;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.CombineHashFunction;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.XxHash64;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Hash table on the build side of a hash join. Rows of the build side are kept in the original
+ * TsBlocks, the table itself only consists of primitive arrays: a bucket array pointing to the first
+ * row of each bucket and a chain linking rows in the same bucket. Rows of one chain are linked in
+ * the order they are added, so that the matches of a probe row are returned in build side order.
+ *
+ * <p>If there is only one join key whose type is INT32, DATE, INT64 or TIMESTAMP, the keys are
+ * copied into a long array and compared without accessing the TsBlocks.
+ */
+public class JoinHashTable {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(JoinHashTable.class);
+
+  public static final int END_OF_CHAIN = -1;
+
+  private static final int INITIAL_ROW_CAPACITY = 1024;
+
+  private final int[] buildKeyPositions;
+  private final List<Type> keyTypes;
+  private final List<JoinKeyComparator> comparators;
+  // single INT32, DATE, INT64 or TIMESTAMP join key
+  private final boolean singleLongKey;
+  private final boolean intKey;
+
+  private final List<TsBlock> blocks = new ArrayList<>();
+  private int rowCount;
+  // address of row: index of TsBlock << 32 | position in TsBlock
+  private long[] rowAddresses = new long[INITIAL_ROW_CAPACITY];
+  private long[] rowHashes = new long[INITIAL_ROW_CAPACITY];
+  // only used when singleLongKey is true
+  private long[] rowKeys;
+  private boolean hasNullKey;
+
+  private int[] buckets;
+  private int[] nextRows;
+  private int bucketMask;
+
+  private long retainedBlocksSize;
+
+  public JoinHashTable(int[] buildKeyPositions, List<Type> keyTypes) {
+    this.buildKeyPositions = buildKeyPositions;
+    this.keyTypes = keyTypes;
+    this.comparators = JoinKeyComparatorFactory.getComparators(keyTypes, true);
+    this.singleLongKey = keyTypes.size() == 1 && isLongCompatible(keyTypes.get(0));
+    this.intKey = singleLongKey && isIntCompatible(keyTypes.get(0));
+    if (singleLongKey) {
+      rowKeys = new long[INITIAL_ROW_CAPACITY];
+    }
+  }
+
+  private static boolean isLongCompatible(Type type) {
+    switch (type.getTypeEnum()) {
+      case INT32:
+      case DATE:
+      case INT64:
+      case TIMESTAMP:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static boolean isIntCompatible(Type type) {
+    switch (type.getTypeEnum()) {
+      case INT32:
+      case DATE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Add all rows of the block to the table. Rows containing NULL join key are skipped because they
+   * can never be matched.
+   *
+   * @return true if the block is retained by the table
+   */
+  public boolean addBlock(TsBlock block) {
+    checkNotBuilt();
+    int blockIndex = blocks.size();
+    int positionCount = block.getPositionCount();
+    ensureRowCapacity(rowCount + positionCount);
+    int addedRows = 0;
+    for (int position = 0; position < positionCount; position++) {
+      if (hasNullKey(block, buildKeyPositions, position)) {
+        hasNullKey = true;
+        continue;
+      }
+      rowAddresses[rowCount] = ((long) blockIndex << 32) | position;
+      if (singleLongKey) {
+        long key = getLongKey(block.getColumn(buildKeyPositions[0]), position);
+        rowKeys[rowCount] = key;
+        rowHashes[rowCount] = XxHash64.hash(key);
+      } else {
+        rowHashes[rowCount] = hash(block, buildKeyPositions, position);
+      }
+      rowCount++;
+      addedRows++;
+    }
+    if (addedRows == 0) {
+      return false;
+    }
+    blocks.add(block);
+    retainedBlocksSize += block.getRetainedSizeInBytes();
+    return true;
+  }
+
+  /** Build the buckets after all the rows are added, the table is read-only after that. */
+  public void build() {
+    checkNotBuilt();
+    int bucketCount = Integer.highestOneBit(Math.max(rowCount, 1) * 2 - 1) << 1;
+    bucketMask = bucketCount - 1;
+    buckets = new int[bucketCount];
+    Arrays.fill(buckets, END_OF_CHAIN);
+    nextRows = new int[rowCount];
+    // insert in reverse order so that the chains are in the order of rows
+    for (int row = rowCount - 1; row >= 0; row--) {
+      int bucket = (int) rowHashes[row] & bucketMask;
+      nextRows[row] = buckets[bucket];
+      buckets[bucket] = row;
+    }
+  }
+
+  private void checkNotBuilt() {
+    if (buckets != null) {
+      throw new IllegalStateException("JoinHashTable has already been built");
+    }
+  }
+
+  private void ensureRowCapacity(int capacity) {
+    if (capacity <= rowAddresses.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, rowAddresses.length + (rowAddresses.length >> 1));
+    rowAddresses = Arrays.copyOf(rowAddresses, newCapacity);
+    rowHashes = Arrays.copyOf(rowHashes, newCapacity);
+    if (singleLongKey) {
+      rowKeys = Arrays.copyOf(rowKeys, newCapacity);
+    }
+  }
+
+  /**
+   * @return the first row matching the probe row, or {@link #END_OF_CHAIN} if there is no match.
+   *     The probe row must not contain NULL join key.
+   */
+  public int getFirstMatch(TsBlock probeBlock, int[] probeKeyPositions, int probePosition) {
+    if (rowCount == 0) {
+      return END_OF_CHAIN;
+    }
+    if (singleLongKey) {
+      long key = getLongKey(probeBlock.getColumn(probeKeyPositions[0]), probePosition);
+      return findLongKey(buckets[(int) XxHash64.hash(key) & bucketMask], key);
+    }
+    long hash = hash(probeBlock, probeKeyPositions, probePosition);
+    return find(
+        buckets[(int) hash & bucketMask], hash, probeBlock, probeKeyPositions, probePosition);
+  }
+
+  /**
+   * @return the next row after the given matched row which also matches the probe row, or {@link
+   *     #END_OF_CHAIN} if there is no more match.
+   */
+  public int getNextMatch(
+      int matchedRow, TsBlock probeBlock, int[] probeKeyPositions, int probePosition) {
+    if (singleLongKey) {
+      return findLongKey(nextRows[matchedRow], rowKeys[matchedRow]);
+    }
+    return find(
+        nextRows[matchedRow],
+        rowHashes[matchedRow],
+        probeBlock,
+        probeKeyPositions,
+        probePosition);
+  }
+
+  private int findLongKey(int row, long key) {
+    while (row != END_OF_CHAIN && rowKeys[row] != key) {
+      row = nextRows[row];
+    }
+    return row;
+  }
+
+  private int find(
+      int row, long hash, TsBlock probeBlock, int[] probeKeyPositions, int probePosition) {
+    while (row != END_OF_CHAIN
+        && (rowHashes[row] != hash
+            || !keyEquals(row, probeBlock, probeKeyPositions, probePosition))) {
+      row = nextRows[row];
+    }
+    return row;
+  }
+
+  private boolean keyEquals(
+      int row, TsBlock probeBlock, int[] probeKeyPositions, int probePosition) {
+    TsBlock buildBlock = getBlock(row);
+    int buildPosition = getPosition(row);
+    for (int i = 0; i < comparators.size(); i++) {
+      if (!comparators
+          .get(i)
+          .equalsTo(
+              probeBlock,
+              probeKeyPositions[i],
+              probePosition,
+              buildBlock,
+              buildKeyPositions[i],
+              buildPosition)
+          .orElse(false)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public TsBlock getBlock(int row) {
+    return blocks.get((int) (rowAddresses[row] >>> 32));
+  }
+
+  public int getPosition(int row) {
+    return (int) rowAddresses[row];
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /** Whether some rows of the build side are skipped because of NULL join key. */
+  public boolean hasNullKey() {
+    return hasNullKey;
+  }
+
+  public static boolean hasNullKey(TsBlock block, int[] keyPositions, int position) {
+    for (int keyPosition : keyPositions) {
+      if (block.getColumn(keyPosition).isNull(position)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private long hash(TsBlock block, int[] keyPositions, int position) {
+    long result = 0;
+    for (int i = 0; i < keyPositions.length; i++) {
+      result =
+          CombineHashFunction.getHash(
+              result, hashValue(keyTypes.get(i), block.getColumn(keyPositions[i]), position));
+    }
+    return result;
+  }
+
+  private static long hashValue(Type type, Column column, int position) {
+    switch (type.getTypeEnum()) {
+      case INT32:
+      case DATE:
+        return XxHash64.hash(column.getInt(position));
+      case INT64:
+      case TIMESTAMP:
+        return XxHash64.hash(column.getLong(position));
+      case FLOAT:
+        float floatValue = column.getFloat(position);
+        // 0.0 and -0.0 are equal
+        return XxHash64.hash(floatValue == 0 ? 0 : Float.floatToIntBits(floatValue));
+      case DOUBLE:
+        double doubleValue = column.getDouble(position);
+        return XxHash64.hash(doubleValue == 0 ? 0 : Double.doubleToLongBits(doubleValue));
+      case BOOLEAN:
+        return column.getBoolean(position) ? XxHash64.TRUE_XX_HASH : XxHash64.FALSE_XX_HASH;
+      case STRING:
+      case BLOB:
+      case TEXT:
+        return XxHash64.hash(column.getBinary(position).getValues());
+      default:
+        throw new UnsupportedOperationException("Unsupported data type: " + type);
+    }
+  }
+
+  private long getLongKey(Column column, int position) {
+    return intKey ? column.getInt(position) : column.getLong(position);
+  }
+
+  /** Memory retained by the table including the TsBlocks of the build side. */
+  public long getRetainedSizeInBytes() {
+    return INSTANCE_SIZE
+        + retainedBlocksSize
+        + RamUsageEstimator.sizeOf(rowAddresses)
+        + RamUsageEstimator.sizeOf(rowHashes)
+        + (rowKeys == null ? 0 : RamUsageEstimator.sizeOf(rowKeys))
+        + (buckets == null ? 0 : RamUsageEstimator.sizeOf(buckets))
+        + (nextRows == null ? 0 : RamUsageEstimator.sizeOf(nextRows));
+  }
+}
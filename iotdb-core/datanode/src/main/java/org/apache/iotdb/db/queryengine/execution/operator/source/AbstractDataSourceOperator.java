@@ -42,7 +42,9 @@ public abstract class AbstractDataSourceOperator extends AbstractSourceOperator
 
   @Override
   public void close() throws Exception {
-    // do nothing
+    if (seriesScanUtil != null) {
+      seriesScanUtil.close();
+    }
   }
 
   protected abstract List<TSDataType> getResultDataTypes();
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.queryengine.execution.operator.source;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.common.block.TsBlock;
 
@@ -31,6 +32,15 @@ public abstract class AbstractSeriesScanOperator extends AbstractDataSourceOpera
 
   private boolean finished = false;
 
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    if (retainedTsBlock != null || seriesScanUtil == null) {
+      return NOT_BLOCKED;
+    }
+    // the chunk to be read next may still be being read ahead
+    return seriesScanUtil.isBlocked();
+  }
+
   @Override
   public TsBlock next() throws Exception {
     if (retainedTsBlock != null) {
@@ -87,7 +97,9 @@ public abstract class AbstractSeriesScanOperator extends AbstractDataSourceOpera
 
       } while (System.nanoTime() - start < maxRuntime
           && !resultTsBlockBuilder.isFull()
-          && retainedTsBlock == null);
+          && retainedTsBlock == null
+          // output what we have got instead of waiting for the chunk being read ahead
+          && (resultTsBlockBuilder.isEmpty() || seriesScanUtil.isBlocked().isDone()));
 
       finished = (resultTsBlockBuilder.isEmpty() && retainedTsBlock == null && noMoreData);
 
@@ -23,6 +23,7 @@ import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
@@ -30,6 +31,7 @@ import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.AlignedReadOnlyMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.ReadOnlyMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.ChunkPrefetcher;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemAlignedPageReader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemChunkLoader;
 import org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk.MemPageReader;
@@ -39,6 +41,7 @@ import org.apache.iotdb.db.storageengine.dataregion.read.reader.common.PriorityM
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.datastructure.MemPointIterator;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.file.metadata.IChunkMetadata;
@@ -108,6 +111,8 @@ public class SeriesScanUtil implements Accountable {
   // chunk cache
   private IChunkMetadata firstChunkMetadata;
   private final PriorityQueue<IChunkMetadata> cachedChunkMetadata;
+  // reads chunks in cachedChunkMetadata ahead, null if disabled
+  private final ChunkPrefetcher chunkPrefetcher;
 
   // page cache
   private IVersionPageReader firstPageReader;
@@ -171,6 +176,7 @@ public class SeriesScanUtil implements Accountable {
         new PriorityQueue<>(
             orderUtils.comparingLong(
                 chunkMetadata -> orderUtils.getOrderTime(chunkMetadata.getStatistics())));
+    this.chunkPrefetcher = ChunkPrefetcher.create(context, cachedChunkMetadata.comparator());
 
     // init PageReader materializer
     this.seqPageReaders = new LinkedList<>();
@@ -450,6 +456,9 @@ public class SeriesScanUtil implements Accountable {
     chunkMetadataList.forEach(chunkMetadata -> chunkMetadata.setSeq(timeSeriesMetadata.isSeq()));
 
     cachedChunkMetadata.addAll(chunkMetadataList);
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.addChunks(chunkMetadataList);
+    }
   }
 
   private boolean currentChunkOverlapped() {
@@ -479,9 +488,34 @@ public class SeriesScanUtil implements Accountable {
   }
 
   public void skipCurrentChunk() {
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.onChunkConsumed(firstChunkMetadata);
+    }
     firstChunkMetadata = null;
   }
 
+  /**
+   * @return a future that is done when the chunk to be read next has been read ahead, the driver
+   *     should yield instead of reading the chunk and waiting for the disk
+   */
+  public ListenableFuture<?> isBlocked() {
+    if (chunkPrefetcher == null) {
+      return Operator.NOT_BLOCKED;
+    }
+    IChunkMetadata nextChunk =
+        firstChunkMetadata != null ? firstChunkMetadata : cachedChunkMetadata.peek();
+    ListenableFuture<?> loadingFuture =
+        nextChunk == null ? null : chunkPrefetcher.getLoadingFuture(nextChunk);
+    return loadingFuture == null ? Operator.NOT_BLOCKED : loadingFuture;
+  }
+
+  /** Stop reading chunks ahead, called when the scan is closed or aborted. */
+  public void close() {
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.close();
+    }
+  }
+
   /////////////////////////////////////////////////////////////////////////////////////////////////
   // page level methods
   /////////////////////////////////////////////////////////////////////////////////////////////////
@@ -613,6 +647,9 @@ public class SeriesScanUtil implements Accountable {
   }
 
   private void unpackOneChunkMetaData(IChunkMetadata chunkMetaData) throws IOException {
+    if (chunkPrefetcher != null) {
+      chunkPrefetcher.onChunkConsumed(chunkMetaData);
+    }
     long timestampInFileName = FileLoaderUtils.getTimestampInFileName(chunkMetaData);
 
     IChunkLoader chunkLoader = chunkMetaData.getChunkLoader();
@@ -182,6 +182,10 @@ public abstract class AbstractAggTableScanOperator extends AbstractDataSourceOpe
     AlignedFullPath alignedPath =
         constructAlignedPath(deviceEntry, measurementColumnNames, measurementSchemas, allSensors);
 
+    if (this.seriesScanUtil != null) {
+      // stop reading chunks of the previous device ahead
+      this.seriesScanUtil.close();
+    }
     this.seriesScanUtil =
         new AlignedSeriesScanUtil(
             alignedPath,
@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
+
+import org.apache.iotdb.db.queryengine.execution.operator.AbstractOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.hash.JoinDynamicFilter;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.hash.JoinHashTable;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.MAX_RESERVED_MEMORY;
+
+/**
+ * Hash join consumes all the data of the right child to build a {@link JoinHashTable} first, then
+ * probes the table with each row of the left child. Neither child needs to be sorted and the output
+ * keeps the order of the left child.
+ */
+public abstract class AbstractHashJoinOperator extends AbstractOperator {
+  // current left row has not been looked up in the hash table
+  protected static final int NOT_PROBED = -2;
+
+  protected boolean leftFinished;
+  protected final Operator leftChild;
+  protected TsBlock leftBlock;
+  protected int leftIndex;
+  protected final int[] leftJoinKeyPositions;
+  protected final int[] leftOutputSymbolIdx;
+
+  protected boolean buildFinished;
+  protected final Operator rightChild;
+  protected final int[] rightOutputSymbolIdx;
+  protected final JoinHashTable hashTable;
+  // published to the scans of left child once the hash table is built
+  private final List<JoinDynamicFilter> dynamicFilters;
+  // next matched row in hash table to output for current left row
+  protected int currentMatch = NOT_PROBED;
+
+  protected final TsBlockBuilder resultBuilder;
+
+  protected final MemoryReservationManager memoryReservationManager;
+
+  protected long usedMemory;
+
+  protected AbstractHashJoinOperator(
+      OperatorContext operatorContext,
+      Operator leftChild,
+      int[] leftJoinKeyPositions,
+      int[] leftOutputSymbolIdx,
+      Operator rightChild,
+      int[] rightJoinKeyPositions,
+      int[] rightOutputSymbolIdx,
+      List<Type> joinKeyTypes,
+      List<TSDataType> dataTypes) {
+    this(
+        operatorContext,
+        leftChild,
+        leftJoinKeyPositions,
+        leftOutputSymbolIdx,
+        rightChild,
+        rightJoinKeyPositions,
+        rightOutputSymbolIdx,
+        joinKeyTypes,
+        dataTypes,
+        Collections.emptyList());
+  }
+
+  protected AbstractHashJoinOperator(
+      OperatorContext operatorContext,
+      Operator leftChild,
+      int[] leftJoinKeyPositions,
+      int[] leftOutputSymbolIdx,
+      Operator rightChild,
+      int[] rightJoinKeyPositions,
+      int[] rightOutputSymbolIdx,
+      List<Type> joinKeyTypes,
+      List<TSDataType> dataTypes,
+      List<JoinDynamicFilter> dynamicFilters) {
+    this.operatorContext = operatorContext;
+    this.leftChild = leftChild;
+    this.leftJoinKeyPositions = leftJoinKeyPositions;
+    this.leftOutputSymbolIdx = leftOutputSymbolIdx;
+    this.rightChild = rightChild;
+    this.rightOutputSymbolIdx = rightOutputSymbolIdx;
+    this.hashTable = new JoinHashTable(rightJoinKeyPositions, joinKeyTypes);
+    this.dynamicFilters = dynamicFilters;
+
+    this.memoryReservationManager =
+        operatorContext
+            .getDriverContext()
+            .getFragmentInstanceContext()
+            .getMemoryReservationContext();
+
+    this.resultBuilder = new TsBlockBuilder(dataTypes);
+  }
+
+  /**
+   * Output the join result of current left row, starting from {@link #currentMatch}.
+   *
+   * @return true if current left row is finished, false if the result builder is full before that
+   */
+  protected abstract boolean probeCurrentRow();
+
+  /**
+   * @return true if no more result can be produced no matter what the rest of left child is
+   */
+  protected boolean canSkipLeft() {
+    return false;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    if (!buildFinished) {
+      return rightChild.isBlocked();
+    }
+    if (retainedTsBlock != null || leftBlockNotEmpty() || canSkipLeft()) {
+      return NOT_BLOCKED;
+    }
+    return leftChild.isBlocked();
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    if (retainedTsBlock != null) {
+      return true;
+    }
+    return !leftFinished && !canSkipLeft();
+  }
+
+  @Override
+  public boolean isFinished() throws Exception {
+    return !hasNext();
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    if (retainedTsBlock != null) {
+      return getResultFromRetainedTsBlock();
+    }
+
+    long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
+    long start = System.nanoTime();
+
+    if (!buildFinished) {
+      consumeRightChild(start, maxRuntime);
+      return null;
+    }
+
+    if (!leftBlockNotEmpty()) {
+      if (leftChild.hasNextWithTimer()) {
+        leftBlock = leftChild.nextWithTimer();
+        leftIndex = 0;
+        currentMatch = NOT_PROBED;
+        if (!leftBlockNotEmpty()) {
+          return null;
+        }
+      } else {
+        leftFinished = true;
+        return null;
+      }
+    }
+
+    while (!resultBuilder.isFull()) {
+      if (!probeCurrentRow()) {
+        break;
+      }
+      currentMatch = NOT_PROBED;
+      leftIndex++;
+      if (leftIndex >= leftBlock.getPositionCount()) {
+        leftBlock = null;
+        leftIndex = 0;
+        break;
+      }
+      if (System.nanoTime() - start > maxRuntime) {
+        break;
+      }
+    }
+
+    if (resultBuilder.isEmpty()) {
+      return null;
+    }
+
+    resultTsBlock =
+        resultBuilder.build(
+            new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, resultBuilder.getPositionCount()));
+    resultBuilder.reset();
+    return checkTsBlockSizeAndGetResult();
+  }
+
+  private void consumeRightChild(long start, long maxRuntime) throws Exception {
+    while (rightChild.isBlocked().isDone()) {
+      if (!rightChild.hasNextWithTimer()) {
+        long sizeBeforeBuild = hashTable.getRetainedSizeInBytes();
+        hashTable.build();
+        reserveMemory(hashTable.getRetainedSizeInBytes() - sizeBeforeBuild);
+        for (JoinDynamicFilter dynamicFilter : dynamicFilters) {
+          dynamicFilter.collect(hashTable);
+        }
+        buildFinished = true;
+        return;
+      }
+      TsBlock block = rightChild.nextWithTimer();
+      if (block != null && !block.isEmpty()) {
+        long sizeBeforeAdd = hashTable.getRetainedSizeInBytes();
+        hashTable.addBlock(block);
+        reserveMemory(hashTable.getRetainedSizeInBytes() - sizeBeforeAdd);
+      }
+      if (System.nanoTime() - start > maxRuntime) {
+        return;
+      }
+    }
+  }
+
+  private void reserveMemory(long size) {
+    if (size <= 0) {
+      return;
+    }
+    usedMemory += size;
+    memoryReservationManager.reserveMemoryCumulatively(size);
+    operatorContext.recordSpecifiedInfo(MAX_RESERVED_MEMORY, Long.toString(usedMemory));
+  }
+
+  protected boolean leftBlockNotEmpty() {
+    return leftBlock != null && leftIndex < leftBlock.getPositionCount();
+  }
+
+  /**
+   * Append the current left row joined with all the remaining matched rows.
+   *
+   * @return false if the result builder is full before all the matched rows are appended
+   */
+  protected boolean appendMatchedRows() {
+    while (currentMatch != JoinHashTable.END_OF_CHAIN) {
+      if (resultBuilder.isFull()) {
+        return false;
+      }
+      appendLeftRow();
+      TsBlock rightBlock = hashTable.getBlock(currentMatch);
+      int rightIndex = hashTable.getPosition(currentMatch);
+      for (int i = 0; i < rightOutputSymbolIdx.length; i++) {
+        appendValue(
+            rightBlock.getColumn(rightOutputSymbolIdx[i]),
+            rightIndex,
+            resultBuilder.getColumnBuilder(leftOutputSymbolIdx.length + i));
+      }
+      resultBuilder.declarePosition();
+      currentMatch =
+          hashTable.getNextMatch(currentMatch, leftBlock, leftJoinKeyPositions, leftIndex);
+    }
+    return true;
+  }
+
+  protected void appendLeftRow() {
+    for (int i = 0; i < leftOutputSymbolIdx.length; i++) {
+      appendValue(
+          leftBlock.getColumn(leftOutputSymbolIdx[i]), leftIndex, resultBuilder.getColumnBuilder(i));
+    }
+  }
+
+  private static void appendValue(Column column, int index, ColumnBuilder columnBuilder) {
+    if (column.isNull(index)) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.write(column, index);
+    }
+  }
+
+  protected boolean currentLeftHasNullValue() {
+    return JoinHashTable.hasNullKey(leftBlock, leftJoinKeyPositions, leftIndex);
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (leftChild != null) {
+      leftChild.close();
+    }
+    if (rightChild != null) {
+      rightChild.close();
+    }
+    if (usedMemory > 0) {
+      memoryReservationManager.releaseMemoryCumulatively(usedMemory);
+      usedMemory = 0;
+    }
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    return Math.max(
+        Math.max(
+            leftChild.calculateMaxPeekMemoryWithCounter(),
+            rightChild.calculateMaxPeekMemoryWithCounter()),
+        calculateRetainedSizeAfterCallingNext() + calculateMaxReturnSize());
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return maxReturnSize;
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return leftChild.calculateMaxReturnSize()
+        + leftChild.calculateRetainedSizeAfterCallingNext()
+        + rightChild.calculateMaxReturnSize()
+        + rightChild.calculateRetainedSizeAfterCallingNext()
+        + maxReturnSize;
+  }
+}
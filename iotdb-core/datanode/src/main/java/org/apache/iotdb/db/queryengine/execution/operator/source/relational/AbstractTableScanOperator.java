@@ -22,6 +22,7 @@ package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
 import org.apache.iotdb.commons.path.AlignedFullPath;
 import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.hash.JoinDynamicFilter;
 import org.apache.iotdb.db.queryengine.execution.operator.source.AbstractSeriesScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.AlignedSeriesScanUtil;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
@@ -32,16 +33,20 @@ import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.storageengine.dataregion.read.IQueryDataSource;
 import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
 import org.apache.tsfile.common.conf.TSFileDescriptor;
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.Pair;
 import org.apache.tsfile.utils.RamUsageEstimator;
 import org.apache.tsfile.write.schema.IMeasurementSchema;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -57,6 +62,7 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
       RamUsageEstimator.shallowSizeOfInstance(TableScanOperator.class);
 
   public static final String CURRENT_DEVICE_INDEX_STRING = "CurrentDeviceIndex";
+  private static final String SKIPPED_DEVICE_NUMBER = "SkippedDeviceNumberByDynamicFilter";
 
   public static final LongColumn TIME_COLUMN_TEMPLATE =
       new LongColumn(1, Optional.empty(), new long[] {0});
@@ -90,6 +96,14 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
 
   private int currentDeviceIndex;
 
+  // pairs of the index in columnSchemas and the dynamic filter on that column
+  private final List<Pair<Integer, JoinDynamicFilter>> dynamicFilters = new ArrayList<>();
+  // dynamic filters on time column whose range has not been applied to seriesScanOptions
+  private final List<JoinDynamicFilter> pendingTimeFilters = new ArrayList<>();
+  // whether the current device has been checked by dynamic filters
+  private boolean currentDeviceChecked = false;
+  private int skippedDeviceCount = 0;
+
   public AbstractTableScanOperator(AbstractTableScanOperatorParameter parameter) {
     this.sourceId = parameter.sourceId;
     this.operatorContext = parameter.context;
@@ -127,6 +141,13 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
       return getResultFromRetainedTsBlock();
     }
 
+    if (!currentDeviceChecked) {
+      currentDeviceChecked = true;
+      if (skipDevicesByDynamicFilters()) {
+        return null;
+      }
+    }
+
     try {
 
       // start stopwatch
@@ -157,7 +178,9 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
         break;
       } while (System.nanoTime() - start < maxRuntime
           && !measurementDataBuilder.isFull()
-          && measurementDataBlock == null);
+          && measurementDataBlock == null
+          // output what we have got instead of waiting for the chunk being read ahead
+          && (measurementDataBuilder.isEmpty() || seriesScanUtil.isBlocked().isDone()));
 
       // current device' data is consumed up
       if (measurementDataBuilder.isEmpty()
@@ -253,7 +276,95 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
     this.measurementDataBuilder.setMaxTsBlockLineNumber(this.maxTsBlockLineNum);
   }
 
+  /**
+   * Add a dynamic filter from the hash join above this scan, the column must be a TAG, ATTRIBUTE or
+   * TIME column. Devices whose TAG or ATTRIBUTE value can't be matched are skipped, and the time
+   * range of build side is added to the time filter of the following devices.
+   */
+  public void addDynamicFilter(int columnIndex, JoinDynamicFilter dynamicFilter) {
+    switch (columnSchemas.get(columnIndex).getColumnCategory()) {
+      case TAG:
+      case ATTRIBUTE:
+        dynamicFilters.add(new Pair<>(columnIndex, dynamicFilter));
+        break;
+      case TIME:
+        dynamicFilters.add(new Pair<>(columnIndex, dynamicFilter));
+        pendingTimeFilters.add(dynamicFilter);
+        break;
+      default:
+        throw new IllegalArgumentException(
+            "Dynamic filter is not supported on column " + columnSchemas.get(columnIndex));
+    }
+  }
+
+  /**
+   * @return true if the current device is skipped
+   */
+  private boolean skipDevicesByDynamicFilters() {
+    if (dynamicFilters.isEmpty()) {
+      return false;
+    }
+    applyTimeRangeOfDynamicFilters();
+    int deviceIndex = currentDeviceIndex;
+    while (deviceIndex < deviceCount && !mayMatchDynamicFilters(deviceEntries.get(deviceIndex))) {
+      deviceIndex++;
+    }
+    if (deviceIndex == currentDeviceIndex) {
+      return false;
+    }
+    skippedDeviceCount += deviceIndex - currentDeviceIndex;
+    operatorContext.recordSpecifiedInfo(
+        SKIPPED_DEVICE_NUMBER, Integer.toString(skippedDeviceCount));
+    currentDeviceIndex = deviceIndex;
+    prepareForNextDevice();
+    return true;
+  }
+
+  private void applyTimeRangeOfDynamicFilters() {
+    Iterator<JoinDynamicFilter> iterator = pendingTimeFilters.iterator();
+    while (iterator.hasNext()) {
+      JoinDynamicFilter dynamicFilter = iterator.next();
+      if (dynamicFilter.isReady()) {
+        if (dynamicFilter.hasRange()) {
+          seriesScanOptions.intersectTimeRange(dynamicFilter.getMin(), dynamicFilter.getMax());
+        }
+        iterator.remove();
+      }
+    }
+  }
+
+  private boolean mayMatchDynamicFilters(DeviceEntry deviceEntry) {
+    for (Pair<Integer, JoinDynamicFilter> pair : dynamicFilters) {
+      JoinDynamicFilter dynamicFilter = pair.right;
+      if (!dynamicFilter.isReady()) {
+        continue;
+      }
+      int columnIndex = pair.left;
+      switch (columnSchemas.get(columnIndex).getColumnCategory()) {
+        case TAG:
+          String tagValue = getNthIdColumnValue(deviceEntry, columnsIndexArray[columnIndex]);
+          if (!dynamicFilter.mightContain(
+              tagValue == null ? null : new Binary(tagValue, TSFileConfig.STRING_CHARSET))) {
+            return false;
+          }
+          break;
+        case ATTRIBUTE:
+          if (!dynamicFilter.mightContain(
+              deviceEntry.getAttributeColumnValues()[columnsIndexArray[columnIndex]])) {
+            return false;
+          }
+          break;
+        default:
+          if (dynamicFilter.isEmpty()) {
+            return false;
+          }
+      }
+    }
+    return true;
+  }
+
   private void prepareForNextDevice() {
+    currentDeviceChecked = false;
     if (currentDeviceIndex < deviceCount) {
       // construct AlignedSeriesScanUtil for next device
       constructAlignedSeriesScanUtil();
@@ -280,6 +391,10 @@ public abstract class AbstractTableScanOperator extends AbstractSeriesScanOperat
     DeviceEntry deviceEntry = this.deviceEntries.get(this.currentDeviceIndex);
     AlignedFullPath alignedPath =
         constructAlignedPath(deviceEntry, measurementColumnNames, measurementSchemas, allSensors);
+    if (this.seriesScanUtil != null) {
+      // stop reading chunks of the previous device ahead
+      this.seriesScanUtil.close();
+    }
     this.seriesScanUtil =
         new AlignedSeriesScanUtil(
             alignedPath,
@@ -29,6 +29,7 @@ import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.read.common.block.TsBlock;
 import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.OptionalInt;
 
@@ -40,6 +41,8 @@ public class GroupedAggregator {
   private final GroupedAccumulator accumulator;
   private final AggregationNode.Step step;
   private final TSDataType outputType;
+  // type of the result of evaluateIntermediate, used to spill the accumulator
+  private final TSDataType intermediateType;
   private final int[] inputChannels;
   private final OptionalInt maskChannel;
 
@@ -49,9 +52,20 @@ public class GroupedAggregator {
       TSDataType outputType,
       List<Integer> inputChannels,
       OptionalInt maskChannel) {
+    this(accumulator, step, outputType, outputType, inputChannels, maskChannel);
+  }
+
+  public GroupedAggregator(
+      GroupedAccumulator accumulator,
+      AggregationNode.Step step,
+      TSDataType outputType,
+      TSDataType intermediateType,
+      List<Integer> inputChannels,
+      OptionalInt maskChannel) {
     this.accumulator = requireNonNull(accumulator, "accumulator is null");
     this.step = requireNonNull(step, "step is null");
     this.outputType = requireNonNull(outputType, "intermediateType is null");
+    this.intermediateType = requireNonNull(intermediateType, "intermediateType is null");
     this.inputChannels = Ints.toArray(requireNonNull(inputChannels, "inputChannels is null"));
     this.maskChannel = requireNonNull(maskChannel, "maskChannel is null");
     checkArgument(
@@ -93,6 +107,30 @@ public class GroupedAggregator {
     }
   }
 
+  /** Write the intermediate result of the group no matter what the step is, used by spilling. */
+  public void evaluateIntermediate(int groupId, ColumnBuilder columnBuilder) {
+    accumulator.evaluateIntermediate(groupId, columnBuilder);
+  }
+
+  public TSDataType getIntermediateType() {
+    return intermediateType;
+  }
+
+  /**
+   * Create the aggregator merging the intermediate results written by {@link
+   * #evaluateIntermediate}. It shares the accumulator with this aggregator, so they must not be
+   * used at the same time.
+   */
+  public GroupedAggregator createUnspillAggregator(int intermediateChannel) {
+    return new GroupedAggregator(
+        accumulator,
+        step.isOutputPartial() ? AggregationNode.Step.INTERMEDIATE : AggregationNode.Step.FINAL,
+        outputType,
+        intermediateType,
+        Collections.singletonList(intermediateChannel),
+        OptionalInt.empty());
+  }
+
   public void prepareFinal() {
     accumulator.prepareFinal();
   }
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder.HashAggregationBuilder;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder.InMemoryHashAggregationBuilder;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder.SpillableHashAggregationBuilder;
 import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
 
@@ -37,6 +38,7 @@ import org.apache.tsfile.utils.RamUsageEstimator;
 import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
 import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.CURRENT_USED_MEMORY;
@@ -58,7 +60,9 @@ public class HashAggregationOperator extends AbstractOperator {
   private final long maxPartialMemory;
 
   private final boolean spillEnabled;
-  private final long unspillMemoryLimit;
+  // memory the groups can take before spilling to disk
+  private final long spillBufferSize;
+  private final String spillFolderPath;
 
   private HashAggregationBuilder aggregationBuilder;
 
@@ -78,7 +82,35 @@ public class HashAggregationOperator extends AbstractOperator {
       int expectedGroups,
       long maxPartialMemory,
       boolean spillEnabled,
-      long unspillMemoryLimit) {
+      long spillBufferSize) {
+    this(
+        operatorContext,
+        child,
+        groupByTypes,
+        groupByChannels,
+        aggregators,
+        step,
+        expectedGroups,
+        maxPartialMemory,
+        spillEnabled,
+        spillBufferSize,
+        null);
+  }
+
+  public HashAggregationOperator(
+      OperatorContext operatorContext,
+      Operator child,
+      List<Type> groupByTypes,
+      List<Integer> groupByChannels,
+      List<GroupedAggregator> aggregators,
+      AggregationNode.Step step,
+      int expectedGroups,
+      long maxPartialMemory,
+      boolean spillEnabled,
+      long spillBufferSize,
+      String spillFolderPath) {
+    checkArgument(
+        !spillEnabled || spillFolderPath != null, "spillFolderPath is required to spill");
     super.operatorContext = operatorContext;
     this.child = child;
     this.groupByTypes = ImmutableList.copyOf(groupByTypes);
@@ -88,7 +120,8 @@ public class HashAggregationOperator extends AbstractOperator {
     this.expectedGroups = expectedGroups;
     this.maxPartialMemory = maxPartialMemory;
     this.spillEnabled = spillEnabled;
-    this.unspillMemoryLimit = unspillMemoryLimit;
+    this.spillBufferSize = spillBufferSize;
+    this.spillFolderPath = spillFolderPath;
     this.memoryReservationManager =
         operatorContext
             .getDriverContext()
@@ -114,7 +147,16 @@ public class HashAggregationOperator extends AbstractOperator {
 
     if (aggregationBuilder == null) {
       if (spillEnabled) {
-        throw new UnsupportedOperationException();
+        aggregationBuilder =
+            new SpillableHashAggregationBuilder(
+                aggregators,
+                step,
+                expectedGroups,
+                groupByTypes,
+                groupByChannels,
+                operatorContext,
+                spillBufferSize,
+                spillFolderPath);
       } else {
         aggregationBuilder =
             new InMemoryHashAggregationBuilder(
@@ -148,6 +190,10 @@ public class HashAggregationOperator extends AbstractOperator {
     } else {
       // evaluate output
       resultTsBlock = getOutput();
+      if (resultTsBlock == null) {
+        // the spilled partition being merged is split into sub-partitions
+        return null;
+      }
       return checkTsBlockSizeAndGetResult();
     }
   }
@@ -171,7 +217,12 @@ public class HashAggregationOperator extends AbstractOperator {
 
     if (aggregationBuilder.finished()) {
       closeAggregationBuilder();
+      memoryReservationManager.releaseMemoryCumulatively(previousRetainedSize);
+      previousRetainedSize = 0;
       finished = true;
+    } else {
+      // merging spilled partitions allocates memory while building the result
+      updateOccupiedMemorySize();
     }
     return result;
   }
@@ -195,6 +246,8 @@ public class HashAggregationOperator extends AbstractOperator {
   @Override
   public void close() throws Exception {
     child.close();
+    // release the spilled files if the query is aborted before the result is fully built
+    closeAggregationBuilder();
     aggregators.forEach(GroupedAggregator::close);
   }
 
@@ -37,7 +37,6 @@ import org.apache.tsfile.read.common.block.TsBlockBuilder;
 import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
 import org.apache.tsfile.read.common.type.Type;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -193,10 +192,22 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
     return getGroupCount() * Integer.BYTES;
   }
 
-  public void setSpillOutput() {
-    for (GroupedAggregator groupedAggregator : groupedAggregators) {
-      // groupedAggregator.setSpillOutput();
+  /**
+   * Append the group keys and the intermediate results of aggregators of the group into the
+   * builder, whose types are {@link #buildSpillTypes()}.
+   */
+  public void appendSpillValuesTo(int groupId, TsBlockBuilder spillBuilder) {
+    groupByHash.appendValuesTo(groupId, spillBuilder);
+    for (int i = 0; i < groupedAggregators.size(); i++) {
+      groupedAggregators
+          .get(i)
+          .evaluateIntermediate(groupId, spillBuilder.getColumnBuilder(groupByChannels.length + i));
     }
+    spillBuilder.declarePosition();
+  }
+
+  public long getRawHash(int groupId) {
+    return groupByHash.getRawHash(groupId);
   }
 
   public int getKeyChannels() {
@@ -221,12 +232,11 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
     return !groupIds.hasNext();
   }
 
-  public List<Type> buildSpillTypes() {
-    ArrayList<Type> types = new ArrayList<>(groupByOutputTypes);
-    for (GroupedAggregator groupedAggregator : groupedAggregators) {
-      // types.add(groupedAggregator.getSpillType());
-    }
-    return types;
+  public List<TSDataType> buildSpillTypes() {
+    return Stream.concat(
+            groupByOutputTypes.stream().map(InternalTypeManager::getTSDataType),
+            groupedAggregators.stream().map(GroupedAggregator::getIntermediateType))
+        .collect(Collectors.toList());
   }
 
   public int getCapacity() {
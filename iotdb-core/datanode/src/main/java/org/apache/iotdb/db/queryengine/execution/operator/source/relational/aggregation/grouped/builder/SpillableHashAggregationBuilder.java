@@ -0,0 +1,479 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder;
+
+import org.apache.iotdb.commons.exception.IoTDBRuntimeException;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAggregator;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.tsfile.read.common.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
+
+/**
+ * Hash aggregation which writes the groups to disk when they take more memory than the buffer size.
+ *
+ * <p>Each spill outputs all the groups in memory with the intermediate results of aggregators,
+ * partitioned by the hash of the group keys, and appends them to the file of each partition. After
+ * all the input is consumed, the partitions are merged one by one. The same group always falls into
+ * the same partition, hence the result of each partition is final. If the groups of a partition
+ * take more memory than the buffer size when merging, the partition is split into sub-partitions by
+ * the next bits of the hash in the same way, so that the memory used by merging is bounded by the
+ * buffer size as well.
+ */
+public class SpillableHashAggregationBuilder implements HashAggregationBuilder {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(SpillableHashAggregationBuilder.class);
+
+  private static final String FILE_SUFFIX = ".aggTemp";
+  private static final int PARTITION_BITS = 4;
+  private static final int PARTITION_COUNT = 1 << PARTITION_BITS;
+  // the high 32 bits of the hash are used to choose partitions, PARTITION_BITS bits per depth
+  private static final int MAX_PARTITION_DEPTH = Integer.SIZE / PARTITION_BITS - 1;
+
+  private static final String SPILL_COUNT = "SpillCount";
+  private static final String SPILLED_DATA_SIZE = "SpilledDataSize";
+  private static final String REPARTITION_COUNT = "RepartitionCount";
+
+  private final InMemoryHashAggregationBuilder inMemoryBuilder;
+  private final long bufferSize;
+
+  private final List<Type> groupByTypes;
+  private final List<Integer> unspillGroupByChannels;
+  private final List<GroupedAggregator> unspillAggregators;
+  private final AggregationNode.Step unspillStep;
+  private final int expectedGroups;
+  private final OperatorContext operatorContext;
+
+  private final String folderPath;
+  private final String filePrefix;
+  private final List<TSDataType> spillTypes;
+  private final TsBlockSerde serde = new TsBlockSerde();
+
+  // null before the first spill
+  private PartitionWriter spillWriter;
+  private int spillCount;
+  private long spilledDataSize;
+  private int repartitionCount;
+
+  // spilled partitions not merged yet, the sub-partitions of a split partition are merged first
+  private final Deque<SpilledPartition> pendingPartitions = new ArrayDeque<>();
+  // null if the merging has not started
+  private InMemoryHashAggregationBuilder mergingBuilder;
+  // whether the merging builder holds the merged groups of a partition
+  private boolean partitionMerged;
+
+  public SpillableHashAggregationBuilder(
+      List<GroupedAggregator> groupedAggregators,
+      AggregationNode.Step step,
+      int expectedGroups,
+      List<Type> groupByTypes,
+      List<Integer> groupByChannels,
+      OperatorContext operatorContext,
+      long bufferSize,
+      String folderPath) {
+    this.inMemoryBuilder =
+        new InMemoryHashAggregationBuilder(
+            groupedAggregators,
+            step,
+            expectedGroups,
+            groupByTypes,
+            groupByChannels,
+            Optional.empty(),
+            operatorContext,
+            Long.MAX_VALUE,
+            NOOP);
+    this.bufferSize = bufferSize;
+    this.groupByTypes = ImmutableList.copyOf(groupByTypes);
+    // spilled rows consist of group keys followed by the intermediate result of each aggregator
+    this.unspillGroupByChannels =
+        IntStream.range(0, groupByTypes.size()).boxed().collect(Collectors.toList());
+    ImmutableList.Builder<GroupedAggregator> unspillAggregatorsBuilder = ImmutableList.builder();
+    for (int i = 0; i < groupedAggregators.size(); i++) {
+      unspillAggregatorsBuilder.add(
+          groupedAggregators.get(i).createUnspillAggregator(groupByTypes.size() + i));
+    }
+    this.unspillAggregators = unspillAggregatorsBuilder.build();
+    this.unspillStep =
+        step.isOutputPartial() ? AggregationNode.Step.INTERMEDIATE : AggregationNode.Step.FINAL;
+    this.expectedGroups = expectedGroups;
+    this.operatorContext = operatorContext;
+    this.folderPath = folderPath;
+    this.filePrefix = folderPath + operatorContext.getOperatorId() + "-agg";
+    this.spillTypes = inMemoryBuilder.buildSpillTypes();
+  }
+
+  @Override
+  public void processBlock(TsBlock block) {
+    inMemoryBuilder.processBlock(block);
+    if (inMemoryBuilder.getEstimatedSize() > bufferSize && inMemoryBuilder.getGroupCount() > 0) {
+      spillToDisk();
+    }
+  }
+
+  private void spillToDisk() {
+    if (spillWriter == null) {
+      createSpillFolder();
+      spillWriter = new PartitionWriter(filePrefix, 0);
+    }
+    spillWriter.spill(inMemoryBuilder);
+
+    spillCount++;
+    operatorContext.recordSpecifiedInfo(SPILL_COUNT, Integer.toString(spillCount));
+    operatorContext.recordSpecifiedInfo(SPILLED_DATA_SIZE, Long.toString(spilledDataSize));
+  }
+
+  private void createSpillFolder() {
+    try {
+      Files.createDirectories(Paths.get(folderPath));
+    } catch (IOException e) {
+      throw new IoTDBRuntimeException(
+          "Create folder error: " + folderPath,
+          e,
+          TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    }
+  }
+
+  private static int getPartition(long rawHash, int depth) {
+    // low bits of the hash decide the bucket of the group in the hash table, use the high bits
+    // here to avoid all the groups of one partition falling into the same buckets when merging
+    return (int) (rawHash >>> (Integer.SIZE + depth * PARTITION_BITS)) & (PARTITION_COUNT - 1);
+  }
+
+  @Override
+  public TsBlock buildResult() {
+    if (spillWriter == null) {
+      return inMemoryBuilder.buildResult();
+    }
+    if (mergingBuilder == null) {
+      // groups left in memory are spilled as well, so that every group is merged from disk
+      if (inMemoryBuilder.getGroupCount() > 0) {
+        spillToDisk();
+      }
+      spillWriter.finish(pendingPartitions);
+      mergingBuilder =
+          new InMemoryHashAggregationBuilder(
+              unspillAggregators,
+              unspillStep,
+              expectedGroups,
+              groupByTypes,
+              unspillGroupByChannels,
+              Optional.empty(),
+              operatorContext,
+              Long.MAX_VALUE,
+              NOOP);
+    }
+    if (partitionMerged && mergingBuilder.finished()) {
+      partitionMerged = false;
+    }
+    // merge at most one partition each time to return in time
+    if (!partitionMerged && !pendingPartitions.isEmpty()) {
+      partitionMerged = mergePartition(pendingPartitions.pop());
+    }
+    return partitionMerged ? mergingBuilder.buildResult() : null;
+  }
+
+  /**
+   * Merge the groups of the partition into the merging builder.
+   *
+   * @return false if the partition doesn't fit in the buffer and is split into sub-partitions
+   */
+  private boolean mergePartition(SpilledPartition partition) {
+    mergingBuilder.reset();
+    PartitionWriter subPartitionWriter = null;
+    boolean repartitioned = false;
+    try (FileChannel channel = FileChannel.open(partition.filePath, StandardOpenOption.READ)) {
+      ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+      while (readFully(channel, length)) {
+        length.flip();
+        ByteBuffer tsBlockBuffer = ByteBuffer.allocate(length.getInt());
+        length.clear();
+        if (!readFully(channel, tsBlockBuffer)) {
+          throw new IOException("Unexpected end of file");
+        }
+        tsBlockBuffer.flip();
+        mergingBuilder.processBlock(serde.deserialize(tsBlockBuffer));
+        if (mergingBuilder.getEstimatedSize() > bufferSize
+            && mergingBuilder.getGroupCount() > 0
+            && partition.depth < MAX_PARTITION_DEPTH) {
+          if (subPartitionWriter == null) {
+            subPartitionWriter =
+                new PartitionWriter(getFilePrefix(partition.filePath), partition.depth + 1);
+          }
+          subPartitionWriter.spill(mergingBuilder);
+        }
+      }
+      if (subPartitionWriter != null) {
+        // merged groups left in memory are written to the sub-partitions as well
+        if (mergingBuilder.getGroupCount() > 0) {
+          subPartitionWriter.spill(mergingBuilder);
+        }
+        subPartitionWriter.finish(pendingPartitions);
+        repartitioned = true;
+        repartitionCount++;
+        operatorContext.recordSpecifiedInfo(REPARTITION_COUNT, Integer.toString(repartitionCount));
+        operatorContext.recordSpecifiedInfo(SPILLED_DATA_SIZE, Long.toString(spilledDataSize));
+      }
+    } catch (IOException e) {
+      throw new IoTDBRuntimeException(
+          "Can't read spilled aggregation data from file: " + partition.filePath,
+          e,
+          TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    } finally {
+      deleteFile(partition.filePath);
+      if (subPartitionWriter != null && !repartitioned) {
+        subPartitionWriter.close();
+      }
+    }
+    if (!repartitioned && mergingBuilder.getEstimatedSize() > bufferSize) {
+      LOGGER.warn(
+          "Groups of spilled aggregation file {} take {} bytes, which can't be split anymore",
+          partition.filePath,
+          mergingBuilder.getEstimatedSize());
+    }
+    return !repartitioned;
+  }
+
+  private static String getFilePrefix(Path filePath) {
+    String fileName = filePath.toString();
+    return fileName.substring(0, fileName.length() - FILE_SUFFIX.length());
+  }
+
+  /**
+   * @return false if the end of file is reached before reading anything
+   */
+  private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) == -1) {
+        if (buffer.position() == 0) {
+          return false;
+        }
+        throw new IOException("Unexpected end of file");
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean finished() {
+    if (spillWriter == null) {
+      return inMemoryBuilder.finished();
+    }
+    return mergingBuilder != null
+        && (!partitionMerged || mergingBuilder.finished())
+        && pendingPartitions.isEmpty();
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return mergingBuilder == null
+        ? inMemoryBuilder.getEstimatedSize()
+        : mergingBuilder.getEstimatedSize();
+  }
+
+  @Override
+  public boolean isFull() {
+    return false;
+  }
+
+  @Override
+  public void updateMemory() {
+    // memory is bounded by spilling
+  }
+
+  @Override
+  public void reset() {
+    throw new UnsupportedOperationException("SpillableHashAggregationBuilder can't be reset");
+  }
+
+  @Override
+  public void close() {
+    if (spillWriter != null) {
+      spillWriter.close();
+    }
+    for (SpilledPartition partition : pendingPartitions) {
+      deleteFile(partition.filePath);
+    }
+    pendingPartitions.clear();
+  }
+
+  private static void deleteFile(Path filePath) {
+    try {
+      Files.deleteIfExists(filePath);
+    } catch (IOException e) {
+      LOGGER.warn("Fail to delete spilled file {}", filePath, e);
+    }
+  }
+
+  private static class SpilledPartition {
+    private final Path filePath;
+    private final int depth;
+
+    private SpilledPartition(Path filePath, int depth) {
+      this.filePath = filePath;
+      this.depth = depth;
+    }
+  }
+
+  /** Writes groups into the files of {@link #PARTITION_COUNT} partitions at the given depth. */
+  private class PartitionWriter {
+    private final String prefix;
+    private final int depth;
+    private final FileChannel[] channels = new FileChannel[PARTITION_COUNT];
+    private final TsBlockBuilder[] builders = new TsBlockBuilder[PARTITION_COUNT];
+    private final long[] rowCounts = new long[PARTITION_COUNT];
+
+    private PartitionWriter(String prefix, int depth) {
+      this.prefix = prefix;
+      this.depth = depth;
+      try {
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+          channels[partition] =
+              FileChannel.open(
+                  getFilePath(partition),
+                  StandardOpenOption.WRITE,
+                  StandardOpenOption.TRUNCATE_EXISTING,
+                  StandardOpenOption.CREATE);
+          builders[partition] = new TsBlockBuilder(spillTypes);
+        }
+      } catch (IOException e) {
+        close();
+        throw new IoTDBRuntimeException(
+            "Create file error: " + prefix + "-*" + FILE_SUFFIX,
+            e,
+            TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      }
+    }
+
+    private Path getFilePath(int partition) {
+      return Paths.get(prefix + "-" + String.format("%02d", partition) + FILE_SUFFIX);
+    }
+
+    /** Write all the groups of the builder to the partitions and reset the builder. */
+    private void spill(InMemoryHashAggregationBuilder builder) {
+      int groupCount = (int) builder.getGroupCount();
+      for (int groupId = 0; groupId < groupCount; groupId++) {
+        int partition = getPartition(builder.getRawHash(groupId), depth);
+        TsBlockBuilder partitionBuilder = builders[partition];
+        builder.appendSpillValuesTo(groupId, partitionBuilder);
+        rowCounts[partition]++;
+        if (partitionBuilder.isFull()) {
+          write(partition);
+        }
+      }
+      for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+        if (!builders[partition].isEmpty()) {
+          write(partition);
+        }
+      }
+      builder.reset();
+    }
+
+    private void write(int partition) {
+      TsBlockBuilder partitionBuilder = builders[partition];
+      TsBlock tsBlock =
+          partitionBuilder.build(
+              new RunLengthEncodedColumn(
+                  TIME_COLUMN_TEMPLATE, partitionBuilder.getPositionCount()));
+      partitionBuilder.reset();
+      try {
+        ByteBuffer tsBlockBuffer = serde.serialize(tsBlock);
+        int tsBlockSize = tsBlockBuffer.remaining();
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        length.putInt(tsBlockSize);
+        length.flip();
+        writeFully(channels[partition], length);
+        writeFully(channels[partition], tsBlockBuffer);
+        spilledDataSize += Integer.BYTES + tsBlockSize;
+      } catch (IOException e) {
+        throw new IoTDBRuntimeException(
+            "Can't write spilled aggregation data to file: " + getFilePath(partition),
+            e,
+            TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+      }
+    }
+
+    /**
+     * Close the files and push the non-empty partitions to the front of the pending partitions,
+     * keeping their order. Empty partitions are deleted.
+     */
+    private void finish(Deque<SpilledPartition> pending) {
+      closeChannels();
+      for (int partition = PARTITION_COUNT - 1; partition >= 0; partition--) {
+        if (rowCounts[partition] == 0) {
+          deleteFile(getFilePath(partition));
+        } else {
+          pending.push(new SpilledPartition(getFilePath(partition), depth));
+        }
+      }
+    }
+
+    /** Close the files and delete them. */
+    private void close() {
+      closeChannels();
+      for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+        deleteFile(getFilePath(partition));
+      }
+    }
+
+    private void closeChannels() {
+      for (FileChannel channel : channels) {
+        try {
+          if (channel != null && channel.isOpen()) {
+            channel.close();
+          }
+        } catch (IOException e) {
+          LOGGER.warn("Fail to close fileChannel", e);
+        }
+      }
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+}
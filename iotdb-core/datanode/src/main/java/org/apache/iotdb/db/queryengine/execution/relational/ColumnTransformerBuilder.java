@@ -90,6 +90,7 @@ import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.NullColumn
 import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.TimeColumnTransformer;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.multi.AbstractGreatestLeastColumnTransformer;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.multi.CoalesceColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.multi.FusedArithmeticColumnTransformer;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.multi.InBinaryMultiColumnTransformer;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.multi.InBooleanMultiColumnTransformer;
 import org.apache.iotdb.db.queryengine.transformation.dag.column.multi.InDoubleMultiColumnTransformer;
@@ -265,6 +266,16 @@ public class ColumnTransformerBuilder
         ColumnTransformer left = process(node.getLeft(), context);
         ColumnTransformer right = process(node.getRight(), context);
         ColumnTransformer child;
+        if (IoTDBDescriptor.getInstance().getConfig().isEnableFusedArithmeticEvaluation()
+            && FusedArithmeticColumnTransformer.canFuse(left, right)) {
+          context.cache.put(
+              node,
+              FusedArithmeticColumnTransformer.binary(
+                  FusedArithmeticColumnTransformer.Operator.valueOf(node.getOperator().name()),
+                  left,
+                  right));
+          return getColumnTransformerFromCacheAndAddReferenceCount(node, context);
+        }
         switch (node.getOperator()) {
           case ADD:
             child = ArithmeticColumnTransformerApi.getAdditionTransformer(left, right, zoneId);
@@ -306,7 +317,11 @@ public class ColumnTransformerBuilder
             ColumnTransformer childColumnTransformer = process(node.getValue(), context);
             context.cache.put(
                 node,
-                ArithmeticColumnTransformerApi.getNegationTransformer(childColumnTransformer));
+                IoTDBDescriptor.getInstance().getConfig().isEnableFusedArithmeticEvaluation()
+                        && FusedArithmeticColumnTransformer.canFuse(childColumnTransformer)
+                    ? FusedArithmeticColumnTransformer.negation(childColumnTransformer)
+                    : ArithmeticColumnTransformerApi.getNegationTransformer(
+                        childColumnTransformer));
           }
         }
         return getColumnTransformerFromCacheAndAddReferenceCount(node, context);
@@ -42,6 +42,7 @@ import org.apache.iotdb.db.queryengine.execution.schedule.queue.IndexedBlockingR
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.L1PriorityQueue;
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.DriverTaskHandle;
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.MultilevelPriorityQueue;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.WorkStealingMultilevelPriorityQueue;
 import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
 import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskStatus;
 import org.apache.iotdb.db.storageengine.rescon.quotas.DataNodeThrottleQuotaManager;
@@ -97,7 +98,11 @@ public class DriverScheduler implements IDriverScheduler, IService {
 
   private DriverScheduler() {
     this.readyQueue =
-        new MultilevelPriorityQueue(LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask());
+        config.isEnableWorkStealingDriverScheduler()
+            ? new WorkStealingMultilevelPriorityQueue(
+                LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask(), WORKER_THREAD_NUM)
+            : new MultilevelPriorityQueue(
+                LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask());
     this.timeoutQueue =
         new L1PriorityQueue<>(
             QUERY_MAX_CAPACITY, new DriverTask.TimeoutComparator(), new DriverTask());
@@ -432,6 +437,23 @@ public class DriverScheduler implements IDriverScheduler, IService {
     return queryMap.size();
   }
 
+  /**
+   * @return the number of workers with their own ready queues, 0 if all workers share one queue
+   */
+  public int getWorkStealingWorkerNum() {
+    return readyQueue instanceof WorkStealingMultilevelPriorityQueue
+        ? ((WorkStealingMultilevelPriorityQueue) readyQueue).getWorkerNum()
+        : 0;
+  }
+
+  public long getWorkerReadyQueueTaskCount(int worker) {
+    return ((WorkStealingMultilevelPriorityQueue) readyQueue).getWorkerQueueSize(worker);
+  }
+
+  public long getWorkerStealCount(int worker) {
+    return ((WorkStealingMultilevelPriorityQueue) readyQueue).getWorkerStealCount(worker);
+  }
+
   @TestOnly
   public IndexedBlockingQueue<DriverTask> getReadyQueue() {
     return readyQueue;
@@ -67,6 +67,9 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
    */
   private final double levelTimeMultiplier;
 
+  // the queue this is a shard of, null if this is not a shard
+  private final MultilevelPriorityQueue queue;
+
   public MultilevelPriorityQueue(
       double levelTimeMultiplier, int maxCapacity, DriverTask queryHolder) {
     super(maxCapacity, queryHolder);
@@ -81,6 +84,26 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
       levelWaitingSplits[level] = new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
     }
     this.levelTimeMultiplier = levelTimeMultiplier;
+    this.queue = null;
+  }
+
+  /**
+   * Create a shard of the queue, which shares the scheduled time of each level with the queue, so
+   * that the levels are chosen in the same proportion in all the shards. The size of the shard is
+   * not checked, it's left to the queue.
+   */
+  MultilevelPriorityQueue(MultilevelPriorityQueue queue) {
+    super(Integer.MAX_VALUE, queue.queryHolder);
+    this.levelScheduledTime = queue.levelScheduledTime;
+    this.levelMinScheduledTime = queue.levelMinScheduledTime;
+    this.levelWaitingSplits = new PriorityQueue[LEVEL_THRESHOLD_SECONDS.length];
+    this.highestPriorityLevelQueue =
+        new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+    for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
+      levelWaitingSplits[level] = new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+    }
+    this.levelTimeMultiplier = queue.levelTimeMultiplier;
+    this.queue = queue;
   }
 
   // region overridden functions
@@ -106,7 +129,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
     }
 
     int level = task.getPriority().getLevel();
-    if (levelWaitingSplits[level].isEmpty()) {
+    if (queue == null ? isLevelEmpty(level) : queue.isLevelEmpty(level)) {
       // Accesses to levelScheduledTime are not synchronized, so we have a data race
       // here - our level time math will be off. However, the staleness is bounded by
       // the fact that only running splits that complete during this computation
@@ -203,6 +226,13 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
   // region helper functions
 
+  /**
+   * Whether no task of the level is waiting in the queue, including the tasks in all its shards.
+   */
+  boolean isLevelEmpty(int level) {
+    return levelWaitingSplits[level].isEmpty();
+  }
+
   /**
    * We attempt to give each level a target amount of scheduled time, which is configurable using
    * levelTimeMultiplier.
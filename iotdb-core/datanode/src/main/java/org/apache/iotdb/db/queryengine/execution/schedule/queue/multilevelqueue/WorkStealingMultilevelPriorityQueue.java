@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue;
+
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.ID;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link MultilevelPriorityQueue} split into one shard per worker thread, so that the workers
+ * don't contend on one lock each time a time slice ends.
+ *
+ * <p>A worker polls its own shard first, and steals a task from the longest shard of others when
+ * its own one is empty. Tasks re-pushed by a worker after a time slice go back to its own shard, so
+ * that they keep running on the same thread, other tasks are spread over the shards in turn. Each
+ * shard chooses the level of the task to run like {@link MultilevelPriorityQueue}, and the
+ * scheduled time of each level is shared by all the shards, so the levels keep their proportions.
+ *
+ * <p>The sizes are tracked by atomic counters outside the shards, the capacity is checked without
+ * locking and may be exceeded by the concurrent pushes.
+ */
+public class WorkStealingMultilevelPriorityQueue extends MultilevelPriorityQueue {
+
+  private final MultilevelPriorityQueue[] shards;
+
+  // number of tasks in each shard
+  private final AtomicInteger[] shardSizes;
+
+  // number of tasks each worker stole from others
+  private final AtomicLong[] stealCounts;
+
+  private final AtomicInteger queuedSize = new AtomicInteger();
+  private final AtomicInteger reservedSize = new AtomicInteger();
+
+  // shard of the current thread, only set for worker threads which poll the queue
+  private final ThreadLocal<Integer> workerShard = new ThreadLocal<>();
+  private final AtomicInteger nextWorkerShard = new AtomicInteger();
+  private final AtomicInteger nextPushShard = new AtomicInteger();
+
+  // idle workers wait on this lock until a task is pushed to any shard
+  private final Object idleLock = new Object();
+  private final AtomicInteger idleWorkerCount = new AtomicInteger();
+
+  public WorkStealingMultilevelPriorityQueue(
+      double levelTimeMultiplier, int maxCapacity, DriverTask queryHolder, int workerNum) {
+    super(levelTimeMultiplier, maxCapacity, queryHolder);
+    Preconditions.checkArgument(workerNum > 0, "workerNum should be positive");
+    this.shards = new MultilevelPriorityQueue[workerNum];
+    this.shardSizes = new AtomicInteger[workerNum];
+    this.stealCounts = new AtomicLong[workerNum];
+    for (int i = 0; i < workerNum; i++) {
+      shards[i] = new MultilevelPriorityQueue(this);
+      shardSizes[i] = new AtomicInteger();
+      stealCounts[i] = new AtomicLong();
+    }
+  }
+
+  // region overridden functions
+
+  @Override
+  public DriverTask poll() throws InterruptedException {
+    int shard = getWorkerShard();
+    while (true) {
+      DriverTask task = pollShard(shard);
+      if (task == null) {
+        task = steal(shard);
+      }
+      if (task != null) {
+        queuedSize.decrementAndGet();
+        reservedSize.incrementAndGet();
+        return task;
+      }
+
+      synchronized (idleLock) {
+        idleWorkerCount.incrementAndGet();
+        try {
+          // a task pushed after this check will notify this worker, since the pusher sees the
+          // incremented idleWorkerCount. The size may be negative for a moment if a task is polled
+          // before its pusher increments the size.
+          if (queuedSize.get() <= 0) {
+            idleLock.wait();
+          }
+        } finally {
+          idleWorkerCount.decrementAndGet();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void push(DriverTask element) {
+    if (element == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    Preconditions.checkState(
+        queuedSize.get() + reservedSize.get() < capacity, TOO_MANY_CONCURRENT_QUERIES_ERROR_MSG);
+    pushToShard(getPushShard(), element);
+  }
+
+  @Override
+  public void repush(DriverTask element) {
+    if (element == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    reservedSize.decrementAndGet();
+    pushToShard(getPushShard(), element);
+  }
+
+  @Override
+  public void decreaseReservedSize() {
+    reservedSize.decrementAndGet();
+  }
+
+  @Override
+  public DriverTask remove(ID id) {
+    // queryHolder is shared, the tasks are only removed when they are aborted
+    synchronized (queryHolder) {
+      queryHolder.setId(id);
+      for (int i = 0; i < shards.length; i++) {
+        DriverTask removed;
+        synchronized (shards[i]) {
+          removed = shards[i].remove(queryHolder);
+        }
+        if (removed != null) {
+          shardSizes[i].decrementAndGet();
+          queuedSize.decrementAndGet();
+          return removed;
+        }
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void clear() {
+    for (int i = 0; i < shards.length; i++) {
+      synchronized (shards[i]) {
+        shards[i].clearAllElements();
+        shardSizes[i].set(0);
+      }
+    }
+    queuedSize.set(0);
+  }
+
+  @Override
+  public int size() {
+    return queuedSize.get();
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return queuedSize.get() == 0;
+  }
+
+  @Override
+  boolean isLevelEmpty(int level) {
+    // the other shards are read without locking, the result may be stale, which only affects the
+    // level time adjustment in pushToQueue, and is benign as explained there
+    for (MultilevelPriorityQueue shard : shards) {
+      if (!shard.isLevelEmpty(level)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // endregion
+
+  // region helper functions
+
+  private int getWorkerShard() {
+    Integer shard = workerShard.get();
+    if (shard == null) {
+      // a worker replacing an exited one may share the shard with another worker, the shard left
+      // by the exited one is drained by stealing
+      shard = Math.floorMod(nextWorkerShard.getAndIncrement(), shards.length);
+      workerShard.set(shard);
+    }
+    return shard;
+  }
+
+  private int getPushShard() {
+    Integer shard = workerShard.get();
+    if (shard != null) {
+      return shard;
+    }
+    // tasks submitted or unblocked by other threads
+    return Math.floorMod(nextPushShard.getAndIncrement(), shards.length);
+  }
+
+  private void pushToShard(int shard, DriverTask task) {
+    synchronized (shards[shard]) {
+      shards[shard].pushToQueue(task);
+    }
+    shardSizes[shard].incrementAndGet();
+    queuedSize.incrementAndGet();
+    if (idleWorkerCount.get() > 0) {
+      synchronized (idleLock) {
+        idleLock.notify();
+      }
+    }
+  }
+
+  private DriverTask pollShard(int shard) {
+    if (shardSizes[shard].get() == 0) {
+      return null;
+    }
+    DriverTask task;
+    synchronized (shards[shard]) {
+      if (shards[shard].isEmpty()) {
+        return null;
+      }
+      task = shards[shard].pollFirst();
+    }
+    shardSizes[shard].decrementAndGet();
+    return task;
+  }
+
+  private DriverTask steal(int thief) {
+    int victim = -1;
+    int maxSize = 0;
+    for (int i = 0; i < shards.length; i++) {
+      int shardSize = shardSizes[i].get();
+      if (i != thief && shardSize > maxSize) {
+        victim = i;
+        maxSize = shardSize;
+      }
+    }
+    DriverTask task = victim == -1 ? null : pollShard(victim);
+    // the longest shard may be drained by other workers in the meantime
+    for (int i = 1; task == null && i < shards.length; i++) {
+      task = pollShard((thief + i) % shards.length);
+    }
+    if (task != null) {
+      stealCounts[thief].incrementAndGet();
+    }
+    return task;
+  }
+
+  // endregion
+
+  public int getWorkerNum() {
+    return shards.length;
+  }
+
+  /**
+   * @return the number of ready tasks in the shard of the worker
+   */
+  public int getWorkerQueueSize(int worker) {
+    return shardSizes[worker].get();
+  }
+
+  /**
+   * @return the number of tasks the worker stole from the shards of other workers
+   */
+  public long getWorkerStealCount(int worker) {
+    return stealCounts[worker].get();
+  }
+}
@@ -42,6 +42,8 @@ public class DriverSchedulerMetricSet implements IMetricSet {
   public static final String BLOCK_QUEUE_TASK_COUNT = "block_queue_task_count";
   private static final String TIMEOUT_QUEUE_SIZE = "timeout_queue_task_count";
   private static final String QUERY_MAP_SIZE = "query_map_size";
+  private static final String WORKER_READY_QUEUE_TASK_COUNT = "worker_ready_queue_task_count";
+  private static final String WORKER_STEAL_COUNT = "worker_steal_count";
 
   private Timer readyQueuedTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer blockQueuedTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
@@ -88,6 +90,27 @@ public class DriverSchedulerMetricSet implements IMetricSet {
         DriverScheduler::getQueryMapSize,
         Tag.NAME.toString(),
         QUERY_MAP_SIZE);
+    for (int i = 0; i < DriverScheduler.getInstance().getWorkStealingWorkerNum(); i++) {
+      int worker = i;
+      metricService.createAutoGauge(
+          Metric.DRIVER_SCHEDULER.toString(),
+          MetricLevel.IMPORTANT,
+          DriverScheduler.getInstance(),
+          scheduler -> scheduler.getWorkerReadyQueueTaskCount(worker),
+          Tag.NAME.toString(),
+          WORKER_READY_QUEUE_TASK_COUNT,
+          Tag.INDEX.toString(),
+          String.valueOf(worker));
+      metricService.createAutoGauge(
+          Metric.DRIVER_SCHEDULER.toString(),
+          MetricLevel.IMPORTANT,
+          DriverScheduler.getInstance(),
+          scheduler -> scheduler.getWorkerStealCount(worker),
+          Tag.NAME.toString(),
+          WORKER_STEAL_COUNT,
+          Tag.INDEX.toString(),
+          String.valueOf(worker));
+    }
   }
 
   @Override
@@ -124,6 +147,22 @@ public class DriverSchedulerMetricSet implements IMetricSet {
         Metric.DRIVER_SCHEDULER.toString(),
         Tag.NAME.toString(),
         QUERY_MAP_SIZE);
+    for (int i = 0; i < DriverScheduler.getInstance().getWorkStealingWorkerNum(); i++) {
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.DRIVER_SCHEDULER.toString(),
+          Tag.NAME.toString(),
+          WORKER_READY_QUEUE_TASK_COUNT,
+          Tag.INDEX.toString(),
+          String.valueOf(i));
+      metricService.remove(
+          MetricType.AUTO_GAUGE,
+          Metric.DRIVER_SCHEDULER.toString(),
+          Tag.NAME.toString(),
+          WORKER_STEAL_COUNT,
+          Tag.INDEX.toString(),
+          String.valueOf(i));
+    }
   }
 
   public void recordTaskQueueTime(String name, long queueTimeInNanos) {
@@ -47,6 +47,14 @@ public interface IQueryExecution {
 
   Optional<ByteBuffer> getByteBufferBatchResult() throws IoTDBException;
 
+  /**
+   * Like {@link #getByteBufferBatchResult()}, but returns empty instead of waiting if no result is
+   * ready now. The executions whose results are produced asynchronously should override it.
+   */
+  default Optional<ByteBuffer> getReadyByteBufferBatchResult() throws IoTDBException {
+    return getByteBufferBatchResult();
+  }
+
   boolean hasNextResult();
 
   int getOutputValueColumnCount();
@@ -498,6 +498,18 @@ public class QueryExecution implements IQueryExecution {
     return getResult(this::getSerializedTsBlock);
   }
 
+  @Override
+  public Optional<ByteBuffer> getReadyByteBufferBatchResult() throws IoTDBException {
+    checkArgument(resultHandle != null, "ResultHandle in Coordinator should be init firstly.");
+    // getResult doesn't wait if the result handle is aborted, finished or not blocked
+    if (!resultHandle.isAborted()
+        && !resultHandle.isFinished()
+        && !resultHandle.isBlocked().isDone()) {
+      return Optional.empty();
+    }
+    return getResult(this::getSerializedTsBlock);
+  }
+
   private ByteBuffer getSerializedTsBlock() throws IoTDBException {
     return resultHandle.getSerializedTsBlock();
   }
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.parser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.antlr.v4.runtime.CommonToken;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Parse trees of statements with the same shape, i.e. the same sequence of tokens except the text
+ * of literals. Dashboards issue the same statements again and again with different time ranges, so
+ * the ANTLR parsing can be skipped by taking a cached tree and rebinding its tokens to the tokens of
+ * the new statement. The tree is then visited as usual, so a new AST is built for every statement.
+ *
+ * <p>Parsing only depends on the token types, so a tree parsed from one statement is exactly the
+ * tree of another statement with the same shape. Rebinding modifies the tokens of the tree in place,
+ * so each tree is used by one statement at a time: it's polled from the cache before visiting and
+ * returned after that.
+ */
+public class ParseTreeCache {
+
+  // statements with more tokens, e.g. inserting many rows, are unlikely to be repeated
+  private static final int MAX_TOKEN_COUNT = 512;
+
+  // trees of the same shape kept for concurrent statements
+  private static final int MAX_TREES_PER_SHAPE = 4;
+
+  private final Set<Integer> literalTokenTypes;
+
+  private final Cache<String, Queue<CachedParseTree>> cache;
+
+  /**
+   * @param maxShapes the max number of cached shapes, the cache is disabled if it's not positive
+   * @param literalTokenTypes token types whose text is ignored when comparing shapes
+   */
+  public ParseTreeCache(int maxShapes, Set<Integer> literalTokenTypes) {
+    this.literalTokenTypes = literalTokenTypes;
+    this.cache = maxShapes > 0 ? Caffeine.newBuilder().maximumSize(maxShapes).build() : null;
+  }
+
+  /**
+   * Lex the whole statement and return the key of its shape.
+   *
+   * @param rule the rule used to parse the tokens
+   * @return null if the statement should not be cached
+   */
+  public String getShapeKey(String rule, CommonTokenStream tokenStream) {
+    if (cache == null) {
+      return null;
+    }
+    tokenStream.fill();
+    List<Token> tokens = getDefaultChannelTokens(tokenStream);
+    if (tokens.size() > MAX_TOKEN_COUNT) {
+      return null;
+    }
+    StringBuilder key = new StringBuilder(rule);
+    for (Token token : tokens) {
+      key.append(' ').append(token.getType());
+      if (!literalTokenTypes.contains(token.getType())) {
+        // length prefixed, so that text containing spaces can't be confused with other tokens
+        String text = token.getText();
+        key.append(':').append(text.length()).append(':').append(text);
+      }
+    }
+    return key.toString();
+  }
+
+  /**
+   * @return a cached tree rebound to the tokens of given stream, or null if there is none. The tree
+   *     should be returned by {@link #release} after use.
+   */
+  public CachedParseTree acquire(String shapeKey, CommonTokenStream tokenStream) {
+    Queue<CachedParseTree> trees = cache.getIfPresent(shapeKey);
+    CachedParseTree cachedTree = trees == null ? null : trees.poll();
+    if (cachedTree != null) {
+      cachedTree.rebind(getDefaultChannelTokens(tokenStream));
+    }
+    return cachedTree;
+  }
+
+  /** Return a tree acquired before, or a tree parsed from given stream, to the cache. */
+  public void release(String shapeKey, CachedParseTree cachedTree) {
+    if (cachedTree == null) {
+      return;
+    }
+    Queue<CachedParseTree> trees = cache.get(shapeKey, k -> new ConcurrentLinkedQueue<>());
+    // size() of ConcurrentLinkedQueue is not exact, which is fine for a soft limit
+    if (trees.size() < MAX_TREES_PER_SHAPE) {
+      trees.offer(cachedTree);
+    }
+  }
+
+  /**
+   * @return the tree to be cached, or null if some tokens of the tree can't be rebound
+   */
+  public static CachedParseTree createCachedParseTree(
+      ParserRuleContext tree, CommonTokenStream tokenStream) {
+    List<Token> tokens = getDefaultChannelTokens(tokenStream);
+    List<CommonToken> ownTokens = new ArrayList<>(tokens.size());
+    Map<Token, Integer> tokenIndexes = new IdentityHashMap<>();
+    Map<Integer, Integer> startIndexToTokenIndex = new HashMap<>();
+    for (Token token : tokens) {
+      if (!(token instanceof CommonToken)) {
+        return null;
+      }
+      tokenIndexes.put(token, ownTokens.size());
+      startIndexToTokenIndex.put(token.getStartIndex(), ownTokens.size());
+      ownTokens.add((CommonToken) token);
+    }
+
+    // tokens created by the parse listeners, e.g. non-reserved keywords replaced by identifiers
+    List<CommonToken> createdTokens = new ArrayList<>();
+    List<Integer> createdTokenIndexes = new ArrayList<>();
+    List<ParseTree> stack = new ArrayList<>();
+    stack.add(tree);
+    while (!stack.isEmpty()) {
+      ParseTree node = stack.remove(stack.size() - 1);
+      if (node instanceof TerminalNode) {
+        Token token = ((TerminalNode) node).getSymbol();
+        if (tokenIndexes.containsKey(token)) {
+          continue;
+        }
+        Integer index = startIndexToTokenIndex.get(token.getStartIndex());
+        if (!(token instanceof CommonToken) || index == null) {
+          return null;
+        }
+        createdTokens.add((CommonToken) token);
+        createdTokenIndexes.add(index);
+      } else {
+        for (int i = 0; i < node.getChildCount(); i++) {
+          stack.add(node.getChild(i));
+        }
+      }
+    }
+    return new CachedParseTree(tree, ownTokens, createdTokens, createdTokenIndexes);
+  }
+
+  private static List<Token> getDefaultChannelTokens(CommonTokenStream tokenStream) {
+    List<Token> tokens = new ArrayList<>();
+    for (Token token : tokenStream.getTokens()) {
+      if (token.getChannel() == Token.DEFAULT_CHANNEL) {
+        tokens.add(token);
+      }
+    }
+    return tokens;
+  }
+
+  public static class CachedParseTree {
+    private final ParserRuleContext tree;
+    // default channel tokens referenced by the tree, in the order of the statement
+    private final List<CommonToken> tokens;
+    private final List<CommonToken> createdTokens;
+    // index in tokens of the token each created token replaces
+    private final List<Integer> createdTokenIndexes;
+
+    private CachedParseTree(
+        ParserRuleContext tree,
+        List<CommonToken> tokens,
+        List<CommonToken> createdTokens,
+        List<Integer> createdTokenIndexes) {
+      this.tree = tree;
+      this.tokens = tokens;
+      this.createdTokens = createdTokens;
+      this.createdTokenIndexes = createdTokenIndexes;
+    }
+
+    public ParserRuleContext getTree() {
+      return tree;
+    }
+
+    private void rebind(List<Token> newTokens) {
+      for (int i = 0; i < tokens.size(); i++) {
+        copy(newTokens.get(i), tokens.get(i));
+      }
+      for (int i = 0; i < createdTokens.size(); i++) {
+        copy(newTokens.get(createdTokenIndexes.get(i)), createdTokens.get(i));
+      }
+    }
+
+    private static void copy(Token from, CommonToken to) {
+      to.setText(from.getText());
+      to.setLine(from.getLine());
+      to.setCharPositionInLine(from.getCharPositionInLine());
+      to.setStartIndex(from.getStartIndex());
+      to.setStopIndex(from.getStopIndex());
+    }
+  }
+}
@@ -26,6 +26,7 @@ import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
 import org.apache.iotdb.commons.service.metric.PerformanceOverviewMetrics;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.qp.sql.IoTDBSqlParser;
 import org.apache.iotdb.db.qp.sql.SqlLexer;
@@ -93,9 +94,11 @@ import org.apache.iotdb.service.rpc.thrift.TSRawDataQueryReq;
 import org.apache.iotdb.service.rpc.thrift.TSSetSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSUnsetSchemaTemplateReq;
 
+import com.google.common.collect.ImmutableSet;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.apache.tsfile.common.constant.TsFileConstant;
@@ -126,6 +129,17 @@ public class StatementGenerator {
   private static final DataNodeDevicePathCache DEVICE_PATH_CACHE =
       DataNodeDevicePathCache.getInstance();
 
+  private static final ParseTreeCache PARSE_TREE_CACHE =
+      new ParseTreeCache(
+          IoTDBDescriptor.getInstance().getConfig().getParseTreeCacheSize(),
+          ImmutableSet.of(
+              SqlLexer.STRING_LITERAL,
+              SqlLexer.BINARY_LITERAL,
+              SqlLexer.DURATION_LITERAL,
+              SqlLexer.DATETIME_LITERAL,
+              SqlLexer.INTEGER_LITERAL,
+              SqlLexer.EXPONENT_NUM_PART));
+
   private StatementGenerator() {
     // forbidding instantiation
   }
@@ -855,9 +869,15 @@ public class StatementGenerator {
       parser1.addErrorListener(SqlParseError.INSTANCE);
 
       ParseTree tree;
+      CommonTokenStream tokens = tokens1;
+      String shapeKey = null;
+      ParseTreeCache.CachedParseTree cachedTree = null;
       try {
-        // STAGE 1: try with simpler/faster SLL(*)
-        tree = parser1.singleStatement();
+        shapeKey = PARSE_TREE_CACHE.getShapeKey("singleStatement", tokens1);
+        cachedTree = shapeKey == null ? null : PARSE_TREE_CACHE.acquire(shapeKey, tokens1);
+        // STAGE 1: try with simpler/faster SLL(*), skipped if a statement of the same shape has
+        // been parsed
+        tree = cachedTree != null ? cachedTree.getTree() : parser1.singleStatement();
         // if we get here, there was no syntax error and SLL(*) was enough; there is no need to try
         // full LL(*)
       } catch (Exception ex) {
@@ -877,9 +897,19 @@ public class StatementGenerator {
 
         // STAGE 2: parser with full LL(*)
         tree = parser2.singleStatement();
+        tokens = tokens2;
         // if we get here, it's LL not SLL
       }
-      return astVisitor.visit(tree);
+      Statement statement = astVisitor.visit(tree);
+      // only queries are repeated with different literals, e.g. inserts mostly differ in length
+      if (shapeKey != null && statement instanceof QueryStatement) {
+        PARSE_TREE_CACHE.release(
+            shapeKey,
+            cachedTree != null
+                ? cachedTree
+                : ParseTreeCache.createCachedParseTree((ParserRuleContext) tree, tokens));
+      }
+      return statement;
     } finally {
       PERFORMANCE_OVERVIEW_METRICS.recordParseCost(System.nanoTime() - startTime);
     }
@@ -27,6 +27,7 @@ import org.apache.iotdb.db.queryengine.execution.exchange.sink.ISink;
 import org.apache.iotdb.db.queryengine.execution.fragment.DataNodeQueryContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.hash.JoinDynamicFilter;
 import org.apache.iotdb.db.queryengine.execution.operator.source.ExchangeOperator;
 import org.apache.iotdb.db.queryengine.plan.analyze.TemplatedInfo;
 import org.apache.iotdb.db.queryengine.plan.analyze.TypeProvider;
@@ -34,6 +35,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.memory.PipelineMemoryEstimat
 import org.apache.iotdb.db.queryengine.plan.planner.memory.PipelineMemoryEstimatorFactory;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
 import org.apache.iotdb.db.schemaengine.schemaregion.ISchemaRegion;
 
 import org.apache.tsfile.common.conf.TSFileConfig;
@@ -50,6 +52,7 @@ import javax.annotation.Nullable;
 
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -101,6 +104,10 @@ public class LocalExecutionPlanContext {
   private Map<PlanNodeId, List<PipelineMemoryEstimator>> parentPlanNodeIdToMemoryEstimator =
       new ConcurrentHashMap<>();
 
+  /** Dynamic filters of hash joins, keyed by the scan nodes which consume them. */
+  private Map<PlanNodeId, List<Pair<Symbol, JoinDynamicFilter>>> scanNodeIdToDynamicFilters =
+      new ConcurrentHashMap<>();
+
   // for data region
   public LocalExecutionPlanContext(
       TypeProvider typeProvider,
@@ -131,6 +138,7 @@ public class LocalExecutionPlanContext {
     this.dataNodeQueryContext = parentContext.dataNodeQueryContext;
     this.timePartitions = parentContext.timePartitions;
     this.parentPlanNodeIdToMemoryEstimator = parentContext.parentPlanNodeIdToMemoryEstimator;
+    this.scanNodeIdToDynamicFilters = parentContext.scanNodeIdToDynamicFilters;
   }
 
   // for schema region
@@ -187,6 +195,21 @@ public class LocalExecutionPlanContext {
     return currentPipelineMemoryEstimator;
   }
 
+  /**
+   * Register a dynamic filter on the given output symbol of a scan node, it must be called before
+   * the scan node is visited.
+   */
+  public void addDynamicFilter(
+      PlanNodeId scanNodeId, Symbol symbol, JoinDynamicFilter dynamicFilter) {
+    scanNodeIdToDynamicFilters
+        .computeIfAbsent(scanNodeId, k -> new ArrayList<>())
+        .add(new Pair<>(symbol, dynamicFilter));
+  }
+
+  public List<Pair<Symbol, JoinDynamicFilter>> getDynamicFilters(PlanNodeId scanNodeId) {
+    return scanNodeIdToDynamicFilters.getOrDefault(scanNodeId, Collections.emptyList());
+  }
+
   public LocalExecutionPlanContext createSubContext() {
     return new LocalExecutionPlanContext(this);
   }
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.queryengine.plan.planner;
 
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.exception.IllegalPathException;
@@ -80,6 +81,7 @@ import org.apache.iotdb.db.queryengine.execution.operator.process.join.FullOuter
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.InnerTimeJoinOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.SimpleNestedLoopCrossJoinOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.TableLeftOuterTimeJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.hash.JoinDynamicFilter;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.AscTimeComparator;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.ColumnMerger;
 import org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.DescTimeComparator;
@@ -119,6 +121,9 @@ import org.apache.iotdb.db.queryengine.execution.operator.source.relational.Asof
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.AsofMergeSortLeftJoinOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.DefaultAggTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.DeviceIteratorScanOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashInnerJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashLeftJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashSemiJoinOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.InformationSchemaTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.LastQueryAggTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.MarkDistinctOperator;
@@ -304,6 +309,7 @@ import static java.util.Objects.requireNonNull;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.FIELD;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.TIME;
 import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.getAggregationTypeByFuncName;
+import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.getIntermediateType;
 import static org.apache.iotdb.db.queryengine.common.DataNodeEndPoints.isSameNode;
 import static org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.MergeSortComparator.getComparatorForTable;
 import static org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.PhysicalValuePointer.CLASSIFIER;
@@ -1068,6 +1074,7 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
 
     TreeAlignedDeviceViewScanOperator treeAlignedDeviceViewScanOperator =
         new TreeAlignedDeviceViewScanOperator(parameter, idColumnValueExtractor);
+    addDynamicFilters(treeAlignedDeviceViewScanOperator, node, context);
 
     addSource(
         treeAlignedDeviceViewScanOperator,
@@ -1211,6 +1218,7 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         constructAbstractTableScanOperatorParameter(node, context);
 
     TableScanOperator tableScanOperator = new TableScanOperator(parameter);
+    addDynamicFilters(tableScanOperator, node, context);
 
     context.getInstanceContext().collectTable(node.getQualifiedObjectName().getObjectName());
     addSource(
@@ -2025,6 +2033,9 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
   public Operator visitJoin(JoinNode node, LocalExecutionPlanContext context) {
     List<TSDataType> dataTypes = getOutputColumnTypes(node, context.getTypeProvider());
 
+    // must be planned before the scans of left child are visited
+    List<JoinDynamicFilter> dynamicFilters = planDynamicFilters(node, context);
+
     Operator leftChild = node.getLeftChild().accept(this, context);
     Operator rightChild = node.getRightChild().accept(this, context);
 
@@ -2175,6 +2186,48 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
       }
     }
 
+    if (node.isHashJoin()) {
+      if (node.getJoinType() == JoinNode.JoinType.INNER) {
+        OperatorContext operatorContext =
+            context
+                .getDriverContext()
+                .addOperatorContext(
+                    context.getNextOperatorId(),
+                    node.getPlanNodeId(),
+                    HashInnerJoinOperator.class.getSimpleName());
+        return new HashInnerJoinOperator(
+            operatorContext,
+            leftChild,
+            leftJoinKeyPositions,
+            leftOutputSymbolIdx,
+            rightChild,
+            rightJoinKeyPositions,
+            rightOutputSymbolIdx,
+            joinKeyTypes,
+            dataTypes,
+            dynamicFilters);
+      } else if (node.getJoinType() == JoinNode.JoinType.LEFT) {
+        OperatorContext operatorContext =
+            context
+                .getDriverContext()
+                .addOperatorContext(
+                    context.getNextOperatorId(),
+                    node.getPlanNodeId(),
+                    HashLeftJoinOperator.class.getSimpleName());
+        return new HashLeftJoinOperator(
+            operatorContext,
+            leftChild,
+            leftJoinKeyPositions,
+            leftOutputSymbolIdx,
+            rightChild,
+            rightJoinKeyPositions,
+            rightOutputSymbolIdx,
+            joinKeyTypes,
+            dataTypes);
+      }
+      throw new IllegalStateException("Unsupported hash join type: " + node.getJoinType());
+    }
+
     if (requireNonNull(node.getJoinType()) == JoinNode.JoinType.INNER) {
       OperatorContext operatorContext =
           context
@@ -2235,6 +2288,80 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
     throw new IllegalStateException("Unsupported join type: " + node.getJoinType());
   }
 
+  /**
+   * Hash inner join collects the keys of its build side at runtime, which are used by the scans of
+   * left child in current fragment to skip devices and time ranges that can never be matched. The
+   * filters are only pushed through the nodes which don't change the set of rows other than
+   * filtering them, and only to TAG, ATTRIBUTE and TIME columns.
+   */
+  private List<JoinDynamicFilter> planDynamicFilters(
+      JoinNode node, LocalExecutionPlanContext context) {
+    if (!node.isHashJoin() || node.getJoinType() != JoinNode.JoinType.INNER) {
+      return Collections.emptyList();
+    }
+    List<DeviceTableScanNode> scanNodes = new ArrayList<>();
+    collectDynamicFilterTargets(node.getLeftChild(), scanNodes);
+    if (scanNodes.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    ImmutableMap<Symbol, Integer> rightColumnNamesMap =
+        makeLayoutFromOutputSymbols(node.getRightChild().getOutputSymbols());
+    List<JoinDynamicFilter> dynamicFilters = new ArrayList<>();
+    for (JoinNode.EquiJoinClause clause : node.getCriteria()) {
+      Type keyType = context.getTypeProvider().getTableModelType(clause.getLeft());
+      Integer buildKeyChannel = rightColumnNamesMap.get(clause.getRight());
+      if (buildKeyChannel == null || !JoinDynamicFilter.isSupportedType(keyType)) {
+        continue;
+      }
+      JoinDynamicFilter dynamicFilter = null;
+      for (DeviceTableScanNode scanNode : scanNodes) {
+        ColumnSchema columnSchema = scanNode.getAssignments().get(clause.getLeft());
+        if (columnSchema == null
+            || columnSchema.getColumnCategory() == TsTableColumnCategory.FIELD
+            || !scanNode.getOutputSymbols().contains(clause.getLeft())) {
+          continue;
+        }
+        if (dynamicFilter == null) {
+          dynamicFilter = new JoinDynamicFilter(buildKeyChannel, keyType);
+          dynamicFilters.add(dynamicFilter);
+        }
+        context.addDynamicFilter(scanNode.getPlanNodeId(), clause.getLeft(), dynamicFilter);
+      }
+    }
+    return dynamicFilters;
+  }
+
+  private static void collectDynamicFilterTargets(
+      PlanNode node, List<DeviceTableScanNode> scanNodes) {
+    if (node.getClass() == DeviceTableScanNode.class
+        || node instanceof TreeAlignedDeviceViewScanNode) {
+      DeviceTableScanNode scanNode = (DeviceTableScanNode) node;
+      // skipping devices changes the rows selected by limit and offset
+      if (scanNode.getPushDownLimit() <= 0 && scanNode.getPushDownOffset() <= 0) {
+        scanNodes.add(scanNode);
+      }
+    } else if (node instanceof FilterNode
+        || node instanceof ProjectNode
+        || node instanceof CollectNode
+        || node instanceof MergeSortNode
+        || node instanceof SortNode
+        || node instanceof StreamSortNode) {
+      for (PlanNode child : node.getChildren()) {
+        collectDynamicFilterTargets(child, scanNodes);
+      }
+    }
+  }
+
+  private static void addDynamicFilters(
+      AbstractTableScanOperator scanOperator,
+      DeviceTableScanNode node,
+      LocalExecutionPlanContext context) {
+    for (Pair<Symbol, JoinDynamicFilter> pair : context.getDynamicFilters(node.getPlanNodeId())) {
+      scanOperator.addDynamicFilter(node.getOutputSymbols().indexOf(pair.left), pair.right);
+    }
+  }
+
   private void semanticCheckForJoin(JoinNode node) {
     try {
       checkArgument(
@@ -2316,6 +2443,25 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         sourceJoinKeyType,
         context.getTypeProvider().getTableModelType(node.getFilteringSourceJoinSymbol()));
 
+    if (node.isHashJoin()) {
+      OperatorContext operatorContext =
+          context
+              .getDriverContext()
+              .addOperatorContext(
+                  context.getNextOperatorId(),
+                  node.getPlanNodeId(),
+                  HashSemiJoinOperator.class.getSimpleName());
+      return new HashSemiJoinOperator(
+          operatorContext,
+          leftChild,
+          sourceJoinKeyPosition,
+          sourceOutputSymbolIdx,
+          rightChild,
+          filteringSourceJoinKeyPosition,
+          sourceJoinKeyType,
+          dataTypes);
+    }
+
     OperatorContext operatorContext =
         context
             .getDriverContext()
@@ -2704,6 +2850,20 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
                 node.getPlanNodeId(),
                 HashAggregationOperator.class.getSimpleName());
 
+    boolean spillEnabled = canSpillHashAggregation(node);
+    String spillFolderPath = null;
+    if (spillEnabled) {
+      spillFolderPath =
+          IoTDBDescriptor.getInstance().getConfig().getSortTmpDir()
+              + File.separator
+              + operatorContext.getDriverContext().getFragmentInstanceContext().getId().getFullId()
+              + File.separator
+              + operatorContext.getDriverContext().getPipelineId()
+              + File.separator;
+      context.getDriverContext().setHaveTmpFile(true);
+      context.getDriverContext().getFragmentInstanceContext().setMayHaveTmpFile(true);
+    }
+
     return new HashAggregationOperator(
         operatorContext,
         child,
@@ -2713,8 +2873,28 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         node.getStep(),
         DEFAULT_GROUP_NUMBER,
         Long.MAX_VALUE,
-        false,
-        Long.MAX_VALUE);
+        spillEnabled,
+        IoTDBDescriptor.getInstance().getConfig().getHashAggregationBufferSize(),
+        spillFolderPath);
+  }
+
+  /**
+   * Partial aggregation flushes its groups when the memory is not enough, so only aggregations
+   * producing the final result need to spill. DISTINCT and ORDER BY in aggregate functions are not
+   * supported because their intermediate results are not complete. UDAFs are not supported either,
+   * their intermediate results are opaque BLOBs of which the size is unknown.
+   */
+  private static boolean canSpillHashAggregation(AggregationNode node) {
+    return IoTDBDescriptor.getInstance().getConfig().isEnableHashAggregationSpill()
+        && !node.getStep().isOutputPartial()
+        && node.getAggregations().values().stream()
+            .noneMatch(
+                aggregation ->
+                    aggregation.isDistinct()
+                        || aggregation.getOrderingScheme().isPresent()
+                        || getAggregationTypeByFuncName(
+                                aggregation.getResolvedFunction().getSignature().getName())
+                            == TAggregationType.UDAF);
   }
 
   private Comparator<SortKey> genGroupKeyComparator(
@@ -2771,6 +2951,9 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         accumulator,
         step,
         getTSDataType(typeProvider.getTableModelType(symbol)),
+        getTSDataType(
+            getIntermediateType(
+                functionName, aggregation.getResolvedFunction().getSignature().getArgumentTypes())),
         argumentChannels,
         maskChannel);
   }
@@ -1003,6 +1003,9 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     boxValue.add(String.format("JoinCriteria: %s", node.getCriteria()));
     boxValue.add(String.format("LeftOutputSymbols: %s", node.getLeftOutputSymbols()));
     boxValue.add(String.format("RightOutputSymbols: %s", node.getRightOutputSymbols()));
+    if (node.isHashJoin()) {
+      boxValue.add("JoinAlgorithm: Hash");
+    }
     if (node.getFilter().isPresent()) {
       boxValue.add(
           String.format("Filter: %s", node.getFilter().map(v -> v.toString()).orElse(null)));
@@ -1018,6 +1021,9 @@ public class PlanGraphPrinter extends PlanVisitor<List<String>, PlanGraphPrinter
     boxValue.add(String.format("SourceJoinSymbol: %s", node.getSourceJoinSymbol()));
     boxValue.add(
         String.format("FilteringSourceJoinSymbol: %s", node.getFilteringSourceJoinSymbol()));
+    if (node.isHashJoin()) {
+      boxValue.add("JoinAlgorithm: Hash");
+    }
     return render(node, boxValue, context);
   }
 
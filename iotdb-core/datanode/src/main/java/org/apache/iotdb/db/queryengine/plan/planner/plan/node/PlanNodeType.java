@@ -310,6 +310,8 @@ public enum PlanNodeType {
   TABLE_WINDOW_FUNCTION((short) 1032),
   TABLE_INTO_NODE((short) 1033),
   TABLE_UNION_NODE((short) 1034),
+  TABLE_HASH_JOIN_NODE((short) 1035),
+  TABLE_HASH_SEMI_JOIN_NODE((short) 1036),
 
   RELATIONAL_INSERT_TABLET((short) 2000),
   RELATIONAL_INSERT_ROW((short) 2001),
@@ -697,6 +699,11 @@ public enum PlanNodeType {
             buffer);
       case 1034:
         return UnionNode.deserialize(buffer);
+      case 1035:
+        return org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode
+            .deserializeHashJoin(buffer);
+      case 1036:
+        return SemiJoinNode.deserializeHashJoin(buffer);
       case 2000:
         return RelationalInsertTabletNode.deserialize(buffer);
       case 2001:
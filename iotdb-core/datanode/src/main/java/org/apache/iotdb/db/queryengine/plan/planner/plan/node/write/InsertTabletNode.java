@@ -769,7 +769,26 @@ public class InsertTabletNode extends InsertNode implements WALEntryValue {
     return Short.BYTES + subSerializeSize(start, end);
   }
 
+  /** Serialized size for wal of the rows in the ranges */
+  public int serializedSize(List<int[]> rangeList) {
+    if (rangeList.size() == 1) {
+      return serializedSize(rangeList.get(0)[0], rangeList.get(0)[1]);
+    }
+    int rowNumInRange = 0;
+    int valuesSize = 0;
+    for (int[] startEnd : rangeList) {
+      rowNumInRange += startEnd[1] - startEnd[0];
+      valuesSize += getValuesSize(startEnd[0], startEnd[1]);
+    }
+    return Short.BYTES + subSerializeSizeWithoutValues(rowNumInRange) + valuesSize;
+  }
+
   int subSerializeSize(int start, int end) {
+    return subSerializeSizeWithoutValues(end - start) + getValuesSize(start, end);
+  }
+
+  /** Size of all the serialized fields except values, which only depends on the number of rows. */
+  int subSerializeSizeWithoutValues(int rowNum) {
     int size = 0;
     size += Long.BYTES;
     size += ReadWriteIOUtils.sizeToWrite(targetPath.getFullPath());
@@ -778,7 +797,7 @@ public class InsertTabletNode extends InsertNode implements WALEntryValue {
     size += serializeMeasurementSchemasSize();
     // times size
     size += Integer.BYTES;
-    size += Long.BYTES * (end - start);
+    size += Long.BYTES * rowNum;
     // bitmaps size
     size += Byte.BYTES;
     if (bitMaps != null) {
@@ -790,23 +809,22 @@ public class InsertTabletNode extends InsertNode implements WALEntryValue {
 
         size += Byte.BYTES;
         if (bitMaps[i] != null) {
-          int len = end - start;
-          BitMap partBitMap = new BitMap(len);
-          BitMap.copyOfRange(bitMaps[i], start, partBitMap, 0, len);
-          size += partBitMap.getByteArray().length;
+          size += BitMap.getSizeOfBytes(rowNum);
         }
       }
     }
-    // values size
+    // isAlign
+    size += Byte.BYTES;
+    return size;
+  }
+
+  private int getValuesSize(int start, int end) {
+    int size = 0;
     for (int i = 0; i < dataTypes.length; i++) {
       if (columns[i] != null) {
         size += getColumnSize(dataTypes[i], columns[i], start, end);
       }
     }
-    // isAlign
-    size += Byte.BYTES;
-    // column category
-
     return size;
   }
 
@@ -900,17 +918,50 @@ public class InsertTabletNode extends InsertNode implements WALEntryValue {
           buffer.put(BytesUtils.boolToByte(false));
         } else {
           buffer.put(BytesUtils.boolToByte(true));
-          BitMap partBitMap = new BitMap(rowNumInRange);
-          int copiedLength = 0;
-          for (int[] startEnd : rangeList) {
-            int len = startEnd[1] - startEnd[0];
-            BitMap.copyOfRange(bitMaps[i], startEnd[0], partBitMap, copiedLength, len);
-            copiedLength += len;
-          }
-          buffer.put(partBitMap.getByteArray());
+          writeBitMap(buffer, bitMaps[i], rangeList, rowNumInRange);
+        }
+      }
+    }
+  }
+
+  /**
+   * Write the same bytes as copying the ranges of the bitmap into a new {@link BitMap} of
+   * rowNumInRange bits, without allocating it.
+   */
+  private static void writeBitMap(
+      IWALByteBufferView buffer, BitMap bitMap, List<int[]> rangeList, int rowNumInRange) {
+    int byteNum = BitMap.getSizeOfBytes(rowNumInRange);
+    if (rangeList.size() == 1 && rangeList.get(0)[0] % Byte.SIZE == 0) {
+      // the range starts at a byte boundary, so its full bytes can be written directly
+      byte[] bits = bitMap.getByteArray();
+      int from = rangeList.get(0)[0] / Byte.SIZE;
+      int fullByteNum = rowNumInRange / Byte.SIZE;
+      buffer.put(bits, from, fullByteNum);
+      int tailBitNum = rowNumInRange % Byte.SIZE;
+      buffer.put(tailBitNum == 0 ? 0 : (byte) (bits[from + fullByteNum] & ((1 << tailBitNum) - 1)));
+      return;
+    }
+
+    int currentByte = 0;
+    int bitNum = 0;
+    int writtenByteNum = 0;
+    for (int[] startEnd : rangeList) {
+      for (int row = startEnd[0]; row < startEnd[1]; row++) {
+        if (bitMap.isMarked(row)) {
+          currentByte |= 1 << bitNum;
+        }
+        if (++bitNum == Byte.SIZE) {
+          buffer.put((byte) currentByte);
+          writtenByteNum++;
+          currentByte = 0;
+          bitNum = 0;
         }
       }
     }
+    for (; writtenByteNum < byteNum; writtenByteNum++) {
+      buffer.put((byte) currentByte);
+      currentByte = 0;
+    }
   }
 
   /** Serialize values, ignoring failed time series */
@@ -305,8 +305,8 @@ public class RelationalInsertTabletNode extends InsertTabletNode {
   }
 
   @Override
-  int subSerializeSize(int start, int end) {
-    return super.subSerializeSize(start, end) + columnCategories.length * Byte.BYTES;
+  int subSerializeSizeWithoutValues(int rowNum) {
+    return super.subSerializeSizeWithoutValues(rowNum) + columnCategories.length * Byte.BYTES;
   }
 
   @Override
@@ -38,6 +38,8 @@ public class SeriesScanOptions {
 
   private Filter globalTimeFilter;
   private final Filter originalTimeFilter;
+  // time range only known at runtime, e.g. from the dynamic filter of a join
+  private Filter runtimeTimeFilter;
 
   private final AtomicBoolean timeFilterUpdatedByTtl = new AtomicBoolean(false);
 
@@ -134,6 +136,24 @@ public class SeriesScanOptions {
     // Different devices have different ttl, so we regenerate the globalTimeFilter each time
     this.globalTimeFilter =
         updateFilterUsingTTL(originalTimeFilter, Math.min(ttlForTableView, dataTTL));
+    if (runtimeTimeFilter != null) {
+      this.globalTimeFilter =
+          globalTimeFilter == null
+              ? runtimeTimeFilter
+              : FilterFactory.and(globalTimeFilter, runtimeTimeFilter);
+    }
+  }
+
+  /**
+   * Narrow the time filter with a time range known at runtime. Files and chunks out of the range
+   * are skipped by the SeriesScanUtils created after this call.
+   */
+  public void intersectTimeRange(long startTime, long endTime) {
+    Filter timeRange = TimeFilterApi.between(startTime, endTime);
+    runtimeTimeFilter =
+        runtimeTimeFilter == null ? timeRange : FilterFactory.and(runtimeTimeFilter, timeRange);
+    globalTimeFilter =
+        globalTimeFilter == null ? timeRange : FilterFactory.and(globalTimeFilter, timeRange);
   }
 
   public void setTTLForTableView(long ttlForTableView) {
@@ -590,10 +590,9 @@ public class TableDistributedPlanGenerator
 
     List<PlanNode> leftChildrenNodes = node.getLeftChild().accept(this, context);
     List<PlanNode> rightChildrenNodes = node.getRightChild().accept(this, context);
-    if (!node.isCrossJoin()) {
-      // child of JoinNode(excluding CrossJoin) must be SortNode, so after rewritten, the child must
-      // be MergeSortNode or
-      // SortNode
+    if (!node.isCrossJoin() && !node.isHashJoin()) {
+      // child of JoinNode(excluding CrossJoin and HashJoin) must be SortNode, so after rewritten,
+      // the child must be MergeSortNode or SortNode
       checkArgument(
           leftChildrenNodes.size() == 1, "The size of left children node of JoinNode should be 1");
       checkArgument(
@@ -604,12 +603,13 @@ public class TableDistributedPlanGenerator
     OrderingScheme leftChildOrdering = nodeOrderingMap.get(node.getLeftChild().getPlanNodeId());
     OrderingScheme rightChildOrdering = nodeOrderingMap.get(node.getRightChild().getPlanNodeId());
 
-    // For CrossJoinNode, we need to merge children nodes(It's safe for other JoinNodes here since
-    // the size of their children is always 1.)
+    // For CrossJoinNode and HashJoin, we need to merge children nodes(It's safe for other
+    // JoinNodes here since the size of their children is always 1.)
     node.setLeftChild(mergeChildrenViaCollectOrMergeSort(leftChildOrdering, leftChildrenNodes));
     node.setRightChild(mergeChildrenViaCollectOrMergeSort(rightChildOrdering, rightChildrenNodes));
 
-    // Now the join implement but CROSS is MergeSortJoin, so it can keep order
+    // Now the join implement but CROSS is MergeSortJoin or HashJoin, both of them keep the order
+    // of left child
     if (!node.isCrossJoin() && !node.getAsofCriteria().isPresent()) {
       switch (node.getJoinType()) {
         case FULL:
@@ -618,8 +618,9 @@ public class TableDistributedPlanGenerator
           break;
         case INNER:
         case LEFT:
-          if (ImmutableSet.copyOf(node.getLeftOutputSymbols())
-              .containsAll(leftChildOrdering.getOrderBy())) {
+          if (leftChildOrdering != null
+              && ImmutableSet.copyOf(node.getLeftOutputSymbols())
+                  .containsAll(leftChildOrdering.getOrderBy())) {
             nodeOrderingMap.put(node.getPlanNodeId(), leftChildOrdering);
           }
           break;
@@ -656,6 +657,16 @@ public class TableDistributedPlanGenerator
   public List<PlanNode> visitSemiJoin(SemiJoinNode node, PlanContext context) {
     List<PlanNode> leftChildrenNodes = node.getLeftChild().accept(this, context);
     List<PlanNode> rightChildrenNodes = node.getRightChild().accept(this, context);
+    if (node.isHashJoin()) {
+      // children of hash SemiJoinNode are not sorted, merge them into one
+      OrderingScheme leftChildOrdering = nodeOrderingMap.get(node.getLeftChild().getPlanNodeId());
+      node.setLeftChild(mergeChildrenViaCollectOrMergeSort(leftChildOrdering, leftChildrenNodes));
+      node.setRightChild(mergeChildrenViaCollectOrMergeSort(null, rightChildrenNodes));
+      if (leftChildOrdering != null) {
+        nodeOrderingMap.put(node.getPlanNodeId(), leftChildOrdering);
+      }
+      return Collections.singletonList(node);
+    }
     checkArgument(
         leftChildrenNodes.size() == 1,
         "The size of left children node of SemiJoinNode should be 1");
@@ -58,6 +58,9 @@ public class JoinNode extends TwoChildProcessNode {
   // some filter like 'a.xx_column < b.yy_column'
   private final Optional<Expression> filter;
   private final Optional<Boolean> spillable;
+  // true if the join is executed by building a hash table on the right child and probing it with
+  // the left child, so that neither child needs to be sorted on the join keys
+  private final boolean hashJoin;
 
   // private final boolean maySkipOutputDuplicates;
   // private final Optional<Symbol> leftHashSymbol;
@@ -76,6 +79,32 @@ public class JoinNode extends TwoChildProcessNode {
       List<Symbol> rightOutputSymbols,
       Optional<Expression> filter,
       Optional<Boolean> spillable) {
+    this(
+        id,
+        joinType,
+        leftChild,
+        rightChild,
+        criteria,
+        asofCriteria,
+        leftOutputSymbols,
+        rightOutputSymbols,
+        filter,
+        spillable,
+        false);
+  }
+
+  public JoinNode(
+      PlanNodeId id,
+      JoinType joinType,
+      PlanNode leftChild,
+      PlanNode rightChild,
+      List<EquiJoinClause> criteria,
+      Optional<AsofJoinClause> asofCriteria,
+      List<Symbol> leftOutputSymbols,
+      List<Symbol> rightOutputSymbols,
+      Optional<Expression> filter,
+      Optional<Boolean> spillable,
+      boolean hashJoin) {
     super(id);
     requireNonNull(joinType, "type is null");
     requireNonNull(leftChild, "left is null");
@@ -104,6 +133,7 @@ public class JoinNode extends TwoChildProcessNode {
     this.rightOutputSymbols = ImmutableList.copyOf(rightOutputSymbols);
     this.filter = filter;
     this.spillable = spillable;
+    this.hashJoin = hashJoin;
     // this.maySkipOutputDuplicates = maySkipOutputDuplicates;
     // this.leftHashSymbol = leftHashSymbol;
     // this.rightHashSymbol = rightHashSymbol;
@@ -141,7 +171,8 @@ public class JoinNode extends TwoChildProcessNode {
       List<EquiJoinClause> criteria,
       Optional<AsofJoinClause> asofCriteria,
       List<Symbol> leftOutputSymbols,
-      List<Symbol> rightOutputSymbols) {
+      List<Symbol> rightOutputSymbols,
+      boolean hashJoin) {
     super(id);
     requireNonNull(joinType, "type is null");
     requireNonNull(criteria, "criteria is null");
@@ -150,6 +181,7 @@ public class JoinNode extends TwoChildProcessNode {
     this.rightOutputSymbols = rightOutputSymbols;
     this.filter = Optional.empty();
     this.spillable = Optional.empty();
+    this.hashJoin = hashJoin;
 
     this.joinType = joinType;
     this.criteria = criteria;
@@ -170,7 +202,8 @@ public class JoinNode extends TwoChildProcessNode {
         rightOutputSymbols,
         leftOutputSymbols,
         filter,
-        spillable);
+        spillable,
+        hashJoin);
   }
 
   @Override
@@ -191,7 +224,8 @@ public class JoinNode extends TwoChildProcessNode {
         leftOutputSymbols,
         rightOutputSymbols,
         filter,
-        spillable);
+        spillable,
+        hashJoin);
   }
 
   @Override
@@ -215,7 +249,8 @@ public class JoinNode extends TwoChildProcessNode {
             leftOutputSymbols,
             rightOutputSymbols,
             filter,
-            spillable);
+            spillable,
+            hashJoin);
     joinNode.setLeftChild(null);
     joinNode.setRightChild(null);
     return joinNode;
@@ -228,7 +263,9 @@ public class JoinNode extends TwoChildProcessNode {
 
   @Override
   protected void serializeAttributes(ByteBuffer byteBuffer) {
-    PlanNodeType.TABLE_JOIN_NODE.serialize(byteBuffer);
+    // hash joins have their own node type, so merge joins keep the format of older versions
+    (hashJoin ? PlanNodeType.TABLE_HASH_JOIN_NODE : PlanNodeType.TABLE_JOIN_NODE)
+        .serialize(byteBuffer);
 
     ReadWriteIOUtils.write(joinType.ordinal(), byteBuffer);
 
@@ -260,7 +297,8 @@ public class JoinNode extends TwoChildProcessNode {
 
   @Override
   protected void serializeAttributes(DataOutputStream stream) throws IOException {
-    PlanNodeType.TABLE_JOIN_NODE.serialize(stream);
+    (hashJoin ? PlanNodeType.TABLE_HASH_JOIN_NODE : PlanNodeType.TABLE_JOIN_NODE)
+        .serialize(stream);
 
     ReadWriteIOUtils.write(joinType.ordinal(), stream);
 
@@ -291,6 +329,14 @@ public class JoinNode extends TwoChildProcessNode {
   }
 
   public static JoinNode deserialize(ByteBuffer byteBuffer) {
+    return deserialize(byteBuffer, false);
+  }
+
+  public static JoinNode deserializeHashJoin(ByteBuffer byteBuffer) {
+    return deserialize(byteBuffer, true);
+  }
+
+  private static JoinNode deserialize(ByteBuffer byteBuffer, boolean hashJoin) {
     JoinType joinType = JoinType.values()[ReadWriteIOUtils.readInt(byteBuffer)];
     int size = ReadWriteIOUtils.readInt(byteBuffer);
     List<EquiJoinClause> criteria = new ArrayList<>(size);
@@ -323,7 +369,13 @@ public class JoinNode extends TwoChildProcessNode {
 
     PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
     return new JoinNode(
-        planNodeId, joinType, criteria, asofJoinClause, leftOutputSymbols, rightOutputSymbols);
+        planNodeId,
+        joinType,
+        criteria,
+        asofJoinClause,
+        leftOutputSymbols,
+        rightOutputSymbols,
+        hashJoin);
   }
 
   public JoinType getJoinType() {
@@ -354,6 +406,10 @@ public class JoinNode extends TwoChildProcessNode {
     return spillable;
   }
 
+  public boolean isHashJoin() {
+    return hashJoin;
+  }
+
   public boolean isCrossJoin() {
     return !asofCriteria.isPresent()
         && criteria.isEmpty()
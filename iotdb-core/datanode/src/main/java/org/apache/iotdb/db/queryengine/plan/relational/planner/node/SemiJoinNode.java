@@ -41,6 +41,9 @@ public class SemiJoinNode extends TwoChildProcessNode {
   private final Symbol sourceJoinSymbol;
   private final Symbol filteringSourceJoinSymbol;
   private final Symbol semiJoinOutput;
+  // true if the filtering source is loaded into a hash table instead of being merged with the
+  // sorted source
+  private final boolean hashJoin;
 
   public SemiJoinNode(
       PlanNodeId id,
@@ -49,11 +52,30 @@ public class SemiJoinNode extends TwoChildProcessNode {
       Symbol sourceJoinSymbol,
       Symbol filteringSourceJoinSymbol,
       Symbol semiJoinOutput) {
+    this(
+        id,
+        source,
+        filteringSource,
+        sourceJoinSymbol,
+        filteringSourceJoinSymbol,
+        semiJoinOutput,
+        false);
+  }
+
+  public SemiJoinNode(
+      PlanNodeId id,
+      PlanNode source,
+      PlanNode filteringSource,
+      Symbol sourceJoinSymbol,
+      Symbol filteringSourceJoinSymbol,
+      Symbol semiJoinOutput,
+      boolean hashJoin) {
     super(id, source, filteringSource);
     this.sourceJoinSymbol = requireNonNull(sourceJoinSymbol, "sourceJoinSymbol is null");
     this.filteringSourceJoinSymbol =
         requireNonNull(filteringSourceJoinSymbol, "filteringSourceJoinSymbol is null");
     this.semiJoinOutput = requireNonNull(semiJoinOutput, "semiJoinOutput is null");
+    this.hashJoin = hashJoin;
 
     if (source != null) {
       checkArgument(
@@ -88,6 +110,10 @@ public class SemiJoinNode extends TwoChildProcessNode {
     return semiJoinOutput;
   }
 
+  public boolean isHashJoin() {
+    return hashJoin;
+  }
+
   @Override
   public List<Symbol> getOutputSymbols() {
     return ImmutableList.<Symbol>builder()
@@ -110,14 +136,21 @@ public class SemiJoinNode extends TwoChildProcessNode {
         newChildren.get(1),
         sourceJoinSymbol,
         filteringSourceJoinSymbol,
-        semiJoinOutput);
+        semiJoinOutput,
+        hashJoin);
   }
 
   @Override
   public PlanNode clone() {
     // clone without children
     return new SemiJoinNode(
-        getPlanNodeId(), null, null, sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+        getPlanNodeId(),
+        null,
+        null,
+        sourceJoinSymbol,
+        filteringSourceJoinSymbol,
+        semiJoinOutput,
+        hashJoin);
   }
 
   @Override
@@ -143,18 +176,20 @@ public class SemiJoinNode extends TwoChildProcessNode {
 
     return Objects.equals(this.sourceJoinSymbol, other.sourceJoinSymbol)
         && Objects.equals(this.filteringSourceJoinSymbol, other.filteringSourceJoinSymbol)
-        && Objects.equals(this.semiJoinOutput, other.semiJoinOutput);
+        && Objects.equals(this.semiJoinOutput, other.semiJoinOutput)
+        && this.hashJoin == other.hashJoin;
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(
-        super.hashCode(), sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+        super.hashCode(), sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput, hashJoin);
   }
 
   @Override
   protected void serializeAttributes(ByteBuffer byteBuffer) {
-    PlanNodeType.TABLE_SEMI_JOIN_NODE.serialize(byteBuffer);
+    (hashJoin ? PlanNodeType.TABLE_HASH_SEMI_JOIN_NODE : PlanNodeType.TABLE_SEMI_JOIN_NODE)
+        .serialize(byteBuffer);
 
     Symbol.serialize(sourceJoinSymbol, byteBuffer);
     Symbol.serialize(filteringSourceJoinSymbol, byteBuffer);
@@ -163,7 +198,8 @@ public class SemiJoinNode extends TwoChildProcessNode {
 
   @Override
   protected void serializeAttributes(DataOutputStream stream) throws IOException {
-    PlanNodeType.TABLE_SEMI_JOIN_NODE.serialize(stream);
+    (hashJoin ? PlanNodeType.TABLE_HASH_SEMI_JOIN_NODE : PlanNodeType.TABLE_SEMI_JOIN_NODE)
+        .serialize(stream);
 
     Symbol.serialize(sourceJoinSymbol, stream);
     Symbol.serialize(filteringSourceJoinSymbol, stream);
@@ -171,11 +207,25 @@ public class SemiJoinNode extends TwoChildProcessNode {
   }
 
   public static SemiJoinNode deserialize(ByteBuffer byteBuffer) {
+    return deserialize(byteBuffer, false);
+  }
+
+  public static SemiJoinNode deserializeHashJoin(ByteBuffer byteBuffer) {
+    return deserialize(byteBuffer, true);
+  }
+
+  private static SemiJoinNode deserialize(ByteBuffer byteBuffer, boolean hashJoin) {
     Symbol sourceJoinSymbol = Symbol.deserialize(byteBuffer);
     Symbol filteringSourceJoinSymbol = Symbol.deserialize(byteBuffer);
     Symbol semiJoinOutput = Symbol.deserialize(byteBuffer);
     PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
     return new SemiJoinNode(
-        planNodeId, null, null, sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+        planNodeId,
+        null,
+        null,
+        sourceJoinSymbol,
+        filteringSourceJoinSymbol,
+        semiJoinOutput,
+        hashJoin);
   }
 }
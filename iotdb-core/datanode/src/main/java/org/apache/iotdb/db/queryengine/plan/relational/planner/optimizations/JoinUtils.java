@@ -19,21 +19,32 @@
 
 package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.QueryId;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.EqualityInference;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.OrderingScheme;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ComparisonExpression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.ASC_NULLS_LAST;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.DESC_NULLS_LAST;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolsExtractor.extractUnique;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.DeterminismEvaluator.isDeterministic;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.IrUtils.combineConjuncts;
@@ -45,6 +56,12 @@ public class JoinUtils {
   public static final String UNSUPPORTED_JOIN_CRITERIA =
       "Unsupported Join creteria [%s] after predicate push down";
 
+  // bytes of the row address, hash, key, bucket and chain of each row kept in JoinHashTable
+  private static final long HASH_TABLE_BYTES_PER_ROW = 48;
+
+  // bytes of a value and its null flag in a column of TsBlock, wider values are not considered
+  private static final long BYTES_PER_VALUE = Long.BYTES + 1;
+
   private JoinUtils() {}
 
   static Expression extractJoinPredicate(JoinNode joinNode) {
@@ -92,6 +109,54 @@ public class JoinUtils {
     return false;
   }
 
+  /**
+   * Whether the estimated rows of the build side of a hash join fit into the sort buffer. A merge
+   * sort join would sort the same rows with that much memory before spilling them to disk, while a
+   * hash join keeps all of them in memory.
+   */
+  static boolean canBuildHashTable(double rowCount, int columnCount) {
+    double estimatedSize = rowCount * (HASH_TABLE_BYTES_PER_ROW + columnCount * BYTES_PER_VALUE);
+    return estimatedSize <= IoTDBDescriptor.getInstance().getConfig().getSortBufferSize();
+  }
+
+  /** Sort both children of a merge sort join on the join keys. */
+  static void appendSortNodeForMergeSortJoin(JoinNode joinNode, QueryId queryId) {
+    int size = joinNode.getCriteria().size();
+    JoinNode.AsofJoinClause asofJoinClause = joinNode.getAsofCriteria().orElse(null);
+    if (asofJoinClause != null) {
+      size++;
+    }
+    List<Symbol> leftOrderBy = new ArrayList<>(size);
+    List<Symbol> rightOrderBy = new ArrayList<>(size);
+    Map<Symbol, SortOrder> leftOrderings = new HashMap<>(size);
+    Map<Symbol, SortOrder> rightOrderings = new HashMap<>(size);
+    for (JoinNode.EquiJoinClause equiJoinClause : joinNode.getCriteria()) {
+      leftOrderBy.add(equiJoinClause.getLeft());
+      leftOrderings.put(equiJoinClause.getLeft(), ASC_NULLS_LAST);
+      rightOrderBy.add(equiJoinClause.getRight());
+      rightOrderings.put(equiJoinClause.getRight(), ASC_NULLS_LAST);
+    }
+    if (asofJoinClause != null) {
+      // if operator of AsofJoinClause is '>' or '>=', use DESC ordering for convenience of
+      // process in BE
+      boolean needDesc = asofJoinClause.isOperatorContainsGreater();
+      leftOrderBy.add(asofJoinClause.getLeft());
+      leftOrderings.put(asofJoinClause.getLeft(), needDesc ? DESC_NULLS_LAST : ASC_NULLS_LAST);
+      rightOrderBy.add(asofJoinClause.getRight());
+      rightOrderings.put(asofJoinClause.getRight(), needDesc ? DESC_NULLS_LAST : ASC_NULLS_LAST);
+    }
+    OrderingScheme leftOrderingScheme = new OrderingScheme(leftOrderBy, leftOrderings);
+    OrderingScheme rightOrderingScheme = new OrderingScheme(rightOrderBy, rightOrderings);
+    SortNode leftSortNode =
+        new SortNode(
+            queryId.genPlanNodeId(), joinNode.getLeftChild(), leftOrderingScheme, false, false);
+    SortNode rightSortNode =
+        new SortNode(
+            queryId.genPlanNodeId(), joinNode.getRightChild(), rightOrderingScheme, false, false);
+    joinNode.setLeftChild(leftSortNode);
+    joinNode.setRightChild(rightSortNode);
+  }
+
   static InnerJoinPushDownResult processInnerJoin(
       Metadata metadata,
       Expression inheritedPredicate,
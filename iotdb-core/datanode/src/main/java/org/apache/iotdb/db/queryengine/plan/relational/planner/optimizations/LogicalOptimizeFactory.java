@@ -302,6 +302,8 @@ public class LogicalOptimizeFactory {
         // Currently, we inline symbols but do not simplify them in predicate push down.
         // So we have to add extra simplifyOptimizer here
         simplifyOptimizer,
+        // reorder inner joins after the devices and time filters of table scans are known
+        new ReorderJoins(),
         // Currently, Distinct is not supported, so we cant use this rule for now.
         //        new IterativeOptimizer(
         //            plannerContext,
@@ -47,7 +47,6 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.IrExpressionInter
 import org.apache.iotdb.db.queryengine.plan.relational.planner.IrTypeAnalyzer;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.OrderingScheme;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.PlannerContext;
-import org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolAllocator;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolsExtractor;
@@ -84,7 +83,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -108,7 +106,6 @@ import static org.apache.iotdb.db.queryengine.plan.analyze.AnalyzeVisitor.getTim
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ExpressionSymbolInliner.inlineSymbols;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.ASC_NULLS_FIRST;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.ASC_NULLS_LAST;
-import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.DESC_NULLS_LAST;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolsExtractor.extractUnique;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.DeterminismEvaluator.isDeterministic;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.GlobalTimePredicateExtractVisitor.extractGlobalTimeFilter;
@@ -123,6 +120,8 @@ import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinN
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode.JoinType.LEFT;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode.JoinType.RIGHT;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.UNSUPPORTED_JOIN_CRITERIA;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.appendSortNodeForMergeSortJoin;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.canBuildHashTable;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.extractJoinPredicate;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.joinEqualityExpression;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.processInnerJoin;
@@ -843,9 +842,15 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       }
 
       JoinNode outputJoinNode = (JoinNode) output;
-      if (!((JoinNode) output).isCrossJoin()) {
+      Optional<JoinNode> hashJoinNode = tryHashJoin(outputJoinNode);
+      if (hashJoinNode.isPresent()) {
+        // inner join or left join on equi-join keys, build a hash table on the right child and
+        // probe it with the left child, so neither of them needs to be sorted
+        outputJoinNode = hashJoinNode.get();
+        output = outputJoinNode;
+      } else if (!outputJoinNode.isCrossJoin()) {
         // inner join or full join, use MergeSortJoinNode
-        appendSortNodeForMergeSortJoin(outputJoinNode);
+        appendSortNodeForMergeSortJoin(outputJoinNode, queryId);
       }
 
       if (!TRUE_LITERAL.equals(postJoinPredicate)) {
@@ -897,41 +902,43 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       return symbolAllocator.newSymbol(expression, analysis.getType(expression));
     }
 
-    private void appendSortNodeForMergeSortJoin(JoinNode joinNode) {
-      int size = joinNode.getCriteria().size();
-      JoinNode.AsofJoinClause asofJoinClause = joinNode.getAsofCriteria().orElse(null);
-      if (asofJoinClause != null) {
-        size++;
+    /**
+     * @return the hash join of joinNode with the smaller input as the build side, or empty if it
+     *     can't be executed as a hash join or its build side is estimated not to fit in memory
+     */
+    private Optional<JoinNode> tryHashJoin(JoinNode joinNode) {
+      if (!CONFIG.isEnableHashJoin()
+          || (joinNode.getJoinType() != INNER && joinNode.getJoinType() != LEFT)
+          || joinNode.getCriteria().isEmpty()
+          || joinNode.getAsofCriteria().isPresent()
+          || joinNode.getFilter().isPresent()) {
+        return Optional.empty();
       }
-      List<Symbol> leftOrderBy = new ArrayList<>(size);
-      List<Symbol> rightOrderBy = new ArrayList<>(size);
-      Map<Symbol, SortOrder> leftOrderings = new HashMap<>(size);
-      Map<Symbol, SortOrder> rightOrderings = new HashMap<>(size);
-      for (JoinNode.EquiJoinClause equiJoinClause : joinNode.getCriteria()) {
-        leftOrderBy.add(equiJoinClause.getLeft());
-        leftOrderings.put(equiJoinClause.getLeft(), ASC_NULLS_LAST);
-        rightOrderBy.add(equiJoinClause.getRight());
-        rightOrderings.put(equiJoinClause.getRight(), ASC_NULLS_LAST);
+
+      double leftRowCount = RowCountEstimator.estimateRowCount(joinNode.getLeftChild());
+      double rightRowCount = RowCountEstimator.estimateRowCount(joinNode.getRightChild());
+      // the right child of a left join must be the build side to output unmatched left rows
+      if (joinNode.getJoinType() == INNER && leftRowCount < rightRowCount) {
+        joinNode = joinNode.flip();
+        rightRowCount = leftRowCount;
       }
-      if (asofJoinClause != null) {
-        // if operator of AsofJoinClause is '>' or '>=', use DESC ordering for convenience of
-        // process in BE
-        boolean needDesc = asofJoinClause.isOperatorContainsGreater();
-        leftOrderBy.add(asofJoinClause.getLeft());
-        leftOrderings.put(asofJoinClause.getLeft(), needDesc ? DESC_NULLS_LAST : ASC_NULLS_LAST);
-        rightOrderBy.add(asofJoinClause.getRight());
-        rightOrderings.put(asofJoinClause.getRight(), needDesc ? DESC_NULLS_LAST : ASC_NULLS_LAST);
+      if (!canBuildHashTable(rightRowCount, joinNode.getRightOutputSymbols().size())) {
+        return Optional.empty();
       }
-      OrderingScheme leftOrderingScheme = new OrderingScheme(leftOrderBy, leftOrderings);
-      OrderingScheme rightOrderingScheme = new OrderingScheme(rightOrderBy, rightOrderings);
-      SortNode leftSortNode =
-          new SortNode(
-              queryId.genPlanNodeId(), joinNode.getLeftChild(), leftOrderingScheme, false, false);
-      SortNode rightSortNode =
-          new SortNode(
-              queryId.genPlanNodeId(), joinNode.getRightChild(), rightOrderingScheme, false, false);
-      joinNode.setLeftChild(leftSortNode);
-      joinNode.setRightChild(rightSortNode);
+
+      return Optional.of(
+          new JoinNode(
+              joinNode.getPlanNodeId(),
+              joinNode.getJoinType(),
+              joinNode.getLeftChild(),
+              joinNode.getRightChild(),
+              joinNode.getCriteria(),
+              joinNode.getAsofCriteria(),
+              joinNode.getLeftOutputSymbols(),
+              joinNode.getRightOutputSymbols(),
+              joinNode.getFilter(),
+              joinNode.isSpillable(),
+              true));
     }
 
     @Override
@@ -982,7 +989,7 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       PlanNode rewrittenSource =
           node.getSource().accept(this, new RewriteContext(combineConjuncts(sourceConjuncts)));
 
-      PlanNode output = appendSortNodeForSemiJoin(node, rewrittenSource, rewrittenFilteringSource);
+      PlanNode output = planSemiJoin(node, rewrittenSource, rewrittenFilteringSource);
 
       if (!postJoinConjuncts.isEmpty()) {
         output =
@@ -991,6 +998,25 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       return output;
     }
 
+    private SemiJoinNode planSemiJoin(
+        SemiJoinNode node, PlanNode rewrittenSource, PlanNode rewrittenFilteringSource) {
+      if (CONFIG.isEnableHashJoin()
+          && canBuildHashTable(
+              RowCountEstimator.estimateRowCount(rewrittenFilteringSource),
+              rewrittenFilteringSource.getOutputSymbols().size())) {
+        // load the filtering source into a hash table, neither side needs to be sorted
+        return new SemiJoinNode(
+            node.getPlanNodeId(),
+            rewrittenSource,
+            rewrittenFilteringSource,
+            node.getSourceJoinSymbol(),
+            node.getFilteringSourceJoinSymbol(),
+            node.getSemiJoinOutput(),
+            true);
+      }
+      return appendSortNodeForSemiJoin(node, rewrittenSource, rewrittenFilteringSource);
+    }
+
     private SemiJoinNode appendSortNodeForSemiJoin(
         SemiJoinNode node, PlanNode rewrittenSource, PlanNode rewrittenFilteringSource) {
       OrderingScheme sourceOrderingScheme =
@@ -1125,7 +1151,7 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
           node.getFilteringSource()
               .accept(this, new RewriteContext(combineConjuncts(filteringSourceConjuncts)));
 
-      PlanNode output = appendSortNodeForSemiJoin(node, rewrittenSource, rewrittenFilteringSource);
+      PlanNode output = planSemiJoin(node, rewrittenSource, rewrittenFilteringSource);
       if (!postJoinConjuncts.isEmpty()) {
         output =
             new FilterNode(queryId.genPlanNodeId(), output, combineConjuncts(postJoinConjuncts));
@@ -0,0 +1,446 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Assignments;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ProjectNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode.JoinType.INNER;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.appendSortNodeForMergeSortJoin;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.JoinUtils.canBuildHashTable;
+
+/**
+ * <b>Optimization phase:</b> Logical plan planning.
+ *
+ * <p>Reorder a tree of inner equi-joins by the row counts estimated by {@link RowCountEstimator}.
+ * The tree is flattened into its inputs and the equivalence classes of the join keys, then the
+ * cheapest tree, bushy ones included, is searched by dynamic programming over the subsets of
+ * inputs. The cost of a tree is the number of rows read and produced by all the joins, and the
+ * right child of a hash join costs more since a hash table is built on it.
+ *
+ * <p>This rule must be applied after {@link PushPredicateIntoTableScan}, which fetches the devices
+ * and the time filter of each scan and decides whether the joins are hash joins. It is disabled
+ * unless enable_join_reorder is set.
+ */
+public class ReorderJoins implements PlanOptimizer {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  // there are 3^n splits of the subsets of n inputs, joins of more inputs are not reordered
+  private static final int MAX_REORDERED_INPUTS = 10;
+
+  // building a hash table on a row costs more than probing it
+  private static final double BUILD_COST_FACTOR = 2;
+
+  // the estimates are rough, so the written order is kept unless another one is clearly cheaper
+  private static final double MIN_COST_REDUCTION = 0.1;
+
+  @Override
+  public PlanNode optimize(PlanNode plan, PlanOptimizer.Context context) {
+    if (!CONFIG.isEnableJoinReorder() || !context.getAnalysis().hasJoinNode()) {
+      return plan;
+    }
+
+    return plan.accept(new Rewriter(context.getQueryContext().getQueryId()), null);
+  }
+
+  private static class Rewriter extends PlanVisitor<PlanNode, Void> {
+    private final QueryId queryId;
+
+    public Rewriter(QueryId queryId) {
+      this.queryId = queryId;
+    }
+
+    @Override
+    public PlanNode visitPlan(PlanNode node, Void context) {
+      PlanNode newNode = node.clone();
+      for (PlanNode child : node.getChildren()) {
+        newNode.addChild(child.accept(this, context));
+      }
+      return newNode;
+    }
+
+    @Override
+    public PlanNode visitJoin(JoinNode node, Void context) {
+      if (!isReorderable(node)) {
+        return visitPlan(node, context);
+      }
+
+      MultiJoin multiJoin = new MultiJoin(node.isHashJoin());
+      JoinTree originalTree = multiJoin.flatten(node, this);
+      if (multiJoin.inputList.size() > MAX_REORDERED_INPUTS) {
+        return multiJoin.replaceInputs(node);
+      }
+
+      multiJoin.estimate();
+      JoinTree bestTree = multiJoin.searchBestTree();
+      if (bestTree == null
+          || multiJoin.cost(bestTree) > multiJoin.cost(originalTree) * (1 - MIN_COST_REDUCTION)) {
+        return multiJoin.replaceInputs(node);
+      }
+
+      PlanNode output = multiJoin.build(bestTree, node, queryId);
+      if (!node.getOutputSymbols().equals(output.getOutputSymbols())) {
+        output =
+            new ProjectNode(
+                queryId.genPlanNodeId(), output, Assignments.identity(node.getOutputSymbols()));
+      }
+      return output;
+    }
+  }
+
+  private static boolean isReorderable(JoinNode node) {
+    return node.getJoinType() == INNER
+        && !node.getCriteria().isEmpty()
+        && !node.getAsofCriteria().isPresent()
+        && !node.getFilter().isPresent();
+  }
+
+  /** A join tree over the inputs of a {@link MultiJoin}. */
+  private static class JoinTree {
+    // index of the input if this is a leaf, otherwise -1
+    private final int input;
+    private final JoinTree left;
+    private final JoinTree right;
+    private final int inputs;
+
+    private JoinTree(int input) {
+      this.input = input;
+      this.left = null;
+      this.right = null;
+      this.inputs = 1 << input;
+    }
+
+    private JoinTree(JoinTree left, JoinTree right) {
+      this.input = -1;
+      this.left = left;
+      this.right = right;
+      this.inputs = left.inputs | right.inputs;
+    }
+
+    private boolean isLeaf() {
+      return input >= 0;
+    }
+  }
+
+  /** Inner equi-joins of several inputs. */
+  private static class MultiJoin {
+    private final boolean hashJoin;
+    private Optional<Boolean> spillable = Optional.empty();
+
+    // inputs rewritten by the Rewriter, keyed by the original nodes
+    private final Map<PlanNode, PlanNode> inputs = new IdentityHashMap<>();
+    private final List<PlanNode> inputList = new ArrayList<>();
+    private final Map<Symbol, Integer> symbolToInput = new HashMap<>();
+
+    // union-find of the symbols equated by the join criteria
+    private final Map<Symbol, Symbol> parents = new HashMap<>();
+
+    // members of each equivalence class and the inputs they come from
+    private final List<List<Symbol>> classes = new ArrayList<>();
+    private final List<Integer> classInputs = new ArrayList<>();
+
+    private double[] rowCounts;
+    // distinct values of each class in each input
+    private double[][] distinctValues;
+
+    private MultiJoin(boolean hashJoin) {
+      this.hashJoin = hashJoin;
+    }
+
+    private JoinTree flatten(PlanNode node, Rewriter rewriter) {
+      PlanNode unwrapped = node;
+      if (unwrapped instanceof ProjectNode
+          && ((ProjectNode) unwrapped).isIdentity()
+          && isSameJoin(((ProjectNode) unwrapped).getChild())) {
+        unwrapped = ((ProjectNode) unwrapped).getChild();
+      }
+      if (isSameJoin(unwrapped)) {
+        JoinNode joinNode = (JoinNode) unwrapped;
+        spillable = joinNode.isSpillable();
+        for (JoinNode.EquiJoinClause clause : joinNode.getCriteria()) {
+          union(clause.getLeft(), clause.getRight());
+        }
+        JoinTree left = flatten(stripSort(joinNode, joinNode.getLeftChild()), rewriter);
+        JoinTree right = flatten(stripSort(joinNode, joinNode.getRightChild()), rewriter);
+        return new JoinTree(left, right);
+      }
+
+      int index = inputList.size();
+      PlanNode input = node.accept(rewriter, null);
+      inputs.put(node, input);
+      inputList.add(input);
+      for (Symbol symbol : input.getOutputSymbols()) {
+        symbolToInput.put(symbol, index);
+      }
+      return new JoinTree(index);
+    }
+
+    private boolean isSameJoin(PlanNode node) {
+      return node instanceof JoinNode
+          && isReorderable((JoinNode) node)
+          && ((JoinNode) node).isHashJoin() == hashJoin;
+    }
+
+    // the children of merge sort joins are sorted on the join keys, which are changed by reordering
+    private static PlanNode stripSort(JoinNode joinNode, PlanNode child) {
+      if (!joinNode.isHashJoin() && child instanceof SortNode) {
+        return ((SortNode) child).getChild();
+      }
+      return child;
+    }
+
+    private Symbol find(Symbol symbol) {
+      Symbol parent = parents.get(symbol);
+      if (parent.equals(symbol)) {
+        return symbol;
+      }
+      Symbol root = find(parent);
+      parents.put(symbol, root);
+      return root;
+    }
+
+    private void union(Symbol left, Symbol right) {
+      parents.putIfAbsent(left, left);
+      parents.putIfAbsent(right, right);
+      Symbol leftRoot = find(left);
+      Symbol rightRoot = find(right);
+      if (!leftRoot.equals(rightRoot)) {
+        parents.put(rightRoot, leftRoot);
+      }
+    }
+
+    private void estimate() {
+      Map<Symbol, List<Symbol>> members = new LinkedHashMap<>();
+      for (Symbol symbol : parents.keySet()) {
+        members.computeIfAbsent(find(symbol), k -> new ArrayList<>()).add(symbol);
+      }
+      for (List<Symbol> classMembers : members.values()) {
+        int inputMask = 0;
+        for (Symbol symbol : classMembers) {
+          inputMask |= 1 << symbolToInput.get(symbol);
+        }
+        classes.add(classMembers);
+        classInputs.add(inputMask);
+      }
+
+      int inputCount = inputList.size();
+      rowCounts = new double[inputCount];
+      distinctValues = new double[classes.size()][inputCount];
+      for (int i = 0; i < inputCount; i++) {
+        rowCounts[i] = RowCountEstimator.estimateRowCount(inputList.get(i));
+      }
+      for (int c = 0; c < classes.size(); c++) {
+        for (Symbol symbol : classes.get(c)) {
+          int i = symbolToInput.get(symbol);
+          distinctValues[c][i] =
+              Math.max(
+                  distinctValues[c][i],
+                  Math.max(
+                      RowCountEstimator.estimateDistinctValues(
+                          inputList.get(i), symbol, rowCounts[i]),
+                      1));
+        }
+      }
+    }
+
+    /**
+     * Each equi-join on a class divides the product of the row counts by the larger number of
+     * distinct values of both sides, so the joins of the inputs touching a class divide the product
+     * by all their numbers of distinct values except the smallest one, whatever the join order is.
+     */
+    private double rowCount(int inputMask) {
+      double rowCount = 1;
+      for (int i = 0; i < rowCounts.length; i++) {
+        if ((inputMask & (1 << i)) != 0) {
+          rowCount *= rowCounts[i];
+        }
+      }
+      for (int c = 0; c < classes.size(); c++) {
+        int touched = classInputs.get(c) & inputMask;
+        if (Integer.bitCount(touched) < 2) {
+          continue;
+        }
+        double min = Double.MAX_VALUE;
+        for (int i = 0; i < rowCounts.length; i++) {
+          if ((touched & (1 << i)) != 0) {
+            rowCount /= distinctValues[c][i];
+            min = Math.min(min, distinctValues[c][i]);
+          }
+        }
+        rowCount *= min;
+      }
+      return Math.max(rowCount, 1);
+    }
+
+    private int columnCount(int inputMask) {
+      int columnCount = 0;
+      for (int i = 0; i < inputList.size(); i++) {
+        if ((inputMask & (1 << i)) != 0) {
+          columnCount += inputList.get(i).getOutputSymbols().size();
+        }
+      }
+      return columnCount;
+    }
+
+    private boolean isConnected(int leftInputs, int rightInputs) {
+      for (int classInput : classInputs) {
+        if ((classInput & leftInputs) != 0 && (classInput & rightInputs) != 0) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private double joinCost(int leftInputs, int rightInputs) {
+      double rightCost = rowCount(rightInputs);
+      if (hashJoin) {
+        rightCost *= BUILD_COST_FACTOR;
+      }
+      return rowCount(leftInputs) + rightCost + rowCount(leftInputs | rightInputs);
+    }
+
+    private double cost(JoinTree tree) {
+      if (tree.isLeaf()) {
+        return 0;
+      }
+      return cost(tree.left) + cost(tree.right) + joinCost(tree.left.inputs, tree.right.inputs);
+    }
+
+    /**
+     * @return the cheapest tree without cross joins, whose hash tables are estimated to fit in
+     *     memory for hash joins, or null if there is none
+     */
+    private JoinTree searchBestTree() {
+      int all = (1 << inputList.size()) - 1;
+      JoinTree[] bestTrees = new JoinTree[all + 1];
+      double[] costs = new double[all + 1];
+      for (int i = 0; i < inputList.size(); i++) {
+        bestTrees[1 << i] = new JoinTree(i);
+      }
+      for (int inputMask = 1; inputMask <= all; inputMask++) {
+        if (Integer.bitCount(inputMask) < 2) {
+          continue;
+        }
+        costs[inputMask] = Double.MAX_VALUE;
+        for (int left = (inputMask - 1) & inputMask; left > 0; left = (left - 1) & inputMask) {
+          int right = inputMask ^ left;
+          if (bestTrees[left] == null || bestTrees[right] == null || !isConnected(left, right)) {
+            continue;
+          }
+          if (hashJoin && !canBuildHashTable(rowCount(right), columnCount(right))) {
+            continue;
+          }
+          double cost = costs[left] + costs[right] + joinCost(left, right);
+          if (cost < costs[inputMask]) {
+            costs[inputMask] = cost;
+            bestTrees[inputMask] = new JoinTree(bestTrees[left], bestTrees[right]);
+          }
+        }
+      }
+      return bestTrees[all];
+    }
+
+    /** Rebuild the joins of the tree, outputting all the symbols of the inputs. */
+    private PlanNode build(JoinTree tree, JoinNode originalRoot, QueryId queryId) {
+      if (tree.isLeaf()) {
+        return inputList.get(tree.input);
+      }
+      PlanNode left = build(tree.left, originalRoot, queryId);
+      PlanNode right = build(tree.right, originalRoot, queryId);
+
+      // equate all the members of each class on both sides, members of the same input are not
+      // equated by the joins below
+      Set<JoinNode.EquiJoinClause> criteria = new LinkedHashSet<>();
+      for (int c = 0; c < classes.size(); c++) {
+        int classInput = classInputs.get(c);
+        if ((classInput & tree.left.inputs) == 0 || (classInput & tree.right.inputs) == 0) {
+          continue;
+        }
+        List<Symbol> leftMembers = new ArrayList<>();
+        List<Symbol> rightMembers = new ArrayList<>();
+        for (Symbol symbol : classes.get(c)) {
+          if ((tree.left.inputs & (1 << symbolToInput.get(symbol))) != 0) {
+            leftMembers.add(symbol);
+          } else if ((tree.right.inputs & (1 << symbolToInput.get(symbol))) != 0) {
+            rightMembers.add(symbol);
+          }
+        }
+        for (Symbol leftMember : leftMembers) {
+          criteria.add(new JoinNode.EquiJoinClause(leftMember, rightMembers.get(0)));
+        }
+        for (Symbol rightMember : rightMembers) {
+          criteria.add(new JoinNode.EquiJoinClause(leftMembers.get(0), rightMember));
+        }
+      }
+
+      JoinNode joinNode =
+          new JoinNode(
+              queryId.genPlanNodeId(),
+              INNER,
+              left,
+              right,
+              ImmutableList.copyOf(criteria),
+              Optional.empty(),
+              left.getOutputSymbols(),
+              right.getOutputSymbols(),
+              Optional.empty(),
+              spillable,
+              hashJoin);
+      if (!hashJoin) {
+        appendSortNodeForMergeSortJoin(joinNode, queryId);
+      }
+      return joinNode;
+    }
+
+    /** Keep the original joins, only replace the inputs with the rewritten ones. */
+    private PlanNode replaceInputs(PlanNode node) {
+      PlanNode input = inputs.get(node);
+      if (input != null) {
+        return input;
+      }
+      PlanNode newNode = node.clone();
+      for (PlanNode child : node.getChildren()) {
+        newNode.addChild(replaceInputs(child));
+      }
+      return newNode;
+    }
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations;
+
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanVisitor;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.ColumnSchema;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.FilterNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.LimitNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TopKNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.TreeDeviceViewScanNode;
+import org.apache.iotdb.db.storageengine.StorageEngine;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.filter.basic.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Estimates the number of rows produced by a plan node, used to compare the join orders of a
+ * multi-way join. The estimates only need to be comparable with each other, they are not accurate.
+ *
+ * <p>The row count of a {@link DeviceTableScanNode} is the number of its devices, which are fetched
+ * from the schema region by {@link PushPredicateIntoTableScan}, multiplied by the rows of each
+ * device. The latter comes from the TsFileResources of local data regions: each TsFile containing a
+ * device is assumed to hold {@link #ROWS_PER_DEVICE_IN_FILE} rows of it, evenly distributed between
+ * the start time and end time of the device in the file, so that the time filter of the scan
+ * selects a part of them. TsFileResources don't record the row counts, and reading the chunk
+ * statistics would cost disk reads while planning. The TsFileResources are read from a snapshot
+ * of each data region, so that planning doesn't wait for the lock of the file lists.
+ */
+public final class RowCountEstimator {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(RowCountEstimator.class);
+
+  // a memtable holds about this many rows of a device when it's flushed
+  static final double ROWS_PER_DEVICE_IN_FILE = 10_000;
+
+  // rows of a device whose data regions are not on this DataNode
+  static final double DEFAULT_ROWS_PER_DEVICE = 10 * ROWS_PER_DEVICE_IN_FILE;
+
+  // selectivity of a predicate that can't be analyzed
+  static final double UNKNOWN_FILTER_COEFFICIENT = 0.5;
+
+  // only some devices are looked up in TsFileResources, the others are assumed to be similar
+  private static final int MAX_SAMPLED_DEVICES = 16;
+
+  private RowCountEstimator() {}
+
+  public static double estimateRowCount(PlanNode node) {
+    return Math.max(node.accept(new RowCountVisitor(), null), 1);
+  }
+
+  /**
+   * @return the estimated number of distinct values of the symbol in the output of node
+   */
+  public static double estimateDistinctValues(PlanNode node, Symbol symbol, double rowCount) {
+    Optional<DeviceTableScanNode> scanNode = findScan(node, symbol);
+    if (scanNode.isPresent()) {
+      ColumnSchema columnSchema = scanNode.get().getAssignments().get(symbol);
+      TsTableColumnCategory category = columnSchema.getColumnCategory();
+      if (category == TsTableColumnCategory.TAG || category == TsTableColumnCategory.ATTRIBUTE) {
+        return Math.min(Math.max(scanNode.get().getDeviceEntries().size(), 1), rowCount);
+      }
+    }
+    // time and fields of time series are mostly distinct
+    return rowCount;
+  }
+
+  private static Optional<DeviceTableScanNode> findScan(PlanNode node, Symbol symbol) {
+    if (node instanceof DeviceTableScanNode
+        && !(node instanceof AggregationTableScanNode)
+        && ((DeviceTableScanNode) node).getAssignments().containsKey(symbol)) {
+      return Optional.of((DeviceTableScanNode) node);
+    }
+    for (PlanNode child : node.getChildren()) {
+      if (child.getOutputSymbols().contains(symbol)) {
+        return findScan(child, symbol);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static double estimateRowsPerDevice(DeviceTableScanNode node) {
+    String database =
+        node instanceof TreeDeviceViewScanNode
+            ? ((TreeDeviceViewScanNode) node).getTreeDBName()
+            : node.getQualifiedObjectName().getDatabaseName();
+    List<DataRegion> dataRegions = new ArrayList<>();
+    for (DataRegion dataRegion : StorageEngine.getInstance().getAllDataRegions()) {
+      if (dataRegion.getDatabaseName().equals(database)) {
+        dataRegions.add(dataRegion);
+      }
+    }
+    Filter timeFilter = node.getTimeFilter();
+    List<TimeRange> timeRanges = timeFilter == null ? null : timeFilter.getTimeRanges();
+    if (dataRegions.isEmpty()) {
+      LOGGER.debug(
+          "No local data region of database {}, assume {} rows per device",
+          database,
+          DEFAULT_ROWS_PER_DEVICE);
+      return timeRanges == null
+          ? DEFAULT_ROWS_PER_DEVICE
+          : DEFAULT_ROWS_PER_DEVICE * UNKNOWN_FILTER_COEFFICIENT;
+    }
+
+    List<TsFileResource> resources = new ArrayList<>();
+    for (DataRegion dataRegion : dataRegions) {
+      // planning must not wait for flushes and compactions holding the lock of the file lists
+      resources.addAll(dataRegion.getTsFileManager().getTsFileListSnapshotWithoutWaiting());
+    }
+    List<DeviceEntry> deviceEntries = node.getDeviceEntries();
+    int sampledDevices = Math.min(deviceEntries.size(), MAX_SAMPLED_DEVICES);
+    double rows = 0;
+    for (int i = 0; i < sampledDevices; i++) {
+      IDeviceID deviceID = deviceEntries.get(i).getDeviceID();
+      for (TsFileResource resource : resources) {
+        Optional<Long> startTime = resource.getStartTime(deviceID);
+        Optional<Long> endTime = resource.getEndTime(deviceID);
+        if (startTime.isPresent() && endTime.isPresent() && startTime.get() <= endTime.get()) {
+          rows +=
+              ROWS_PER_DEVICE_IN_FILE
+                  * selectedFraction(startTime.get(), endTime.get(), timeRanges);
+        }
+      }
+    }
+    return sampledDevices == 0 ? 0 : rows / sampledDevices;
+  }
+
+  private static double selectedFraction(long startTime, long endTime, List<TimeRange> timeRanges) {
+    if (timeRanges == null) {
+      return 1;
+    }
+    double length = (double) endTime - startTime + 1;
+    double selected = 0;
+    for (TimeRange timeRange : timeRanges) {
+      long min = Math.max(startTime, timeRange.getMin());
+      long max = Math.min(endTime, timeRange.getMax());
+      if (min <= max) {
+        selected += (double) max - min + 1;
+      }
+    }
+    return Math.min(selected / length, 1);
+  }
+
+  private static class RowCountVisitor extends PlanVisitor<Double, Void> {
+
+    @Override
+    public Double visitPlan(PlanNode node, Void context) {
+      double rowCount = 1;
+      for (PlanNode child : node.getChildren()) {
+        rowCount = Math.max(rowCount, child.accept(this, context));
+      }
+      return rowCount;
+    }
+
+    @Override
+    public Double visitDeviceTableScan(DeviceTableScanNode node, Void context) {
+      double rowCount = node.getDeviceEntries().size() * estimateRowsPerDevice(node);
+      if (node.getPushDownPredicate() != null) {
+        rowCount *= UNKNOWN_FILTER_COEFFICIENT;
+      }
+      if (node.getPushDownLimit() > 0) {
+        rowCount = Math.min(rowCount, node.getPushDownLimit());
+      }
+      return rowCount;
+    }
+
+    @Override
+    public Double visitAggregationTableScan(AggregationTableScanNode node, Void context) {
+      if (node.getGroupingKeys().isEmpty()) {
+        return 1.0;
+      }
+      // grouped by tags mostly
+      return (double) node.getDeviceEntries().size();
+    }
+
+    @Override
+    public Double visitFilter(FilterNode node, Void context) {
+      return node.getChild().accept(this, context) * UNKNOWN_FILTER_COEFFICIENT;
+    }
+
+    @Override
+    public Double visitLimit(LimitNode node, Void context) {
+      return Math.min(node.getChild().accept(this, context), node.getCount());
+    }
+
+    @Override
+    public Double visitTopK(TopKNode node, Void context) {
+      return Math.min(node.getChildren().get(0).accept(this, context), node.getCount());
+    }
+
+    @Override
+    public Double visitAggregation(AggregationNode node, Void context) {
+      if (node.getGroupingKeys().isEmpty()) {
+        return 1.0;
+      }
+      return node.getChild().accept(this, context) * UNKNOWN_FILTER_COEFFICIENT;
+    }
+
+    @Override
+    public Double visitJoin(JoinNode node, Void context) {
+      double left = node.getLeftChild().accept(this, context);
+      double right = node.getRightChild().accept(this, context);
+      if (node.isCrossJoin()) {
+        return left * right;
+      }
+      double rowCount = left * right;
+      for (JoinNode.EquiJoinClause clause : node.getCriteria()) {
+        rowCount /=
+            Math.max(
+                Math.max(estimateDistinctValues(node.getLeftChild(), clause.getLeft(), left), 1),
+                Math.max(
+                    estimateDistinctValues(node.getRightChild(), clause.getRight(), right), 1));
+      }
+      switch (node.getJoinType()) {
+        case LEFT:
+          return Math.max(rowCount, left);
+        case RIGHT:
+          return Math.max(rowCount, right);
+        case FULL:
+          return Math.max(rowCount, left + right);
+        default:
+          return rowCount;
+      }
+    }
+  }
+}
@@ -20,16 +20,21 @@
 package org.apache.iotdb.db.queryengine.plan.relational.sql.parser;
 
 import org.apache.iotdb.commons.service.metric.PerformanceOverviewMetrics;
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.protocol.session.IClientSession;
+import org.apache.iotdb.db.queryengine.plan.parser.ParseTreeCache;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DataType;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Node;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.NodeLocation;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Query;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Statement;
 import org.apache.iotdb.db.relational.grammar.sql.RelationalSqlBaseListener;
 import org.apache.iotdb.db.relational.grammar.sql.RelationalSqlLexer;
 import org.apache.iotdb.db.relational.grammar.sql.RelationalSqlParser;
 
+import com.google.common.collect.ImmutableSet;
 import org.antlr.v4.runtime.ANTLRErrorListener;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.CharStreams;
@@ -50,6 +55,7 @@ import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -73,6 +79,19 @@ public class SqlParser {
           throw new ParsingException(message, e, line, charPositionInLine + 1);
         }
       };
+  static final Set<Integer> LITERAL_TOKEN_TYPES =
+      ImmutableSet.of(
+          RelationalSqlLexer.STRING,
+          RelationalSqlLexer.UNICODE_STRING,
+          RelationalSqlLexer.BINARY_LITERAL,
+          RelationalSqlLexer.INTEGER_VALUE,
+          RelationalSqlLexer.DECIMAL_VALUE,
+          RelationalSqlLexer.DOUBLE_VALUE,
+          RelationalSqlLexer.DATETIME_VALUE);
+  private static final ParseTreeCache PARSE_TREE_CACHE =
+      new ParseTreeCache(
+          IoTDBDescriptor.getInstance().getConfig().getParseTreeCacheSize(), LITERAL_TOKEN_TYPES);
+
   private static final BiConsumer<RelationalSqlLexer, RelationalSqlParser>
       DEFAULT_PARSER_INITIALIZER = (RelationalSqlLexer lexer, RelationalSqlParser parser) -> {};
 
@@ -91,13 +110,26 @@ public class SqlParser {
           .build();
 
   private final BiConsumer<RelationalSqlLexer, RelationalSqlParser> initializer;
+  private final ParseTreeCache parseTreeCache;
 
   public SqlParser() {
     this(DEFAULT_PARSER_INITIALIZER);
   }
 
   public SqlParser(BiConsumer<RelationalSqlLexer, RelationalSqlParser> initializer) {
+    this(initializer, PARSE_TREE_CACHE);
+  }
+
+  @TestOnly
+  SqlParser(ParseTreeCache parseTreeCache) {
+    this(DEFAULT_PARSER_INITIALIZER, parseTreeCache);
+  }
+
+  private SqlParser(
+      BiConsumer<RelationalSqlLexer, RelationalSqlParser> initializer,
+      ParseTreeCache parseTreeCache) {
     this.initializer = requireNonNull(initializer, "initializer is null");
+    this.parseTreeCache = parseTreeCache;
   }
 
   public Statement createStatement(String sql, ZoneId zoneId, IClientSession clientSession) {
@@ -174,11 +206,20 @@ public class SqlParser {
       parser.addErrorListener(PARSER_ERROR_HANDLER);
 
       ParserRuleContext tree;
+      String shapeKey = null;
+      ParseTreeCache.CachedParseTree cachedTree = null;
       try {
+        shapeKey = parseTreeCache.getShapeKey(name, tokenStream);
+        cachedTree = shapeKey == null ? null : parseTreeCache.acquire(shapeKey, tokenStream);
         try {
-          // first, try parsing with potentially faster SLL mode
-          parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
-          tree = parseFunction.apply(parser);
+          if (cachedTree != null) {
+            // a statement of the same shape has been parsed
+            tree = cachedTree.getTree();
+          } else {
+            // first, try parsing with potentially faster SLL mode
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            tree = parseFunction.apply(parser);
+          }
         } catch (ParsingException ex) {
           // if we fail, parse with LL mode
           tokenStream.seek(0); // rewind input stream
@@ -201,7 +242,16 @@ public class SqlParser {
         throw e;
       }
 
-      return new AstBuilder(location.orElse(null), zoneId, clientSession).visit(tree);
+      Node node = new AstBuilder(location.orElse(null), zoneId, clientSession).visit(tree);
+      // only queries are repeated with different literals, e.g. inserts mostly differ in length
+      if (shapeKey != null && node instanceof Query) {
+        parseTreeCache.release(
+            shapeKey,
+            cachedTree != null
+                ? cachedTree
+                : ParseTreeCache.createCachedParseTree(tree, tokenStream));
+      }
+      return node;
     } catch (StackOverflowError e) {
       throw new ParsingException(name + " is too large (stack overflow while parsing)");
     } finally {
@@ -0,0 +1,452 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.transformation.dag.column.multi;
+
+import org.apache.iotdb.db.queryengine.transformation.dag.column.ColumnTransformer;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.tsfile.read.common.type.DoubleType.DOUBLE;
+
+/**
+ * Arithmetic whose result is DOUBLE. The operands are widened to double first, so the result is the
+ * same as the generated {@code Double*ColumnTransformer}s.
+ *
+ * <p>Nested FusedArithmeticColumnTransformers only referenced by their parent are inlined into one
+ * kernel tree when the first block is evaluated, so that {@code (s1 * 1.8 + 32) / 2} is computed
+ * from the column of s1 and the constants in primitive arrays without building a column for each
+ * operator. A child referenced by others, e.g. a common sub expression of filter and project, is
+ * still evaluated by itself and read as an input column.
+ */
+public class FusedArithmeticColumnTransformer extends ColumnTransformer {
+
+  public enum Operator {
+    ADD,
+    SUBTRACT,
+    MULTIPLY,
+    DIVIDE,
+    MODULUS,
+    NEGATE
+  }
+
+  private final Operator operator;
+
+  private final List<ColumnTransformer> operands;
+
+  // compiled lazily, reference counts of the children are only final after the whole tree is built
+  private KernelNode kernel;
+
+  // columns read by the kernel, one for each occurrence in the expression
+  private List<ColumnTransformer> inputs;
+
+  private FusedArithmeticColumnTransformer(Operator operator, List<ColumnTransformer> operands) {
+    super(DOUBLE);
+    this.operator = operator;
+    this.operands = operands;
+    checkType();
+  }
+
+  public static FusedArithmeticColumnTransformer binary(
+      Operator operator, ColumnTransformer leftTransformer, ColumnTransformer rightTransformer) {
+    return new FusedArithmeticColumnTransformer(
+        operator, Arrays.asList(leftTransformer, rightTransformer));
+  }
+
+  public static FusedArithmeticColumnTransformer negation(ColumnTransformer childTransformer) {
+    return new FusedArithmeticColumnTransformer(
+        Operator.NEGATE, Collections.singletonList(childTransformer));
+  }
+
+  /**
+   * @return whether the arithmetic on these operands produces DOUBLE and can be fused
+   */
+  public static boolean canFuse(ColumnTransformer... operands) {
+    boolean hasDouble = false;
+    for (ColumnTransformer operand : operands) {
+      if (operand.getType() == null) {
+        return false;
+      }
+      switch (operand.getType().getTypeEnum()) {
+        case DOUBLE:
+          hasDouble = true;
+          break;
+        case INT32:
+        case INT64:
+        case FLOAT:
+          break;
+        default:
+          return false;
+      }
+    }
+    return hasDouble;
+  }
+
+  @Override
+  protected void evaluate() {
+    compileIfNeeded();
+    for (ColumnTransformer input : inputs) {
+      input.tryEvaluate();
+    }
+    // attention: get positionCount before calling getColumn
+    int positionCount = inputs.get(0).getColumnCachePositionCount();
+    Column[] columns = new Column[inputs.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = inputs.get(i).getColumn();
+    }
+    ColumnBuilder builder = returnType.createColumnBuilder(positionCount);
+    doTransform(columns, builder, positionCount, null);
+    initializeColumnCache(builder.build());
+  }
+
+  @Override
+  public void evaluateWithSelection(boolean[] selection) {
+    compileIfNeeded();
+    Column[] columns = new Column[inputs.size()];
+    int positionCount = 0;
+    for (int i = 0; i < columns.length; i++) {
+      // the same constant may be cleared by another input, so getColumn right after evaluation
+      inputs.get(i).evaluateWithSelection(selection);
+      if (i == 0) {
+        positionCount = inputs.get(0).getColumnCachePositionCount();
+      }
+      columns[i] = inputs.get(i).getColumn();
+    }
+    ColumnBuilder builder = returnType.createColumnBuilder(positionCount);
+    doTransform(columns, builder, positionCount, selection);
+    initializeColumnCache(builder.build());
+    for (ColumnTransformer input : inputs) {
+      input.clearCache();
+    }
+  }
+
+  private void doTransform(
+      Column[] columns, ColumnBuilder builder, int positionCount, boolean[] selection) {
+    List<Column> nullableColumns = new ArrayList<>(columns.length);
+    for (Column column : columns) {
+      if (column.mayHaveNull()) {
+        nullableColumns.add(column);
+      }
+    }
+    Vector result = kernel.evaluate(columns, positionCount);
+    for (int i = 0; i < positionCount; i++) {
+      if ((selection == null || selection[i]) && !hasNull(nullableColumns, i)) {
+        returnType.writeDouble(builder, result.get(i));
+      } else {
+        builder.appendNull();
+      }
+    }
+  }
+
+  private static boolean hasNull(List<Column> columns, int position) {
+    for (Column column : columns) {
+      if (column.isNull(position)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void compileIfNeeded() {
+    if (kernel == null) {
+      List<ColumnTransformer> collectedInputs = new ArrayList<>();
+      kernel = compile(collectedInputs);
+      inputs = collectedInputs;
+    }
+  }
+
+  private KernelNode compile(List<ColumnTransformer> collectedInputs) {
+    KernelNode[] children = new KernelNode[operands.size()];
+    for (int i = 0; i < children.length; i++) {
+      ColumnTransformer operand = operands.get(i);
+      if (operand instanceof FusedArithmeticColumnTransformer
+          && ((FusedArithmeticColumnTransformer) operand).referenceCount == 1) {
+        children[i] = ((FusedArithmeticColumnTransformer) operand).compile(collectedInputs);
+      } else {
+        children[i] = new KernelNode(collectedInputs.size(), operand.getType());
+        collectedInputs.add(operand);
+      }
+    }
+    return new KernelNode(operator, children);
+  }
+
+  @Override
+  protected void checkType() {
+    if (!canFuse(operands.toArray(new ColumnTransformer[0]))) {
+      throw new UnsupportedOperationException("Unsupported Type");
+    }
+  }
+
+  @Override
+  public void clearCache() {
+    super.clearCache();
+    for (ColumnTransformer operand : operands) {
+      operand.clearCache();
+    }
+  }
+
+  /** Values of a node for a block, either one value for each position or a single constant. */
+  private static class Vector {
+    // null if the vector is constant
+    private final double[] values;
+    private final double constant;
+
+    private Vector(double[] values) {
+      this.values = values;
+      this.constant = 0;
+    }
+
+    private Vector(double constant) {
+      this.values = null;
+      this.constant = constant;
+    }
+
+    private double get(int position) {
+      return values == null ? constant : values[position];
+    }
+  }
+
+  /**
+   * A node of the fused expression tree. Instead of calling a function for each operator on each
+   * row, a node computes the whole block in a loop specialized by its operator and by whether its
+   * operands are constant, so the loops stay monomorphic whatever the shape of the expression is.
+   */
+  private static class KernelNode {
+    private final Operator operator;
+    private final KernelNode[] children;
+    // index of the input column for leaf nodes, -1 otherwise
+    private final int inputIndex;
+    private final Type inputType;
+
+    private KernelNode(int inputIndex, Type inputType) {
+      this.operator = null;
+      this.children = null;
+      this.inputIndex = inputIndex;
+      this.inputType = inputType;
+    }
+
+    private KernelNode(Operator operator, KernelNode[] children) {
+      this.operator = operator;
+      this.children = children;
+      this.inputIndex = -1;
+      this.inputType = null;
+    }
+
+    private Vector evaluate(Column[] columns, int positionCount) {
+      if (inputIndex >= 0) {
+        return load(columns[inputIndex], positionCount);
+      }
+      if (operator == Operator.NEGATE) {
+        return negate(children[0].evaluate(columns, positionCount), positionCount);
+      }
+      Vector left = children[0].evaluate(columns, positionCount);
+      Vector right = children[1].evaluate(columns, positionCount);
+      if (left.values == null && right.values == null) {
+        return new Vector(apply(left.constant, right.constant));
+      }
+      // the vectors of children are only used by their parent, reuse one of them for the result
+      double[] result = left.values != null ? left.values : right.values;
+      if (left.values == null) {
+        applyConstantLeft(left.constant, right.values, result, positionCount);
+      } else if (right.values == null) {
+        applyConstantRight(left.values, right.constant, result, positionCount);
+      } else {
+        apply(left.values, right.values, result, positionCount);
+      }
+      return new Vector(result);
+    }
+
+    private Vector load(Column column, int positionCount) {
+      if (column instanceof RunLengthEncodedColumn) {
+        return new Vector(
+            positionCount == 0 || column.isNull(0) ? 0 : inputType.getDouble(column, 0));
+      }
+      double[] values = new double[positionCount];
+      boolean mayHaveNull = column.mayHaveNull();
+      // nulls are skipped here and filled by the caller
+      switch (inputType.getTypeEnum()) {
+        case INT32:
+          for (int i = 0; i < positionCount; i++) {
+            if (!mayHaveNull || !column.isNull(i)) {
+              values[i] = column.getInt(i);
+            }
+          }
+          break;
+        case INT64:
+          for (int i = 0; i < positionCount; i++) {
+            if (!mayHaveNull || !column.isNull(i)) {
+              values[i] = column.getLong(i);
+            }
+          }
+          break;
+        case FLOAT:
+          for (int i = 0; i < positionCount; i++) {
+            if (!mayHaveNull || !column.isNull(i)) {
+              values[i] = column.getFloat(i);
+            }
+          }
+          break;
+        case DOUBLE:
+          for (int i = 0; i < positionCount; i++) {
+            if (!mayHaveNull || !column.isNull(i)) {
+              values[i] = column.getDouble(i);
+            }
+          }
+          break;
+        default:
+          throw new UnsupportedOperationException("Unsupported Type: " + inputType);
+      }
+      return new Vector(values);
+    }
+
+    private static Vector negate(Vector child, int positionCount) {
+      if (child.values == null) {
+        return new Vector(-child.constant);
+      }
+      double[] values = child.values;
+      for (int i = 0; i < positionCount; i++) {
+        values[i] = -values[i];
+      }
+      return child;
+    }
+
+    private double apply(double left, double right) {
+      switch (operator) {
+        case ADD:
+          return left + right;
+        case SUBTRACT:
+          return left - right;
+        case MULTIPLY:
+          return left * right;
+        case DIVIDE:
+          return left / right;
+        case MODULUS:
+          return left % right;
+        default:
+          throw new UnsupportedOperationException("Unsupported operator: " + operator);
+      }
+    }
+
+    private void apply(double[] left, double[] right, double[] result, int positionCount) {
+      switch (operator) {
+        case ADD:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] + right[i];
+          }
+          break;
+        case SUBTRACT:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] - right[i];
+          }
+          break;
+        case MULTIPLY:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] * right[i];
+          }
+          break;
+        case DIVIDE:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] / right[i];
+          }
+          break;
+        case MODULUS:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] % right[i];
+          }
+          break;
+        default:
+          throw new UnsupportedOperationException("Unsupported operator: " + operator);
+      }
+    }
+
+    private void applyConstantLeft(
+        double left, double[] right, double[] result, int positionCount) {
+      switch (operator) {
+        case ADD:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left + right[i];
+          }
+          break;
+        case SUBTRACT:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left - right[i];
+          }
+          break;
+        case MULTIPLY:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left * right[i];
+          }
+          break;
+        case DIVIDE:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left / right[i];
+          }
+          break;
+        case MODULUS:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left % right[i];
+          }
+          break;
+        default:
+          throw new UnsupportedOperationException("Unsupported operator: " + operator);
+      }
+    }
+
+    private void applyConstantRight(
+        double[] left, double right, double[] result, int positionCount) {
+      switch (operator) {
+        case ADD:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] + right;
+          }
+          break;
+        case SUBTRACT:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] - right;
+          }
+          break;
+        case MULTIPLY:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] * right;
+          }
+          break;
+        case DIVIDE:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] / right;
+          }
+          break;
+        case MODULUS:
+          for (int i = 0; i < positionCount; i++) {
+            result[i] = left[i] % right;
+          }
+          break;
+        default:
+          throw new UnsupportedOperationException("Unsupported operator: " + operator);
+      }
+    }
+  }
+}
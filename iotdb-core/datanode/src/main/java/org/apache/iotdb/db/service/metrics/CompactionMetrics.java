@@ -19,8 +19,11 @@
 
 package org.apache.iotdb.db.service.metrics;
 
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskStatus;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
@@ -962,6 +965,31 @@ public class CompactionMetrics implements IMetricSet {
   }
 
   // endregion
+
+  // region compaction write amplification
+
+  public void createCompactionWriteAmplificationMetrics(DataRegion dataRegion) {
+    MetricService.getInstance()
+        .createAutoGauge(
+            Metric.COMPACTION_WRITE_AMPLIFICATION.toString(),
+            MetricLevel.IMPORTANT,
+            dataRegion,
+            region -> region.getTsFileManager().getCompactionWriteAmplification(),
+            Tag.REGION.toString(),
+            new DataRegionId(Integer.parseInt(dataRegion.getDataRegionId())).toString());
+  }
+
+  public void removeCompactionWriteAmplificationMetrics(DataRegionId dataRegionId) {
+    MetricService.getInstance()
+        .remove(
+            MetricType.AUTO_GAUGE,
+            Metric.COMPACTION_WRITE_AMPLIFICATION.toString(),
+            Tag.REGION.toString(),
+            dataRegionId.toString());
+  }
+
+  // endregion
+
   @Override
   public void bindTo(AbstractMetricService metricService) {
     bindTaskInfo(metricService);
@@ -28,6 +28,8 @@ import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.checkpoint.CheckpointType;
+import org.apache.iotdb.db.storageengine.dataregion.wal.recover.WALRecoverManager;
+import org.apache.iotdb.db.storageengine.rescon.memory.FlushVictimSelector;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
@@ -41,7 +43,9 @@ import org.apache.iotdb.metrics.utils.MetricType;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class WritingMetrics implements IMetricSet {
@@ -188,6 +192,9 @@ public class WritingMetrics implements IMetricSet {
   public static final String WAL_ENTRY_NUM_FOR_ONE_TSFILE = "wal_entry_num_for_one_tsfile";
   public static final String WAL_QUEUE_CURRENT_MEM_COST = "wal_queue_current_mem_cost";
   public static final String WAL_QUEUE_MAX_MEM_COST = "wal_queue_max_mem_cost";
+  public static final String WAL_RECOVER_COST_MS = "recover_cost";
+  public static final String WAL_RECOVER_READ_SIZE_BYTE = "recovered_wal_size";
+  public static final String WAL_RECOVER_REDO_ENTRIES_COUNT = "redone_entries_count";
 
   private Histogram usedRatioHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram entriesCountHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
@@ -281,6 +288,29 @@ public class WritingMetrics implements IMetricSet {
         (s) -> s.getWalBufferQueueMemoryBlock().getUsedMemoryInBytes(),
         Tag.NAME.toString(),
         WAL_QUEUE_CURRENT_MEM_COST);
+    // wal recovery finishes before metric service starts, so expose its statistics as auto gauges
+    WALRecoverManager walRecoverManager = WALRecoverManager.getInstance();
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        walRecoverManager,
+        WALRecoverManager::getRecoverCostInMs,
+        Tag.NAME.toString(),
+        WAL_RECOVER_COST_MS);
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        walRecoverManager,
+        WALRecoverManager::getRecoveredWALSizeInByte,
+        Tag.NAME.toString(),
+        WAL_RECOVER_READ_SIZE_BYTE);
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        walRecoverManager,
+        WALRecoverManager::getRedoneEntriesCount,
+        Tag.NAME.toString(),
+        WAL_RECOVER_REDO_ENTRIES_COUNT);
   }
 
   private void unbindWALMetrics(AbstractMetricService metricService) {
@@ -313,6 +343,14 @@ public class WritingMetrics implements IMetricSet {
         Metric.WAL_QUEUE_MEM_COST.toString(),
         Tag.NAME.toString(),
         WAL_QUEUE_MAX_MEM_COST);
+    Arrays.asList(WAL_RECOVER_COST_MS, WAL_RECOVER_READ_SIZE_BYTE, WAL_RECOVER_REDO_ENTRIES_COUNT)
+        .forEach(
+            name ->
+                metricService.remove(
+                    MetricType.AUTO_GAUGE,
+                    Metric.WAL_RECOVER.toString(),
+                    Tag.NAME.toString(),
+                    name));
   }
 
   // endregion
@@ -459,6 +497,12 @@ public class WritingMetrics implements IMetricSet {
 
   private Histogram avgPointHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
 
+  public static final String FLUSH_VICTIM_RAM_COST = "flush_victim_ram_cost";
+
+  private final Map<FlushVictimSelector.Reason, Counter> flushVictimCounters =
+      new EnumMap<>(FlushVictimSelector.Reason.class);
+  private Histogram flushVictimRamCostHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
+
   public void bindDataRegionMetrics() {
     List<DataRegion> allDataRegions = StorageEngine.getInstance().getAllDataRegions();
     List<DataRegionId> allDataRegionIds = StorageEngine.getInstance().getAllDataRegionIds();
@@ -489,6 +533,24 @@ public class WritingMetrics implements IMetricSet {
     memtableLiveTimer =
         MetricService.getInstance()
             .getOrCreateTimer(Metric.MEMTABLE_LIVE_DURATION.toString(), MetricLevel.IMPORTANT);
+
+    for (FlushVictimSelector.Reason reason : FlushVictimSelector.Reason.values()) {
+      flushVictimCounters.put(
+          reason,
+          MetricService.getInstance()
+              .getOrCreateCounter(
+                  Metric.FLUSH_VICTIM.toString(),
+                  MetricLevel.IMPORTANT,
+                  Tag.TYPE.toString(),
+                  reason.name().toLowerCase()));
+    }
+    flushVictimRamCostHistogram =
+        MetricService.getInstance()
+            .getOrCreateHistogram(
+                Metric.FLUSH_VICTIM.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.TYPE.toString(),
+                FLUSH_VICTIM_RAM_COST);
   }
 
   public void unbindDataRegionMetrics() {
@@ -517,6 +579,22 @@ public class WritingMetrics implements IMetricSet {
             Tag.TYPE.toString(),
             REJECT_THRESHOLD);
     MetricService.getInstance().remove(MetricType.TIMER, Metric.MEMTABLE_LIVE_DURATION.toString());
+    for (FlushVictimSelector.Reason reason : FlushVictimSelector.Reason.values()) {
+      MetricService.getInstance()
+          .remove(
+              MetricType.COUNTER,
+              Metric.FLUSH_VICTIM.toString(),
+              Tag.TYPE.toString(),
+              reason.name().toLowerCase());
+    }
+    flushVictimCounters.clear();
+    MetricService.getInstance()
+        .remove(
+            MetricType.HISTOGRAM,
+            Metric.FLUSH_VICTIM.toString(),
+            Tag.TYPE.toString(),
+            FLUSH_VICTIM_RAM_COST);
+    flushVictimRamCostHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   }
 
   public void createDataRegionMemoryCostMetrics(DataRegion dataRegion) {
@@ -963,6 +1041,11 @@ public class WritingMetrics implements IMetricSet {
     memControlFlushMemtableCounter.inc(number);
   }
 
+  public void recordFlushVictim(FlushVictimSelector.Reason reason, long ramCost) {
+    flushVictimCounters.getOrDefault(reason, DoNothingMetricManager.DO_NOTHING_COUNTER).inc();
+    flushVictimRamCostHistogram.update(ramCost);
+  }
+
   public void recordActiveMemTableCount(String dataRegionId, int number) {
     MetricService.getInstance()
         .count(
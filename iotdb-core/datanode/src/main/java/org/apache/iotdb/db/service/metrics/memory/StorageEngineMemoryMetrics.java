@@ -59,6 +59,7 @@ public class StorageEngineMemoryMetrics implements IMetricSet {
   private Counter pamReleaseCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   private Counter pamAllocationFailureCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   private Counter pamReleaseFailureCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private Counter pamLocalAllocationCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
 
   @Override
   public void bindTo(AbstractMetricService metricService) {
@@ -172,6 +173,16 @@ public class StorageEngineMemoryMetrics implements IMetricSet {
             GlobalMemoryMetrics.ON_HEAP,
             Tag.LEVEL.toString(),
             GlobalMemoryMetrics.LEVELS[2]);
+    pamLocalAllocationCounter =
+        metricService.getOrCreateCounter(
+            Metric.PAM_LOCAL_ALLOCATED_COUNT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            STORAGE_ENGINE_PAM_ALLOCATION,
+            Tag.TYPE.toString(),
+            GlobalMemoryMetrics.ON_HEAP,
+            Tag.LEVEL.toString(),
+            GlobalMemoryMetrics.LEVELS[2]);
   }
 
   private void unbindStorageEngineDividedMetrics(AbstractMetricService metricService) {
@@ -233,10 +244,20 @@ public class StorageEngineMemoryMetrics implements IMetricSet {
         GlobalMemoryMetrics.ON_HEAP,
         Tag.LEVEL.toString(),
         GlobalMemoryMetrics.LEVELS[2]);
+    metricService.remove(
+        MetricType.COUNTER,
+        Metric.PAM_LOCAL_ALLOCATED_COUNT.toString(),
+        Tag.NAME.toString(),
+        STORAGE_ENGINE_PAM_ALLOCATION,
+        Tag.TYPE.toString(),
+        GlobalMemoryMetrics.ON_HEAP,
+        Tag.LEVEL.toString(),
+        GlobalMemoryMetrics.LEVELS[2]);
     pamReleaseCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
     pamAllocationCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
     pamReleaseFailureCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
     pamAllocationFailureCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    pamLocalAllocationCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
   }
 
   // endregion
@@ -414,6 +435,14 @@ public class StorageEngineMemoryMetrics implements IMetricSet {
     pamReleaseFailureCounter.inc();
   }
 
+  public void incPamReleaseFailure(long count) {
+    pamReleaseFailureCounter.inc(count);
+  }
+
+  public void incPamLocalAllocation() {
+    pamLocalAllocationCounter.inc();
+  }
+
   public long getPamAllocation() {
     return pamAllocationCounter.getCount();
   }
@@ -430,6 +459,10 @@ public class StorageEngineMemoryMetrics implements IMetricSet {
     return pamReleaseFailureCounter.getCount();
   }
 
+  public long getPamLocalAllocation() {
+    return pamLocalAllocationCounter.getCount();
+  }
+
   // endregion
 
   public static StorageEngineMemoryMetrics getInstance() {
@@ -57,6 +57,7 @@ import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.load.LoadTsFilePieceNode;
 import org.apache.iotdb.db.queryengine.plan.scheduler.load.LoadTsFileScheduler;
+import org.apache.iotdb.db.service.metrics.CompactionMetrics;
 import org.apache.iotdb.db.service.metrics.FileMetrics;
 import org.apache.iotdb.db.service.metrics.WritingMetrics;
 import org.apache.iotdb.db.storageengine.buffer.BloomFilterCache;
@@ -76,6 +77,7 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.recover.WALRecoverManager;
 import org.apache.iotdb.db.storageengine.load.LoadTsFileManager;
 import org.apache.iotdb.db.storageengine.load.limiter.LoadTsFileRateLimiter;
+import org.apache.iotdb.db.storageengine.rescon.memory.FlushVictimSelectionPolicy;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.ThreadUtils;
 import org.apache.iotdb.rpc.RpcUtils;
@@ -143,6 +145,7 @@ public class StorageEngine implements IService {
 
   private ScheduledExecutorService seqMemtableTimedFlushCheckThread;
   private ScheduledExecutorService unseqMemtableTimedFlushCheckThread;
+  private ScheduledExecutorService proactiveFlushCheckThread;
 
   private final TsFileFlushPolicy fileFlushPolicy = new DirectFlushPolicy();
 
@@ -339,6 +342,20 @@ public class StorageEngine implements IService {
           TimeUnit.MILLISECONDS);
       LOGGER.info("start unsequence memtable timed flush check thread successfully.");
     }
+    // proactively flush the best victim before the flush threshold is reached
+    if (CONFIG.getFlushVictimSelectionPolicy() == FlushVictimSelectionPolicy.ADAPTIVE
+        && CONFIG.getProactiveFlushProportion() > 0) {
+      proactiveFlushCheckThread =
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+              ThreadName.PROACTIVE_FLUSH_MEMTABLE.getName());
+      ScheduledExecutorUtil.safelyScheduleAtFixedRate(
+          proactiveFlushCheckThread,
+          SystemInfo.getInstance()::proactivelyFlushMemTable,
+          CONFIG.getProactiveFlushCheckIntervalInMs(),
+          CONFIG.getProactiveFlushCheckIntervalInMs(),
+          TimeUnit.MILLISECONDS);
+      LOGGER.info("start proactive memtable flush check thread successfully.");
+    }
   }
 
   private void timedFlushSeqMemTable() {
@@ -404,6 +421,7 @@ public class StorageEngine implements IService {
         seqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_SEQ_MEMTABLE);
     ThreadUtils.stopThreadPool(
         unseqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_UNSEQ_MEMTABLE);
+    ThreadUtils.stopThreadPool(proactiveFlushCheckThread, ThreadName.PROACTIVE_FLUSH_MEMTABLE);
     if (cachedThreadPool != null) {
       cachedThreadPool.shutdownNow();
     }
@@ -424,6 +442,7 @@ public class StorageEngine implements IService {
     }
     shutdownTimedService(seqMemtableTimedFlushCheckThread, "SeqMemtableTimedFlushCheckThread");
     shutdownTimedService(unseqMemtableTimedFlushCheckThread, "UnseqMemtableTimedFlushCheckThread");
+    shutdownTimedService(proactiveFlushCheckThread, "ProactiveFlushCheckThread");
     cachedThreadPool.shutdownNow();
     dataRegionMap.clear();
   }
@@ -466,6 +485,7 @@ public class StorageEngine implements IService {
             databaseName);
     WRITING_METRICS.createFlushingMemTableStatusMetrics(dataRegionId);
     WRITING_METRICS.createDataRegionMemoryCostMetrics(dataRegion);
+    CompactionMetrics.getInstance().createCompactionWriteAmplificationMetrics(dataRegion);
     WRITING_METRICS.createActiveMemtableCounterMetrics(dataRegionId);
     dataRegion.setCustomFlushListeners(customFlushListeners);
     dataRegion.setCustomCloseFileListeners(customCloseFileListeners);
@@ -812,6 +832,7 @@ public class StorageEngine implements IService {
             break;
         }
         WRITING_METRICS.removeDataRegionMemoryCostMetrics(regionId);
+        CompactionMetrics.getInstance().removeCompactionWriteAmplificationMetrics(regionId);
         WRITING_METRICS.removeFlushingMemTableStatusMetrics(regionId);
         WRITING_METRICS.removeActiveMemtableCounterMetrics(regionId);
         FileMetrics.getInstance().deleteRegion(region.getDatabaseName(), region.getDataRegionId());
@@ -895,6 +916,7 @@ public class StorageEngine implements IService {
     }
     WRITING_METRICS.createFlushingMemTableStatusMetrics(regionId);
     WRITING_METRICS.createDataRegionMemoryCostMetrics(newRegion);
+    CompactionMetrics.getInstance().createCompactionWriteAmplificationMetrics(newRegion);
     WRITING_METRICS.createActiveMemtableCounterMetrics(regionId);
     dataRegionMap.put(regionId, newRegion);
   }
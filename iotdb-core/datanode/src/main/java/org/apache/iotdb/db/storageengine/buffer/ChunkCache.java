@@ -29,6 +29,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.ChunkCacheMetrics;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionIoGovernor;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
 
@@ -117,6 +118,7 @@ public class ChunkCache {
         timeRangeList,
         chunkStatistic,
         false,
+        false,
         emptyConsumer,
         emptyConsumer,
         emptyConsumer);
@@ -139,6 +141,7 @@ public class ChunkCache {
         timeRangeList,
         chunkStatistic,
         queryContext.isDebug(),
+        !queryContext.isCompaction(),
         ioSizeRecorder,
         cacheHitAdder,
         cacheMissAdder);
@@ -149,6 +152,7 @@ public class ChunkCache {
       List<TimeRange> timeRangeList,
       Statistics chunkStatistic,
       boolean debug,
+      boolean queryRead,
       LongConsumer ioSizeRecorder,
       LongConsumer cacheHitAdder,
       LongConsumer cacheMissAdder)
@@ -173,8 +177,13 @@ public class ChunkCache {
     } finally {
       if (chunkLoader.isCacheMiss()) {
         cacheMissAdder.accept(1);
-        SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(
-            READ_CHUNK_FILE, System.nanoTime() - startTime);
+        long cost = System.nanoTime() - startTime;
+        SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(READ_CHUNK_FILE, cost);
+        // only the chunks read by the query thread itself, not the ones read by prefetching or
+        // compaction, show how long queries wait for the disk
+        if (queryRead) {
+          CompactionIoGovernor.getInstance().recordQueryRead(chunkCacheKey.getFilePath(), cost);
+        }
       } else {
         cacheHitAdder.accept(1);
         SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(
@@ -183,6 +192,29 @@ public class ChunkCache {
     }
   }
 
+  /**
+   * Read the chunk into the cache if it's not cached yet, used to read chunks ahead of a scan. A
+   * scan getting the same chunk while it's being read waits for it instead of reading it again.
+   * Nothing is read if the cache is disabled, since there would be nowhere to keep the chunk.
+   */
+  public void prefetch(ChunkCacheKey chunkCacheKey, QueryContext queryContext)
+      throws IOException {
+    if (!CACHE_ENABLE) {
+      return;
+    }
+    ChunkLoader chunkLoader =
+        new ChunkLoader(queryContext.getQueryStatistics().getLoadChunkActualIOSize()::addAndGet);
+    try {
+      lruCache.get(chunkCacheKey, chunkLoader);
+    } catch (IoTDBIORuntimeException e) {
+      throw e.getCause();
+    }
+  }
+
+  public static boolean isCacheEnable() {
+    return CACHE_ENABLE;
+  }
+
   private Chunk constructChunk(
       Chunk chunk, List<TimeRange> timeRangeList, Statistics chunkStatistic) {
     return new Chunk(
@@ -182,6 +182,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -198,6 +199,7 @@ import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -269,6 +271,22 @@ public class DataRegion implements IDataRegionForQuery {
    */
   private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
 
+  /**
+   * Time partition striped locks for insertions, null if the striped insert lock is disabled. When
+   * enabled, insertions hold the read lock of {@link #insertLock} plus the stripes of the time
+   * partitions they write into, instead of the write lock of {@link #insertLock}.
+   */
+  private final StripedInsertLock stripedInsertLock =
+      config.isEnableStripedInsertLock()
+          ? new StripedInsertLock(config.getStripedInsertLockNum())
+          : null;
+
+  /**
+   * TsFileProcessors that should be flushed after striped insertions. The flush policy requires the
+   * write lock of {@link #insertLock}, so it is applied after the insertion releases its locks.
+   */
+  private final Set<TsFileProcessor> tsFileProcessorsToFlush = ConcurrentHashMap.newKeySet();
+
   /** Condition to safely delete data region. */
   private final Condition deletedCondition = insertLock.writeLock().newCondition();
 
@@ -279,10 +297,12 @@ public class DataRegion implements IDataRegionForQuery {
   private final Object closeStorageGroupCondition = new Object();
 
   /** time partition id in the database -> {@link TsFileProcessor} for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workSequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workSequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
   /** time partition id in the database -> {@link TsFileProcessor} for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors = new TreeMap<>();
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
   /** sequence {@link TsFileProcessor}s which are closing. */
   private final Set<TsFileProcessor> closingSequenceTsFileProcessor = ConcurrentHashMap.newKeySet();
@@ -384,6 +404,17 @@ public class DataRegion implements IDataRegionForQuery {
     }
 
     lastFlushTimeMap = new HashLastFlushTimeMap();
+    if (stripedInsertLock != null
+        && !config
+            .getDataRegionConsensusProtocolClass()
+            .equals(ConsensusFactory.SIMPLE_CONSENSUS)) {
+      logger.warn(
+          "enable_striped_insert_lock has no effect on data region {}[{}], because {} serializes "
+              + "the writes of a data region",
+          databaseName,
+          dataRegionId,
+          config.getDataRegionConsensusProtocolClass());
+    }
     upgradeModFileThreadPool =
         IoTDBThreadPoolFactory.newSingleThreadExecutor(
             databaseName + "-" + dataRegionId + "-UpgradeMod");
@@ -1125,7 +1156,7 @@ public class DataRegion implements IDataRegionForQuery {
     }
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("InsertRow");
+    BitSet lockedStripes = insertLock("InsertRow", insertRowNode.getTime());
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -1146,7 +1177,7 @@ public class DataRegion implements IDataRegionForQuery {
 
       // check memtable size and may asyncTryToFlush the work memtable
       if (tsFileProcessor != null && tsFileProcessor.shouldFlush()) {
-        fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
+        applyFlushPolicyAfterInsert(tsFileProcessor, tsFileProcessor.isSequence());
       }
       if (CommonDescriptor.getInstance().getConfig().isLastCacheEnable()
           && (!insertRowNode.isGeneratedByRemoteConsensusLeader())) {
@@ -1157,7 +1188,7 @@ public class DataRegion implements IDataRegionForQuery {
             System.nanoTime() - startTime);
       }
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
   }
 
@@ -1287,7 +1318,8 @@ public class DataRegion implements IDataRegionForQuery {
       throws BatchProcessException, WriteProcessException {
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("insertTablet");
+    BitSet lockedStripes =
+        insertLock("insertTablet", insertTabletNode.getTimes(), 0, insertTabletNode.getRowCount());
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -1310,7 +1342,7 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException(results);
       }
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
   }
 
@@ -1415,7 +1447,7 @@ public class DataRegion implements IDataRegionForQuery {
 
     // check memtable size and may async try to flush the work memtable
     if (tsFileProcessor.shouldFlush()) {
-      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
+      applyFlushPolicyAfterInsert(tsFileProcessor, sequence);
     }
     return true;
   }
@@ -1559,7 +1591,7 @@ public class DataRegion implements IDataRegionForQuery {
       registerToTsFile(subInsertRowsNode, tsFileProcessor);
       // check memtable size and may asyncTryToFlush the work memtable
       if (entry.getKey().shouldFlush()) {
-        fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
+        applyFlushPolicyAfterInsert(tsFileProcessor, tsFileProcessor.isSequence());
       }
     }
     return executedInsertRowNodeList;
@@ -1676,7 +1708,9 @@ public class DataRegion implements IDataRegionForQuery {
    * @param sequence whether is sequence or not
    */
   private TsFileProcessor getOrCreateTsFileProcessorIntern(
-      long timeRangeId, TreeMap<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
+      long timeRangeId,
+      ConcurrentSkipListMap<Long, TsFileProcessor> tsFileProcessorTreeMap,
+      boolean sequence)
       throws IOException, DiskSpaceInsufficientException {
 
     TsFileProcessor res = tsFileProcessorTreeMap.get(timeRangeId);
@@ -2447,6 +2481,20 @@ public class DataRegion implements IDataRegionForQuery {
           insertLock.readLock().unlock();
           return false;
         }
+        if (stripedInsertLock != null) {
+          // striped insertions only hold the read lock of insertLock, so we also need the read
+          // locks of all stripes to prevent inconsistent with concurrently writing memtable
+          startTime = System.nanoTime();
+          if (!tryReadLockAllStripes(waitMillis)) {
+            return false;
+          }
+          waitMillis -= (System.nanoTime() - startTime) / 1_000_000;
+          if (waitMillis <= 0) {
+            stripedInsertLock.readUnlockAll();
+            insertLock.readLock().unlock();
+            return false;
+          }
+        }
         return tryGetTsFileManagerReadLock(waitMillis);
       } else {
         return false;
@@ -2464,22 +2512,41 @@ public class DataRegion implements IDataRegionForQuery {
         return true;
       } else {
         // failed to acquire tsFileManager read lock, we also need to unlock the insertLock
-        insertLock.readLock().unlock();
+        readUnlockInsertLock();
         return false;
       }
     } catch (InterruptedException e) {
       // failed to acquire tsFileManager read lock, we also need to unlock the insertLock
-      insertLock.readLock().unlock();
+      readUnlockInsertLock();
       Thread.currentThread().interrupt();
       return false;
     }
   }
 
+  private boolean tryReadLockAllStripes(long waitMillis) throws InterruptedException {
+    boolean locked = false;
+    try {
+      locked = stripedInsertLock.tryReadLockAll(waitMillis);
+      return locked;
+    } finally {
+      if (!locked) {
+        insertLock.readLock().unlock();
+      }
+    }
+  }
+
+  private void readUnlockInsertLock() {
+    if (stripedInsertLock != null) {
+      stripedInsertLock.readUnlockAll();
+    }
+    insertLock.readLock().unlock();
+  }
+
   /** unlock the read lock of insert lock */
   @Override
   public void readUnlock() {
     tsFileManager.readUnlock();
-    insertLock.readLock().unlock();
+    readUnlockInsertLock();
   }
 
   /** lock the write lock of the insert lock */
@@ -2494,6 +2561,92 @@ public class DataRegion implements IDataRegionForQuery {
     insertLock.writeLock().unlock();
   }
 
+  /**
+   * Lock for an insertion whose times are times[start, end). If the striped insert lock is
+   * disabled, the write lock of the insert lock is held. Otherwise, the read lock of the insert
+   * lock and the stripes of the time partitions of the given times are held.
+   *
+   * @return the held stripes, null if the write lock of the insert lock is held
+   */
+  private BitSet insertLock(String holder, long[] times, int start, int end) {
+    if (stripedInsertLock == null) {
+      writeLock(holder);
+      return null;
+    }
+    return lockStripes(stripedInsertLock.getStripes(times, start, end));
+  }
+
+  private BitSet insertLock(String holder, long time) {
+    if (stripedInsertLock == null) {
+      writeLock(holder);
+      return null;
+    }
+    BitSet stripes = new BitSet(stripedInsertLock.getStripeNum());
+    stripes.set(stripedInsertLock.getStripe(TimePartitionUtils.getTimePartitionId(time)));
+    return lockStripes(stripes);
+  }
+
+  private BitSet insertLock(String holder, List<InsertRowNode> insertRowNodeList) {
+    if (stripedInsertLock == null) {
+      writeLock(holder);
+      return null;
+    }
+    long[] times = new long[insertRowNodeList.size()];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = insertRowNodeList.get(i).getTime();
+    }
+    return lockStripes(stripedInsertLock.getStripes(times, 0, times.length));
+  }
+
+  private BitSet insertTabletsLock(InsertMultiTabletsNode insertMultiTabletsNode) {
+    if (stripedInsertLock == null) {
+      writeLock("insertTablets");
+      return null;
+    }
+    BitSet stripes = new BitSet(stripedInsertLock.getStripeNum());
+    for (InsertTabletNode insertTabletNode : insertMultiTabletsNode.getInsertTabletNodeList()) {
+      stripes.or(
+          stripedInsertLock.getStripes(
+              insertTabletNode.getTimes(), 0, insertTabletNode.getRowCount()));
+    }
+    return lockStripes(stripes);
+  }
+
+  private BitSet lockStripes(BitSet stripes) {
+    insertLock.readLock().lock();
+    stripedInsertLock.lock(stripes);
+    return stripes;
+  }
+
+  /** unlock the locks held by {@link #insertLock} and apply the deferred flush policy */
+  private void insertUnlock(BitSet lockedStripes) {
+    if (lockedStripes == null) {
+      writeUnlock();
+      return;
+    }
+    stripedInsertLock.unlock(lockedStripes);
+    insertLock.readLock().unlock();
+    Iterator<TsFileProcessor> iterator = tsFileProcessorsToFlush.iterator();
+    while (iterator.hasNext()) {
+      TsFileProcessor tsFileProcessor = iterator.next();
+      iterator.remove();
+      submitAFlushTaskWhenShouldFlush(tsFileProcessor);
+    }
+  }
+
+  /**
+   * Apply the flush policy to a TsFileProcessor after inserting into it. The flush policy requires
+   * the write lock of the insert lock, which is not held by striped insertions, so the flush policy
+   * is deferred to {@link #insertUnlock(BitSet)} in that case.
+   */
+  private void applyFlushPolicyAfterInsert(TsFileProcessor tsFileProcessor, boolean sequence) {
+    if (stripedInsertLock == null) {
+      fileFlushPolicy.apply(this, tsFileProcessor, sequence);
+    } else {
+      tsFileProcessorsToFlush.add(tsFileProcessor);
+    }
+  }
+
   /**
    * @param tsFileResources includes sealed and unsealed tsfile resources
    * @return fill unsealed tsfile resources with memory data and ChunkMetadataList of data in disk
@@ -3053,6 +3206,7 @@ public class DataRegion implements IDataRegionForQuery {
       } else {
         tsFileProcessor.getTsFileResource().setStatus(TsFileResourceStatus.NORMAL);
         tsFileResourceManager.registerSealedTsFileResource(tsFileProcessor.getTsFileResource());
+        tsFileManager.recordFlushedFileSize(tsFileProcessor.getTsFileResource().getTsFileSize());
       }
     } finally {
       tsFileProcessor.writeUnlock();
@@ -3735,7 +3889,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @return all working sequence tsfile processors
    */
   public Collection<TsFileProcessor> getWorkSequenceTsFileProcessors() {
-    return workSequenceTsFileProcessors.values();
+    return new ArrayList<>(workSequenceTsFileProcessors.values());
   }
 
   public boolean removeTsFile(File fileToBeRemoved) {
@@ -3821,7 +3975,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @return all working unsequence tsfile processors
    */
   public Collection<TsFileProcessor> getWorkUnsequenceTsFileProcessors() {
-    return workUnsequenceTsFileProcessors.values();
+    return new ArrayList<>(workUnsequenceTsFileProcessors.values());
   }
 
   public List<TsFileResource> getSequenceFileList() {
@@ -3875,7 +4029,8 @@ public class DataRegion implements IDataRegionForQuery {
       throws WriteProcessException, BatchProcessException {
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("InsertRowsOfOneDevice");
+    BitSet lockedStripes =
+        insertLock("InsertRowsOfOneDevice", insertRowsOfOneDeviceNode.getInsertRowNodeList());
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -3967,7 +4122,7 @@ public class DataRegion implements IDataRegionForQuery {
 
         // check memtable size and may asyncTryToFlush the work memtable
         if (tsFileProcessor.shouldFlush()) {
-          fileFlushPolicy.apply(this, tsFileProcessor, tsFileProcessor.isSequence());
+          applyFlushPolicyAfterInsert(tsFileProcessor, tsFileProcessor.isSequence());
         }
       }
 
@@ -3981,7 +4136,7 @@ public class DataRegion implements IDataRegionForQuery {
             System.nanoTime() - startTime);
       }
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
     if (!insertRowsOfOneDeviceNode.getResults().isEmpty()) {
       throw new BatchProcessException("Partial failed inserting rows of one device");
@@ -3992,7 +4147,7 @@ public class DataRegion implements IDataRegionForQuery {
       throws BatchProcessException, WriteProcessRejectException {
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("InsertRows");
+    BitSet lockedStripes = insertLock("InsertRows", insertRowsNode.getInsertRowNodeList());
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -4062,7 +4217,7 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException("Partial failed inserting rows");
       }
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
   }
 
@@ -4076,7 +4231,7 @@ public class DataRegion implements IDataRegionForQuery {
 
     StorageEngine.blockInsertionIfReject();
     long startTime = System.nanoTime();
-    writeLock("insertTablets");
+    BitSet lockedStripes = insertTabletsLock(insertMultiTabletsNode);
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -4122,7 +4277,7 @@ public class DataRegion implements IDataRegionForQuery {
       updateTsFileProcessorMetric(insertMultiTabletsNode, infoForMetrics);
 
     } finally {
-      writeUnlock();
+      insertUnlock(lockedStripes);
     }
 
     if (!insertMultiTabletsNode.getResults().isEmpty()) {
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion;
+
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Time partition striped locks of a {@link DataRegion}. Each time partition is mapped to one
+ * stripe, an insertion holds the write locks of the stripes it writes into, and a query holds the
+ * read locks of all stripes. Therefore, insertions into different time partitions (and thus
+ * different TsFileProcessors) can run concurrently, while a query still sees no half-applied
+ * insertion.
+ *
+ * <p>Stripes are always locked in ascending order to avoid dead locks. The region-wide exclusion
+ * (flush submission, close, deletion, TTL and so on) is still guaranteed by the insert lock of the
+ * {@link DataRegion}, which must be held (read lock for insertions and queries) before locking the
+ * stripes.
+ */
+public class StripedInsertLock {
+
+  private final ReentrantReadWriteLock[] stripes;
+
+  public StripedInsertLock(int stripeNum) {
+    if (stripeNum <= 0) {
+      throw new IllegalArgumentException("stripe num should be positive, but got " + stripeNum);
+    }
+    stripes = new ReentrantReadWriteLock[stripeNum];
+    for (int i = 0; i < stripeNum; i++) {
+      stripes[i] = new ReentrantReadWriteLock();
+    }
+  }
+
+  public int getStripeNum() {
+    return stripes.length;
+  }
+
+  public int getStripe(long timePartitionId) {
+    return (int) Math.floorMod(timePartitionId, (long) stripes.length);
+  }
+
+  /**
+   * @return the stripes of the time partitions of times[start, end)
+   */
+  public BitSet getStripes(long[] times, int start, int end) {
+    BitSet stripeSet = new BitSet(stripes.length);
+    long lastTimePartitionId = Long.MIN_VALUE;
+    for (int i = start; i < end; i++) {
+      long timePartitionId = TimePartitionUtils.getTimePartitionId(times[i]);
+      // times of one insertion are usually in the same time partition
+      if (timePartitionId != lastTimePartitionId) {
+        stripeSet.set(getStripe(timePartitionId));
+        lastTimePartitionId = timePartitionId;
+      }
+    }
+    return stripeSet;
+  }
+
+  /** lock the write locks of the given stripes in ascending order */
+  public void lock(BitSet stripeSet) {
+    for (int i = stripeSet.nextSetBit(0); i >= 0; i = stripeSet.nextSetBit(i + 1)) {
+      stripes[i].writeLock().lock();
+    }
+  }
+
+  /** unlock the write locks of the given stripes */
+  public void unlock(BitSet stripeSet) {
+    for (int i = stripeSet.nextSetBit(0); i >= 0; i = stripeSet.nextSetBit(i + 1)) {
+      stripes[i].writeLock().unlock();
+    }
+  }
+
+  /**
+   * Try to lock the read locks of all stripes in ascending order within the given time.
+   *
+   * @return true if all read locks are held, otherwise no read lock is held
+   */
+  public boolean tryReadLockAll(long waitMillis) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+    int lockedStripeNum = 0;
+    try {
+      for (; lockedStripeNum < stripes.length; lockedStripeNum++) {
+        if (!stripes[lockedStripeNum]
+            .readLock()
+            .tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+          readUnlock(lockedStripeNum);
+          return false;
+        }
+      }
+      return true;
+    } catch (InterruptedException e) {
+      readUnlock(lockedStripeNum);
+      throw e;
+    }
+  }
+
+  /** unlock the read locks of all stripes */
+  public void readUnlockAll() {
+    readUnlock(stripes.length);
+  }
+
+  private void readUnlock(int lockedStripeNum) {
+    for (int i = 0; i < lockedStripeNum; i++) {
+      stripes[i].readLock().unlock();
+    }
+  }
+}
@@ -188,19 +188,23 @@ public class ReadPointCompactionPerformer
             queryDataSource,
             true);
 
-    if (dataBlockReader.hasNextBatch()) {
-      // chunkgroup is serialized only when at least one timeseries under this device has data
-      compactionWriter.startChunkGroup(device, true);
-      measurementSchemas.add(0, timeSchema);
-      compactionWriter.startMeasurement(
-          TsFileConstant.TIME_COLUMN_ID,
-          new AlignedChunkWriterImpl(measurementSchemas.remove(0), measurementSchemas),
-          0);
-      writeWithReader(compactionWriter, dataBlockReader, device, 0, true);
-      compactionWriter.endMeasurement(0);
-      compactionWriter.endChunkGroup();
-      // check whether to flush chunk metadata or not
-      compactionWriter.checkAndMayFlushChunkMetadata();
+    try {
+      if (dataBlockReader.hasNextBatch()) {
+        // chunkgroup is serialized only when at least one timeseries under this device has data
+        compactionWriter.startChunkGroup(device, true);
+        measurementSchemas.add(0, timeSchema);
+        compactionWriter.startMeasurement(
+            TsFileConstant.TIME_COLUMN_ID,
+            new AlignedChunkWriterImpl(measurementSchemas.remove(0), measurementSchemas),
+            0);
+        writeWithReader(compactionWriter, dataBlockReader, device, 0, true);
+        compactionWriter.endMeasurement(0);
+        compactionWriter.endChunkGroup();
+        // check whether to flush chunk metadata or not
+        compactionWriter.checkAndMayFlushChunkMetadata();
+      }
+    } finally {
+      dataBlockReader.close();
     }
   }
 
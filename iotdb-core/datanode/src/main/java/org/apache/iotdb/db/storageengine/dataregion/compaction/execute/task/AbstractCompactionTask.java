@@ -99,6 +99,9 @@ public abstract class AbstractCompactionTask {
 
   public abstract List<TsFileResource> getAllSourceTsFiles();
 
+  /** The target files written by the task, the files only moved or renamed are excluded. */
+  protected abstract List<TsFileResource> getAllTargetTsFiles();
+
   public long getCompactionConfigVersion() {
     // This parameter should not take effect by default unless it is overridden by a subclass
     return Long.MAX_VALUE;
@@ -227,6 +230,13 @@ public abstract class AbstractCompactionTask {
       handleTaskCleanup();
       releaseOccupiedResources();
       summary.finish(isSuccess);
+      if (isSuccess) {
+        long writtenFileSize = 0;
+        for (TsFileResource targetFile : getAllTargetTsFiles()) {
+          writtenFileSize += targetFile.getTsFileSize();
+        }
+        tsFileManager.recordCompactionWrittenFileSize(writtenFileSize);
+      }
       CompactionTaskManager.getInstance().removeRunningTaskFuture(this);
       CompactionMetrics.getInstance()
           .recordTaskFinishOrAbort(getCompactionTaskType(), summary.getTimeCost());
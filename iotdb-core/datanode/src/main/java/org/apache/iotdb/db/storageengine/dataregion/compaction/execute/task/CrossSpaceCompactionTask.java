@@ -447,4 +447,9 @@ public class CrossSpaceCompactionTask extends AbstractCompactionTask {
   public long getSelectedFileSize() {
     return (long) (selectedSeqFileSize + selectedUnseqFileSize);
   }
+
+  @Override
+  protected List<TsFileResource> getAllTargetTsFiles() {
+    return targetTsfileResourceList == null ? Collections.emptyList() : targetTsfileResourceList;
+  }
 }
@@ -615,6 +615,14 @@ public class InnerSpaceCompactionTask extends AbstractCompactionTask {
     return filesView.selectedFileSize;
   }
 
+  @Override
+  protected List<TsFileResource> getAllTargetTsFiles() {
+    // the skipped source files are renamed to the other target files in the log
+    return filesView.targetFilesInPerformer == null
+        ? Collections.emptyList()
+        : filesView.targetFilesInPerformer;
+  }
+
   public int getSumOfCompactionCount() {
     return filesView.sumOfCompactionCount;
   }
@@ -383,4 +383,10 @@ public class InsertionCrossSpaceCompactionTask extends AbstractCompactionTask {
   public long getSelectedFileSize() {
     return unseqFileToInsert.getTsFileSize();
   }
+
+  @Override
+  protected List<TsFileResource> getAllTargetTsFiles() {
+    // the unseq file is only moved into the seq space
+    return Collections.emptyList();
+  }
 }
@@ -32,6 +32,9 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
   public int pageFakeOverlap;
   public int pageNoneOverlapButDeserialize;
 
+  // points deserialized and written into the target chunk again
+  public long rewritePointNum;
+
   public void increase(FastCompactionTaskSummary summary) {
     this.chunkNoneOverlap += summary.chunkNoneOverlap;
     this.chunkNoneOverlapButDeserialize += summary.chunkNoneOverlapButDeserialize;
@@ -40,6 +43,7 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
     this.pageOverlapOrModified += summary.pageOverlapOrModified;
     this.pageFakeOverlap += summary.pageFakeOverlap;
     this.pageNoneOverlapButDeserialize += summary.pageNoneOverlapButDeserialize;
+    this.rewritePointNum += summary.rewritePointNum;
     this.processChunkNum += summary.processChunkNum;
     this.processPointNum += summary.processPointNum;
     this.directlyFlushChunkNum += summary.directlyFlushChunkNum;
@@ -53,13 +57,14 @@ public class FastCompactionTaskSummary extends CompactionTaskSummary {
         "CHUNK_NONE_OVERLAP num is %d, CHUNK_NONE_OVERLAP_BUT_DESERIALIZE num is %d,"
             + " CHUNK_OVERLAP_OR_MODIFIED num is %d, PAGE_NONE_OVERLAP num is %d,"
             + " PAGE_NONE_OVERLAP_BUT_DESERIALIZE num is %d, PAGE_OVERLAP_OR_MODIFIED num is %d,"
-            + " PAGE_FAKE_OVERLAP num is %d.",
+            + " PAGE_FAKE_OVERLAP num is %d, REWRITE_POINT num is %d.",
         chunkNoneOverlap,
         chunkNoneOverlapButDeserialize,
         chunkOverlapOrModified,
         pageNoneOverlap,
         pageNoneOverlapButDeserialize,
         pageOverlapOrModified,
-        pageFakeOverlap);
+        pageFakeOverlap,
+        rewritePointNum);
   }
 }
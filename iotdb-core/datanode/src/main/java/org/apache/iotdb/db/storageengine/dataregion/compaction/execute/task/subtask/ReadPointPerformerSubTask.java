@@ -89,12 +89,16 @@ public class ReadPointPerformerSubTask implements Callable<Void> {
               queryDataSource,
               false);
 
-      if (dataBlockReader.hasNextBatch()) {
-        compactionWriter.startMeasurement(
-            measurement, new ChunkWriterImpl(measurementSchemas.get(0), true), taskId);
-        ReadPointCompactionPerformer.writeWithReader(
-            compactionWriter, dataBlockReader, device, taskId, false);
-        compactionWriter.endMeasurement(taskId);
+      try {
+        if (dataBlockReader.hasNextBatch()) {
+          compactionWriter.startMeasurement(
+              measurement, new ChunkWriterImpl(measurementSchemas.get(0), true), taskId);
+          ReadPointCompactionPerformer.writeWithReader(
+              compactionWriter, dataBlockReader, device, taskId, false);
+          compactionWriter.endMeasurement(taskId);
+        }
+      } finally {
+        dataBlockReader.close();
       }
     }
     return null;
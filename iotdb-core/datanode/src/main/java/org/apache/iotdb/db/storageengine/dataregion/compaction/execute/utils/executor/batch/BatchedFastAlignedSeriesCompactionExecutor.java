@@ -24,6 +24,7 @@ import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PatternTreeMap;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.WriteProcessException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionLastTimeCheckFailedException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.subtask.FastCompactionTaskSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.ModifiedStatus;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.batch.utils.AlignedSeriesBatchCompactionUtils;
@@ -37,11 +38,13 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.exe
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.fast.element.PageElement;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.AbstractCompactionWriter;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.flushcontroller.FollowedBatchedCompactionFlushController;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionTaskManager;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.datastructure.PatternTreeMapFactory;
 
 import org.apache.tsfile.common.constant.TsFileConstant;
+import org.apache.tsfile.exception.StopReadTsFileByInterruptException;
 import org.apache.tsfile.exception.write.PageException;
 import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
@@ -61,6 +64,9 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class BatchedFastAlignedSeriesCompactionExecutor
     extends FastAlignedSeriesCompactionExecutor {
@@ -76,6 +82,8 @@ public class BatchedFastAlignedSeriesCompactionExecutor
   private final BatchCompactionPlan batchCompactionPlan;
   private final int batchSize =
       IoTDBDescriptor.getInstance().getConfig().getCompactionMaxAlignedSeriesNumInOneBatch();
+  private static final int SUB_TASK_NUM =
+      IoTDBDescriptor.getInstance().getConfig().getSubCompactionTaskNum();
 
   public BatchedFastAlignedSeriesCompactionExecutor(
       AbstractCompactionWriter compactionWriter,
@@ -106,21 +114,26 @@ public class BatchedFastAlignedSeriesCompactionExecutor
         new AlignedSeriesBatchCompactionUtils.BatchColumnSelection(
             valueMeasurementSchemas, batchSize);
     this.sortedSourceFiles = sortedSourceFiles;
-    this.alignedChunkMetadataCache = new HashMap<>();
+    this.alignedChunkMetadataCache = new ConcurrentHashMap<>();
     this.batchCompactionPlan = new BatchCompactionPlan();
   }
 
   private List<AbstractAlignedChunkMetadata> getAlignedChunkMetadataListBySelectedValueColumn(
-      TsFileResource tsFileResource, List<IMeasurementSchema> selectedValueMeasurementSchemas)
+      TsFileResource tsFileResource, List<Integer> selectedColumnIndexList)
       throws IOException, IllegalPathException {
     // 1. get Full AlignedChunkMetadata from cache
-    List<AbstractAlignedChunkMetadata> alignedChunkMetadataList = null;
-    if (alignedChunkMetadataCache.containsKey(tsFileResource)) {
-      alignedChunkMetadataList = alignedChunkMetadataCache.get(tsFileResource);
-    } else {
+    List<AbstractAlignedChunkMetadata> alignedChunkMetadataList =
+        alignedChunkMetadataCache.get(tsFileResource);
+    if (alignedChunkMetadataList == null) {
       alignedChunkMetadataList = getAlignedChunkMetadataList(tsFileResource);
       AlignedSeriesBatchCompactionUtils.markAlignedChunkHasDeletion(alignedChunkMetadataList);
-      alignedChunkMetadataCache.put(tsFileResource, alignedChunkMetadataList);
+      // the following batches are compacted in parallel and may load the same file at the same
+      // time, only the first loaded one is cached
+      List<AbstractAlignedChunkMetadata> cachedAlignedChunkMetadataList =
+          alignedChunkMetadataCache.putIfAbsent(tsFileResource, alignedChunkMetadataList);
+      if (cachedAlignedChunkMetadataList != null) {
+        alignedChunkMetadataList = cachedAlignedChunkMetadataList;
+      }
     }
     // 2. generate AlignedChunkMetadata list by selected value columns
 
@@ -128,7 +141,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
     for (AbstractAlignedChunkMetadata alignedChunkMetadata : alignedChunkMetadataList) {
       filteredAlignedChunkMetadataList.add(
           AlignedSeriesBatchCompactionUtils.filterAlignedChunkMetadataByIndex(
-              alignedChunkMetadata, batchColumnSelection.getSelectedColumnIndexList()));
+              alignedChunkMetadata, selectedColumnIndexList));
     }
     return filteredAlignedChunkMetadataList;
   }
@@ -146,13 +159,16 @@ public class BatchedFastAlignedSeriesCompactionExecutor
   private void compactFirstBatch()
       throws PageException, IllegalPathException, IOException, WriteProcessException {
     List<IMeasurementSchema> selectedMeasurementSchemas;
+    List<Integer> selectedColumnIndexList;
     if (!batchColumnSelection.hasNext()) {
       if (ignoreAllNullRows) {
         return;
       }
       selectedMeasurementSchemas = Collections.singletonList(timeSchema);
+      selectedColumnIndexList = Collections.emptyList();
     } else {
       batchColumnSelection.next();
+      selectedColumnIndexList = batchColumnSelection.getSelectedColumnIndexList();
       selectedMeasurementSchemas =
           new ArrayList<>(batchColumnSelection.getCurrentSelectedColumnSchemaList().size() + 1);
       selectedMeasurementSchemas.add(timeSchema);
@@ -169,6 +185,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
             deviceId,
             subTaskId,
             selectedMeasurementSchemas,
+            selectedColumnIndexList,
             summary,
             ignoreAllNullRows);
     executor.execute();
@@ -178,8 +195,16 @@ public class BatchedFastAlignedSeriesCompactionExecutor
         batchCompactionPlan);
   }
 
+  /**
+   * The following batches only depend on the {@link BatchCompactionPlan} recorded by the first
+   * batch, so they are assigned to the sub tasks in turn and compacted in parallel. Each sub task
+   * uses its own chunk writer in the compaction writer, and the value chunks of one measurement are
+   * always written by the same sub task in time order.
+   */
   private void compactLeftBatches()
       throws PageException, IllegalPathException, IOException, WriteProcessException {
+    List<List<Integer>> leftBatchColumnIndexLists = new ArrayList<>();
+    List<List<IMeasurementSchema>> leftBatchMeasurementSchemas = new ArrayList<>();
     while (batchColumnSelection.hasNext()) {
       batchColumnSelection.next();
       List<IMeasurementSchema> currentBatchMeasurementSchemas =
@@ -187,19 +212,101 @@ public class BatchedFastAlignedSeriesCompactionExecutor
       currentBatchMeasurementSchemas.add(timeSchema);
       currentBatchMeasurementSchemas.addAll(
           batchColumnSelection.getCurrentSelectedColumnSchemaList());
-      FollowingBatchFastAlignedSeriesCompactionExecutor executor =
-          new FollowingBatchFastAlignedSeriesCompactionExecutor(
-              compactionWriter,
-              filterTimeseriesMetadataOffsetMap(currentBatchMeasurementSchemas),
-              readerCacheMap,
-              modificationCacheMap,
-              sortedSourceFiles,
-              deviceId,
-              subTaskId,
-              currentBatchMeasurementSchemas,
-              summary,
-              ignoreAllNullRows);
-      executor.execute();
+      leftBatchColumnIndexLists.add(batchColumnSelection.getSelectedColumnIndexList());
+      leftBatchMeasurementSchemas.add(currentBatchMeasurementSchemas);
+    }
+
+    int subTaskNums = Math.min(leftBatchMeasurementSchemas.size(), SUB_TASK_NUM);
+    if (subTaskNums <= 1) {
+      for (int i = 0; i < leftBatchMeasurementSchemas.size(); i++) {
+        compactFollowingBatch(
+            leftBatchMeasurementSchemas.get(i),
+            leftBatchColumnIndexLists.get(i),
+            subTaskId,
+            summary);
+      }
+      return;
+    }
+
+    // construct sub tasks and start compacting batches in parallel
+    List<Future<Void>> futures = new ArrayList<>();
+    List<FastCompactionTaskSummary> taskSummaryList = new ArrayList<>();
+    try {
+      for (int i = 0; i < subTaskNums; i++) {
+        int currentSubTaskId = i;
+        FastCompactionTaskSummary taskSummary = new FastCompactionTaskSummary();
+        taskSummaryList.add(taskSummary);
+        futures.add(
+            CompactionTaskManager.getInstance()
+                .submitSubTask(
+                    () -> {
+                      for (int batchIdx = currentSubTaskId;
+                          batchIdx < leftBatchMeasurementSchemas.size();
+                          batchIdx += subTaskNums) {
+                        compactFollowingBatch(
+                            leftBatchMeasurementSchemas.get(batchIdx),
+                            leftBatchColumnIndexLists.get(batchIdx),
+                            currentSubTaskId,
+                            taskSummary);
+                      }
+                      return null;
+                    }));
+      }
+
+      // wait for all sub tasks to finish
+      for (int i = 0; i < subTaskNums; i++) {
+        futures.get(i).get();
+        summary.increase(taskSummaryList.get(i));
+      }
+    } catch (ExecutionException e) {
+      // the other sub tasks are still writing to the compaction writer
+      abortAllSubTasks(futures);
+      Throwable cause = e.getCause();
+      if (cause instanceof CompactionLastTimeCheckFailedException) {
+        throw (CompactionLastTimeCheckFailedException) cause;
+      }
+      if (cause instanceof StopReadTsFileByInterruptException) {
+        throw (StopReadTsFileByInterruptException) cause;
+      }
+      throw new IOException("[Compaction] SubCompactionTask meet errors ", e);
+    } catch (InterruptedException e) {
+      abortAllSubTasks(futures);
+      Thread.currentThread().interrupt();
+      throw new IOException("[Compaction] SubCompactionTask of " + deviceId + " interrupted", e);
+    }
+  }
+
+  private void compactFollowingBatch(
+      List<IMeasurementSchema> currentBatchMeasurementSchemas,
+      List<Integer> currentBatchColumnIndexList,
+      int currentSubTaskId,
+      FastCompactionTaskSummary currentSummary)
+      throws PageException, IllegalPathException, IOException, WriteProcessException {
+    FollowingBatchFastAlignedSeriesCompactionExecutor executor =
+        new FollowingBatchFastAlignedSeriesCompactionExecutor(
+            compactionWriter,
+            filterTimeseriesMetadataOffsetMap(currentBatchMeasurementSchemas),
+            readerCacheMap,
+            modificationCacheMap,
+            sortedSourceFiles,
+            deviceId,
+            currentSubTaskId,
+            currentBatchMeasurementSchemas,
+            currentBatchColumnIndexList,
+            currentSummary,
+            ignoreAllNullRows);
+    executor.execute();
+  }
+
+  private void abortAllSubTasks(List<Future<Void>> futures) {
+    for (Future<Void> future : futures) {
+      future.cancel(true);
+    }
+    for (Future<Void> future : futures) {
+      try {
+        future.get();
+      } catch (Exception ignored) {
+      }
     }
   }
 
@@ -218,6 +325,8 @@ public class BatchedFastAlignedSeriesCompactionExecutor
   private class FirstBatchFastAlignedSeriesCompactionExecutor
       extends FastAlignedSeriesCompactionExecutor {
 
+    private final List<Integer> selectedColumnIndexList;
+
     public FirstBatchFastAlignedSeriesCompactionExecutor(
         AbstractCompactionWriter compactionWriter,
         Map<String, Map<TsFileResource, Pair<Long, Long>>> timeseriesMetadataOffsetMap,
@@ -228,6 +337,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
         IDeviceID deviceId,
         int subTaskId,
         List<IMeasurementSchema> measurementSchemas,
+        List<Integer> selectedColumnIndexList,
         FastCompactionTaskSummary summary,
         boolean ignoreAllNullRows) {
       super(
@@ -241,6 +351,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
           measurementSchemas,
           summary,
           ignoreAllNullRows);
+      this.selectedColumnIndexList = selectedColumnIndexList;
       isBatchedCompaction = true;
     }
 
@@ -266,7 +377,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
     @Override
     protected List<AbstractAlignedChunkMetadata> getAlignedChunkMetadataList(
         TsFileResource resource) throws IOException, IllegalPathException {
-      return getAlignedChunkMetadataListBySelectedValueColumn(resource, measurementSchemas);
+      return getAlignedChunkMetadataListBySelectedValueColumn(resource, selectedColumnIndexList);
     }
 
     @Override
@@ -324,6 +435,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
   private class FollowingBatchFastAlignedSeriesCompactionExecutor
       extends FastAlignedSeriesCompactionExecutor {
 
+    private final List<Integer> selectedColumnIndexList;
     private FollowedBatchedCompactionFlushController flushController;
 
     public FollowingBatchFastAlignedSeriesCompactionExecutor(
@@ -336,6 +448,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
         IDeviceID deviceId,
         int subTaskId,
         List<IMeasurementSchema> measurementSchemas,
+        List<Integer> selectedColumnIndexList,
         FastCompactionTaskSummary summary,
         boolean ignoreAllNullRows) {
       super(
@@ -349,6 +462,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
           measurementSchemas,
           summary,
           ignoreAllNullRows);
+      this.selectedColumnIndexList = selectedColumnIndexList;
       isBatchedCompaction = true;
     }
 
@@ -385,7 +499,7 @@ public class BatchedFastAlignedSeriesCompactionExecutor
     @Override
     protected List<AbstractAlignedChunkMetadata> getAlignedChunkMetadataList(
         TsFileResource resource) throws IOException, IllegalPathException {
-      return getAlignedChunkMetadataListBySelectedValueColumn(resource, measurementSchemas);
+      return getAlignedChunkMetadataListBySelectedValueColumn(resource, selectedColumnIndexList);
     }
 
     @Override
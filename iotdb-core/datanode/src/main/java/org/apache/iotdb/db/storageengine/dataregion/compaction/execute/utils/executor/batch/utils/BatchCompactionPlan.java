@@ -29,6 +29,7 @@ import org.apache.tsfile.read.common.TimeRange;
 import org.apache.tsfile.utils.Pair;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -50,10 +51,18 @@ public class BatchCompactionPlan {
         new Pair<>(reader.getFileName(), chunkMetadata.getOffsetOfChunkHeader());
     Chunk chunk = cachedTimeChunks.get(key);
     if (chunk == null) {
-      chunk = reader.readMemChunk(chunkMetadata);
+      return reader.readMemChunk(chunkMetadata);
     }
-    chunk.getData().rewind();
-    return chunk;
+    // the following batches may be compacted in parallel, each of them reads the cached chunk
+    // with its own position
+    ByteBuffer data = chunk.getData().duplicate();
+    data.rewind();
+    return new Chunk(
+        chunk.getHeader(),
+        data,
+        chunk.getDeleteIntervalList(),
+        chunk.getChunkStatistic(),
+        chunk.getEncryptParam());
   }
 
   public void addTimeChunkToCache(String file, long offset, Chunk chunk) {
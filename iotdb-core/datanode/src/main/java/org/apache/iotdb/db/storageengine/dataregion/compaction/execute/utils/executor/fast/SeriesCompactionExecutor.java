@@ -266,6 +266,7 @@ public abstract class SeriesCompactionExecutor {
           break;
         }
         compactionWriter.write(point, subTaskId);
+        summary.rewritePointNum++;
         pointPriorityReader.next();
       }
     }
@@ -307,6 +308,7 @@ public abstract class SeriesCompactionExecutor {
 
       // write data point into chunk writer
       compactionWriter.write(currentPoint, subTaskId);
+      summary.rewritePointNum++;
       pointPriorityReader.next();
     }
   }
@@ -162,7 +162,7 @@ public class SeriesDataBlockReader implements IDataBlockReader {
 
   @Override
   public void close() throws IOException {
-    // no resources need to close
+    seriesScanUtil.close();
   }
 
   private boolean readChunkData() throws IOException {
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.fast.element.AlignedPageElement;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.executor.fast.element.ChunkMetadataElement;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.utils.writer.flushcontroller.AbstractCompactionFlushController;
@@ -44,6 +45,11 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
   // Only used for fast compaction performer
   protected Map<TsFileResource, TsFileSequenceReader> readerMap;
 
+  // If true, the small unsealed page is sealed so that the following page without overlap can be
+  // flushed directly, instead of deserializing every page after an overlapped one
+  private final boolean enablePageGranularRewrite =
+      IoTDBDescriptor.getInstance().getConfig().isEnableCrossCompactionPageGranularRewrite();
+
   public FastCrossCompactionWriter(
       List<TsFileResource> targetResources,
       List<TsFileResource> seqSourceResources,
@@ -183,7 +189,7 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
 
     checkTimeAndMayFlushChunkToCurrentFile(timePageHeader.getStartTime(), subTaskId);
     int fileIndex = seqFileIndexArray[subTaskId];
-    if (!checkIsPageSatisfied(timePageHeader, fileIndex, subTaskId)) {
+    if (!checkIsPageSatisfied(timePageHeader, fileIndex, subTaskId, enablePageGranularRewrite)) {
       // unsealed page is too small or page.endTime > file.endTime, then deserialize the page
       return false;
     }
@@ -223,7 +229,7 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
     if (flushController.shouldSealChunkWriter()) {
       sealChunk(targetFileWriters.get(fileIndex), chunkWriters[subTaskId], subTaskId);
     }
-    if (!checkIsPageSatisfied(timePageHeader, fileIndex, subTaskId)) {
+    if (!checkIsPageSatisfied(timePageHeader, fileIndex, subTaskId, false)) {
       // unsealed page is too small or page.endTime > file.endTime, then deserialize the page
       return false;
     }
@@ -260,7 +266,7 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
       throws IOException, PageException {
     checkTimeAndMayFlushChunkToCurrentFile(pageHeader.getStartTime(), subTaskId);
     int fileIndex = seqFileIndexArray[subTaskId];
-    if (!checkIsPageSatisfied(pageHeader, fileIndex, subTaskId)) {
+    if (!checkIsPageSatisfied(pageHeader, fileIndex, subTaskId, enablePageGranularRewrite)) {
       // unsealed page is too small or page.endTime > file.endTime, then deserialize the page
       return false;
     }
@@ -296,10 +302,17 @@ public class FastCrossCompactionWriter extends AbstractCrossCompactionWriter {
             || fileIndex == targetFileWriters.size() - 1);
   }
 
-  private boolean checkIsPageSatisfied(PageHeader pageHeader, int fileIndex, int subTaskId) {
+  /**
+   * @param ignoreUnsealedPageSize if true, a small unsealed page does not stop the page from being
+   *     flushed, it will be sealed before the page is flushed. Batched value pages must not ignore
+   *     it, they have to follow the pages of the first batch.
+   */
+  private boolean checkIsPageSatisfied(
+      PageHeader pageHeader, int fileIndex, int subTaskId, boolean ignoreUnsealedPageSize) {
     boolean isUnsealedPageLargeEnough =
-        chunkWriters[subTaskId].checkIsUnsealedPageOverThreshold(
-            pageSizeLowerBoundInCompaction, pagePointNumLowerBoundInCompaction, true);
+        ignoreUnsealedPageSize
+            || chunkWriters[subTaskId].checkIsUnsealedPageOverThreshold(
+                pageSizeLowerBoundInCompaction, pagePointNumLowerBoundInCompaction, true);
     // unsealed page is too small or page.endTime > file.endTime, then return false
     // isCurrentDeviceExistedInSourceSeqFiles[fileIndex] should be true when fileIndex !=
     // targetFileWriters.size() - 1
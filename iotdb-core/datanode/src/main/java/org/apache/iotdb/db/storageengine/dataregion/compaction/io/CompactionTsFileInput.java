@@ -24,6 +24,7 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionIoDataType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
 
+import com.google.common.util.concurrent.RateLimiter;
 import org.apache.tsfile.exception.StopReadTsFileByInterruptException;
 import org.apache.tsfile.read.reader.TsFileInput;
 
@@ -42,9 +43,20 @@ public class CompactionTsFileInput implements TsFileInput {
   /** A flag that indicates if an aligned series is being read. */
   private volatile boolean readingAlignedSeries = false;
 
+  /** The rate limiters of the data folder and the compaction type. */
+  private final RateLimiter folderReadOperationRateLimiter;
+
+  private final RateLimiter folderReadRateLimiter;
+
   public CompactionTsFileInput(CompactionType compactionType, TsFileInput tsFileInput) {
     this.compactionType = compactionType;
     this.tsFileInput = tsFileInput;
+    this.folderReadOperationRateLimiter =
+        CompactionTaskManager.getInstance()
+            .getCompactionReadOperationRateLimiter(tsFileInput.getFilePath(), compactionType);
+    this.folderReadRateLimiter =
+        CompactionTaskManager.getInstance()
+            .getCompactionReadRateLimiter(tsFileInput.getFilePath(), compactionType);
   }
 
   public void setMetadataOffset(long metadataOffset) {
@@ -137,6 +149,8 @@ public class CompactionTsFileInput implements TsFileInput {
   private void acquireReadDataSizeWithCompactionReadRateLimiter(int readDataSize) {
     CompactionTaskManager.getInstance().getCompactionReadOperationRateLimiter().acquire(1);
     CompactionTaskManager.getInstance().getCompactionReadRateLimiter().acquire(readDataSize);
+    folderReadOperationRateLimiter.acquire(1);
+    folderReadRateLimiter.acquire(readDataSize);
   }
 
   private void updateMetrics(long position, long totalSize) {
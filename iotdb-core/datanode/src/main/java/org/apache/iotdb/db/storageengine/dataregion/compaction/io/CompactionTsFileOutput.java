@@ -30,17 +30,21 @@ public class CompactionTsFileOutput extends OutputStream implements TsFileOutput
 
   private TsFileOutput output;
   private RateLimiter rateLimiter;
+  // the rate limiter of the data folder and the compaction type
+  private RateLimiter folderRateLimiter;
   private final int maxSizePerWrite;
 
-  public CompactionTsFileOutput(TsFileOutput output, RateLimiter rateLimiter) {
+  public CompactionTsFileOutput(
+      TsFileOutput output, RateLimiter rateLimiter, RateLimiter folderRateLimiter) {
     this.output = output;
     this.rateLimiter = rateLimiter;
+    this.folderRateLimiter = folderRateLimiter;
     this.maxSizePerWrite = (int) Math.min((long) rateLimiter.getRate(), Integer.MAX_VALUE);
   }
 
   @Override
   public void write(int b) throws IOException {
-    rateLimiter.acquire(1);
+    acquire(1);
     output.wrapAsStream().write(b);
   }
 
@@ -51,7 +55,7 @@ public class CompactionTsFileOutput extends OutputStream implements TsFileOutput
 
   @Override
   public void write(byte b) throws IOException {
-    rateLimiter.acquire(1);
+    acquire(1);
     output.write(b);
   }
 
@@ -94,10 +98,15 @@ public class CompactionTsFileOutput extends OutputStream implements TsFileOutput
   public void write(byte[] buf, int start, int length) throws IOException {
     while (length > 0) {
       int writeSize = Math.min(length, maxSizePerWrite);
-      rateLimiter.acquire(writeSize);
+      acquire(writeSize);
       output.wrapAsStream().write(buf, start, writeSize);
       start += writeSize;
       length -= writeSize;
     }
   }
+
+  private void acquire(int writeSize) {
+    rateLimiter.acquire(writeSize);
+    folderRateLimiter.acquire(writeSize);
+  }
 }
@@ -58,7 +58,9 @@ public class CompactionTsFileWriter extends TsFileIOWriter {
     this.type = type;
     super.out =
         new CompactionTsFileOutput(
-            super.out, CompactionTaskManager.getInstance().getMergeWriteRateLimiter());
+            super.out,
+            CompactionTaskManager.getInstance().getMergeWriteRateLimiter(),
+            CompactionTaskManager.getInstance().getMergeWriteRateLimiter(file.getPath(), type));
   }
 
   public void markStartingWritingAligned() {
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.schedule;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * Shares the disk bandwidth between compaction and queries by the latency of the chunks read by
+ * queries from disk. The latency is measured per data folder of {@link TierManager}, and the
+ * configured compaction rate limits are the rates when the queries of a folder are fast. The
+ * compactions of each folder are scaled by a ratio adjusted every second: the ratio is halved when
+ * the average latency of the query reads in the folder in the last second is over the target, and
+ * increased a little when it's not or there is no query read, so that compaction gives way to the
+ * queries quickly and takes the idle disks back gradually. A slow disk does not slow down the
+ * compactions on the other disks.
+ *
+ * <p>The compaction types give way in the order of their weights, see {@link
+ * #getRateRatio(double, CompactionType)}.
+ *
+ * <p>Only the chunks read by the query threads on cache misses are measured, the chunks read ahead
+ * by prefetching and the reads of compactions are not. Flush is not throttled, it only benefits
+ * from the bandwidth compaction gives way.
+ */
+public class CompactionIoGovernor {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+
+  private static final long ADJUST_INTERVAL_IN_MS = 1000L;
+
+  /** Compaction keeps this ratio of the configured rates however slow the queries are. */
+  static final double MIN_RATE_RATIO = 0.1;
+
+  static final double RATE_RATIO_INCREMENT = 0.1;
+
+  // inner seq compactions keep the seq files few for the queries, so they give way last, cross
+  // compactions rewrite the most data, so they give way first
+  static final double INNER_SEQ_COMPACTION_WEIGHT = 1.0;
+  static final double INNER_UNSEQ_COMPACTION_WEIGHT = 0.75;
+  static final double CROSS_COMPACTION_WEIGHT = 0.5;
+
+  private final long targetReadLatencyInNs;
+  // file path -> data folder, null if the file is in none of them
+  private final UnaryOperator<String> folderResolver;
+  private final ObjDoubleConsumer<String> rateRatioApplier;
+
+  // data folder -> the query reads and the rate ratio of the folder
+  private final Map<String, FolderIoStat> folderIoStats = new ConcurrentHashMap<>();
+
+  private ScheduledExecutorService adjustExecutor;
+
+  private CompactionIoGovernor() {
+    this(
+        TimeUnit.MILLISECONDS.toNanos(
+            IoTDBDescriptor.getInstance().getConfig().getCompactionIoTargetQueryReadLatencyInMs()),
+        filePath -> TierManager.getInstance().getFileFolder(filePath),
+        (folder, ratio) -> CompactionTaskManager.getInstance().setIoRateRatio(folder, ratio));
+  }
+
+  CompactionIoGovernor(
+      long targetReadLatencyInNs,
+      UnaryOperator<String> folderResolver,
+      ObjDoubleConsumer<String> rateRatioApplier) {
+    this.targetReadLatencyInNs = targetReadLatencyInNs;
+    this.folderResolver = folderResolver;
+    this.rateRatioApplier = rateRatioApplier;
+  }
+
+  public static CompactionIoGovernor getInstance() {
+    return CompactionIoGovernorHolder.INSTANCE;
+  }
+
+  public boolean isEnabled() {
+    return targetReadLatencyInNs > 0;
+  }
+
+  /** Called by the query threads after reading a chunk of the file from disk. */
+  public void recordQueryRead(String filePath, long costInNs) {
+    if (!isEnabled()) {
+      return;
+    }
+    String folder = folderResolver.apply(filePath);
+    if (folder == null) {
+      return;
+    }
+    FolderIoStat folderIoStat = folderIoStats.computeIfAbsent(folder, k -> new FolderIoStat());
+    folderIoStat.queryReadCount.increment();
+    folderIoStat.queryReadTimeInNs.add(costInNs);
+  }
+
+  public synchronized void start() {
+    if (!isEnabled() || adjustExecutor != null) {
+      return;
+    }
+    adjustExecutor =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.COMPACTION_IO_GOVERNOR.getName());
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        adjustExecutor,
+        this::adjust,
+        ADJUST_INTERVAL_IN_MS,
+        ADJUST_INTERVAL_IN_MS,
+        TimeUnit.MILLISECONDS);
+    LOGGER.info(
+        "Compaction IO governor started, target query read latency is {} ms",
+        TimeUnit.NANOSECONDS.toMillis(targetReadLatencyInNs));
+  }
+
+  public synchronized void stop() {
+    if (adjustExecutor == null) {
+      return;
+    }
+    adjustExecutor.shutdownNow();
+    adjustExecutor = null;
+    for (Map.Entry<String, FolderIoStat> entry : folderIoStats.entrySet()) {
+      entry.getValue().rateRatio = 1.0;
+      rateRatioApplier.accept(entry.getKey(), 1.0);
+    }
+  }
+
+  void adjust() {
+    for (Map.Entry<String, FolderIoStat> entry : folderIoStats.entrySet()) {
+      adjust(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private void adjust(String folder, FolderIoStat folderIoStat) {
+    long readCount = folderIoStat.queryReadCount.sumThenReset();
+    long readTimeInNs = folderIoStat.queryReadTimeInNs.sumThenReset();
+    double ratio = folderIoStat.rateRatio;
+    if (readCount > 0 && readTimeInNs / readCount > targetReadLatencyInNs) {
+      ratio = Math.max(MIN_RATE_RATIO, ratio / 2);
+    } else {
+      ratio = Math.min(1.0, ratio + RATE_RATIO_INCREMENT);
+    }
+    if (ratio != folderIoStat.rateRatio) {
+      LOGGER.debug(
+          "Compaction IO rate ratio of {} changes from {} to {}, {} query reads cost {} ns",
+          folder,
+          folderIoStat.rateRatio,
+          ratio,
+          readCount,
+          readTimeInNs);
+      folderIoStat.rateRatio = ratio;
+      rateRatioApplier.accept(folder, ratio);
+    }
+  }
+
+  /** Get the rate ratio of the data folder, 1.0 if the folder has never been throttled. */
+  public double getRateRatio(String folder) {
+    FolderIoStat folderIoStat = folderIoStats.get(folder);
+    return folderIoStat == null ? 1.0 : folderIoStat.rateRatio;
+  }
+
+  /**
+   * Get the rate ratio of a compaction type in a data folder of the rate ratio. A type of weight w
+   * runs at ratio^(1/w) of the configured rates, so the types of lower weights give way to the
+   * queries first, e.g. at the folder ratio 0.5 the cross compactions run at 0.25, and all of them
+   * run at the configured rates when the folder is not throttled.
+   */
+  public static double getRateRatio(double folderRateRatio, CompactionType type) {
+    if (folderRateRatio >= 1.0) {
+      return 1.0;
+    }
+    return Math.max(MIN_RATE_RATIO, Math.pow(folderRateRatio, 1 / getWeight(type)));
+  }
+
+  static double getWeight(CompactionType type) {
+    switch (type) {
+      case INNER_SEQ_COMPACTION:
+        return INNER_SEQ_COMPACTION_WEIGHT;
+      case INNER_UNSEQ_COMPACTION:
+        return INNER_UNSEQ_COMPACTION_WEIGHT;
+      case CROSS_COMPACTION:
+      default:
+        return CROSS_COMPACTION_WEIGHT;
+    }
+  }
+
+  private static class FolderIoStat {
+
+    private final LongAdder queryReadCount = new LongAdder();
+    private final LongAdder queryReadTimeInNs = new LongAdder();
+
+    // updated by the adjusting thread, and reset when the governor stops
+    private volatile double rateRatio = 1.0;
+  }
+
+  private static class CompactionIoGovernorHolder {
+
+    private static final CompactionIoGovernor INSTANCE = new CompactionIoGovernor();
+
+    private CompactionIoGovernorHolder() {
+      // empty constructor
+    }
+  }
+}
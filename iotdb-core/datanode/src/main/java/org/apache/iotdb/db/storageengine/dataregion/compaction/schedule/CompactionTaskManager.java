@@ -33,6 +33,8 @@ import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.Compacti
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.AbstractCompactionTask;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.task.CompactionTaskSummary;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.comparator.DefaultCompactionTaskComparatorImpl;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+import org.apache.iotdb.db.storageengine.rescon.disk.TierManager;
 import org.apache.iotdb.db.utils.datastructure.FixedPriorityBlockingQueue;
 
 import com.google.common.util.concurrent.RateLimiter;
@@ -96,6 +98,16 @@ public class CompactionTaskManager implements IService {
           config.getCompactionReadThroughputMbPerSec() <= 0
               ? Double.MAX_VALUE
               : config.getCompactionReadThroughputMbPerSec() * 1024.0 * 1024.0);
+  // data folder -> the ratio of the configured rates above in effect, adjusted by
+  // CompactionIoGovernor
+  private final Map<String, Double> folderIoRateRatios = new ConcurrentHashMap<>();
+  // data folder -> compaction type -> the rate limiters of the compactions reading or writing the
+  // files of the folder, they are acquired besides the node wide ones above and unlimited unless
+  // the folder is throttled
+  private final Map<String, Map<CompactionType, FolderRateLimiters>> folderRateLimiters =
+      new ConcurrentHashMap<>();
+  // used for the files in none of the data folders
+  private final FolderRateLimiters unlimitedRateLimiters = new FolderRateLimiters();
 
   private volatile boolean init = false;
   private AtomicLong compactionConfigVersion = new AtomicLong(0);
@@ -123,6 +135,7 @@ public class CompactionTaskManager implements IService {
       candidateCompactionTaskQueue.regsitPollLastHook(
           AbstractCompactionTask::resetCompactionCandidateStatusForAllSourceFiles);
       candidateCompactionTaskQueue.regsitPollLastHook(AbstractCompactionTask::handleTaskCleanup);
+      CompactionIoGovernor.getInstance().start();
       init = true;
     }
     logger.info("Compaction task manager started.");
@@ -154,6 +167,7 @@ public class CompactionTaskManager implements IService {
   @Override
   public void stop() {
     stopAllCompactionWorker = true;
+    CompactionIoGovernor.getInstance().stop();
     if (taskExecutionPool != null) {
       subCompactionTaskExecutionPool.shutdownNow();
       taskExecutionPool.shutdownNow();
@@ -167,6 +181,7 @@ public class CompactionTaskManager implements IService {
   @Override
   public void waitAndStop(long milliseconds) {
     stopAllCompactionWorker = true;
+    CompactionIoGovernor.getInstance().stop();
     if (taskExecutionPool != null) {
       awaitTermination(subCompactionTaskExecutionPool, milliseconds);
       awaitTermination(taskExecutionPool, milliseconds);
@@ -294,16 +309,93 @@ public class CompactionTaskManager implements IService {
     return compactionReadOperationRateLimiter;
   }
 
+  public RateLimiter getMergeWriteRateLimiter(String filePath, CompactionType type) {
+    return getFolderRateLimiters(filePath, type).writeRateLimiter;
+  }
+
+  public RateLimiter getCompactionReadRateLimiter(String filePath, CompactionType type) {
+    return getFolderRateLimiters(filePath, type).readThroughputRateLimiter;
+  }
+
+  public RateLimiter getCompactionReadOperationRateLimiter(String filePath, CompactionType type) {
+    return getFolderRateLimiters(filePath, type).readOperationRateLimiter;
+  }
+
+  private FolderRateLimiters getFolderRateLimiters(String filePath, CompactionType type) {
+    String folder = TierManager.getInstance().getFileFolder(filePath);
+    if (folder == null || type == null) {
+      return unlimitedRateLimiters;
+    }
+    return folderRateLimiters.computeIfAbsent(folder, this::createFolderRateLimiters).get(type);
+  }
+
+  private Map<CompactionType, FolderRateLimiters> createFolderRateLimiters(String folder) {
+    Map<CompactionType, FolderRateLimiters> rateLimiters = new EnumMap<>(CompactionType.class);
+    for (CompactionType type : CompactionType.values()) {
+      rateLimiters.put(type, new FolderRateLimiters());
+    }
+    updateFolderRateLimiters(folder, rateLimiters);
+    return rateLimiters;
+  }
+
   public void setWriteMergeRate(final double throughputMbPerSec) {
     setRate(mergeWriteRateLimiter, throughputMbPerSec * 1024.0 * 1024.0);
+    updateFolderRateLimiters();
   }
 
   public void setCompactionReadOperationRate(final double readOperationPerSec) {
     setRate(compactionReadOperationRateLimiter, readOperationPerSec);
+    updateFolderRateLimiters();
   }
 
   public void setCompactionReadThroughputRate(final double throughputMbPerSec) {
     setRate(compactionReadThroughputRateLimiter, throughputMbPerSec * 1024.0 * 1024.0);
+    updateFolderRateLimiters();
+  }
+
+  /**
+   * Scale the configured compaction rates of the data folder, each compaction type by its own
+   * ratio derived from the folder one, the unlimited ones are not affected.
+   */
+  public void setIoRateRatio(final String folder, final double ratio) {
+    folderIoRateRatios.put(folder, ratio);
+    updateFolderRateLimiters(
+        folder, folderRateLimiters.computeIfAbsent(folder, this::createFolderRateLimiters));
+  }
+
+  public double getIoRateRatio(final String folder) {
+    return folderIoRateRatios.getOrDefault(folder, 1.0);
+  }
+
+  private void updateFolderRateLimiters() {
+    for (Map.Entry<String, Map<CompactionType, FolderRateLimiters>> entry :
+        folderRateLimiters.entrySet()) {
+      updateFolderRateLimiters(entry.getKey(), entry.getValue());
+    }
+  }
+
+  private synchronized void updateFolderRateLimiters(
+      String folder, Map<CompactionType, FolderRateLimiters> rateLimiters) {
+    double folderRatio = getIoRateRatio(folder);
+    for (Map.Entry<CompactionType, FolderRateLimiters> entry : rateLimiters.entrySet()) {
+      double ratio = CompactionIoGovernor.getRateRatio(folderRatio, entry.getKey());
+      FolderRateLimiters limiters = entry.getValue();
+      setRate(limiters.writeRateLimiter, scaleRate(mergeWriteRateLimiter, ratio));
+      setRate(
+          limiters.readOperationRateLimiter, scaleRate(compactionReadOperationRateLimiter, ratio));
+      setRate(
+          limiters.readThroughputRateLimiter,
+          scaleRate(compactionReadThroughputRateLimiter, ratio));
+    }
+  }
+
+  private static double scaleRate(RateLimiter nodeRateLimiter, double ratio) {
+    // not throttled, the node wide rate limiter is enough
+    if (ratio >= 1.0) {
+      return Double.MAX_VALUE;
+    }
+    // an unlimited rate is still large enough to be unlimited after scaled
+    return Math.min(Double.MAX_VALUE, nodeRateLimiter.getRate() * ratio);
   }
 
   private void setRate(RateLimiter rateLimiter, double rate) {
@@ -490,4 +582,10 @@ public class CompactionTaskManager implements IService {
     }
     return storageGroupTasks.get(regionWithSG).get(task);
   }
+
+  private static class FolderRateLimiters {
+    private final RateLimiter writeRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+    private final RateLimiter readOperationRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+    private final RateLimiter readThroughputRateLimiter = RateLimiter.create(Double.MAX_VALUE);
+  }
 }
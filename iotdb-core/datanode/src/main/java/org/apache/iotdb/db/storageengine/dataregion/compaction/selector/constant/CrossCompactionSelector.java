@@ -21,16 +21,20 @@ package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.constan
 
 import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.ICrossSpaceSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.CostBasedCrossSpaceCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.RewriteCrossSpaceCompactionSelector;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
 
 @SuppressWarnings("squid:S6548")
 public enum CrossCompactionSelector {
-  REWRITE;
+  REWRITE,
+  COST_BASED;
 
   public static CrossCompactionSelector getCrossCompactionSelector(String name) {
     if (REWRITE.toString().equalsIgnoreCase(name)) {
       return REWRITE;
+    } else if (COST_BASED.toString().equalsIgnoreCase(name)) {
+      return COST_BASED;
     }
     throw new IllegalCompactionSelectorNameException("Illegal Cross Compaction Selector " + name);
   }
@@ -43,6 +47,9 @@ public enum CrossCompactionSelector {
       TsFileManager tsFileManager,
       CompactionScheduleContext context) {
     switch (this) {
+      case COST_BASED:
+        return new CostBasedCrossSpaceCompactionSelector(
+            logicalStorageGroupName, virtualGroupId, timePartition, tsFileManager, context);
       case REWRITE:
       default:
         return new RewriteCrossSpaceCompactionSelector(
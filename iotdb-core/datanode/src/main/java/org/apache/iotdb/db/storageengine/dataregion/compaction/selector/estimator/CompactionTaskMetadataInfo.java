@@ -35,10 +35,11 @@ class CompactionTaskMetadataInfo {
     }
     int compactionMaxAlignedSeriesNumInOneBatch =
         IoTDBDescriptor.getInstance().getConfig().getCompactionMaxAlignedSeriesNumInOneBatch();
-    compactionMaxAlignedSeriesNumInOneBatch =
-        compactionMaxAlignedSeriesNumInOneBatch <= 0
-            ? Integer.MAX_VALUE
-            : compactionMaxAlignedSeriesNumInOneBatch;
-    return Math.max(compactionMaxAlignedSeriesNumInOneBatch, subTaskNum);
+    if (compactionMaxAlignedSeriesNumInOneBatch <= 0) {
+      return Integer.MAX_VALUE;
+    }
+    // the batches of an aligned device are compacted by the sub tasks in parallel
+    return (int)
+        Math.min(Integer.MAX_VALUE, (long) compactionMaxAlignedSeriesNumInOneBatch * subTaskNum);
   }
 }
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl;
+
+import org.apache.iotdb.commons.conf.IoTDBConstant;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.CrossCompactionTaskResource;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.CrossSpaceCompactionCandidate;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.DeviceInfo;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.TsFileResourceCandidate;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Selects the unseq files of a cross space compaction task by the read cost they cause and the
+ * bytes the task has to write, instead of selecting as many unseq files as the limits allow.
+ *
+ * <p>The unseq files can only be selected from the oldest one in order, so the selection is a
+ * prefix of the unseq files. For each unseq file, the read cost reduction is the sum of its read
+ * amplification over its devices, which is the number of unseq files overlapping with it in the
+ * time range of the device, i.e. the number of files a query of the device has to merge there. The
+ * write cost is the size of the unseq file and the seq files selected with it. The prefix with the
+ * most read cost reduction per byte written is selected, so that the devices covered by many
+ * overlapped unseq files are compacted first and a large seq file overlapping with few data is
+ * left to the following tasks.
+ */
+public class CostBasedCrossSpaceCompactionSelector extends RewriteCrossSpaceCompactionSelector {
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(IoTDBConstant.COMPACTION_LOGGER_NAME);
+
+  public CostBasedCrossSpaceCompactionSelector(
+      String logicalStorageGroupName,
+      String dataRegionId,
+      long timePartition,
+      TsFileManager tsFileManager,
+      CompactionScheduleContext context) {
+    super(logicalStorageGroupName, dataRegionId, timePartition, tsFileManager, context);
+  }
+
+  @Override
+  @SuppressWarnings("squid:S135")
+  protected CrossCompactionTaskResource executeTaskResourceSelection(
+      CrossSpaceCompactionCandidate candidate) throws IOException {
+    CrossCompactionTaskResource taskResource = new CrossCompactionTaskResource();
+    List<SelectedSplit> selectedSplits = new ArrayList<>();
+    long totalReadCostReduction = 0;
+    long totalWriteCost = 0;
+    double bestScore = -1;
+    int bestSplitNum = 0;
+    UnseqFileTimeIndex unseqFileTimeIndex =
+        new UnseqFileTimeIndex(candidate.getUnseqFileCandidates());
+
+    while (candidate.hasNextSplit()) {
+      CrossSpaceCompactionCandidate.CrossCompactionTaskResourceSplit split = candidate.nextSplit();
+      TsFileResource unseqFile = split.unseqFile.resource;
+      List<TsFileResource> targetSeqFiles = selectTargetSeqFiles(candidate, split);
+      if (targetSeqFiles == null) {
+        break;
+      }
+
+      long memoryCost = estimateMemoryCost(taskResource, unseqFile, targetSeqFiles);
+      if (!canAddToTaskResource(taskResource, unseqFile, targetSeqFiles, memoryCost)) {
+        break;
+      }
+      taskResource.putResources(unseqFile, targetSeqFiles, memoryCost);
+      selectedSplits.add(new SelectedSplit(unseqFile, targetSeqFiles, memoryCost));
+
+      totalReadCostReduction += estimateReadCostReduction(split.unseqFile, unseqFileTimeIndex);
+      totalWriteCost += unseqFile.getTsFileSize();
+      for (TsFileResource seqFile : targetSeqFiles) {
+        totalWriteCost += seqFile.getTsFileSize();
+      }
+      double score = (double) totalReadCostReduction / Math.max(1L, totalWriteCost);
+      // prefer more files when the scores are the same
+      if (score >= bestScore) {
+        bestScore = score;
+        bestSplitNum = selectedSplits.size();
+      }
+    }
+
+    CrossCompactionTaskResource result = new CrossCompactionTaskResource();
+    for (int i = 0; i < bestSplitNum; i++) {
+      SelectedSplit selectedSplit = selectedSplits.get(i);
+      result.putResources(
+          selectedSplit.unseqFile, selectedSplit.targetSeqFiles, selectedSplit.memoryCost);
+    }
+    result.sortSeqFiles(candidate.getSeqFiles());
+    LOGGER.debug(
+        "Select {} of {} candidate unseq files, read cost reduction per byte written is {}",
+        bestSplitNum,
+        selectedSplits.size(),
+        bestScore);
+    return result;
+  }
+
+  /**
+   * The read cost reduction of compacting the unseq file, which is the sum of the number of unseq
+   * files overlapping with it, including itself, in the time range of each of its devices. The time
+   * index of the other unseq files is used as it is, a file time index may overestimate it.
+   */
+  static long estimateReadCostReduction(
+      TsFileResourceCandidate unseqFile, UnseqFileTimeIndex unseqFileTimeIndex)
+      throws IOException {
+    long readCostReduction = 0;
+    for (Iterator<DeviceInfo> it = unseqFile.getDeviceInfoIterator(); it.hasNext(); ) {
+      readCostReduction += unseqFileTimeIndex.countOverlappedFiles(it.next());
+    }
+    return readCostReduction;
+  }
+
+  /**
+   * The sorted start times and end times of each device in the unseq files, collected once for
+   * each device in a selection, so that the overlapped files of a device are counted by binary
+   * searches instead of checking all the unseq files for each split.
+   */
+  static class UnseqFileTimeIndex {
+    private final List<TsFileResourceCandidate> unseqFileCandidates;
+    // device -> {sorted start times, sorted end times}
+    private final Map<IDeviceID, long[][]> deviceTimes = new HashMap<>();
+
+    UnseqFileTimeIndex(List<TsFileResourceCandidate> unseqFileCandidates) {
+      this.unseqFileCandidates = unseqFileCandidates;
+    }
+
+    long countOverlappedFiles(DeviceInfo deviceInfo) {
+      long[][] times = deviceTimes.computeIfAbsent(deviceInfo.deviceId, this::collectTimes);
+      // the files starting before the end of the device, except the ones ending before its start
+      return countNotGreaterThan(times[0], deviceInfo.endTime)
+          - countLessThan(times[1], deviceInfo.startTime);
+    }
+
+    private long[][] collectTimes(IDeviceID deviceId) {
+      long[] startTimes = new long[unseqFileCandidates.size()];
+      long[] endTimes = new long[unseqFileCandidates.size()];
+      int fileNum = 0;
+      for (TsFileResourceCandidate unseqFileCandidate : unseqFileCandidates) {
+        TsFileResource resource = unseqFileCandidate.resource;
+        if (resource.definitelyNotContains(deviceId)) {
+          continue;
+        }
+        Optional<Long> startTime = resource.getStartTime(deviceId);
+        Optional<Long> endTime = resource.getEndTime(deviceId);
+        if (startTime.isPresent() && endTime.isPresent() && startTime.get() <= endTime.get()) {
+          startTimes[fileNum] = startTime.get();
+          endTimes[fileNum] = endTime.get();
+          fileNum++;
+        }
+      }
+      startTimes = Arrays.copyOf(startTimes, fileNum);
+      endTimes = Arrays.copyOf(endTimes, fileNum);
+      Arrays.sort(startTimes);
+      Arrays.sort(endTimes);
+      return new long[][] {startTimes, endTimes};
+    }
+
+    private static int countNotGreaterThan(long[] sortedTimes, long time) {
+      int low = 0;
+      int high = sortedTimes.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (sortedTimes[mid] <= time) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private static int countLessThan(long[] sortedTimes, long time) {
+      int low = 0;
+      int high = sortedTimes.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (sortedTimes[mid] < time) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+  }
+
+  private static class SelectedSplit {
+    private final TsFileResource unseqFile;
+    private final List<TsFileResource> targetSeqFiles;
+    private final long memoryCost;
+
+    private SelectedSplit(
+        TsFileResource unseqFile, List<TsFileResource> targetSeqFiles, long memoryCost) {
+      this.unseqFile = unseqFile;
+      this.targetSeqFiles = targetSeqFiles;
+      this.memoryCost = memoryCost;
+    }
+  }
+}
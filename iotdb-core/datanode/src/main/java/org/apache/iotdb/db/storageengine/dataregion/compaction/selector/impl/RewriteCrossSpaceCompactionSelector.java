@@ -206,43 +206,19 @@ public class RewriteCrossSpaceCompactionSelector implements ICrossSpaceSelector
    * @throws IOException in prepare next split
    */
   @SuppressWarnings("squid:S135")
-  private CrossCompactionTaskResource executeTaskResourceSelection(
+  protected CrossCompactionTaskResource executeTaskResourceSelection(
       CrossSpaceCompactionCandidate candidate) throws IOException {
     CrossCompactionTaskResource taskResource = new CrossCompactionTaskResource();
 
     while (candidate.hasNextSplit()) {
       CrossSpaceCompactionCandidate.CrossCompactionTaskResourceSplit split = candidate.nextSplit();
       TsFileResource unseqFile = split.unseqFile.resource;
-      List<TsFileResource> targetSeqFiles =
-          split.seqFiles.stream().map(c -> c.resource).collect(Collectors.toList());
-
-      if (!split.atLeastOneSeqFileSelected) {
-        LOGGER.debug("Unseq file {} does not overlap with any seq files.", unseqFile);
-        TsFileResourceCandidate latestSealedSeqFile =
-            getLatestSealedSeqFile(candidate.getSeqFileCandidates());
-        if (latestSealedSeqFile == null) {
-          break;
-        }
-        if (!latestSealedSeqFile.selected) {
-          targetSeqFiles.add(latestSealedSeqFile.resource);
-          latestSealedSeqFile.markAsSelected();
-        }
+      List<TsFileResource> targetSeqFiles = selectTargetSeqFiles(candidate, split);
+      if (targetSeqFiles == null) {
+        break;
       }
 
-      List<TsFileResource> newSelectedSeqResources = new ArrayList<>(taskResource.getSeqFiles());
-      newSelectedSeqResources.addAll(targetSeqFiles);
-      List<TsFileResource> newSelectedUnseqResources =
-          new ArrayList<>(taskResource.getUnseqFiles());
-      newSelectedUnseqResources.add(unseqFile);
-
-      long roughEstimatedMemoryCost =
-          compactionEstimator.roughEstimateCrossCompactionMemory(
-              context, newSelectedSeqResources, newSelectedUnseqResources);
-      long memoryCost =
-          CompactionEstimateUtils.shouldUseRoughEstimatedResult(roughEstimatedMemoryCost)
-              ? roughEstimatedMemoryCost
-              : compactionEstimator.estimateCrossCompactionMemory(
-                  newSelectedSeqResources, newSelectedUnseqResources);
+      long memoryCost = estimateMemoryCost(taskResource, unseqFile, targetSeqFiles);
       if (!canAddToTaskResource(taskResource, unseqFile, targetSeqFiles, memoryCost)) {
         break;
       }
@@ -258,6 +234,50 @@ public class RewriteCrossSpaceCompactionSelector implements ICrossSpaceSelector
     return taskResource;
   }
 
+  /**
+   * Get the seq files to compact with the unseq file of the split. Return null if the unseq file
+   * does not overlap with any seq file and there is no sealed seq file to compact with.
+   */
+  protected List<TsFileResource> selectTargetSeqFiles(
+      CrossSpaceCompactionCandidate candidate,
+      CrossSpaceCompactionCandidate.CrossCompactionTaskResourceSplit split) {
+    List<TsFileResource> targetSeqFiles =
+        split.seqFiles.stream().map(c -> c.resource).collect(Collectors.toList());
+    if (!split.atLeastOneSeqFileSelected) {
+      LOGGER.debug("Unseq file {} does not overlap with any seq files.", split.unseqFile.resource);
+      TsFileResourceCandidate latestSealedSeqFile =
+          getLatestSealedSeqFile(candidate.getSeqFileCandidates());
+      if (latestSealedSeqFile == null) {
+        return null;
+      }
+      if (!latestSealedSeqFile.selected) {
+        targetSeqFiles.add(latestSealedSeqFile.resource);
+        latestSealedSeqFile.markAsSelected();
+      }
+    }
+    return targetSeqFiles;
+  }
+
+  /** Estimate the memory cost of the task after adding the unseq file and its seq files. */
+  protected long estimateMemoryCost(
+      CrossCompactionTaskResource taskResource,
+      TsFileResource unseqFile,
+      List<TsFileResource> targetSeqFiles)
+      throws IOException {
+    List<TsFileResource> newSelectedSeqResources = new ArrayList<>(taskResource.getSeqFiles());
+    newSelectedSeqResources.addAll(targetSeqFiles);
+    List<TsFileResource> newSelectedUnseqResources = new ArrayList<>(taskResource.getUnseqFiles());
+    newSelectedUnseqResources.add(unseqFile);
+
+    long roughEstimatedMemoryCost =
+        compactionEstimator.roughEstimateCrossCompactionMemory(
+            context, newSelectedSeqResources, newSelectedUnseqResources);
+    return CompactionEstimateUtils.shouldUseRoughEstimatedResult(roughEstimatedMemoryCost)
+        ? roughEstimatedMemoryCost
+        : compactionEstimator.estimateCrossCompactionMemory(
+            newSelectedSeqResources, newSelectedUnseqResources);
+  }
+
   private TsFileResourceCandidate getLatestSealedSeqFile(
       List<TsFileResourceCandidate> seqResourceCandidateList) {
     for (int i = seqResourceCandidateList.size() - 1; i >= 0; i--) {
@@ -281,7 +301,7 @@ public class RewriteCrossSpaceCompactionSelector implements ICrossSpaceSelector
   // If we guarantee the condition strictly, the smallest collection of cross task resource may not
   // satisfied
   @SuppressWarnings("squid:S1135")
-  private boolean canAddToTaskResource(
+  protected boolean canAddToTaskResource(
       CrossCompactionTaskResource taskResource,
       TsFileResource unseqFile,
       List<TsFileResource> seqFiles,
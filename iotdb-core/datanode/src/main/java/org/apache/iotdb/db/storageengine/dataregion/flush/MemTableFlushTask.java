@@ -26,6 +26,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.service.metrics.WritingMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushEncodingPoolManager;
 import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.AlignedWritableMemChunk;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
@@ -43,8 +44,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -63,6 +66,8 @@ public class MemTableFlushTask {
   private static final Logger LOGGER = LoggerFactory.getLogger(MemTableFlushTask.class);
   private static final FlushSubTaskPoolManager SUB_TASK_POOL_MANAGER =
       FlushSubTaskPoolManager.getInstance();
+  private static final FlushEncodingPoolManager ENCODING_POOL_MANAGER =
+      FlushEncodingPoolManager.getInstance();
   private static final WritingMetrics WRITING_METRICS = WritingMetrics.getInstance();
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   private final int MAX_NUMBER_OF_POINTS_IN_PAGE =
@@ -74,9 +79,12 @@ public class MemTableFlushTask {
   private final Future<?> ioTaskFuture;
   private RestorableTsFileIOWriter writer;
 
+  /** the number of chunk groups encoded in parallel, 1 means the serial encoding task is used */
+  private final int encodingParallelism = config.getFlushEncodingThreadCount();
+
   private final BlockingQueue<Object> encodingTaskQueue = new LinkedBlockingQueue<>();
   private final BlockingQueue<Object> ioTaskQueue =
-      (SystemInfo.getInstance().isEncodingFasterThanIo())
+      (SystemInfo.getInstance().isEncodingFasterThanIo() || encodingParallelism > 1)
           ? new LinkedBlockingQueue<>(config.getIoTaskQueueSizeForFlushing())
           : new LinkedBlockingQueue<>();
 
@@ -91,6 +99,13 @@ public class MemTableFlushTask {
   private final BatchEncodeInfo encodeInfo;
   private long[] times;
 
+  /**
+   * the estimated memory of the chunk groups that are encoded in parallel but not handed over to
+   * the io task yet is kept within this limit, which is reserved as temporary flushing memory. It
+   * covers one average chunk group per encoding thread and never exceeds the memtable itself.
+   */
+  private final long maxPendingEncodedMemSize;
+
   /**
    * @param memTable the memTable to flush
    * @param writer the writer where memTable will be flushed to (current tsfile writer or vm writer)
@@ -105,25 +120,50 @@ public class MemTableFlushTask {
     this.writer = writer;
     this.storageGroup = storageGroup;
     this.dataRegionId = dataRegionId;
-    this.encodingTaskFuture = SUB_TASK_POOL_MANAGER.submit(encodingTask);
+    this.encodeInfo = createEncodeInfo();
+    this.maxPendingEncodedMemSize =
+        encodingParallelism > 1
+            ? Math.min(memTable.memSize(), estimateChunkGroupMemSize() * encodingParallelism)
+            : 0;
+    this.encodingTaskFuture =
+        SUB_TASK_POOL_MANAGER.submit(encodingParallelism > 1 ? parallelEncodingTask : encodingTask);
     this.ioTaskFuture = SUB_TASK_POOL_MANAGER.submit(ioTask);
-
-    long MAX_NUMBER_OF_POINTS_IN_CHUNK = config.getTargetChunkPointNum();
-    long TARGET_CHUNK_SIZE = config.getTargetChunkSize();
-    this.encodeInfo =
-        new BatchEncodeInfo(
-            0,
-            0,
-            0,
-            MAX_NUMBER_OF_POINTS_IN_PAGE,
-            MAX_NUMBER_OF_POINTS_IN_CHUNK,
-            TARGET_CHUNK_SIZE);
     LOGGER.debug(
         "flush task of database {} memtable is created, flushing to file {}.",
         storageGroup,
         writer.getFile().getName());
   }
 
+  private BatchEncodeInfo createEncodeInfo() {
+    return new BatchEncodeInfo(
+        0,
+        0,
+        0,
+        MAX_NUMBER_OF_POINTS_IN_PAGE,
+        config.getTargetChunkPointNum(),
+        config.getTargetChunkSize());
+  }
+
+  private long estimateSeriesMemSize() {
+    return memTable.getSeriesNumber() == 0 ? 0 : memTable.memSize() / memTable.getSeriesNumber();
+  }
+
+  private long estimateChunkGroupMemSize() {
+    int chunkGroupNum = memTable.getMemTableMap().size();
+    return chunkGroupNum == 0 ? 0 : memTable.memSize() / chunkGroupNum;
+  }
+
+  /** estimate the memory of the encoded chunks of a chunk group by its share of the memtable */
+  private long estimateEncodedMemSize(List<IWritableMemChunk> seriesInGroup) {
+    long pointNum = 0;
+    for (IWritableMemChunk series : seriesInGroup) {
+      pointNum += series.count();
+    }
+    return memTable.getTotalPointsNum() == 0
+        ? 0
+        : (long) ((double) memTable.memSize() / memTable.getTotalPointsNum() * pointNum);
+  }
+
   /** the function for flushing memtable. */
   @SuppressWarnings("squid:S3776")
   public void syncFlushMemTable() throws ExecutionException, InterruptedException {
@@ -139,13 +179,12 @@ public class MemTableFlushTask {
         avgSeriesPointsNum);
 
     long estimatedTemporaryMemSize = 0L;
-    if (SystemInfo.getInstance().isEncodingFasterThanIo()) {
+    if (SystemInfo.getInstance().isEncodingFasterThanIo() || encodingParallelism > 1) {
+      // the io task queue is bounded in both cases, and chunk groups encoded in parallel are held
+      // until they are handed over to it
       estimatedTemporaryMemSize =
-          memTable.getSeriesNumber() == 0
-              ? 0
-              : memTable.memSize()
-                  / memTable.getSeriesNumber()
-                  * config.getIoTaskQueueSizeForFlushing();
+          estimateSeriesMemSize() * config.getIoTaskQueueSizeForFlushing()
+              + maxPendingEncodedMemSize;
       SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
     long start = System.currentTimeMillis();
@@ -284,15 +323,128 @@ public class MemTableFlushTask {
             Thread.currentThread().interrupt();
           }
 
-          DataRegion.getNonSystemDatabaseName(storageGroup)
-              .ifPresent(
-                  databaseName ->
-                      recordFlushPointsMetricInternal(
-                          memTable.getTotalPointsNum(), databaseName, dataRegionId));
-          WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_ENCODING, memSerializeTime);
+          recordEncodingMetrics();
+        }
+      };
+
+  /**
+   * encoding task (second task of pipeline) used when flush_encoding_thread_count is larger than 1.
+   * The series of one chunk group are encoded together on the flush encoding pool, and the encoded
+   * chunk groups are handed over to the io task in the order they were submitted, so the layout of
+   * the TsFile is the same as the one written by the serial encoding task. The encoded chunk groups
+   * held in the reorder buffer are bounded by maxPendingEncodedMemSize, a single chunk group larger
+   * than it is encoded alone.
+   */
+  @SuppressWarnings("squid:S135")
+  private final Runnable parallelEncodingTask =
+      () -> {
+        LOGGER.debug(
+            "Database {} memtable flushing to file {} starts to encoding data with {} threads.",
+            storageGroup,
+            writer.getFile().getName(),
+            encodingParallelism);
+        // chunk groups that have been submitted but not handed over to the io task yet
+        Deque<Future<EncodedChunkGroup>> reorderBuffer = new ArrayDeque<>();
+        int maxPendingChunkGroups = encodingParallelism;
+        long pendingEncodedMemSize = 0;
+        StartFlushGroupIOTask startTask = null;
+        List<IWritableMemChunk> seriesInGroup = new ArrayList<>();
+        try {
+          while (true) {
+            Object task = encodingTaskQueue.take();
+            if (task instanceof StartFlushGroupIOTask) {
+              startTask = (StartFlushGroupIOTask) task;
+              seriesInGroup = new ArrayList<>();
+            } else if (task instanceof EndChunkGroupIoTask) {
+              StartFlushGroupIOTask chunkGroupStart = startTask;
+              List<IWritableMemChunk> chunkGroupSeries = seriesInGroup;
+              long chunkGroupMemSize = estimateEncodedMemSize(chunkGroupSeries);
+              // keep the number and the memory of encoded but unwritten chunk groups bounded
+              while (!reorderBuffer.isEmpty()
+                  && (reorderBuffer.size() >= maxPendingChunkGroups
+                      || pendingEncodedMemSize + chunkGroupMemSize > maxPendingEncodedMemSize)) {
+                pendingEncodedMemSize -= handOverToIoTask(reorderBuffer.poll().get());
+              }
+              pendingEncodedMemSize += chunkGroupMemSize;
+              reorderBuffer.add(
+                  ENCODING_POOL_MANAGER.submit(
+                      () ->
+                          encodeChunkGroup(chunkGroupStart, chunkGroupSeries, chunkGroupMemSize)));
+            } else if (task instanceof TaskEnd) {
+              break;
+            } else {
+              seriesInGroup.add((IWritableMemChunk) task);
+            }
+          }
+          while (!reorderBuffer.isEmpty()) {
+            handOverToIoTask(reorderBuffer.poll().get());
+          }
+          ioTaskQueue.put(new TaskEnd());
+        } catch (InterruptedException e) {
+          LOGGER.error(
+              "Database {} memtable flushing to file {}, encoding task is interrupted.",
+              storageGroup,
+              writer.getFile().getName(),
+              e);
+          reorderBuffer.forEach(future -> future.cancel(true));
+          Thread.currentThread().interrupt();
+          return;
+        } catch (ExecutionException e) {
+          reorderBuffer.forEach(future -> future.cancel(true));
+          throw new IllegalStateException(
+              String.format(
+                  "Database %s memtable flushing to file %s, failed to encode chunk group",
+                  storageGroup, writer.getFile().getName()),
+              e.getCause());
         }
+
+        recordEncodingMetrics();
       };
 
+  private EncodedChunkGroup encodeChunkGroup(
+      StartFlushGroupIOTask startTask,
+      List<IWritableMemChunk> seriesInGroup,
+      long estimatedMemSize) {
+    // encodeInfo and times are mutated while encoding, so each chunk group owns its copies
+    BatchEncodeInfo chunkGroupEncodeInfo = createEncodeInfo();
+    long[] chunkGroupTimes = null;
+    BlockingQueue<Object> encodedChunks = new LinkedBlockingQueue<>();
+    long encodingTime = 0;
+    for (IWritableMemChunk writableMemChunk : seriesInGroup) {
+      long startTime = System.currentTimeMillis();
+      if (writableMemChunk instanceof AlignedWritableMemChunk && chunkGroupTimes == null) {
+        chunkGroupTimes = new long[MAX_NUMBER_OF_POINTS_IN_PAGE];
+      }
+      writableMemChunk.encode(encodedChunks, chunkGroupEncodeInfo, chunkGroupTimes);
+      long subTaskTime = System.currentTimeMillis() - startTime;
+      WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.ENCODING_TASK, subTaskTime);
+      encodingTime += subTaskTime;
+    }
+    return new EncodedChunkGroup(startTask, encodedChunks, encodingTime, estimatedMemSize);
+  }
+
+  /**
+   * @return the estimated memory of the chunk group, which is released from the reorder buffer
+   */
+  private long handOverToIoTask(EncodedChunkGroup chunkGroup) throws InterruptedException {
+    memSerializeTime += chunkGroup.encodingTime;
+    ioTaskQueue.put(chunkGroup.startTask);
+    for (Object encodedChunk : chunkGroup.encodedChunks) {
+      ioTaskQueue.put(encodedChunk);
+    }
+    ioTaskQueue.put(new EndChunkGroupIoTask());
+    return chunkGroup.estimatedMemSize;
+  }
+
+  private void recordEncodingMetrics() {
+    DataRegion.getNonSystemDatabaseName(storageGroup)
+        .ifPresent(
+            databaseName ->
+                recordFlushPointsMetricInternal(
+                    memTable.getTotalPointsNum(), databaseName, dataRegionId));
+    WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_ENCODING, memSerializeTime);
+  }
+
   public static void recordFlushPointsMetricInternal(
       long totalPointsNum, String storageGroupName, String dataRegionId) {
     long currentTime = CommonDateTimeUtils.currentTime();
@@ -380,6 +532,25 @@ public class MemTableFlushTask {
     EndChunkGroupIoTask() {}
   }
 
+  static class EncodedChunkGroup {
+
+    private final StartFlushGroupIOTask startTask;
+    private final BlockingQueue<Object> encodedChunks;
+    private final long encodingTime;
+    private final long estimatedMemSize;
+
+    EncodedChunkGroup(
+        StartFlushGroupIOTask startTask,
+        BlockingQueue<Object> encodedChunks,
+        long encodingTime,
+        long estimatedMemSize) {
+      this.startTask = startTask;
+      this.encodedChunks = encodedChunks;
+      this.encodingTime = encodingTime;
+      this.estimatedMemSize = estimatedMemSize;
+    }
+  }
+
   static class StartFlushGroupIOTask {
 
     private final IDeviceID deviceId;
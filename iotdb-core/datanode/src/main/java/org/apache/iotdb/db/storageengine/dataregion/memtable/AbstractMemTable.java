@@ -222,11 +222,67 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public int insertAlignedRow(InsertRowNode insertRowNode) {
+    List<IMeasurementSchema> schemaList = new ArrayList<>(insertRowNode.getMeasurements().length);
+    int pointsInserted = checkAlignedRowAndGetSchemaList(insertRowNode, schemaList);
+    if (schemaList.isEmpty()) {
+      return 0;
+    }
+    writeAlignedRow(
+        insertRowNode.getDeviceID(),
+        schemaList,
+        insertRowNode.getTime(),
+        insertRowNode.getValues());
+    totalPointsNum += pointsInserted;
+    return pointsInserted;
+  }
 
+  @Override
+  public int insertAlignedRows(List<InsertRowNode> insertRowNodes) {
+    int rowCount = insertRowNodes.size();
+    long[] times = new long[rowCount];
+    Object[][] values = new Object[rowCount][];
+    List<List<IMeasurementSchema>> schemaLists = new ArrayList<>(rowCount);
+    int pointsInserted = 0;
+    int validRowCount = 0;
+    for (InsertRowNode insertRowNode : insertRowNodes) {
+      List<IMeasurementSchema> schemaList = new ArrayList<>(insertRowNode.getMeasurements().length);
+      int rowPointsInserted = checkAlignedRowAndGetSchemaList(insertRowNode, schemaList);
+      if (schemaList.isEmpty()) {
+        continue;
+      }
+      times[validRowCount] = insertRowNode.getTime();
+      values[validRowCount] = insertRowNode.getValues();
+      schemaLists.add(schemaList);
+      validRowCount++;
+      pointsInserted += rowPointsInserted;
+    }
+    // write each run of consecutive rows sharing the same schemas in one batch
+    IDeviceID deviceId = insertRowNodes.get(0).getDeviceID();
+    int start = 0;
+    while (start < validRowCount) {
+      List<IMeasurementSchema> schemaList = schemaLists.get(start);
+      int end = start + 1;
+      while (end < validRowCount && schemaList.equals(schemaLists.get(end))) {
+        end++;
+      }
+      createAlignedMemChunkGroupIfNotExistAndGet(deviceId, schemaList)
+          .writeRows(times, values, schemaList, start, end);
+      start = end;
+    }
+    totalPointsNum += pointsInserted;
+    return pointsInserted;
+  }
+
+  /**
+   * Collect the schemas of the aligned row into schemaList and add its size to memSize.
+   *
+   * @return the number of points to be inserted
+   */
+  private int checkAlignedRowAndGetSchemaList(
+      InsertRowNode insertRowNode, List<IMeasurementSchema> schemaList) {
     String[] measurements = insertRowNode.getMeasurements();
     Object[] values = insertRowNode.getValues();
-    List<IMeasurementSchema> schemaList = new ArrayList<>();
-    List<TSDataType> dataTypes = new ArrayList<>();
+    List<TSDataType> dataTypes = new ArrayList<>(measurements.length);
     int nullPointsNumber = 0;
     for (int i = 0; i < insertRowNode.getMeasurements().length; i++) {
       // Use measurements[i] to ignore failed partial insert
@@ -249,15 +305,11 @@ public abstract class AbstractMemTable implements IMemTable {
     }
     memSize +=
         MemUtils.getAlignedRowRecordSize(dataTypes, values, insertRowNode.getColumnCategories());
-    writeAlignedRow(insertRowNode.getDeviceID(), schemaList, insertRowNode.getTime(), values);
-    int pointsInserted =
-        insertRowNode.getMeasurementColumnCnt()
-            - insertRowNode.getFailedMeasurementNumber()
-            - (IoTDBDescriptor.getInstance().getConfig().isIncludeNullValueInWriteThroughputMetric()
-                ? 0
-                : nullPointsNumber);
-    totalPointsNum += pointsInserted;
-    return pointsInserted;
+    return insertRowNode.getMeasurementColumnCnt()
+        - insertRowNode.getFailedMeasurementNumber()
+        - (IoTDBDescriptor.getInstance().getConfig().isIncludeNullValueInWriteThroughputMetric()
+            ? 0
+            : nullPointsNumber);
   }
 
   @Override
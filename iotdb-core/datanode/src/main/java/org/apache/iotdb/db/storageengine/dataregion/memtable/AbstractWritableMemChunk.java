@@ -171,6 +171,14 @@ public abstract class AbstractWritableMemChunk implements IWritableMemChunk {
   public abstract void writeAlignedPoints(
       long insertTime, Object[] objectValue, List<IMeasurementSchema> schemaList);
 
+  @Override
+  public abstract void writeAlignedRows(
+      long[] insertTimes,
+      Object[][] objectValues,
+      List<IMeasurementSchema> schemaList,
+      int start,
+      int end);
+
   @Override
   public abstract void writeNonAlignedTablet(
       long[] times, Object valueList, BitMap bitMap, TSDataType dataType, int start, int end);
@@ -45,7 +45,6 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -208,6 +207,40 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
     }
   }
 
+  @Override
+  public void writeAlignedRows(
+      long[] insertTimes,
+      Object[][] objectValues,
+      List<IMeasurementSchema> schemaListInInsertPlan,
+      int start,
+      int end) {
+    // the rows share the same schemas, so the column mapping is only computed once
+    int[] columnIndexes = checkAndGetColumnIndexesInInsertPlan(schemaListInInsertPlan);
+    Object[][] reorderedValues = new Object[insertTimes.length][];
+    for (int i = start; i < end; i++) {
+      Object[] reorderedValue = new Object[schemaList.size()];
+      for (int j = 0; j < columnIndexes.length; j++) {
+        if (columnIndexes[j] >= 0) {
+          reorderedValue[columnIndexes[j]] = objectValues[i][j];
+        }
+      }
+      reorderedValues[i] = reorderedValue;
+    }
+    int idx = start;
+    while (idx < end) {
+      int batchEnd = end;
+      if (TVLIST_SORT_THRESHOLD > 0) {
+        // hand over the working list at the same row as writing the rows one by one
+        batchEnd = Math.min(end, idx + Math.max(1, TVLIST_SORT_THRESHOLD - list.rowCount()));
+      }
+      list.putAlignedRows(insertTimes, reorderedValues, idx, batchEnd);
+      if (TVLIST_SORT_THRESHOLD > 0 && list.rowCount() >= TVLIST_SORT_THRESHOLD) {
+        handoverAlignedTvList();
+      }
+      idx = batchEnd;
+    }
+  }
+
   @Override
   public void writeAlignedTablet(
       long[] times,
@@ -237,26 +270,12 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
    */
   private Pair<Object[], BitMap[]> checkAndReorderColumnValuesInInsertPlan(
       List<IMeasurementSchema> schemaListInInsertPlan, Object[] columnValues, BitMap[] bitMaps) {
+    int[] columnIndexes = checkAndGetColumnIndexesInInsertPlan(schemaListInInsertPlan);
     Object[] reorderedColumnValues = new Object[schemaList.size()];
     BitMap[] reorderedBitMaps = bitMaps == null ? null : new BitMap[schemaList.size()];
-    for (int i = 0; i < schemaListInInsertPlan.size(); i++) {
-      IMeasurementSchema measurementSchema = schemaListInInsertPlan.get(i);
-      if (measurementSchema != null) {
-        Integer index = this.measurementIndexMap.get(measurementSchema.getMeasurementName());
-        // Index is null means this measurement was not in this AlignedTVList before.
-        // We need to extend a new column in AlignedMemChunk and AlignedTVList.
-        // And the reorderedColumnValues should extend one more column for the new measurement
-        if (index == null) {
-          index = this.list.getTsDataTypes().size();
-          this.measurementIndexMap.put(schemaListInInsertPlan.get(i).getMeasurementName(), index);
-          this.schemaList.add(schemaListInInsertPlan.get(i));
-          this.list.extendColumn(schemaListInInsertPlan.get(i).getType());
-          reorderedColumnValues =
-              Arrays.copyOf(reorderedColumnValues, reorderedColumnValues.length + 1);
-          if (reorderedBitMaps != null) {
-            reorderedBitMaps = Arrays.copyOf(reorderedBitMaps, reorderedBitMaps.length + 1);
-          }
-        }
+    for (int i = 0; i < columnIndexes.length; i++) {
+      int index = columnIndexes[i];
+      if (index >= 0) {
         reorderedColumnValues[index] = columnValues[i];
         if (bitMaps != null) {
           reorderedBitMaps[index] = bitMaps[i];
@@ -266,6 +285,36 @@ public class AlignedWritableMemChunk extends AbstractWritableMemChunk {
     return new Pair<>(reorderedColumnValues, reorderedBitMaps);
   }
 
+  /**
+   * Check metadata of columns and return the index of each column in this chunk, extend the columns
+   * that were not in this chunk before.
+   *
+   * @return columnIndexes[i] is the index of schemaListInInsertPlan[i] in this chunk, or -1 if it's
+   *     null
+   */
+  private int[] checkAndGetColumnIndexesInInsertPlan(
+      List<IMeasurementSchema> schemaListInInsertPlan) {
+    int[] columnIndexes = new int[schemaListInInsertPlan.size()];
+    for (int i = 0; i < schemaListInInsertPlan.size(); i++) {
+      IMeasurementSchema measurementSchema = schemaListInInsertPlan.get(i);
+      if (measurementSchema == null) {
+        columnIndexes[i] = -1;
+        continue;
+      }
+      Integer index = this.measurementIndexMap.get(measurementSchema.getMeasurementName());
+      // Index is null means this measurement was not in this AlignedTVList before.
+      // We need to extend a new column in AlignedMemChunk and AlignedTVList.
+      if (index == null) {
+        index = this.list.getTsDataTypes().size();
+        this.measurementIndexMap.put(measurementSchema.getMeasurementName(), index);
+        this.schemaList.add(measurementSchema);
+        this.list.extendColumn(measurementSchema.getType());
+      }
+      columnIndexes[i] = index;
+    }
+    return columnIndexes;
+  }
+
   private void filterDeletedTimeStamp(
       AlignedTVList alignedTVList,
       List<List<TimeRange>> valueColumnsDeletionList,
@@ -95,6 +95,16 @@ public class AlignedWritableMemChunkGroup implements IWritableMemChunkGroup {
     memChunk.writeAlignedPoints(insertTime, objectValue, schemaList);
   }
 
+  @Override
+  public void writeRows(
+      long[] insertTimes,
+      Object[][] objectValues,
+      List<IMeasurementSchema> schemaList,
+      int start,
+      int end) {
+    memChunk.writeAlignedRows(insertTimes, objectValues, schemaList, start, end);
+  }
+
   @Override
   public Map<String, IWritableMemChunk> getMemChunkMap() {
     if (memChunk.count() == 0) {
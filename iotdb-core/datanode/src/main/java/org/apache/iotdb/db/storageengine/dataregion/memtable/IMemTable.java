@@ -97,6 +97,12 @@ public interface IMemTable extends WALEntryValue {
 
   int insertAlignedRow(InsertRowNode insertRowNode);
 
+  /**
+   * insert aligned rows of the same device into this memtable in batches, which is equivalent to
+   * calling {@link #insertAlignedRow(InsertRowNode)} for each row in order.
+   */
+  int insertAlignedRows(List<InsertRowNode> insertRowNodes);
+
   /**
    * insert tablet into this memtable. The rows to be inserted are in the range [start, end). Null
    * value in each column values will be replaced by the subsequent non-null value, e.g., {1, null,
@@ -67,6 +67,14 @@ public interface IWritableMemChunk extends WALEntryValue {
   void writeAlignedPoints(
       long insertTime, Object[] objectValue, List<IMeasurementSchema> schemaList);
 
+  /** write rows in the range [start, end), all of them share the same schemaList. */
+  void writeAlignedRows(
+      long[] insertTimes,
+      Object[][] objectValues,
+      List<IMeasurementSchema> schemaList,
+      int start,
+      int end);
+
   /**
    * write data in the range [start, end). Null value in the valueList will be replaced by the
    * subsequent non-null value, e.g., {1, null, 3, null, 5} will be {1, 3, 5, null, 5}
@@ -33,6 +33,14 @@ public interface IWritableMemChunkGroup extends WALEntryValue {
 
   void writeRow(long insertTime, Object[] objectValue, List<IMeasurementSchema> schemaList);
 
+  /** write rows in the range [start, end), all of them share the same schemaList. */
+  void writeRows(
+      long[] insertTimes,
+      Object[][] objectValues,
+      List<IMeasurementSchema> schemaList,
+      int start,
+      int end);
+
   void writeTablet(
       long[] times,
       Object[] columns,
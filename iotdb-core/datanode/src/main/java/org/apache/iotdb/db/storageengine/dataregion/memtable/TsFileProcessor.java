@@ -435,19 +435,36 @@ public class TsFileProcessor {
             tsFileResource);
 
     int pointInserted = 0;
-    for (InsertRowNode insertRowNode : insertRowsNode.getInsertRowNodeList()) {
+    List<InsertRowNode> insertRowNodeList = insertRowsNode.getInsertRowNodeList();
+    int start = 0;
+    while (start < insertRowNodeList.size()) {
+      InsertRowNode insertRowNode = insertRowNodeList.get(start);
+      int end = start + 1;
       if (insertRowNode.isAligned()) {
-        pointInserted += workMemTable.insertAlignedRow(insertRowNode);
+        // write consecutive aligned rows of the same device in one batch
+        while (end < insertRowNodeList.size()
+            && insertRowNodeList.get(end).isAligned()
+            && insertRowNode.getDeviceID().equals(insertRowNodeList.get(end).getDeviceID())) {
+          end++;
+        }
+        pointInserted +=
+            end - start == 1
+                ? workMemTable.insertAlignedRow(insertRowNode)
+                : workMemTable.insertAlignedRows(insertRowNodeList.subList(start, end));
       } else {
         pointInserted += workMemTable.insert(insertRowNode);
       }
-      // update start time of this memtable
-      tsFileResource.updateStartTime(insertRowNode.getDeviceID(), insertRowNode.getTime());
-      // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
-      // for unsequence tsfile, we have to update the endTime for each insertion.
-      if (!sequence) {
-        tsFileResource.updateEndTime(insertRowNode.getDeviceID(), insertRowNode.getTime());
+      for (int i = start; i < end; i++) {
+        InsertRowNode insertedRowNode = insertRowNodeList.get(i);
+        // update start time of this memtable
+        tsFileResource.updateStartTime(insertedRowNode.getDeviceID(), insertedRowNode.getTime());
+        // for sequence tsfile, we update the endTime only when the file is prepared to be closed.
+        // for unsequence tsfile, we have to update the endTime for each insertion.
+        if (!sequence) {
+          tsFileResource.updateEndTime(insertedRowNode.getDeviceID(), insertedRowNode.getTime());
+        }
       }
+      start = end;
     }
 
     tsFileResource.updateProgressIndex(insertRowsNode.getProgressIndex());
@@ -2276,6 +2293,12 @@ public class TsFileProcessor {
     return workMemTable != null ? workMemTable.getUpdateTime() : Long.MAX_VALUE;
   }
 
+  /** Return 0 if workMemTable is null */
+  public long getWorkMemTablePinnedWALFileNum() {
+    IMemTable memTable = workMemTable;
+    return memTable != null ? walNode.getPinnedWALFileNum(memTable.getMemTableId()) : 0;
+  }
+
   public long getMemTableFlushPointCount() {
     return memTableFlushPointCount;
   }
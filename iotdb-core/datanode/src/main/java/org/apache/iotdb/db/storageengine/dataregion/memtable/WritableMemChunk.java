@@ -121,6 +121,16 @@ public class WritableMemChunk extends AbstractWritableMemChunk {
     throw new UnSupportedDataTypeException(UNSUPPORTED_TYPE + list.getDataType());
   }
 
+  @Override
+  public void writeAlignedRows(
+      long[] insertTimes,
+      Object[][] objectValues,
+      List<IMeasurementSchema> schemaList,
+      int start,
+      int end) {
+    throw new UnSupportedDataTypeException(UNSUPPORTED_TYPE + list.getDataType());
+  }
+
   @Override
   public void writeNonAlignedTablet(
       long[] times, Object valueList, BitMap bitMap, TSDataType dataType, int start, int end) {
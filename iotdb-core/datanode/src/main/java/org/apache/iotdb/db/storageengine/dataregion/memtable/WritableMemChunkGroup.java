@@ -105,6 +105,18 @@ public class WritableMemChunkGroup implements IWritableMemChunkGroup {
     }
   }
 
+  @Override
+  public void writeRows(
+      long[] insertTimes,
+      Object[][] objectValues,
+      List<IMeasurementSchema> schemaList,
+      int start,
+      int end) {
+    for (int i = start; i < end; i++) {
+      writeRow(insertTimes[i], objectValues[i], schemaList);
+    }
+  }
+
   @Override
   public Map<String, IWritableMemChunk> getMemChunkMap() {
     return memChunkMap;
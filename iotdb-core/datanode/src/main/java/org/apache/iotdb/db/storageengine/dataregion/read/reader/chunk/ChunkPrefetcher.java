@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.read.controller.IChunkLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reads the chunks a series scan is going to consume into {@link ChunkCache} in background, so that
+ * the disk reads of the following chunks overlap with decoding the current one. At most {@code
+ * maxPrefetchNum} chunks are read ahead of the scan, a new one is submitted each time the scan
+ * consumes or skips a chunk read ahead. Chunks are read ahead in the order the scan consumes them,
+ * which is given by the comparator of the scan, not in the order their TimeseriesMetadata are
+ * unpacked.
+ *
+ * <p>Only chunks in TsFiles are read ahead, and nothing is read ahead if the chunk cache is
+ * disabled, since there would be nowhere to keep the chunks. The prefetcher must be closed with the
+ * scan, so that no chunk of the query is read after the query releases its files. Not thread-safe,
+ * it's only used by the driver of the scan.
+ */
+public class ChunkPrefetcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ChunkPrefetcher.class);
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private final QueryContext context;
+
+  private final int maxPrefetchNum;
+
+  // chunks to be read ahead, in the order of the scan
+  private final PriorityQueue<IChunkMetadata> pendingChunks;
+
+  // pending chunks consumed or skipped by the scan before they are read ahead
+  private final Set<IChunkMetadata> consumedChunks =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  // chunks read ahead and not consumed by the scan yet
+  private final Map<IChunkMetadata, ListenableFuture<?>> prefetchedChunks =
+      new IdentityHashMap<>();
+
+  // read by the prefetch threads, a task started after closing does nothing
+  private volatile boolean closed = false;
+
+  private ChunkPrefetcher(
+      QueryContext context, int maxPrefetchNum, Comparator<? super IChunkMetadata> scanOrder) {
+    this.context = context;
+    this.maxPrefetchNum = maxPrefetchNum;
+    this.pendingChunks = new PriorityQueue<>(scanOrder);
+  }
+
+  /**
+   * @param scanOrder the order in which the scan consumes chunks
+   * @return null if chunks should not be read ahead
+   */
+  public static ChunkPrefetcher create(
+      QueryContext context, Comparator<? super IChunkMetadata> scanOrder) {
+    int maxPrefetchNum = CONFIG.getChunkPrefetchNum();
+    if (maxPrefetchNum <= 0 || !ChunkCache.isCacheEnable()) {
+      return null;
+    }
+    return new ChunkPrefetcher(context, maxPrefetchNum, scanOrder);
+  }
+
+  /** Add the chunks of one TimeseriesMetadata. */
+  public void addChunks(List<IChunkMetadata> chunkMetadataList) {
+    if (closed) {
+      return;
+    }
+    for (IChunkMetadata chunkMetadata : chunkMetadataList) {
+      if (isDiskChunk(chunkMetadata)) {
+        pendingChunks.add(chunkMetadata);
+      }
+    }
+    submitIfNeeded();
+  }
+
+  /** Called when the scan starts to read the chunk, or skips it. */
+  public void onChunkConsumed(IChunkMetadata chunkMetadata) {
+    if (closed || !isDiskChunk(chunkMetadata)) {
+      return;
+    }
+    if (prefetchedChunks.remove(chunkMetadata) == null) {
+      consumedChunks.add(chunkMetadata);
+    }
+    submitIfNeeded();
+  }
+
+  /**
+   * @param nextChunk the chunk the scan is going to read next
+   * @return the future of the chunk if it's still being read ahead, otherwise null
+   */
+  public ListenableFuture<?> getLoadingFuture(IChunkMetadata nextChunk) {
+    ListenableFuture<?> future = prefetchedChunks.get(nextChunk);
+    return future == null || future.isDone() ? null : future;
+  }
+
+  private void submitIfNeeded() {
+    while (prefetchedChunks.size() < maxPrefetchNum && !pendingChunks.isEmpty()) {
+      IChunkMetadata chunkMetadata = pendingChunks.poll();
+      if (consumedChunks.remove(chunkMetadata)) {
+        continue;
+      }
+      prefetchedChunks.put(
+          chunkMetadata, PrefetchThreadPoolHolder.POOL.submit(() -> prefetch(chunkMetadata)));
+    }
+  }
+
+  /**
+   * Cancel the chunks not read yet and wait for the ones being read, called when the scan is closed
+   * or aborted.
+   */
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    pendingChunks.clear();
+    consumedChunks.clear();
+    // don't interrupt the running reads, which would close the file channels shared by queries
+    prefetchedChunks.values().forEach(future -> future.cancel(false));
+    for (ListenableFuture<?> future : prefetchedChunks.values()) {
+      if (future.isCancelled()) {
+        continue;
+      }
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (ExecutionException e) {
+        // errors are already logged by the task
+      }
+    }
+    prefetchedChunks.clear();
+  }
+
+  private void prefetch(IChunkMetadata chunkMetadata) {
+    if (closed) {
+      return;
+    }
+    try {
+      IChunkLoader chunkLoader = chunkMetadata.getChunkLoader();
+      if (chunkLoader instanceof DiskChunkLoader) {
+        ((DiskChunkLoader) chunkLoader).prefetchChunk(chunkMetadata);
+      } else {
+        ((DiskAlignedChunkLoader) chunkLoader).prefetchChunk(chunkMetadata);
+      }
+    } catch (Exception e) {
+      // the scan reads the chunk by itself later and reports the error if there is still one
+      LOGGER.debug("Failed to read chunk ahead for query {}", context.getQueryId(), e);
+    }
+  }
+
+  private static boolean isDiskChunk(IChunkMetadata chunkMetadata) {
+    IChunkLoader chunkLoader = chunkMetadata.getChunkLoader();
+    return chunkLoader instanceof DiskChunkLoader || chunkLoader instanceof DiskAlignedChunkLoader;
+  }
+
+  private static class PrefetchThreadPoolHolder {
+
+    private static final ListeningExecutorService POOL =
+        MoreExecutors.listeningDecorator(
+            IoTDBThreadPoolFactory.newFixedThreadPool(
+                Math.max(1, CONFIG.getChunkPrefetchThreadCount()),
+                ThreadName.CHUNK_PREFETCH.getName()));
+
+    private PrefetchThreadPoolHolder() {
+      // allowed to do nothing
+    }
+  }
+}
@@ -123,6 +123,31 @@ public class DiskAlignedChunkLoader implements IChunkLoader {
     }
   }
 
+  /**
+   * Read the time chunk and value chunks into {@link ChunkCache} ahead of {@link #getChunkReader}.
+   */
+  public void prefetchChunk(IChunkMetadata chunkMetaData) throws IOException {
+    AbstractAlignedChunkMetadata alignedChunkMetadata =
+        (AbstractAlignedChunkMetadata) chunkMetaData;
+    prefetchSingleChunk(alignedChunkMetadata.getTimeChunkMetadata());
+    for (IChunkMetadata valueChunkMetadata : alignedChunkMetadata.getValueChunkMetadataList()) {
+      if (valueChunkMetadata != null) {
+        prefetchSingleChunk(valueChunkMetadata);
+      }
+    }
+  }
+
+  private void prefetchSingleChunk(IChunkMetadata chunkMetaData) throws IOException {
+    ChunkCache.getInstance()
+        .prefetch(
+            new ChunkCache.ChunkCacheKey(
+                resource.getTsFilePath(),
+                resource.getTsFileID(),
+                chunkMetaData.getOffsetOfChunkHeader(),
+                resource.isClosed()),
+            context);
+  }
+
   public TsFileID getTsFileID() {
     return resource.getTsFileID();
   }
@@ -98,6 +98,18 @@ public class DiskChunkLoader implements IChunkLoader {
     }
   }
 
+  /** Read the chunk into {@link ChunkCache} ahead of {@link #getChunkReader}. */
+  public void prefetchChunk(IChunkMetadata chunkMetaData) throws IOException {
+    ChunkCache.getInstance()
+        .prefetch(
+            new ChunkCache.ChunkCacheKey(
+                resource.getTsFilePath(),
+                resource.getTsFileID(),
+                chunkMetaData.getOffsetOfChunkHeader(),
+                resource.isClosed()),
+            context);
+  }
+
   public TsFileID getTsFileID() {
     return resource.getTsFileID();
   }
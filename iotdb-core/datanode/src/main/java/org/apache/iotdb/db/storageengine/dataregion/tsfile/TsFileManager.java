@@ -31,6 +31,7 @@ import org.apache.tsfile.utils.Pair;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -56,9 +57,18 @@ public class TsFileManager {
   private final TreeMap<Long, TsFileResourceList> unsequenceFiles = new TreeMap<>();
   private final TreeMap<Long, ModFileManagement> modFileManagementMap = new TreeMap<>();
 
+  // copy of all the seq and unseq files for the readers that can't wait for the lock, it's marked
+  // stale whenever the write lock is released and rebuilt by the next reader getting the read lock
+  private volatile List<TsFileResource> resourceListSnapshot = Collections.emptyList();
+  private volatile boolean resourceListSnapshotStale = true;
+
   private volatile boolean allowCompaction = true;
   private final AtomicLong currentCompactionTaskSerialId = new AtomicLong(0);
 
+  // bytes of the sealed files written by flush and rewritten by compaction since startup
+  private final AtomicLong flushedFileSize = new AtomicLong(0);
+  private final AtomicLong compactionWrittenFileSize = new AtomicLong(0);
+
   public TsFileManager(String storageGroupName, String dataRegionId, String dataRegionSysDir) {
     this.storageGroupName = storageGroupName;
     this.dataRegionSysDir = dataRegionSysDir;
@@ -146,6 +156,31 @@ public class TsFileManager {
     }
   }
 
+  /**
+   * Get all the seq and unseq files without waiting for the lock, e.g. for estimations while
+   * planning queries. The files may be outdated if the lists are being modified.
+   *
+   * @return an unmodifiable list of the seq files followed by the unseq files
+   */
+  public List<TsFileResource> getTsFileListSnapshotWithoutWaiting() {
+    if (resourceListSnapshotStale && resourceListLock.readLock().tryLock()) {
+      try {
+        resourceListSnapshotStale = false;
+        List<TsFileResource> allResources = new ArrayList<>();
+        for (TsFileResourceList tsFileResources : sequenceFiles.values()) {
+          allResources.addAll(tsFileResources.getArrayList());
+        }
+        for (TsFileResourceList tsFileResources : unsequenceFiles.values()) {
+          allResources.addAll(tsFileResources.getArrayList());
+        }
+        resourceListSnapshot = Collections.unmodifiableList(allResources);
+      } finally {
+        readUnlock();
+      }
+    }
+    return resourceListSnapshot;
+  }
+
   public List<TsFileResource> getTsFileList(boolean sequence, long startTime, long endTime) {
     // the iteration of ConcurrentSkipListMap is not concurrent secure
     // so we must add read lock here
@@ -419,6 +454,7 @@ public class TsFileManager {
   }
 
   public void writeUnlock() {
+    resourceListSnapshotStale = true;
     resourceListLock.writeLock().unlock();
     writeLockHolder = "";
   }
@@ -458,6 +494,26 @@ public class TsFileManager {
     this.dataRegionId = dataRegionId;
   }
 
+  public void recordFlushedFileSize(long fileSize) {
+    flushedFileSize.addAndGet(fileSize);
+  }
+
+  public void recordCompactionWrittenFileSize(long fileSize) {
+    compactionWrittenFileSize.addAndGet(fileSize);
+  }
+
+  /**
+   * The bytes written by flush and compaction per byte flushed since startup, or 0 if nothing has
+   * been flushed yet.
+   */
+  public double getCompactionWriteAmplification() {
+    long flushed = flushedFileSize.get();
+    if (flushed == 0) {
+      return 0;
+    }
+    return (double) (flushed + compactionWrittenFileSize.get()) / flushed;
+  }
+
   public long getNextCompactionTaskId() {
     return currentCompactionTaskSerialId.getAndIncrement();
   }
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This view serializes one {@link WALEntry} into a growable heap buffer. It's used by the
+ * pre-serialize threads of {@link WALBuffer} to serialize WALEntries in parallel, after which the
+ * serialized bytes are copied to the working buffer in order.
+ */
+public class HeapWALByteBufferView extends IWALByteBufferView {
+  private ByteBuffer buffer;
+
+  public HeapWALByteBufferView(int initialCapacity) {
+    buffer = ByteBuffer.allocate(Math.max(initialCapacity, Long.BYTES));
+  }
+
+  /** Reuse this view to serialize another entry whose serialized size is about the given size. */
+  public void reset(int initialCapacity) {
+    if (buffer.capacity() < initialCapacity) {
+      buffer = ByteBuffer.allocate(initialCapacity);
+    } else {
+      buffer.clear();
+    }
+  }
+
+  private void ensureEnoughSpace(int bytesNum) {
+    if (buffer.remaining() < bytesNum) {
+      int newCapacity = Math.max(buffer.capacity() << 1, buffer.position() + bytesNum);
+      ByteBuffer newBuffer = ByteBuffer.allocate(newCapacity);
+      buffer.flip();
+      newBuffer.put(buffer);
+      buffer = newBuffer;
+    }
+  }
+
+  @Override
+  public void write(int b) {
+    put((byte) b);
+  }
+
+  @Override
+  public void write(byte[] b) {
+    put(b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) {
+    put(b, off, len);
+  }
+
+  @Override
+  public void put(byte b) {
+    ensureEnoughSpace(Byte.BYTES);
+    buffer.put(b);
+  }
+
+  @Override
+  public void put(byte[] src) {
+    ensureEnoughSpace(src.length);
+    buffer.put(src);
+  }
+
+  @Override
+  public void put(byte[] src, int offset, int length) {
+    ensureEnoughSpace(length);
+    buffer.put(src, offset, length);
+  }
+
+  @Override
+  public void putChar(char value) {
+    ensureEnoughSpace(Character.BYTES);
+    buffer.putChar(value);
+  }
+
+  @Override
+  public void putShort(short value) {
+    ensureEnoughSpace(Short.BYTES);
+    buffer.putShort(value);
+  }
+
+  @Override
+  public void putInt(int value) {
+    ensureEnoughSpace(Integer.BYTES);
+    buffer.putInt(value);
+  }
+
+  @Override
+  public void putLong(long value) {
+    ensureEnoughSpace(Long.BYTES);
+    buffer.putLong(value);
+  }
+
+  @Override
+  public void putFloat(float value) {
+    ensureEnoughSpace(Float.BYTES);
+    buffer.putFloat(value);
+  }
+
+  @Override
+  public void putDouble(double value) {
+    ensureEnoughSpace(Double.BYTES);
+    buffer.putDouble(value);
+  }
+
+  @Override
+  public int position() {
+    return buffer.position();
+  }
+
+  public int capacity() {
+    return buffer.capacity();
+  }
+
+  /** The serialized bytes are array()[0, position()). */
+  public byte[] array() {
+    return buffer.array();
+  }
+}
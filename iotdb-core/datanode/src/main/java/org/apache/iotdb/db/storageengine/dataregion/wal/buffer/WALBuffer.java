@@ -20,7 +20,9 @@
 package org.apache.iotdb.db.storageengine.dataregion.wal.buffer;
 
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.IoTThreadFactory;
 import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.WrappedThreadPoolExecutor;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.IoTDBConfig;
@@ -57,10 +59,18 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -77,6 +87,11 @@ public class WALBuffer extends AbstractWALBuffer {
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   public static final int ONE_THIRD_WAL_BUFFER_SIZE = config.getWalBufferSize() / 3;
   private static final double FSYNC_BUFFER_RATIO = 0.95;
+  // heap views larger than this are not recycled to avoid holding huge arrays of rare big entries
+  private static final int MAX_RECYCLED_HEAP_VIEW_CAPACITY = 1024 * 1024;
+  // the number of entries waiting for each pre-serialize thread, writers serialize their entries
+  // by themselves when the pre-serialize threads fall behind
+  private static final int PRE_SERIALIZE_QUEUE_SIZE_PER_THREAD = 4;
   private static final WritingMetrics WRITING_METRICS = WritingMetrics.getInstance();
 
   // whether close method is called
@@ -118,6 +133,13 @@ public class WALBuffer extends AbstractWALBuffer {
   private final ExecutorService serializeThread;
   // single thread to sync syncingBuffer to disk
   private final ExecutorService syncBufferThread;
+  // threads to serialize insert WALEntries in parallel, serializeThread only copies the serialized
+  // bytes to workingBuffer in the order of walEntries, null iff wal_serialize_thread_count <= 1
+  private final ExecutorService preSerializeThreads;
+  // heap views recycled by serializeThread after copying their bytes, borrowed by
+  // preSerializeThreads to avoid allocating a heap buffer for each entry
+  private final Queue<HeapWALByteBufferView> idleHeapViews = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger idleHeapViewNum = new AtomicInteger(0);
 
   // manage wal files which have MemTableIds
   private final Map<Long, Set<Long>> memTableIdsOfWal = new ConcurrentHashMap<>();
@@ -144,10 +166,34 @@ public class WALBuffer extends AbstractWALBuffer {
     syncBufferThread =
         IoTDBThreadPoolFactory.newSingleThreadExecutor(
             ThreadName.WAL_SYNC.getName() + "(node-" + identifier + ")");
+    preSerializeThreads =
+        config.getWalSerializeThreadCount() > 1
+            ? createPreSerializeThreads(
+                config.getWalSerializeThreadCount(),
+                ThreadName.WAL_PRE_SERIALIZE.getName() + "(node-" + identifier + ")")
+            : null;
     // start receiving serialize tasks
     serializeThread.submit(new SerializeTask());
   }
 
+  private static ExecutorService createPreSerializeThreads(int threadCount, String poolName) {
+    return new WrappedThreadPoolExecutor(
+        threadCount,
+        threadCount,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(threadCount * PRE_SERIALIZE_QUEUE_SIZE_PER_THREAD),
+        new IoTThreadFactory(poolName),
+        poolName,
+        (task, executor) -> {
+          if (executor.isShutdown()) {
+            throw new RejectedExecutionException(poolName + " has been shutdown");
+          }
+          // back pressure, the writer serializes its entry instead of queuing more entries
+          task.run();
+        });
+  }
+
   private void allocateBuffers() {
     try {
       workingBuffer = ByteBuffer.allocateDirect(ONE_THIRD_WAL_BUFFER_SIZE);
@@ -206,6 +252,16 @@ public class WALBuffer extends AbstractWALBuffer {
     }
     // just add this WALEntry to queue
     try {
+      if (preSerializeThreads != null && walEntry.canBePreSerialized()) {
+        // the heap copy is charged to the memory of walEntries before it is made
+        long preSerializedMemorySize = walEntry.serializedSize();
+        if (walEntry.getMemorySize() + preSerializedMemorySize
+            <= walEntries.getTotalMemorySizeInBytes()) {
+          walEntry.setPreSerializedMemorySize(preSerializedMemorySize);
+          walEntries.put(walEntry, this::preSerialize);
+          return;
+        }
+      }
       walEntries.put(walEntry);
     } catch (InterruptedException e) {
       logger.warn("Interrupted when waiting for adding WALEntry to buffer.");
@@ -213,6 +269,50 @@ public class WALBuffer extends AbstractWALBuffer {
     }
   }
 
+  /**
+   * Serialize the WALEntry by preSerializeThreads. Because walEntries is consumed in order by
+   * serializeThread, which waits for the pre-serialized bytes of each entry, the order of entries
+   * in .wal files keeps the same as the order of writing. Called after the memory of the entry and
+   * its heap copy is reserved, so the heap copies are bounded by the memory of walEntries.
+   */
+  private void preSerialize(WALEntry walEntry) {
+    try {
+      walEntry.setPreSerializedView(
+          CompletableFuture.supplyAsync(
+              () -> {
+                HeapWALByteBufferView view = borrowHeapView(walEntry.serializedSize());
+                walEntry.serialize(view);
+                return view;
+              },
+              preSerializeThreads));
+    } catch (RejectedExecutionException e) {
+      // this buffer is closing, let serializeThread serialize it directly
+      walEntry.setPreSerializedView(null);
+    }
+  }
+
+  private HeapWALByteBufferView borrowHeapView(int size) {
+    HeapWALByteBufferView view = idleHeapViews.poll();
+    if (view == null) {
+      return new HeapWALByteBufferView(size);
+    }
+    idleHeapViewNum.decrementAndGet();
+    view.reset(size);
+    return view;
+  }
+
+  private void recycleHeapView(HeapWALByteBufferView view) {
+    if (view.capacity() > MAX_RECYCLED_HEAP_VIEW_CAPACITY) {
+      return;
+    }
+    // keep a few idle views for each pre-serialize thread, which is enough for steady writes
+    if (idleHeapViewNum.incrementAndGet() <= config.getWalSerializeThreadCount() * 4) {
+      idleHeapViews.offer(view);
+    } else {
+      idleHeapViewNum.decrementAndGet();
+    }
+  }
+
   // region Task of serializeThread
   /** This info class traverses some extra info from serializeThread to syncBufferThread. */
   private static class SerializeInfo {
@@ -317,7 +417,15 @@ public class WALBuffer extends AbstractWALBuffer {
       int startPosition = byteBufferView.position();
       int size;
       try {
-        walEntry.serialize(byteBufferView);
+        Future<HeapWALByteBufferView> preSerializedView = walEntry.getPreSerializedView();
+        if (preSerializedView == null) {
+          walEntry.serialize(byteBufferView);
+        } else {
+          HeapWALByteBufferView view = getPreSerializedView(preSerializedView);
+          byteBufferView.put(view.array(), 0, view.position());
+          walEntry.setPreSerializedView(null);
+          recycleHeapView(view);
+        }
         size = byteBufferView.position() - startPosition;
       } catch (Exception e) {
         logger.error(
@@ -348,6 +456,18 @@ public class WALBuffer extends AbstractWALBuffer {
       info.fsyncListeners.add(walEntry.getWalFlushListener());
     }
 
+    private HeapWALByteBufferView getPreSerializedView(
+        Future<HeapWALByteBufferView> preSerializedView) throws Exception {
+      try {
+        return preSerializedView.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw e;
+      } catch (ExecutionException e) {
+        throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+      }
+    }
+
     /**
      * Handle a signal entry.
      *
@@ -418,10 +538,20 @@ public class WALBuffer extends AbstractWALBuffer {
 
     @Override
     public void put(byte[] src) {
-      int offset = 0;
+      put(src, 0, src.length);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      put(b, off, len);
+    }
+
+    @Override
+    public void put(byte[] src, int offset, int length) {
+      int end = offset + length;
       while (true) {
         int leftCapacity = workingBuffer.remaining();
-        int needCapacity = src.length - offset;
+        int needCapacity = end - offset;
         if (leftCapacity >= needCapacity) {
           workingBuffer.put(src, offset, needCapacity);
           break;
@@ -700,6 +830,9 @@ public class WALBuffer extends AbstractWALBuffer {
       }
       shutdownThread(serializeThread, ThreadName.WAL_SERIALIZE);
     }
+    if (preSerializeThreads != null) {
+      shutdownThread(preSerializeThreads, ThreadName.WAL_PRE_SERIALIZE);
+    }
     if (syncBufferThread != null) {
       shutdownThread(syncBufferThread, ThreadName.WAL_SYNC);
     }
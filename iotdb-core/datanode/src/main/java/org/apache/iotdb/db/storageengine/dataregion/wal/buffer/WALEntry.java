@@ -40,6 +40,7 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Objects;
+import java.util.concurrent.Future;
 
 /**
  * {@link WALEntry} is the basic element of .wal file, including type, memTable id, and specific
@@ -57,6 +58,12 @@ public abstract class WALEntry implements SerializedSize {
   // listen whether this WALEntry has been written to the filesystem
   // null iff this WALEntry is deserialized from .wal file
   protected final WALFlushListener walFlushListener;
+  // serialized by the pre-serialize threads of the wal buffer in advance, null iff this WALEntry
+  // should be serialized by the serialize thread directly
+  private Future<HeapWALByteBufferView> preSerializedView;
+  // heap bytes of preSerializedView charged to the memory of the wal entry queue together with this
+  // WALEntry, 0 iff this WALEntry is not pre-serialized
+  private long preSerializedMemorySize = 0;
 
   protected WALEntry(long memTableId, WALEntryValue value, boolean wait) {
     this.memTableId = memTableId;
@@ -195,6 +202,29 @@ public abstract class WALEntry implements SerializedSize {
     return walFlushListener;
   }
 
+  /** Only insert nodes are worth serializing in parallel, others are cheap or too large. */
+  public boolean canBePreSerialized() {
+    return type == WALEntryType.INSERT_ROW_NODE
+        || type == WALEntryType.INSERT_TABLET_NODE
+        || type == WALEntryType.INSERT_ROWS_NODE;
+  }
+
+  Future<HeapWALByteBufferView> getPreSerializedView() {
+    return preSerializedView;
+  }
+
+  void setPreSerializedView(Future<HeapWALByteBufferView> preSerializedView) {
+    this.preSerializedView = preSerializedView;
+  }
+
+  public long getPreSerializedMemorySize() {
+    return preSerializedMemorySize;
+  }
+
+  void setPreSerializedMemorySize(long preSerializedMemorySize) {
+    this.preSerializedMemorySize = preSerializedMemorySize;
+  }
+
   public abstract boolean isSignal();
 
   public abstract long getMemorySize();
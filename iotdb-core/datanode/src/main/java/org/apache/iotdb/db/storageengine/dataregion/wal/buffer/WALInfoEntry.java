@@ -42,6 +42,8 @@ public class WALInfoEntry extends WALEntry {
 
   // extra info for InsertTablet type value
   private TabletInfo tabletInfo;
+  // cached serialized size of insert nodes, -1 means not computed yet
+  private int serializedSize = -1;
 
   public WALInfoEntry(long memTableId, WALEntryValue value, boolean wait) {
     super(memTableId, value, wait);
@@ -72,7 +74,25 @@ public class WALInfoEntry extends WALEntry {
 
   @Override
   public int serializedSize() {
-    return FIXED_SERIALIZED_SIZE + (value == null ? 0 : value.serializedSize());
+    if (serializedSize >= 0) {
+      return serializedSize;
+    }
+    int size;
+    if (value == null) {
+      size = FIXED_SERIALIZED_SIZE;
+    } else if (type == WALEntryType.INSERT_TABLET_NODE && tabletInfo != null) {
+      // only the rows in the ranges are serialized
+      size =
+          FIXED_SERIALIZED_SIZE
+              + ((InsertTabletNode) value).serializedSize(tabletInfo.tabletRangeList);
+    } else {
+      size = FIXED_SERIALIZED_SIZE + value.serializedSize();
+    }
+    // insert nodes are immutable once written to wal, while memTable snapshots keep changing
+    if (canBePreSerialized()) {
+      serializedSize = size;
+    }
+    return size;
   }
 
   @Override
@@ -278,6 +278,16 @@ public class CheckpointManager implements AutoCloseable {
     return firstValidVersionId;
   }
 
+  /**
+   * Get version id of the first .wal file containing entries of the memTable
+   *
+   * @return Return {@link Long#MIN_VALUE} if the memTable is not active or pinned
+   */
+  public long getFirstFileVersionId(long memTableId) {
+    MemTableInfo memTableInfo = memTableId2Info.get(memTableId);
+    return memTableInfo == null ? Long.MIN_VALUE : memTableInfo.getFirstFileVersionId();
+  }
+
   /** Update wal disk cost of active memTables. */
   public void updateCostOfActiveMemTables(
       Map<Long, Long> memTableId2WalDiskUsage, double compressionRate) {
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.io;
+
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+
+/** Reader returns serialized {@link WALEntry} one by one, the usage is like {@link Iterator}. */
+public interface IWALByteBufReader extends Closeable {
+
+  /** Like {@link Iterator#hasNext()}. */
+  boolean hasNext();
+
+  /**
+   * Like {@link Iterator#next()}. The position of returned buffer is 0 and its limit is the size of
+   * the entry.
+   *
+   * @throws IOException when failing to read from the wal file.
+   */
+  ByteBuffer next() throws IOException;
+
+  WALMetaData getMetaData();
+}
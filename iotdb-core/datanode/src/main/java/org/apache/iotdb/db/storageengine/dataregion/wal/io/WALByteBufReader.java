@@ -21,7 +21,6 @@ package org.apache.iotdb.db.storageengine.dataregion.wal.io;
 
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
 
-import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -32,7 +31,7 @@ import java.util.Iterator;
  * This reader returns {@link WALEntry} as {@link ByteBuffer}, the usage of WALByteBufReader is like
  * {@link Iterator}.
  */
-public class WALByteBufReader implements Closeable {
+public class WALByteBufReader implements IWALByteBufReader {
   private WALMetaData metaData;
   private DataInputStream logStream;
   private Iterator<Integer> sizeIterator;
@@ -49,16 +48,12 @@ public class WALByteBufReader implements Closeable {
     }
   }
 
-  /** Like {@link Iterator#hasNext()}. */
+  @Override
   public boolean hasNext() {
     return sizeIterator.hasNext();
   }
 
-  /**
-   * Like {@link Iterator#next()}.
-   *
-   * @throws IOException when failing to read from channel.
-   */
+  @Override
   public ByteBuffer next() throws IOException {
     int size = sizeIterator.next();
     // TODO: Reuse this buffer
@@ -72,6 +67,7 @@ public class WALByteBufReader implements Closeable {
     return buffer;
   }
 
+  @Override
   public WALMetaData getMetaData() {
     return metaData;
   }
@@ -136,6 +136,15 @@ public class WALInputStream extends InputStream implements AutoCloseable {
     version = WALFileVersion.getVersion(channel);
   }
 
+  WALFileVersion getVersion() {
+    return version;
+  }
+
+  /** The end offset of the segments, aka, the position right after the last byte of data. */
+  long getSegmentsEndOffset() {
+    return endOffset;
+  }
+
   @Override
   public int read() throws IOException {
     if (Objects.isNull(dataBuffer) || dataBuffer.position() >= dataBuffer.limit()) {
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.io;
+
+import org.apache.iotdb.db.service.metrics.WritingMetrics;
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
+import org.apache.iotdb.db.utils.MmapUtil;
+
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * This reader maps the segments of a sealed wal file into memory and returns {@link WALEntry} as
+ * {@link ByteBuffer}, the usage of WALMappedByteBufReader is like {@link Iterator}.
+ *
+ * <p>Entries of uncompressed segments are returned as slices of the mapped region without any copy,
+ * entries of compressed segments are returned as slices of a reused uncompressed buffer. Only the
+ * entry crossing two segments is copied into a heap buffer. So the buffer returned by {@link
+ * #next()} is only valid until the next call of {@link #next()} or {@link #close()}, callers should
+ * finish decoding it before that.
+ */
+public class WALMappedByteBufReader implements IWALByteBufReader {
+  private final File logFile;
+  private final FileChannel channel;
+  private final WALMetaData metaData;
+  private final Iterator<Integer> sizeIterator;
+  private final WALFileVersion version;
+  private final MappedByteBuffer mappedBuffer;
+  // segment that the next entry is read from, it's a slice of mappedBuffer or uncompressedBuffer
+  private ByteBuffer segmentBuffer;
+  private ByteBuffer uncompressedBuffer;
+
+  public WALMappedByteBufReader(File logFile) throws IOException {
+    this.logFile = logFile;
+    long endOffset;
+    try (WALInputStream walInputStream = new WALInputStream(logFile)) {
+      this.metaData = walInputStream.getWALMetaData();
+      this.version = walInputStream.getVersion();
+      endOffset = walInputStream.getSegmentsEndOffset();
+    }
+    if (endOffset > Integer.MAX_VALUE) {
+      throw new IOException(
+          String.format("Segments of wal file %s are too large to be mapped", logFile));
+    }
+    this.sizeIterator = metaData.getBuffersSize().iterator();
+    this.channel = FileChannel.open(logFile.toPath());
+    try {
+      this.mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, endOffset);
+    } catch (Exception e) {
+      channel.close();
+      throw e;
+    }
+    if (version == WALFileVersion.V2) {
+      mappedBuffer.position(Math.min(version.getVersionBytes().length, mappedBuffer.limit()));
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return sizeIterator.hasNext();
+  }
+
+  @Override
+  public ByteBuffer next() throws IOException {
+    int size = sizeIterator.next();
+    if (Objects.isNull(segmentBuffer) || !segmentBuffer.hasRemaining()) {
+      loadNextSegment();
+    }
+    if (segmentBuffer.remaining() >= size) {
+      return sliceSegment(size);
+    }
+    // this entry crosses segments, copy it into a heap buffer
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    while (buffer.hasRemaining()) {
+      if (!segmentBuffer.hasRemaining()) {
+        loadNextSegment();
+      }
+      buffer.put(sliceSegment(Math.min(segmentBuffer.remaining(), buffer.remaining())));
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private ByteBuffer sliceSegment(int size) {
+    ByteBuffer slice = segmentBuffer.slice();
+    slice.limit(size);
+    segmentBuffer.position(segmentBuffer.position() + size);
+    // slice again to make sure the capacity of returned buffer equals to the entry size
+    return slice.slice();
+  }
+
+  private void loadNextSegment() throws IOException {
+    if (!mappedBuffer.hasRemaining()) {
+      throw new EOFException("Reach the end offset of wal file " + logFile);
+    }
+    if (version != WALFileVersion.V2) {
+      // there is no segment header in V1, all the data between 0 and endOffset are entries
+      segmentBuffer = mappedBuffer.slice();
+      mappedBuffer.position(mappedBuffer.limit());
+      return;
+    }
+    if (mappedBuffer.remaining() < Byte.BYTES + Integer.BYTES) {
+      throw new IOException("Unexpected end of file " + logFile);
+    }
+    CompressionType compressionType = CompressionType.deserialize(mappedBuffer.get());
+    int dataInDiskSize = mappedBuffer.getInt();
+    int uncompressedSize = dataInDiskSize;
+    if (compressionType != CompressionType.UNCOMPRESSED) {
+      if (mappedBuffer.remaining() < Integer.BYTES) {
+        throw new IOException("Unexpected end of file " + logFile);
+      }
+      uncompressedSize = mappedBuffer.getInt();
+    }
+    if (dataInDiskSize < 0 || mappedBuffer.remaining() < dataInDiskSize) {
+      throw new IOException("Unexpected end of file " + logFile);
+    }
+    ByteBuffer dataInDisk = mappedBuffer.slice();
+    dataInDisk.limit(dataInDiskSize);
+    mappedBuffer.position(mappedBuffer.position() + dataInDiskSize);
+    if (compressionType == CompressionType.UNCOMPRESSED) {
+      segmentBuffer = dataInDisk;
+      return;
+    }
+    if (Objects.isNull(uncompressedBuffer)
+        || uncompressedBuffer.capacity() < uncompressedSize
+        || uncompressedBuffer.capacity() > uncompressedSize * 2) {
+      MmapUtil.clean(uncompressedBuffer);
+      uncompressedBuffer = ByteBuffer.allocateDirect(uncompressedSize);
+    }
+    uncompressedBuffer.clear();
+    long startTime = System.nanoTime();
+    IUnCompressor.getUnCompressor(compressionType).uncompress(dataInDisk, uncompressedBuffer);
+    WritingMetrics.getInstance().recordWALUncompressCost(System.nanoTime() - startTime);
+    uncompressedBuffer.flip();
+    segmentBuffer = uncompressedBuffer.slice();
+  }
+
+  @Override
+  public WALMetaData getMetaData() {
+    return metaData;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+    segmentBuffer = null;
+    MmapUtil.clean(mappedBuffer);
+    MmapUtil.clean(uncompressedBuffer);
+    uncompressedBuffer = null;
+  }
+}
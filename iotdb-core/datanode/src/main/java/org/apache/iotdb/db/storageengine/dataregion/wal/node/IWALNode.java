@@ -57,6 +57,9 @@ public interface IWALNode extends FlushListener, AutoCloseable, ConsensusReqRead
   /** Callback when memTable created. */
   void onMemTableCreated(IMemTable memTable, String targetTsFile);
 
+  /** Get the number of .wal files which cannot be deleted until the memTable is flushed. */
+  long getPinnedWALFileNum(long memTableId);
+
   @Override
   void close();
 }
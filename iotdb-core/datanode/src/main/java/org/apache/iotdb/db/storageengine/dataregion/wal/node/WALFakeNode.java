@@ -117,6 +117,11 @@ public class WALFakeNode implements IWALNode {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public long getPinnedWALFileNum(long memTableId) {
+    return 0;
+  }
+
   @Override
   public void close() {
     // do nothing
@@ -906,6 +906,14 @@ public class WALNode implements IWALNode {
     return checkpointManager.getRegionId(memtableId);
   }
 
+  @Override
+  public long getPinnedWALFileNum(long memTableId) {
+    long firstFileVersionId = checkpointManager.getFirstFileVersionId(memTableId);
+    return firstFileVersionId == Long.MIN_VALUE
+        ? 0
+        : getCurrentWALFileVersion() - firstFileVersionId + 1;
+  }
+
   @TestOnly
   long getCurrentLogVersion() {
     return buffer.getCurrentWALFileVersion();
@@ -24,13 +24,16 @@ import org.apache.iotdb.commons.utils.FileUtils;
 import org.apache.iotdb.consensus.ConsensusFactory;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.load.LoadTsFilePieceNode.ByteBufferInputStream;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.SearchNode;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.AbstractMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
 import org.apache.iotdb.db.storageengine.dataregion.wal.checkpoint.MemTableInfo;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.BrokenWALFileException;
+import org.apache.iotdb.db.storageengine.dataregion.wal.io.IWALByteBufReader;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALByteBufReader;
+import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALMappedByteBufReader;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALMetaData;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALReader;
 import org.apache.iotdb.db.storageengine.dataregion.wal.recover.file.UnsealedTsFileRecoverPerformer;
@@ -41,7 +44,6 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
@@ -52,7 +54,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.iotdb.consensus.iot.log.ConsensusReqReader.DEFAULT_SEARCH_INDEX;
@@ -62,6 +67,8 @@ public class WALNodeRecoverTask implements Runnable {
   private static final Logger logger = LoggerFactory.getLogger(WALNodeRecoverTask.class);
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   private static final WALRecoverManager walRecoverManger = WALRecoverManager.getInstance();
+  // max number of deserialized wal entries waiting to be redone for each redo thread
+  private static final int MAX_PENDING_REDO_ENTRIES_PER_THREAD = 64;
 
   // this directory store one wal node's .wal and .checkpoint files
   private final File logDirectory;
@@ -259,47 +266,105 @@ public class WALNodeRecoverTask implements Runnable {
     // asc sort by version id
     WALFileUtils.ascSortByVersionId(walFiles);
     // read .wal files and redo logs
-    for (int i = 0; i < walFiles.length; ++i) {
-      File walFile = walFiles[i];
-      try (WALByteBufReader reader = new WALByteBufReader(walFile)) {
-        if (Collections.disjoint(memTableId2Info.keySet(), reader.getMetaData().getMemTablesId())) {
-          continue;
-        }
-        while (reader.hasNext()) {
-          ByteBuffer buffer = reader.next();
-          // see WALInfoEntry#serialize, entry type
-          buffer.position(Byte.BYTES);
-          long memTableId = buffer.getLong();
-          if (!memTableId2Info.containsKey(memTableId)) {
+    ExecutorService redoThreadPool = walRecoverManger.getRedoThreadPool();
+    // entries of the same memTable are redone in order by chaining them on the same future
+    Map<Long, CompletableFuture<Void>> memTableId2RedoFuture = new HashMap<>();
+    Semaphore pendingRedoEntries =
+        new Semaphore(config.getWalRecoverRedoThreadCount() * MAX_PENDING_REDO_ENTRIES_PER_THREAD);
+    long recoveredWALSize = 0;
+    long redoneEntriesCount = 0;
+    try {
+      for (int i = 0; i < walFiles.length; ++i) {
+        File walFile = walFiles[i];
+        try (IWALByteBufReader reader = openWALByteBufReader(walFile)) {
+          if (Collections.disjoint(
+              memTableId2Info.keySet(), reader.getMetaData().getMemTablesId())) {
             continue;
           }
-          buffer.clear();
-          WALEntry walEntry =
-              WALEntry.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.array())));
-          UnsealedTsFileRecoverPerformer recoverPerformer =
-              memTableId2RecoverPerformer.get(walEntry.getMemTableId());
-          if (recoverPerformer != null) {
-            recoverPerformer.redoLog(walEntry);
-          } else {
-            logger.debug(
-                "Fail to find TsFile recover performer for wal entry in TsFile {}", walFile);
+          recoveredWALSize += walFile.length();
+          while (reader.hasNext()) {
+            ByteBuffer buffer = reader.next();
+            // see WALInfoEntry#serialize, entry type
+            buffer.position(Byte.BYTES);
+            long memTableId = buffer.getLong();
+            if (!memTableId2Info.containsKey(memTableId)) {
+              continue;
+            }
+            buffer.clear();
+            // the buffer may be a slice of mapped wal file, so decode it before reading next one
+            WALEntry walEntry =
+                WALEntry.deserialize(new DataInputStream(new ByteBufferInputStream(buffer)));
+            UnsealedTsFileRecoverPerformer recoverPerformer =
+                memTableId2RecoverPerformer.get(walEntry.getMemTableId());
+            if (recoverPerformer == null) {
+              logger.debug(
+                  "Fail to find TsFile recover performer for wal entry in TsFile {}", walFile);
+            } else if (redoThreadPool == null) {
+              recoverPerformer.redoLog(walEntry);
+              redoneEntriesCount++;
+            } else {
+              pendingRedoEntries.acquireUninterruptibly();
+              memTableId2RedoFuture.compute(
+                  memTableId,
+                  (id, future) ->
+                      (future == null ? CompletableFuture.<Void>completedFuture(null) : future)
+                          .thenRunAsync(
+                              () -> redoLog(recoverPerformer, walEntry, pendingRedoEntries),
+                              redoThreadPool));
+              redoneEntriesCount++;
+            }
           }
+        } catch (BrokenWALFileException e) {
+          logger.warn(
+              "Fail to read memTable ids from the wal file {} of wal node: {}",
+              walFile.getAbsoluteFile(),
+              e.getMessage());
+        } catch (IOException e) {
+          logger.warn(
+              "Fail to read memTable ids from the wal file {} of wal node.",
+              walFile.getAbsoluteFile(),
+              e);
+        } catch (Exception e) {
+          logger.warn("Fail to read wal logs from {}, skip them", walFile, e);
         }
+      }
+    } finally {
+      // wait until all submitted entries have been redone
+      CompletableFuture.allOf(memTableId2RedoFuture.values().toArray(new CompletableFuture[0]))
+          .join();
+      walRecoverManger.recordRecoveredWAL(recoveredWALSize, redoneEntriesCount);
+    }
+    endRecovery();
+  }
+
+  private static IWALByteBufReader openWALByteBufReader(File walFile) throws IOException {
+    if (config.isEnableWalMmapRecovery()) {
+      try {
+        return new WALMappedByteBufReader(walFile);
       } catch (BrokenWALFileException e) {
-        logger.warn(
-            "Fail to read memTable ids from the wal file {} of wal node: {}",
-            walFile.getAbsoluteFile(),
-            e.getMessage());
+        throw e;
       } catch (IOException e) {
-        logger.warn(
-            "Fail to read memTable ids from the wal file {} of wal node.",
-            walFile.getAbsoluteFile(),
-            e);
-      } catch (Exception e) {
-        logger.warn("Fail to read wal logs from {}, skip them", walFile, e);
+        logger.warn("Fail to map the wal file {}, read it by stream instead.", walFile, e);
       }
     }
-    endRecovery();
+    return new WALByteBufReader(walFile);
+  }
+
+  private static void redoLog(
+      UnsealedTsFileRecoverPerformer recoverPerformer,
+      WALEntry walEntry,
+      Semaphore pendingRedoEntries) {
+    try {
+      recoverPerformer.redoLog(walEntry);
+    } catch (Exception e) {
+      // never complete the future exceptionally, otherwise following entries will be skipped
+      logger.warn(
+          "Fail to redo wal entry of TsFile {}, skip it",
+          recoverPerformer.getTsFileAbsolutePath(),
+          e);
+    } finally {
+      pendingRedoEntries.release();
+    }
   }
 
   private void endRecovery() {
@@ -27,6 +27,7 @@ import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.exception.StartupException;
 import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DataRegionException;
 import org.apache.iotdb.db.exception.runtime.StorageEngineFailureException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALRecoverException;
@@ -47,6 +48,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileUtils.getTsFileRelativePath;
 
@@ -64,6 +66,12 @@ public class WALRecoverManager {
 
   // threads to recover wal nodes
   private ExecutorService recoverThreadPool;
+  // threads to redo wal entries of different memTables in parallel, null when disabled
+  private ExecutorService redoThreadPool;
+  // statistics of the last recovery
+  private final AtomicLong recoverCostInMs = new AtomicLong(0);
+  private final AtomicLong recoveredWALSizeInByte = new AtomicLong(0);
+  private final AtomicLong redoneEntriesCount = new AtomicLong(0);
   // stores all UnsealedTsFileRecoverPerformer submitted by data region processors
   private final Map<String, UnsealedTsFileRecoverPerformer> absolutePath2RecoverPerformer =
       new ConcurrentHashMap<>();
@@ -72,6 +80,7 @@ public class WALRecoverManager {
 
   public void recover() throws WALRecoverException, StartupException {
     logger.info("Start recovering wal.");
+    long startTime = System.currentTimeMillis();
     try {
       // collect wal nodes' information
       List<File> walNodeDirs = new ArrayList<>();
@@ -105,6 +114,13 @@ public class WALRecoverManager {
       if (!walNodeDirs.isEmpty()) {
         recoverThreadPool =
             IoTDBThreadPoolFactory.newCachedThreadPool(ThreadName.WAL_RECOVER.getName());
+        int redoThreadCount =
+            IoTDBDescriptor.getInstance().getConfig().getWalRecoverRedoThreadCount();
+        if (redoThreadCount > 1) {
+          redoThreadPool =
+              IoTDBThreadPoolFactory.newFixedThreadPool(
+                  redoThreadCount, ThreadName.WAL_RECOVER_REDO.getName());
+        }
         CountDownLatch allNodesRecoveredLatch = new CountDownLatch(walNodeDirs.size());
         for (File walNodeDir : walNodeDirs) {
           recoverThreadPool.submit(new WALNodeRecoverTask(walNodeDir, allNodesRecoveredLatch));
@@ -138,8 +154,13 @@ public class WALRecoverManager {
         }
       }
       stop();
+      recoverCostInMs.set(System.currentTimeMillis() - startTime);
     }
-    logger.info("Successfully recover all wal nodes.");
+    logger.info(
+        "Successfully recover all wal nodes, cost {}ms, read {} bytes of wal and redo {} entries.",
+        recoverCostInMs.get(),
+        recoveredWALSizeInByte.get(),
+        redoneEntriesCount.get());
   }
 
   private void asyncRecoverLeftTsFiles() {
@@ -214,6 +235,28 @@ public class WALRecoverManager {
     return null;
   }
 
+  /** Returns null when wal entries should be redone by the recover thread of each wal node. */
+  ExecutorService getRedoThreadPool() {
+    return redoThreadPool;
+  }
+
+  void recordRecoveredWAL(long walSizeInByte, long entriesCount) {
+    recoveredWALSizeInByte.addAndGet(walSizeInByte);
+    redoneEntriesCount.addAndGet(entriesCount);
+  }
+
+  public long getRecoverCostInMs() {
+    return recoverCostInMs.get();
+  }
+
+  public long getRecoveredWALSizeInByte() {
+    return recoveredWALSizeInByte.get();
+  }
+
+  public long getRedoneEntriesCount() {
+    return redoneEntriesCount.get();
+  }
+
   public ExceptionalCountDownLatch getAllDataRegionScannedLatch() {
     return allDataRegionScannedLatch;
   }
@@ -228,12 +271,19 @@ public class WALRecoverManager {
       recoverThreadPool.shutdown();
       recoverThreadPool = null;
     }
+    if (redoThreadPool != null) {
+      redoThreadPool.shutdown();
+      redoThreadPool = null;
+    }
   }
 
   @TestOnly
   public void clear() {
     stop();
     hasStarted = false;
+    recoverCostInMs.set(0);
+    recoveredWALSizeInByte.set(0);
+    redoneEntriesCount.set(0);
   }
 
   public static WALRecoverManager getInstance() {
@@ -26,6 +26,7 @@ import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.apache.iotdb.rpc.TSStatusCode.WAL_ENTRY_TOO_LARGE;
 
@@ -49,6 +50,14 @@ public class MemoryControlledWALEntryQueue {
   }
 
   public void put(WALEntry e) throws InterruptedException {
+    put(e, null);
+  }
+
+  /**
+   * Put the element into the queue, beforeEnqueue is called after the memory of the element is
+   * reserved and before the element can be taken from the queue.
+   */
+  public void put(WALEntry e, Consumer<WALEntry> beforeEnqueue) throws InterruptedException {
     long elementSize = getElementSize(e);
     synchronized (nonFullCondition) {
       while (!SystemInfo.getInstance().getWalBufferQueueMemoryBlock().allocate(elementSize)) {
@@ -66,6 +75,9 @@ public class MemoryControlledWALEntryQueue {
         nonFullCondition.wait();
       }
     }
+    if (beforeEnqueue != null) {
+      beforeEnqueue.accept(e);
+    }
     queue.put(e);
   }
 
@@ -86,7 +98,12 @@ public class MemoryControlledWALEntryQueue {
     return queue.isEmpty();
   }
 
+  public long getTotalMemorySizeInBytes() {
+    return SystemInfo.getInstance().getWalBufferQueueMemoryBlock().getTotalMemorySizeInBytes();
+  }
+
   private long getElementSize(WALEntry walEntry) {
-    return walEntry.getMemorySize();
+    // the heap copy made by pre-serialization lives as long as the entry stays in the queue
+    return walEntry.getMemorySize() + walEntry.getPreSerializedMemorySize();
   }
 }
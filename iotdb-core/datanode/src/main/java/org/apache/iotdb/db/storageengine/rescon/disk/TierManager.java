@@ -222,6 +222,24 @@ public class TierManager {
         .collect(Collectors.toList());
   }
 
+  /** Get the seq or unSeq file folder the file is in, null if it's in none of them. */
+  public String getFileFolder(String filePath) {
+    if (filePath == null) {
+      return null;
+    }
+    for (String folder : seqDir2TierLevel.keySet()) {
+      if (filePath.startsWith(folder)) {
+        return folder;
+      }
+    }
+    for (String folder : unSeqDir2TierLevel.keySet()) {
+      if (filePath.startsWith(folder)) {
+        return folder;
+      }
+    }
+    return null;
+  }
+
   public int getTiersNum() {
     return seqTiers.size();
   }
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.memory;
+
+import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Ranks the working memtables of all data regions when the memtable memory exceeds the flush
+ * threshold, so that {@link SystemInfo} flushes the best victims before writes are rejected.
+ *
+ * <p>With {@link FlushVictimSelectionPolicy#ADAPTIVE}, the ram cost of a memtable is boosted by
+ * three factors normalized against all candidates: its age, the number of WAL files it pins and how
+ * cold it is (the inverse of its average write rate). Large memtables of cold regions are therefore
+ * flushed before those of hot regions, which will fill up a new memtable soon anyway.
+ */
+public class FlushVictimSelector {
+
+  /** The factor which contributes most to the score of a victim, recorded as metrics. */
+  public enum Reason {
+    SIZE,
+    AGE,
+    WAL_PIN,
+    LOW_WRITE_RATE
+  }
+
+  private static final double DOMINANT_BOOST_THRESHOLD = 0.5;
+
+  private final FlushVictimSelectionPolicy policy;
+
+  public FlushVictimSelector(FlushVictimSelectionPolicy policy) {
+    this.policy = policy;
+  }
+
+  /**
+   * Return the candidates with a non-empty working memtable, ordered from the best victim to the
+   * worst one.
+   */
+  public List<Candidate> rank(Collection<TsFileProcessor> tsFileProcessors, long currentTime) {
+    List<Candidate> candidates = new ArrayList<>(tsFileProcessors.size());
+    for (TsFileProcessor tsFileProcessor : tsFileProcessors) {
+      Candidate candidate = Candidate.of(tsFileProcessor, currentTime);
+      if (candidate != null) {
+        candidates.add(candidate);
+      }
+    }
+    return rank(candidates);
+  }
+
+  List<Candidate> rank(List<Candidate> candidates) {
+    if (policy == FlushVictimSelectionPolicy.ADAPTIVE) {
+      scoreAdaptively(candidates);
+    } else {
+      for (Candidate candidate : candidates) {
+        candidate.score = candidate.ramCost;
+        candidate.reason = Reason.SIZE;
+      }
+    }
+    candidates.sort((o1, o2) -> Double.compare(o2.score, o1.score));
+    return candidates;
+  }
+
+  private void scoreAdaptively(List<Candidate> candidates) {
+    long maxRamCost = 1;
+    long maxAge = 1;
+    long maxPinnedWALFileNum = 1;
+    double maxWriteRate = 0;
+    for (Candidate candidate : candidates) {
+      maxRamCost = Math.max(maxRamCost, candidate.ramCost);
+      maxAge = Math.max(maxAge, candidate.age);
+      maxPinnedWALFileNum = Math.max(maxPinnedWALFileNum, candidate.pinnedWALFileNum);
+      maxWriteRate = Math.max(maxWriteRate, candidate.writeRate);
+    }
+    for (Candidate candidate : candidates) {
+      double ageBoost = (double) candidate.age / maxAge;
+      double walPinBoost = (double) candidate.pinnedWALFileNum / maxPinnedWALFileNum;
+      double coldBoost = maxWriteRate == 0 ? 0 : 1 - candidate.writeRate / maxWriteRate;
+      candidate.score =
+          (double) candidate.ramCost / maxRamCost * (1 + ageBoost + walPinBoost + coldBoost);
+
+      candidate.reason = Reason.SIZE;
+      double dominantBoost = DOMINANT_BOOST_THRESHOLD;
+      if (ageBoost > dominantBoost) {
+        candidate.reason = Reason.AGE;
+        dominantBoost = ageBoost;
+      }
+      if (walPinBoost > dominantBoost) {
+        candidate.reason = Reason.WAL_PIN;
+        dominantBoost = walPinBoost;
+      }
+      if (coldBoost > dominantBoost) {
+        candidate.reason = Reason.LOW_WRITE_RATE;
+      }
+    }
+  }
+
+  /** A snapshot of the working memtable of a {@link TsFileProcessor}. */
+  public static class Candidate {
+    private final TsFileProcessor tsFileProcessor;
+    private final long ramCost;
+    private final long age;
+    private final long pinnedWALFileNum;
+    // points per second since the memtable was created
+    private final double writeRate;
+
+    private double score;
+    private Reason reason;
+
+    Candidate(
+        TsFileProcessor tsFileProcessor,
+        long ramCost,
+        long age,
+        long pinnedWALFileNum,
+        long totalPointsNum) {
+      this.tsFileProcessor = tsFileProcessor;
+      this.ramCost = ramCost;
+      this.age = Math.max(age, 0);
+      this.pinnedWALFileNum = pinnedWALFileNum;
+      this.writeRate = totalPointsNum * 1000.0 / Math.max(this.age, 1000);
+    }
+
+    private static Candidate of(TsFileProcessor tsFileProcessor, long currentTime) {
+      IMemTable memTable = tsFileProcessor.getWorkMemTable();
+      if (memTable == null) {
+        return null;
+      }
+      long ramCost = memTable.getTVListsRamCost();
+      if (ramCost == 0) {
+        return null;
+      }
+      return new Candidate(
+          tsFileProcessor,
+          ramCost,
+          currentTime - memTable.getCreatedTime(),
+          tsFileProcessor.getWorkMemTablePinnedWALFileNum(),
+          memTable.getTotalPointsNum());
+    }
+
+    public TsFileProcessor getTsFileProcessor() {
+      return tsFileProcessor;
+    }
+
+    public long getRamCost() {
+      return ramCost;
+    }
+
+    public Reason getReason() {
+      return reason;
+    }
+  }
+}
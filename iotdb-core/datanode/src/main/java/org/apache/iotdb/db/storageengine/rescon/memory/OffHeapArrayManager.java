@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.memory;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * Manage the direct memory blocks which replace the primitive value arrays of TVLists when
+ * tvlist_off_heap_value_enabled is true. Only fixed-length numeric types are supported, each block
+ * holds {@link PrimitiveArrayManager#ARRAY_SIZE} values.
+ *
+ * <p>Blocks are carved out of large direct slabs, so that the direct memory is allocated and
+ * cleaned in a few large pieces instead of one small buffer per block. Slabs are never freed before
+ * {@link #close()}, released blocks are pooled and reused. The blocks in use are charged to the
+ * memtable memory by the TVLists like on-heap arrays, and the idle blocks in the pool are charged
+ * to it by this manager, so the whole slab memory is under the memtable memory control.
+ */
+public class OffHeapArrayManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(OffHeapArrayManager.class);
+
+  /** size of a direct slab, at least one block */
+  private static final int SLAB_SIZE = Math.max(1 << 20, ARRAY_SIZE * Long.BYTES);
+
+  /** pooled blocks of 4-byte values (INT32, DATE, FLOAT) */
+  private static final ArrayDeque<ByteBuffer> POOLED_INT_BLOCKS = new ArrayDeque<>();
+
+  /** pooled blocks of 8-byte values (INT64, TIMESTAMP, DOUBLE) */
+  private static final ArrayDeque<ByteBuffer> POOLED_LONG_BLOCKS = new ArrayDeque<>();
+
+  /** guards the pools and the memory statistics below */
+  private static final Object LOCK = new Object();
+
+  /** bytes of all allocated slabs */
+  private static long slabMemorySize = 0;
+
+  /** bytes of the idle blocks in the pools */
+  private static long pooledMemorySize = 0;
+
+  /**
+   * bytes of the idle blocks charged to the memtable memory, it follows pooledMemorySize in steps
+   * of a slab to avoid updating SystemInfo on every allocation
+   */
+  private static long chargedMemorySize = 0;
+
+  private OffHeapArrayManager() {
+    // Empty constructor
+  }
+
+  public static boolean isSupported(TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+      case DATE:
+      case FLOAT:
+      case INT64:
+      case TIMESTAMP:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Get a pooled direct memory block according to type, a new slab is carved into blocks when the
+   * pool is empty.
+   *
+   * @return a block in native byte order which can hold {@link PrimitiveArrayManager#ARRAY_SIZE}
+   *     values
+   */
+  public static ByteBuffer allocate(TSDataType dataType) {
+    int blockSize = ARRAY_SIZE * getValueSize(dataType);
+    ArrayDeque<ByteBuffer> pooledBlocks = getPooledBlocks(blockSize);
+    synchronized (LOCK) {
+      if (pooledBlocks.isEmpty()) {
+        allocateSlab(blockSize, pooledBlocks);
+      }
+      pooledMemorySize -= blockSize;
+      updateChargedMemory();
+      return pooledBlocks.poll();
+    }
+  }
+
+  /**
+   * This method is called when bringing back a block, the block should not be accessed afterwards.
+   *
+   * @param block block to be released
+   */
+  public static void release(ByteBuffer block) {
+    int blockSize = block.capacity();
+    ArrayDeque<ByteBuffer> pooledBlocks = getPooledBlocks(blockSize);
+    block.clear();
+    synchronized (LOCK) {
+      pooledBlocks.add(block);
+      pooledMemorySize += blockSize;
+      updateChargedMemory();
+    }
+  }
+
+  /** Copy a block, used when cloning a TVList. */
+  public static ByteBuffer clone(ByteBuffer block) {
+    ByteBuffer cloneBlock;
+    if (block.capacity() == ARRAY_SIZE * Long.BYTES) {
+      cloneBlock = allocate(TSDataType.INT64);
+    } else {
+      cloneBlock = allocate(TSDataType.INT32);
+    }
+    ByteBuffer source = block.duplicate();
+    source.clear();
+    cloneBlock.put(source);
+    cloneBlock.clear();
+    return cloneBlock;
+  }
+
+  private static void allocateSlab(int blockSize, ArrayDeque<ByteBuffer> pooledBlocks) {
+    int blockNum = SLAB_SIZE / blockSize;
+    ByteBuffer slab = ByteBuffer.allocateDirect(blockNum * blockSize);
+    for (int i = 0; i < blockNum; i++) {
+      slab.limit((i + 1) * blockSize).position(i * blockSize);
+      pooledBlocks.add(slab.slice().order(ByteOrder.nativeOrder()));
+    }
+    slabMemorySize += (long) blockNum * blockSize;
+    pooledMemorySize += (long) blockNum * blockSize;
+    LOGGER.debug(
+        "Allocate an off-heap TVList slab of {} blocks, total slab size is {}",
+        blockNum,
+        slabMemorySize);
+  }
+
+  private static void updateChargedMemory() {
+    if (pooledMemorySize - chargedMemorySize >= SLAB_SIZE) {
+      SystemInfo.getInstance()
+          .applyMemoryForPooledOffHeapArrays(pooledMemorySize - chargedMemorySize);
+      chargedMemorySize = pooledMemorySize;
+    } else if (chargedMemorySize - pooledMemorySize >= SLAB_SIZE) {
+      SystemInfo.getInstance()
+          .releaseMemoryForPooledOffHeapArrays(chargedMemorySize - pooledMemorySize);
+      chargedMemorySize = pooledMemorySize;
+    }
+  }
+
+  private static int getValueSize(TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+      case DATE:
+      case FLOAT:
+        return Integer.BYTES;
+      case INT64:
+      case TIMESTAMP:
+      case DOUBLE:
+        return Long.BYTES;
+      default:
+        throw new UnSupportedDataTypeException(dataType.name());
+    }
+  }
+
+  private static ArrayDeque<ByteBuffer> getPooledBlocks(int blockSize) {
+    return blockSize == ARRAY_SIZE * Long.BYTES ? POOLED_LONG_BLOCKS : POOLED_INT_BLOCKS;
+  }
+
+  public static long getSlabMemorySize() {
+    synchronized (LOCK) {
+      return slabMemorySize;
+    }
+  }
+
+  public static long getChargedMemorySize() {
+    synchronized (LOCK) {
+      return chargedMemorySize;
+    }
+  }
+
+  public static void close() {
+    synchronized (LOCK) {
+      POOLED_INT_BLOCKS.clear();
+      POOLED_LONG_BLOCKS.clear();
+      if (chargedMemorySize != 0) {
+        SystemInfo.getInstance().releaseMemoryForPooledOffHeapArrays(chargedMemorySize);
+      }
+      slabMemorySize = 0;
+      pooledMemorySize = 0;
+      chargedMemorySize = 0;
+    }
+  }
+}
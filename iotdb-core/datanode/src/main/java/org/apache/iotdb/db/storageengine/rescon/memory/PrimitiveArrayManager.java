@@ -20,6 +20,7 @@ package org.apache.iotdb.db.storageengine.rescon.memory;
 
 import org.apache.iotdb.commons.memory.IMemoryBlock;
 import org.apache.iotdb.commons.memory.MemoryBlockType;
+import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.DataNodeMemoryConfig;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
@@ -32,11 +33,22 @@ import org.apache.tsfile.write.UnSupportedDataTypeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
-/** Manage all primitive data lists in memory, including get and release operations. */
+/**
+ * Manage all primitive data lists in memory, including get and release operations.
+ *
+ * <p>The released arrays are pooled without locking, so that the writing and flushing threads don't
+ * block each other. Each thread collects the arrays it releases in a magazine of {@link
+ * #LOCAL_ARRAYS_SIZE} arrays of each data type in its {@link LocalArrays}. A full magazine is
+ * handed over to a lock-free stack of each data type shared by all the threads, and a thread whose
+ * magazine is empty takes a full one from the stack, so that the arrays released by the flushing
+ * threads are reused by the writing threads. Only the arrays in the shared stacks are counted in
+ * the limits of the pool, the few arrays in the magazine of a thread are dropped with the thread.
+ */
 public class PrimitiveArrayManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PrimitiveArrayManager.class);
@@ -66,8 +78,27 @@ public class PrimitiveArrayManager {
   private static final double POOLED_ARRAYS_MEMORY_THRESHOLD =
       POOLED_ARRAYS_MEMORY_BLOCK.getTotalMemorySizeInBytes() / AMPLIFICATION_FACTOR;
 
-  /** TSDataType#serialize() -> ArrayDeque<Array>, VECTOR and UNKNOWN are ignored */
-  private static final ArrayDeque[] POOLED_ARRAYS = new ArrayDeque[TSDataType.values().length];
+  /**
+   * TSDataType#serialize() -> ConcurrentLinkedDeque<Object[]> of full magazines used as a stack,
+   * VECTOR and UNKNOWN are ignored
+   */
+  private static final ConcurrentLinkedDeque[] POOLED_ARRAYS =
+      new ConcurrentLinkedDeque[TSDataType.values().length];
+
+  /**
+   * TSDataType#serialize() -> count of the arrays in POOLED_ARRAYS, VECTOR and UNKNOWN are ignored
+   */
+  private static final AtomicInteger[] POOLED_ARRAY_COUNTS =
+      new AtomicInteger[TSDataType.values().length];
+
+  /** count of the arrays of each data type in a magazine */
+  static final int LOCAL_ARRAYS_SIZE = 4;
+
+  private static final ThreadLocal<LocalArrays> LOCAL_ARRAYS =
+      ThreadLocal.withInitial(LocalArrays::new);
+
+  /** increased when the pool is reset, the arrays cached by the threads before are dropped */
+  private static volatile long generation;
 
   /** TSDataType#serialize() -> max size of ArrayDeque<Array>, VECTOR and UNKNOWN are ignored */
   private static final int[] LIMITS = new int[TSDataType.values().length];
@@ -112,8 +143,10 @@ public class PrimitiveArrayManager {
     // limitUpdateThreshold = ∑(LIMITS[i])
     limitUpdateThreshold = (long) ((TSDataType.values().length - 2) * limit);
 
+    generation++;
     for (int i = 0; i < POOLED_ARRAYS.length; ++i) {
-      POOLED_ARRAYS[i] = new ArrayDeque<>((int) limit);
+      POOLED_ARRAYS[i] = new ConcurrentLinkedDeque<>();
+      POOLED_ARRAY_COUNTS[i] = new AtomicInteger(0);
     }
 
     for (AtomicLong allocationRequestCount : ALLOCATION_REQUEST_COUNTS) {
@@ -150,9 +183,17 @@ public class PrimitiveArrayManager {
     ALLOCATION_REQUEST_COUNTS[order].incrementAndGet();
     TOTAL_ALLOCATION_REQUEST_COUNT.incrementAndGet();
 
-    Object array;
-    synchronized (POOLED_ARRAYS[order]) {
-      array = POOLED_ARRAYS[order].poll();
+    LocalArrays localArrays = LOCAL_ARRAYS.get();
+    Object array = localArrays.poll(order);
+    if (array != null) {
+      StorageEngineMemoryMetrics.getInstance().incPamLocalAllocation();
+    } else {
+      Object[] magazine = (Object[]) POOLED_ARRAYS[order].pollFirst();
+      if (magazine != null) {
+        POOLED_ARRAY_COUNTS[order].addAndGet(-LOCAL_ARRAYS_SIZE);
+        localArrays.load(order, magazine);
+        array = localArrays.poll(order);
+      }
     }
     StorageEngineMemoryMetrics.getInstance().incPamAllocation();
     if (array == null) {
@@ -283,14 +324,22 @@ public class PrimitiveArrayManager {
     }
 
     StorageEngineMemoryMetrics.getInstance().incPamRelease();
-    synchronized (POOLED_ARRAYS[order]) {
-      ArrayDeque<Object> arrays = POOLED_ARRAYS[order];
-      if (arrays.size() < LIMITS[order]) {
-        arrays.add(array);
-      } else {
-        StorageEngineMemoryMetrics.getInstance().incPamReleaseFailure();
-      }
+    Object[] magazine = LOCAL_ARRAYS.get().offer(order, array);
+    if (magazine == null) {
+      return;
     }
+    // take places in the pool before pooling the full magazine, so that the limit is never exceeded
+    if (POOLED_ARRAY_COUNTS[order].addAndGet(LOCAL_ARRAYS_SIZE) > LIMITS[order]) {
+      POOLED_ARRAY_COUNTS[order].addAndGet(-LOCAL_ARRAYS_SIZE);
+      StorageEngineMemoryMetrics.getInstance().incPamReleaseFailure(LOCAL_ARRAYS_SIZE);
+      return;
+    }
+    POOLED_ARRAYS[order].offerFirst(magazine);
+  }
+
+  @TestOnly
+  static int getPooledArrayCount(TSDataType dataType) {
+    return POOLED_ARRAY_COUNTS[dataType.serialize()].get();
   }
 
   public static void close() {
@@ -355,4 +404,63 @@ public class PrimitiveArrayManager {
   public static int getArrayRowCount(int size) {
     return size / ARRAY_SIZE + (size % ARRAY_SIZE == 0 ? 0 : 1);
   }
+
+  /**
+   * The magazine of each data type of a thread, whose arrays are reused by the thread without
+   * touching POOLED_ARRAYS.
+   */
+  private static class LocalArrays {
+
+    private final Object[][] arrays = new Object[TSDataType.values().length][];
+    private final int[] counts = new int[TSDataType.values().length];
+    private long localGeneration = generation;
+
+    private Object poll(int order) {
+      checkGeneration();
+      if (counts[order] == 0) {
+        return null;
+      }
+      Object array = arrays[order][--counts[order]];
+      arrays[order][counts[order]] = null;
+      return array;
+    }
+
+    /**
+     * @return the magazine if it's full after adding the array, which should be handed over to
+     *     POOLED_ARRAYS, otherwise null
+     */
+    private Object[] offer(int order, Object array) {
+      checkGeneration();
+      if (arrays[order] == null) {
+        arrays[order] = new Object[LOCAL_ARRAYS_SIZE];
+      }
+      arrays[order][counts[order]++] = array;
+      if (counts[order] < LOCAL_ARRAYS_SIZE) {
+        return null;
+      }
+      Object[] magazine = arrays[order];
+      arrays[order] = null;
+      counts[order] = 0;
+      return magazine;
+    }
+
+    /** Replace the empty magazine with a full one taken from POOLED_ARRAYS. */
+    private void load(int order, Object[] magazine) {
+      arrays[order] = magazine;
+      counts[order] = LOCAL_ARRAYS_SIZE;
+    }
+
+    private void checkGeneration() {
+      long currentGeneration = generation;
+      if (localGeneration != currentGeneration) {
+        for (int i = 0; i < arrays.length; i++) {
+          if (arrays[i] != null) {
+            Arrays.fill(arrays[i], null);
+          }
+        }
+        Arrays.fill(counts, 0);
+        localGeneration = currentGeneration;
+      }
+    }
+  }
 }
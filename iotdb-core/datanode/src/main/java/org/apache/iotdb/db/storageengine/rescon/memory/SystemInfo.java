@@ -33,14 +33,17 @@ import org.apache.iotdb.db.storageengine.dataregion.DataRegionInfo;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.constant.CompactionTaskType;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionFileCountExceededException;
 import org.apache.iotdb.db.storageengine.dataregion.compaction.execute.exception.CompactionMemoryNotEnoughException;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
 import org.apache.iotdb.db.storageengine.dataregion.memtable.TsFileProcessor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -74,8 +77,12 @@ public class SystemInfo {
 
   private final ExecutorService flushTaskSubmitThreadPool =
       IoTDBThreadPoolFactory.newSingleThreadExecutor(ThreadName.FLUSH_TASK_SUBMIT.getName());
+  private final FlushVictimSelector flushVictimSelector =
+      new FlushVictimSelector(config.getFlushVictimSelectionPolicy());
   private double FLUSH_THRESHOLD = memorySizeForMemtable * config.getFlushProportion();
   private double REJECT_THRESHOLD = memorySizeForMemtable * memoryConfig.getRejectProportion();
+  private double PROACTIVE_FLUSH_THRESHOLD =
+      memorySizeForMemtable * config.getProactiveFlushProportion();
 
   private volatile boolean isEncodingFasterThanIo = true;
 
@@ -353,6 +360,7 @@ public class SystemInfo {
     memorySizeForMemtable = memoryConfig.getMemtableMemoryManager().getTotalMemorySizeInBytes();
     FLUSH_THRESHOLD = memorySizeForMemtable * config.getFlushProportion();
     REJECT_THRESHOLD = memorySizeForMemtable * memoryConfig.getRejectProportion();
+    PROACTIVE_FLUSH_THRESHOLD = memorySizeForMemtable * config.getProactiveFlushProportion();
     WritingMetrics.getInstance().recordFlushThreshold(FLUSH_THRESHOLD);
     WritingMetrics.getInstance().recordRejectThreshold(REJECT_THRESHOLD);
     WritingMetrics.getInstance()
@@ -412,32 +420,77 @@ public class SystemInfo {
     if (reportedStorageGroupMemCostMap.isEmpty()) {
       return false;
     }
-    PriorityQueue<TsFileProcessor> allTsFileProcessors =
-        new PriorityQueue<>(
-            (o1, o2) -> Long.compare(o2.getWorkMemTableRamCost(), o1.getWorkMemTableRamCost()));
+    List<TsFileProcessor> allTsFileProcessors = new ArrayList<>();
     for (DataRegionInfo dataRegionInfo : reportedStorageGroupMemCostMap.keySet()) {
       allTsFileProcessors.addAll(dataRegionInfo.getAllReportedTsp());
     }
+    Iterator<FlushVictimSelector.Candidate> victims =
+        flushVictimSelector.rank(allTsFileProcessors, System.currentTimeMillis()).iterator();
     boolean isCurrentTsFileProcessorSelected = false;
     long memCost = 0;
     long activeMemSize = totalStorageGroupMemCost - flushingMemTablesCost;
     while (activeMemSize - memCost > FLUSH_THRESHOLD) {
-      if (allTsFileProcessors.isEmpty()
-          || allTsFileProcessors.peek().getWorkMemTableRamCost() == 0) {
+      if (!victims.hasNext()) {
         return false;
       }
-      TsFileProcessor selectedTsFileProcessor = allTsFileProcessors.peek();
-      memCost += selectedTsFileProcessor.getWorkMemTableRamCost();
+      FlushVictimSelector.Candidate victim = victims.next();
+      TsFileProcessor selectedTsFileProcessor = victim.getTsFileProcessor();
+      memCost += victim.getRamCost();
       selectedTsFileProcessor.setWorkMemTableShouldFlush();
       flushTaskSubmitThreadPool.submit(selectedTsFileProcessor::submitAFlushTask);
+      WritingMetrics.getInstance().recordFlushVictim(victim.getReason(), victim.getRamCost());
       if (selectedTsFileProcessor == currentTsFileProcessor) {
         isCurrentTsFileProcessorSelected = true;
       }
-      allTsFileProcessors.poll();
     }
     return isCurrentTsFileProcessorSelected;
   }
 
+  /**
+   * Called periodically when the flush victim selection policy is ADAPTIVE. If the memory of the
+   * active memtables exceeds proactive_flush_proportion, flush the best victim in the background,
+   * so that cold regions release their memtables before the flush threshold is reached by the
+   * writes of hot regions.
+   *
+   * @return whether a memtable is selected to flush
+   */
+  public synchronized boolean proactivelyFlushMemTable() {
+    if (PROACTIVE_FLUSH_THRESHOLD <= 0 || reportedStorageGroupMemCostMap.isEmpty()) {
+      return false;
+    }
+    long activeMemSize = totalStorageGroupMemCost - flushingMemTablesCost;
+    if (activeMemSize <= PROACTIVE_FLUSH_THRESHOLD) {
+      return false;
+    }
+    List<TsFileProcessor> allTsFileProcessors = new ArrayList<>();
+    for (DataRegionInfo dataRegionInfo : reportedStorageGroupMemCostMap.keySet()) {
+      allTsFileProcessors.addAll(dataRegionInfo.getAllReportedTsp());
+    }
+    for (FlushVictimSelector.Candidate victim :
+        flushVictimSelector.rank(allTsFileProcessors, System.currentTimeMillis())) {
+      IMemTable memTable = victim.getTsFileProcessor().getWorkMemTable();
+      // skip the memtables which have been selected but are not flushing yet
+      if (memTable != null && !memTable.shouldFlush()) {
+        markProactiveFlush(victim, activeMemSize);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void markProactiveFlush(FlushVictimSelector.Candidate victim, long activeMemSize) {
+    TsFileProcessor selectedTsFileProcessor = victim.getTsFileProcessor();
+    logger.debug(
+        "Active memtable cost {} exceeds the proactive flush threshold {}, flush {} of {} bytes",
+        activeMemSize,
+        PROACTIVE_FLUSH_THRESHOLD,
+        selectedTsFileProcessor.getTsFileResource().getTsFile().getName(),
+        victim.getRamCost());
+    selectedTsFileProcessor.setWorkMemTableShouldFlush();
+    flushTaskSubmitThreadPool.submit(selectedTsFileProcessor::submitAFlushTask);
+    WritingMetrics.getInstance().recordFlushVictim(victim.getReason(), victim.getRamCost());
+  }
+
   public boolean isRejected() {
     return rejected;
   }
@@ -468,19 +521,30 @@ public class SystemInfo {
   }
 
   public synchronized void applyTemporaryMemoryForFlushing(long estimatedTemporaryMemSize) {
-    memorySizeForMemtable -= estimatedTemporaryMemSize;
-    FLUSH_THRESHOLD = memorySizeForMemtable * config.getFlushProportion();
-    REJECT_THRESHOLD = memorySizeForMemtable * memoryConfig.getRejectProportion();
-    WritingMetrics.getInstance().recordFlushThreshold(FLUSH_THRESHOLD);
-    WritingMetrics.getInstance().recordRejectThreshold(REJECT_THRESHOLD);
-    WritingMetrics.getInstance()
-        .recordWALQueueMaxMemorySize(walBufferQueueMemoryBlock.getTotalMemorySizeInBytes());
+    updateMemorySizeForMemtable(-estimatedTemporaryMemSize);
   }
 
   public synchronized void releaseTemporaryMemoryForFlushing(long estimatedTemporaryMemSize) {
-    memorySizeForMemtable += estimatedTemporaryMemSize;
+    updateMemorySizeForMemtable(estimatedTemporaryMemSize);
+  }
+
+  /**
+   * The idle blocks pooled by {@link OffHeapArrayManager} are taken from the memtable memory, the
+   * blocks in use are charged by the memtables themselves.
+   */
+  public synchronized void applyMemoryForPooledOffHeapArrays(long size) {
+    updateMemorySizeForMemtable(-size);
+  }
+
+  public synchronized void releaseMemoryForPooledOffHeapArrays(long size) {
+    updateMemorySizeForMemtable(size);
+  }
+
+  private void updateMemorySizeForMemtable(long delta) {
+    memorySizeForMemtable += delta;
     FLUSH_THRESHOLD = memorySizeForMemtable * config.getFlushProportion();
     REJECT_THRESHOLD = memorySizeForMemtable * memoryConfig.getRejectProportion();
+    PROACTIVE_FLUSH_THRESHOLD = memorySizeForMemtable * config.getProactiveFlushProportion();
     WritingMetrics.getInstance().recordFlushThreshold(FLUSH_THRESHOLD);
     WritingMetrics.getInstance().recordRejectThreshold(REJECT_THRESHOLD);
     WritingMetrics.getInstance()
@@ -612,11 +612,30 @@ public class QueryDataSetUtils {
    */
   public static Pair<List<ByteBuffer>, Boolean> convertQueryResultByFetchSize(
       IQueryExecution queryExecution, int fetchSize) throws IoTDBException {
+    return convertQueryResultByFetchSize(queryExecution, fetchSize, 0);
+  }
+
+  /**
+   * Returns fetchSize rows at least, and then the TsBlocks already produced by the query until the
+   * returned ones are as large as fetchCreditInBytes, so that a client reading a large result set
+   * needs fewer fetches when the query is faster than the client. The client buffers at most one
+   * TsBlock more than its credit, and the query is not waited for more than fetchSize rows.
+   *
+   * @param fetchCreditInBytes bytes of the results the client can buffer, 0 if the client doesn't
+   *     accept more than fetchSize rows
+   */
+  public static Pair<List<ByteBuffer>, Boolean> convertQueryResultByFetchSize(
+      IQueryExecution queryExecution, int fetchSize, long fetchCreditInBytes)
+      throws IoTDBException {
     fetchSize = fetchSize > 0 ? fetchSize : TSFLE_CONFIG.getMaxTsBlockLineNumber();
     int rowCount = 0;
+    long sizeInBytes = 0;
     List<ByteBuffer> res = new ArrayList<>();
-    while (rowCount < fetchSize) {
-      Optional<ByteBuffer> optionalByteBuffer = queryExecution.getByteBufferBatchResult();
+    while (rowCount < fetchSize || sizeInBytes < fetchCreditInBytes) {
+      Optional<ByteBuffer> optionalByteBuffer =
+          rowCount < fetchSize
+              ? queryExecution.getByteBufferBatchResult()
+              : queryExecution.getReadyByteBufferBatchResult();
       if (!optionalByteBuffer.isPresent()) {
         break;
       }
@@ -630,6 +649,7 @@ public class QueryDataSetUtils {
       byteBuffer.reset();
       if (positionCount != 0) {
         res.add(byteBuffer);
+        sizeInBytes += byteBuffer.remaining();
       }
       rowCount += positionCount;
     }
@@ -109,6 +109,8 @@ public abstract class AlignedTVList extends TVList {
         return new QuickAlignedTVList(dataTypes);
       case BACKWARD:
         return new BackAlignedTVList(dataTypes);
+      case INCREMENTAL:
+        return new IncAlignedTVList(dataTypes);
       default:
         return new TimAlignedTVList(dataTypes);
     }
@@ -785,12 +787,8 @@ public abstract class AlignedTVList extends TVList {
         // the remaining inputs can fit the last array, copy all remaining inputs into last array
         System.arraycopy(time, idx, timestamps.get(arrayIdx), elementIdx, inputRemaining);
         arrayCopy(value, idx, arrayIdx, elementIdx, inputRemaining);
-        for (int i = 0; i < inputRemaining; i++) {
-          if (indices != null) {
-            indices.get(arrayIdx)[elementIdx + i] = rowCount;
-          }
-          rowCount++;
-        }
+        fillIndices(arrayIdx, elementIdx, inputRemaining);
+        rowCount += inputRemaining;
         markNullBitmapRange(value, bitMaps, results, idx, elementIdx, inputRemaining, arrayIdx);
         break;
       } else {
@@ -798,12 +796,8 @@ public abstract class AlignedTVList extends TVList {
         // one and enter the next loop
         System.arraycopy(time, idx, timestamps.get(arrayIdx), elementIdx, internalRemaining);
         arrayCopy(value, idx, arrayIdx, elementIdx, internalRemaining);
-        for (int i = 0; i < internalRemaining; i++) {
-          if (indices != null) {
-            indices.get(arrayIdx)[elementIdx + i] = rowCount;
-          }
-          rowCount++;
-        }
+        fillIndices(arrayIdx, elementIdx, internalRemaining);
+        rowCount += internalRemaining;
         markNullBitmapRange(value, bitMaps, results, idx, elementIdx, internalRemaining, arrayIdx);
         idx += internalRemaining;
         checkExpansion();
@@ -811,6 +805,150 @@ public abstract class AlignedTVList extends TVList {
     }
   }
 
+  /**
+   * Put rows that have been reordered as the columns of this list. Different from calling {@link
+   * #putAlignedValue(long, Object[])} for each row, values are copied column by column, so the data
+   * type of each column is dispatched once for each array instead of once for each row.
+   *
+   * @param rows rows[i] is the values of the i-th row, it may be shorter than the column number of
+   *     this list if some columns are extended after it's reordered, missing values are null
+   */
+  @Override
+  public synchronized void putAlignedRows(long[] time, Object[][] rows, int start, int end) {
+    checkExpansion();
+    int idx = start;
+
+    updateMinMaxTimeAndSorted(time, start, end);
+
+    while (idx < end) {
+      int arrayIdx = rowCount / ARRAY_SIZE;
+      int elementIdx = rowCount % ARRAY_SIZE;
+      int length = Math.min(end - idx, ARRAY_SIZE - elementIdx);
+      System.arraycopy(time, idx, timestamps.get(arrayIdx), elementIdx, length);
+      for (int i = 0; i < values.size(); i++) {
+        putColumnOfRows(i, rows, idx, arrayIdx, elementIdx, length);
+      }
+      fillIndices(arrayIdx, elementIdx, length);
+      rowCount += length;
+      idx += length;
+      if (idx < end) {
+        checkExpansion();
+      }
+    }
+  }
+
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private void putColumnOfRows(
+      int columnIndex, Object[][] rows, int idx, int arrayIndex, int elementIndex, int length) {
+    Object columnArray = values.get(columnIndex).get(arrayIndex);
+    // dispatch the data type once, and copy the column in a tight loop of that type
+    switch (dataTypes.get(columnIndex)) {
+      case TEXT:
+      case BLOB:
+      case STRING:
+        Binary[] binaryArray = (Binary[]) columnArray;
+        long binarySize = 0;
+        for (int i = 0; i < length; i++) {
+          Object columnValue = getColumnValue(rows[idx + i], columnIndex);
+          Binary binary;
+          if (columnValue == null) {
+            markNullValue(columnIndex, arrayIndex, elementIndex + i);
+            binary = Binary.EMPTY_VALUE;
+          } else {
+            binary = (Binary) columnValue;
+          }
+          binaryArray[elementIndex + i] = binary;
+          binarySize += getBinarySize(binary);
+        }
+        memoryBinaryChunkSize[columnIndex] += binarySize;
+        break;
+      case FLOAT:
+        float[] floatArray = (float[]) columnArray;
+        for (int i = 0; i < length; i++) {
+          Object columnValue = getColumnValue(rows[idx + i], columnIndex);
+          if (columnValue == null) {
+            markNullValue(columnIndex, arrayIndex, elementIndex + i);
+            floatArray[elementIndex + i] = Float.MIN_VALUE;
+          } else {
+            floatArray[elementIndex + i] = (float) columnValue;
+          }
+        }
+        break;
+      case INT32:
+      case DATE:
+        int[] intArray = (int[]) columnArray;
+        for (int i = 0; i < length; i++) {
+          Object columnValue = getColumnValue(rows[idx + i], columnIndex);
+          if (columnValue == null) {
+            markNullValue(columnIndex, arrayIndex, elementIndex + i);
+            intArray[elementIndex + i] = Integer.MIN_VALUE;
+          } else {
+            intArray[elementIndex + i] = (int) columnValue;
+          }
+        }
+        break;
+      case INT64:
+      case TIMESTAMP:
+        long[] longArray = (long[]) columnArray;
+        for (int i = 0; i < length; i++) {
+          Object columnValue = getColumnValue(rows[idx + i], columnIndex);
+          if (columnValue == null) {
+            markNullValue(columnIndex, arrayIndex, elementIndex + i);
+            longArray[elementIndex + i] = Long.MIN_VALUE;
+          } else {
+            longArray[elementIndex + i] = (long) columnValue;
+          }
+        }
+        break;
+      case DOUBLE:
+        double[] doubleArray = (double[]) columnArray;
+        for (int i = 0; i < length; i++) {
+          Object columnValue = getColumnValue(rows[idx + i], columnIndex);
+          if (columnValue == null) {
+            markNullValue(columnIndex, arrayIndex, elementIndex + i);
+            doubleArray[elementIndex + i] = Double.MIN_VALUE;
+          } else {
+            doubleArray[elementIndex + i] = (double) columnValue;
+          }
+        }
+        break;
+      case BOOLEAN:
+        boolean[] booleanArray = (boolean[]) columnArray;
+        for (int i = 0; i < length; i++) {
+          Object columnValue = getColumnValue(rows[idx + i], columnIndex);
+          if (columnValue == null) {
+            markNullValue(columnIndex, arrayIndex, elementIndex + i);
+            booleanArray[elementIndex + i] = false;
+          } else {
+            booleanArray[elementIndex + i] = (boolean) columnValue;
+          }
+        }
+        break;
+      default:
+        for (int i = 0; i < length; i++) {
+          if (getColumnValue(rows[idx + i], columnIndex) == null) {
+            markNullValue(columnIndex, arrayIndex, elementIndex + i);
+          }
+        }
+        break;
+    }
+  }
+
+  /** the row may be shorter than the column number if some columns are extended after it's built */
+  private static Object getColumnValue(Object[] row, int columnIndex) {
+    return columnIndex < row.length ? row[columnIndex] : null;
+  }
+
+  private void fillIndices(int arrayIndex, int elementIndex, int length) {
+    if (indices == null) {
+      return;
+    }
+    int[] indexArray = indices.get(arrayIndex);
+    for (int i = 0; i < length; i++) {
+      indexArray[elementIndex + i] = rowCount + i;
+    }
+  }
+
   private void markNullBitmapRange(
       Object[] values,
       BitMap[] bitMaps,
@@ -58,6 +58,8 @@ public abstract class BinaryTVList extends TVList {
         return new QuickBinaryTVList();
       case BACKWARD:
         return new BackBinaryTVList();
+      case INCREMENTAL:
+        return new IncBinaryTVList();
       default:
         return new TimBinaryTVList();
     }
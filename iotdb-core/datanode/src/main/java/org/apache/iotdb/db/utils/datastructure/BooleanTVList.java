@@ -57,6 +57,8 @@ public abstract class BooleanTVList extends TVList {
         return new QuickBooleanTVList();
       case BACKWARD:
         return new BackBooleanTVList();
+      case INCREMENTAL:
+        return new IncBooleanTVList();
       default:
         return new TimBooleanTVList();
     }
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.utils.datastructure;
 
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALWriteUtils;
+import org.apache.iotdb.db.storageengine.rescon.memory.OffHeapArrayManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager;
 import org.apache.iotdb.db.utils.MathUtils;
 
@@ -34,6 +35,7 @@ import org.apache.tsfile.utils.TsPrimitiveType;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
@@ -50,6 +52,7 @@ public abstract class DoubleTVList extends TVList {
   DoubleTVList() {
     super();
     values = new ArrayList<>();
+    offHeapValues = createOffHeapValuesIfEnabled();
   }
 
   public static DoubleTVList newList() {
@@ -58,6 +61,8 @@ public abstract class DoubleTVList extends TVList {
         return new QuickDoubleTVList();
       case BACKWARD:
         return new BackDoubleTVList();
+      case INCREMENTAL:
+        return new IncDoubleTVList();
       default:
         return new TimDoubleTVList();
     }
@@ -71,6 +76,7 @@ public abstract class DoubleTVList extends TVList {
     for (double[] valueArray : values) {
       cloneList.values.add(cloneValue(valueArray));
     }
+    cloneOffHeapValues(cloneList);
     return cloneList;
   }
 
@@ -88,7 +94,11 @@ public abstract class DoubleTVList extends TVList {
     maxTime = Math.max(maxTime, timestamp);
     minTime = Math.min(minTime, timestamp);
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
-    values.get(arrayIndex)[elementIndex] = value;
+    if (offHeapValues != null) {
+      offHeapValues.get(arrayIndex).putDouble(elementIndex * Double.BYTES, value);
+    } else {
+      values.get(arrayIndex)[elementIndex] = value;
+    }
     if (indices != null) {
       indices.get(arrayIndex)[elementIndex] = rowCount;
     }
@@ -110,11 +120,15 @@ public abstract class DoubleTVList extends TVList {
     int valueIndex = getValueIndex(index);
     int arrayIndex = valueIndex / ARRAY_SIZE;
     int elementIndex = valueIndex % ARRAY_SIZE;
+    if (offHeapValues != null) {
+      return offHeapValues.get(arrayIndex).getDouble(elementIndex * Double.BYTES);
+    }
     return values.get(arrayIndex)[elementIndex];
   }
 
   @Override
   protected void clearValue() {
+    clearOffHeapValues();
     if (values != null) {
       for (double[] dataArray : values) {
         PrimitiveArrayManager.release(dataArray);
@@ -128,7 +142,11 @@ public abstract class DoubleTVList extends TVList {
     if (indices != null) {
       indices.add((int[]) getPrimitiveArraysByType(TSDataType.INT32));
     }
-    values.add((double[]) getPrimitiveArraysByType(TSDataType.DOUBLE));
+    if (offHeapValues != null) {
+      offHeapValues.add(OffHeapArrayManager.allocate(TSDataType.DOUBLE));
+    } else {
+      values.add((double[]) getPrimitiveArraysByType(TSDataType.DOUBLE));
+    }
     if (bitMap != null) {
       bitMap.add(null);
     }
@@ -205,7 +223,7 @@ public abstract class DoubleTVList extends TVList {
         // the remaining inputs can fit the last array, copy all remaining inputs into last array
         System.arraycopy(
             time, idx - timeIdxOffset, timestamps.get(arrayIdx), elementIdx, inputRemaining);
-        System.arraycopy(value, idx, values.get(arrayIdx), elementIdx, inputRemaining);
+        copyValues(value, idx, arrayIdx, elementIdx, inputRemaining);
         if (indices != null) {
           int[] indexes = IntStream.range(rowCount, rowCount + inputRemaining).toArray();
           System.arraycopy(indexes, 0, indices.get(arrayIdx), elementIdx, inputRemaining);
@@ -217,7 +235,7 @@ public abstract class DoubleTVList extends TVList {
         // one and enter the next loop
         System.arraycopy(
             time, idx - timeIdxOffset, timestamps.get(arrayIdx), elementIdx, internalRemaining);
-        System.arraycopy(value, idx, values.get(arrayIdx), elementIdx, internalRemaining);
+        copyValues(value, idx, arrayIdx, elementIdx, internalRemaining);
         if (indices != null) {
           int[] indexes = IntStream.range(rowCount, rowCount + internalRemaining).toArray();
           System.arraycopy(indexes, 0, indices.get(arrayIdx), elementIdx, internalRemaining);
@@ -229,6 +247,16 @@ public abstract class DoubleTVList extends TVList {
     }
   }
 
+  private void copyValues(double[] value, int idx, int arrayIdx, int elementIdx, int length) {
+    if (offHeapValues != null) {
+      DoubleBuffer block = offHeapValues.get(arrayIdx).asDoubleBuffer();
+      block.position(elementIdx);
+      block.put(value, idx, length);
+    } else {
+      System.arraycopy(value, idx, values.get(arrayIdx), elementIdx, length);
+    }
+  }
+
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMinMaxTimeAndSorted(
       long[] time, double[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * Sort policy for mostly ordered data. The prefix [0, seqRowCount) of a TVList is always sorted, so
+ * only the out-of-order tail [seqRowCount, rowCount) is sorted, and then merged with the part of
+ * the prefix which overlaps it. Rows of the prefix which are not larger than the minimum time of
+ * the tail are never moved, so sorting a TVList again after appending some rows only costs the size
+ * of the newly appended rows plus their overlap with the sorted rows.
+ */
+public class IncrementalSort extends TimSort {
+
+  /** a sorting buffer larger than this is dropped after sorting instead of being reused */
+  private static final int MAX_RETAINED_BUFFER_SIZE = ARRAY_SIZE * 16;
+
+  /**
+   * sorting buffer of the rows [bufferOffset, rowCount), which is only as large as the rows being
+   * sorted and merged, and is reused by the following sorts of the TVList
+   */
+  private long[] bufferTimestamps;
+
+  private int[] bufferIndices;
+  private int bufferOffset;
+
+  public IncrementalSort(TVList tvList) {
+    super(tvList);
+  }
+
+  /**
+   * Sort [0, rowCount) given that [0, seqRowCount) is already sorted.
+   *
+   * @param seqRowCount the length of the sorted prefix
+   * @param rowCount the number of rows to sort
+   */
+  public void incrementalSort(int seqRowCount, int rowCount) {
+    if (seqRowCount >= rowCount) {
+      return;
+    }
+    // sort the out-of-order tail, it's stable so that the rows with the same time keep the order
+    // of insertion
+    prepareBuffer(seqRowCount, rowCount);
+    sort(seqRowCount, rowCount);
+    if (seqRowCount > 0) {
+      int mergeStart = upperBound(seqRowCount, tvList.getTime(seqRowCount));
+      if (mergeStart < seqRowCount) {
+        prepareBuffer(mergeStart, rowCount);
+        merge(mergeStart, seqRowCount, rowCount);
+      }
+    }
+    if (bufferTimestamps.length > MAX_RETAINED_BUFFER_SIZE) {
+      clearSortedTime();
+      clearSortedValue();
+    }
+  }
+
+  private void prepareBuffer(int offset, int rowCount) {
+    bufferOffset = offset;
+    int size = rowCount - offset;
+    if (bufferTimestamps == null || bufferTimestamps.length < size) {
+      bufferTimestamps = new long[Math.max(size, ARRAY_SIZE)];
+    }
+    if (bufferIndices == null || bufferIndices.length < size) {
+      bufferIndices = new int[Math.max(size, ARRAY_SIZE)];
+    }
+  }
+
+  @Override
+  public void setToSorted(int src, int dest) {
+    bufferTimestamps[dest - bufferOffset] = tvList.getTime(src);
+    bufferIndices[dest - bufferOffset] = tvList.getValueIndex(src);
+  }
+
+  @Override
+  public void setFromSorted(int src, int dest) {
+    tvList.set(dest, bufferTimestamps[src - bufferOffset], bufferIndices[src - bufferOffset]);
+  }
+
+  @Override
+  public void clearSortedTime() {
+    super.clearSortedTime();
+    bufferTimestamps = null;
+  }
+
+  @Override
+  public void clearSortedValue() {
+    super.clearSortedValue();
+    bufferIndices = null;
+  }
+
+  /** find the first row in [0, seqRowCount) whose time is larger than the given time */
+  private int upperBound(int seqRowCount, long time) {
+    int left = 0;
+    int right = seqRowCount;
+    while (left < right) {
+      int mid = (left + right) >>> 1;
+      if (tvList.getTime(mid) <= time) {
+        left = mid + 1;
+      } else {
+        right = mid;
+      }
+    }
+    return left;
+  }
+}
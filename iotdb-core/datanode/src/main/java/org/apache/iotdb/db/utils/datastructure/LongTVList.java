@@ -20,6 +20,7 @@ package org.apache.iotdb.db.utils.datastructure;
 
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALWriteUtils;
+import org.apache.iotdb.db.storageengine.rescon.memory.OffHeapArrayManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager;
 
 import org.apache.tsfile.enums.TSDataType;
@@ -33,6 +34,7 @@ import org.apache.tsfile.utils.TsPrimitiveType;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.LongBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
@@ -49,6 +51,7 @@ public abstract class LongTVList extends TVList {
   LongTVList() {
     super();
     values = new ArrayList<>();
+    offHeapValues = createOffHeapValuesIfEnabled();
   }
 
   public static LongTVList newList() {
@@ -57,6 +60,8 @@ public abstract class LongTVList extends TVList {
         return new QuickLongTVList();
       case BACKWARD:
         return new BackLongTVList();
+      case INCREMENTAL:
+        return new IncLongTVList();
       default:
         return new TimLongTVList();
     }
@@ -70,6 +75,7 @@ public abstract class LongTVList extends TVList {
     for (long[] valueArray : values) {
       cloneList.values.add(cloneValue(valueArray));
     }
+    cloneOffHeapValues(cloneList);
     return cloneList;
   }
 
@@ -87,7 +93,11 @@ public abstract class LongTVList extends TVList {
     maxTime = Math.max(maxTime, timestamp);
     minTime = Math.min(minTime, timestamp);
     timestamps.get(arrayIndex)[elementIndex] = timestamp;
-    values.get(arrayIndex)[elementIndex] = value;
+    if (offHeapValues != null) {
+      offHeapValues.get(arrayIndex).putLong(elementIndex * Long.BYTES, value);
+    } else {
+      values.get(arrayIndex)[elementIndex] = value;
+    }
     if (indices != null) {
       indices.get(arrayIndex)[elementIndex] = rowCount;
     }
@@ -109,11 +119,15 @@ public abstract class LongTVList extends TVList {
     int valueIndex = getValueIndex(index);
     int arrayIndex = valueIndex / ARRAY_SIZE;
     int elementIndex = valueIndex % ARRAY_SIZE;
+    if (offHeapValues != null) {
+      return offHeapValues.get(arrayIndex).getLong(elementIndex * Long.BYTES);
+    }
     return values.get(arrayIndex)[elementIndex];
   }
 
   @Override
   protected void clearValue() {
+    clearOffHeapValues();
     if (values != null) {
       for (long[] dataArray : values) {
         PrimitiveArrayManager.release(dataArray);
@@ -127,7 +141,11 @@ public abstract class LongTVList extends TVList {
     if (indices != null) {
       indices.add((int[]) getPrimitiveArraysByType(TSDataType.INT32));
     }
-    values.add((long[]) getPrimitiveArraysByType(TSDataType.INT64));
+    if (offHeapValues != null) {
+      offHeapValues.add(OffHeapArrayManager.allocate(TSDataType.INT64));
+    } else {
+      values.add((long[]) getPrimitiveArraysByType(TSDataType.INT64));
+    }
     if (bitMap != null) {
       bitMap.add(null);
     }
@@ -197,7 +215,7 @@ public abstract class LongTVList extends TVList {
         // the remaining inputs can fit the last array, copy all remaining inputs into last array
         System.arraycopy(
             time, idx - timeIdxOffset, timestamps.get(arrayIdx), elementIdx, inputRemaining);
-        System.arraycopy(value, idx, values.get(arrayIdx), elementIdx, inputRemaining);
+        copyValues(value, idx, arrayIdx, elementIdx, inputRemaining);
         if (indices != null) {
           int[] indexes = IntStream.range(rowCount, rowCount + inputRemaining).toArray();
           System.arraycopy(indexes, 0, indices.get(arrayIdx), elementIdx, inputRemaining);
@@ -209,7 +227,7 @@ public abstract class LongTVList extends TVList {
         // one and enter the next loop
         System.arraycopy(
             time, idx - timeIdxOffset, timestamps.get(arrayIdx), elementIdx, internalRemaining);
-        System.arraycopy(value, idx, values.get(arrayIdx), elementIdx, internalRemaining);
+        copyValues(value, idx, arrayIdx, elementIdx, internalRemaining);
         if (indices != null) {
           int[] indexes = IntStream.range(rowCount, rowCount + internalRemaining).toArray();
           System.arraycopy(indexes, 0, indices.get(arrayIdx), elementIdx, internalRemaining);
@@ -221,6 +239,16 @@ public abstract class LongTVList extends TVList {
     }
   }
 
+  private void copyValues(long[] value, int idx, int arrayIdx, int elementIdx, int length) {
+    if (offHeapValues != null) {
+      LongBuffer block = offHeapValues.get(arrayIdx).asLongBuffer();
+      block.position(elementIdx);
+      block.put(value, idx, length);
+    } else {
+      System.arraycopy(value, idx, values.get(arrayIdx), elementIdx, length);
+    }
+  }
+
   // move null values to the end of time array and value array, then return number of null values
   int dropNullValThenUpdateMinMaxTimeAndSorted(
       long[] time, long[] values, BitMap bitMap, int start, int end, int tIdxOffset) {
@@ -21,10 +21,12 @@ package org.apache.iotdb.db.utils.datastructure;
 
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
 import org.apache.iotdb.db.service.metrics.WritingMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntryValue;
+import org.apache.iotdb.db.storageengine.rescon.memory.OffHeapArrayManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager;
 import org.apache.iotdb.db.utils.MathUtils;
 
@@ -44,6 +46,7 @@ import org.apache.tsfile.write.chunk.IChunkWriter;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -77,6 +80,11 @@ public abstract class TVList implements WALEntryValue {
   // Index relation: arrayIndex -> elementIndex
   protected List<BitMap> bitMap;
 
+  // list of direct memory blocks which replaces the primitive value arrays of fixed-length numeric
+  // TVLists when tvlist_off_heap_value_enabled is true, null otherwise
+  // Index relation: arrayIndex -> elementIndex * valueSize
+  protected List<ByteBuffer> offHeapValues;
+
   // lock to provide synchronization for query list
   private final ReentrantLock queryListLock = new ReentrantLock();
   // set of query that this TVList is used
@@ -353,6 +361,10 @@ public abstract class TVList implements WALEntryValue {
     throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
   }
 
+  public void putAlignedRows(long[] time, Object[][] rows, int start, int end) {
+    throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+  }
+
   public long getLong(int index) {
     throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
   }
@@ -475,6 +487,33 @@ public abstract class TVList implements WALEntryValue {
 
   protected abstract void clearValue();
 
+  protected static List<ByteBuffer> createOffHeapValuesIfEnabled() {
+    return IoTDBDescriptor.getInstance().getConfig().isTvListOffHeapValueEnabled()
+        ? new ArrayList<>()
+        : null;
+  }
+
+  protected void cloneOffHeapValues(TVList cloneList) {
+    if (offHeapValues == null) {
+      return;
+    }
+    if (cloneList.offHeapValues == null) {
+      cloneList.offHeapValues = new ArrayList<>(offHeapValues.size());
+    }
+    for (ByteBuffer block : offHeapValues) {
+      cloneList.offHeapValues.add(OffHeapArrayManager.clone(block));
+    }
+  }
+
+  protected void clearOffHeapValues() {
+    if (offHeapValues != null) {
+      for (ByteBuffer block : offHeapValues) {
+        OffHeapArrayManager.release(block);
+      }
+      offHeapValues.clear();
+    }
+  }
+
   protected void clearIndices() {
     if (indices != null) {
       for (int[] dataArray : indices) {
@@ -508,7 +547,6 @@ public abstract class TVList implements WALEntryValue {
   }
 
   void updateMinMaxTimeAndSorted(long[] time, int start, int end) {
-    int length = time.length;
     long inPutMinTime = Long.MAX_VALUE;
     boolean inputSorted = true;
     int inputSeqRowCount = 0;
@@ -516,7 +554,8 @@ public abstract class TVList implements WALEntryValue {
       inPutMinTime = Math.min(inPutMinTime, time[i]);
       maxTime = Math.max(maxTime, time[i]);
       if (inputSorted) {
-        if (i < length - 1 && time[i] > time[i + 1]) {
+        // only the rows in [start, end) are put, the time array may be longer than them
+        if (i < end - 1 && time[i] > time[i + 1]) {
           inputSorted = false;
         } else {
           inputSeqRowCount++;
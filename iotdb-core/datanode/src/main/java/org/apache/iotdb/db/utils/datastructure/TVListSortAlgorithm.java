@@ -21,5 +21,6 @@ package org.apache.iotdb.db.utils.datastructure;
 public enum TVListSortAlgorithm {
   TIM,
   QUICK,
-  BACKWARD
+  BACKWARD,
+  INCREMENTAL
 }
@@ -27,12 +27,12 @@ public class TimBinaryTVList extends BinaryTVList {
 
   @Override
   public synchronized void sort() {
-    policy.checkSortedTimestampsAndIndices();
     if (!sorted) {
+      policy.checkSortedTimestampsAndIndices();
       policy.sort(0, rowCount);
+      policy.clearSortedValue();
+      policy.clearSortedTime();
     }
-    policy.clearSortedValue();
-    policy.clearSortedTime();
     sorted = true;
     seqRowCount = rowCount;
   }
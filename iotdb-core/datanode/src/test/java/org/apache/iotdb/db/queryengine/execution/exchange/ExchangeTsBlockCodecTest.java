@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.exchange;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.tsfile.utils.Binary;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class ExchangeTsBlockCodecTest {
+
+  private final TsBlockSerde serde = new TsBlockSerde();
+
+  @Test
+  public void testCompress() throws IOException {
+    TsBlock tsBlock = createTsBlock(1000);
+    ByteBuffer serialized = serde.serialize(tsBlock);
+    int serializedSize = serialized.remaining();
+
+    ByteBuffer compressed = ExchangeTsBlockCodec.compress(serialized, CompressionType.LZ4);
+    // the tags and the values repeat a lot
+    Assert.assertTrue(compressed.remaining() < serializedSize / 2);
+    Assert.assertEquals(CompressionType.LZ4.serialize(), compressed.get(0));
+    // the serialized TsBlock is not changed
+    Assert.assertEquals(serializedSize, serialized.remaining());
+
+    ByteBuffer uncompressed = ExchangeTsBlockCodec.uncompress(compressed);
+    Assert.assertEquals(serialized, uncompressed);
+    assertTsBlockEquals(tsBlock, serde.deserialize(uncompressed));
+  }
+
+  @Test
+  public void testSmallTsBlockNotCompressed() throws IOException {
+    TsBlock tsBlock = createTsBlock(2);
+    ByteBuffer serialized = serde.serialize(tsBlock);
+    Assert.assertTrue(serialized.remaining() < ExchangeTsBlockCodec.MIN_COMPRESSION_SIZE);
+
+    ByteBuffer compressed = ExchangeTsBlockCodec.compress(serialized, CompressionType.LZ4);
+    Assert.assertEquals(serialized.remaining() + 1, compressed.remaining());
+    Assert.assertEquals(CompressionType.UNCOMPRESSED.serialize(), compressed.get(0));
+
+    assertTsBlockEquals(tsBlock, serde.deserialize(ExchangeTsBlockCodec.uncompress(compressed)));
+  }
+
+  @Test
+  public void testGetCompressionType() {
+    Assert.assertEquals(
+        CompressionType.UNCOMPRESSED,
+        ExchangeTsBlockCodec.getCompressionType(false, CompressionType.LZ4.serialize()));
+    Assert.assertEquals(
+        CompressionType.LZ4,
+        ExchangeTsBlockCodec.getCompressionType(true, CompressionType.LZ4.serialize()));
+    Assert.assertEquals(
+        CompressionType.UNCOMPRESSED, ExchangeTsBlockCodec.getCompressionType(true, (byte) 100));
+  }
+
+  private TsBlock createTsBlock(int positionCount) {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(positionCount, Arrays.asList(TSDataType.STRING, TSDataType.INT64));
+    for (int i = 0; i < positionCount; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      builder
+          .getColumnBuilder(0)
+          .writeBinary(new Binary("device_" + i % 10, TSFileConfig.STRING_CHARSET));
+      builder.getColumnBuilder(1).writeLong(i % 100);
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  private void assertTsBlockEquals(TsBlock expected, TsBlock actual) {
+    Assert.assertEquals(expected.getPositionCount(), actual.getPositionCount());
+    Assert.assertEquals(expected.getValueColumnCount(), actual.getValueColumnCount());
+    for (int i = 0; i < expected.getPositionCount(); i++) {
+      Assert.assertEquals(expected.getTimeByIndex(i), actual.getTimeByIndex(i));
+      Assert.assertEquals(expected.getColumn(0).getBinary(i), actual.getColumn(0).getBinary(i));
+      Assert.assertEquals(expected.getColumn(1).getLong(i), actual.getColumn(1).getLong(i));
+    }
+  }
+}
@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.hash.JoinDynamicFilter;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.hash.JoinHashTable;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractTableScanOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.AlignedDeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.ColumnSchema;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.common.TimeRange;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractTableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TableScanOperatorDynamicFilterTest {
+
+  // 4 levels, so that the last level is a TAG of the device
+  private static final String TABLE_SCAN_DYNAMIC_FILTER_TEST =
+      "root.test.TableScanOperatorDynamicFilterTest";
+  private static final List<IMeasurementSchema> measurementSchemas = new ArrayList<>();
+
+  private static final List<TsFileResource> seqResources = new ArrayList<>();
+  private static final List<TsFileResource> unSeqResources = new ArrayList<>();
+
+  // device0 and device1 are aligned and both have one row per time in [0, 499]
+  private static final int ROWS_PER_DEVICE = 500;
+
+  // columns of the scan: sensor2, tag, attr, time
+  private static final int TAG_COLUMN = 1;
+  private static final int ATTRIBUTE_COLUMN = 2;
+  private static final int TIME_COLUMN = 3;
+
+  private static final String ATTRIBUTE_OF_DEVICE0 = "a0";
+  private static final String ATTRIBUTE_OF_DEVICE1 = "a1";
+
+  private static ExecutorService instanceNotificationExecutor;
+  private static List<DeviceEntry> deviceEntries;
+
+  @BeforeClass
+  public static void setUp() throws MetadataException, IOException, WriteProcessException {
+    AlignedSeriesTestUtil.setUp(
+        measurementSchemas, seqResources, unSeqResources, TABLE_SCAN_DYNAMIC_FILTER_TEST);
+    instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    deviceEntries =
+        Arrays.asList(
+            new AlignedDeviceEntry(
+                IDeviceID.Factory.DEFAULT_FACTORY.create(
+                    TABLE_SCAN_DYNAMIC_FILTER_TEST + ".device0"),
+                new Binary[] {new Binary(ATTRIBUTE_OF_DEVICE0, TSFileConfig.STRING_CHARSET)}),
+            new AlignedDeviceEntry(
+                IDeviceID.Factory.DEFAULT_FACTORY.create(
+                    TABLE_SCAN_DYNAMIC_FILTER_TEST + ".device1"),
+                new Binary[] {new Binary(ATTRIBUTE_OF_DEVICE1, TSFileConfig.STRING_CHARSET)}));
+  }
+
+  @AfterClass
+  public static void tearDown() throws IOException {
+    AlignedSeriesTestUtil.tearDown(seqResources, unSeqResources);
+    instanceNotificationExecutor.shutdown();
+  }
+
+  @Test
+  public void testSkipDevicesByTag() throws Exception {
+    String tagOfDevice0 = tagOf(0);
+    String tagOfDevice1 = tagOf(1);
+    assertNotNull(tagOfDevice1);
+    assertNotEquals(tagOfDevice0, tagOfDevice1);
+
+    TableScanOperator operator = createOperator(createSeriesScanOptions());
+    operator.addDynamicFilter(TAG_COLUMN, collect(TSDataType.STRING, tagOfDevice1));
+
+    List<Row> rows = scan(operator);
+    assertEquals(ROWS_PER_DEVICE, rows.size());
+    assertRows(rows, ATTRIBUTE_OF_DEVICE1, 0, ROWS_PER_DEVICE - 1);
+  }
+
+  @Test
+  public void testSkipDevicesByAttribute() throws Exception {
+    TableScanOperator operator = createOperator(createSeriesScanOptions());
+    operator.addDynamicFilter(ATTRIBUTE_COLUMN, collect(TSDataType.STRING, ATTRIBUTE_OF_DEVICE0));
+
+    List<Row> rows = scan(operator);
+    assertEquals(ROWS_PER_DEVICE, rows.size());
+    assertRows(rows, ATTRIBUTE_OF_DEVICE0, 0, ROWS_PER_DEVICE - 1);
+  }
+
+  @Test
+  public void testNarrowTimeRange() throws Exception {
+    SeriesScanOptions seriesScanOptions = createSeriesScanOptions();
+    TableScanOperator operator = createOperator(seriesScanOptions);
+    operator.addDynamicFilter(TIME_COLUMN, collect(TSDataType.TIMESTAMP, 250L, 100L, 180L));
+
+    List<Row> rows = scan(operator);
+    assertEquals(2 * 151, rows.size());
+    assertRows(rows.subList(0, 151), ATTRIBUTE_OF_DEVICE0, 100, 250);
+    assertRows(rows.subList(151, rows.size()), ATTRIBUTE_OF_DEVICE1, 100, 250);
+    assertEquals(
+        Collections.singletonList(new TimeRange(100, 250)),
+        seriesScanOptions.getGlobalTimeFilter().getTimeRanges());
+  }
+
+  @Test
+  public void testEmptyBuildSide() throws Exception {
+    for (int column : new int[] {TAG_COLUMN, ATTRIBUTE_COLUMN, TIME_COLUMN}) {
+      SeriesScanOptions seriesScanOptions = createSeriesScanOptions();
+      TableScanOperator operator = createOperator(seriesScanOptions);
+      operator.addDynamicFilter(
+          column, collect(column == TIME_COLUMN ? TSDataType.TIMESTAMP : TSDataType.STRING));
+
+      // no row can be matched, all the devices are skipped
+      assertTrue(scan(operator).isEmpty());
+      // there is no range to narrow the time filter with
+      assertNull(seriesScanOptions.getGlobalTimeFilter());
+    }
+  }
+
+  @Test
+  public void testFilterReadyMidScan() throws Exception {
+    TableScanOperator operator = createOperator(createSeriesScanOptions());
+    JoinDynamicFilter timeFilter = new JoinDynamicFilter(0, typeOf(TSDataType.TIMESTAMP));
+    JoinDynamicFilter tagFilter = new JoinDynamicFilter(0, typeOf(TSDataType.STRING));
+    operator.addDynamicFilter(TIME_COLUMN, timeFilter);
+    operator.addDynamicFilter(TAG_COLUMN, tagFilter);
+
+    List<Row> rows = new ArrayList<>();
+    try {
+      while (operator.hasNext()) {
+        TsBlock tsBlock = operator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        if (rows.isEmpty()) {
+          // the hash table is built while the first device is being scanned
+          collect(timeFilter, TSDataType.TIMESTAMP, 100L, 199L);
+          collect(tagFilter, TSDataType.STRING, tagOf(0), tagOf(1));
+        }
+        appendRows(tsBlock, rows);
+      }
+    } finally {
+      operator.close();
+    }
+
+    // the device being scanned is not cut, the filters take effect from the next device
+    assertEquals(ROWS_PER_DEVICE + 100, rows.size());
+    assertRows(rows.subList(0, ROWS_PER_DEVICE), ATTRIBUTE_OF_DEVICE0, 0, ROWS_PER_DEVICE - 1);
+    assertRows(rows.subList(ROWS_PER_DEVICE, rows.size()), ATTRIBUTE_OF_DEVICE1, 100, 199);
+  }
+
+  @Test
+  public void testFilterNeverReady() throws Exception {
+    SeriesScanOptions seriesScanOptions = createSeriesScanOptions();
+    TableScanOperator operator = createOperator(seriesScanOptions);
+    operator.addDynamicFilter(TAG_COLUMN, new JoinDynamicFilter(0, typeOf(TSDataType.STRING)));
+    operator.addDynamicFilter(
+        ATTRIBUTE_COLUMN, new JoinDynamicFilter(0, typeOf(TSDataType.STRING)));
+    operator.addDynamicFilter(TIME_COLUMN, new JoinDynamicFilter(0, typeOf(TSDataType.TIMESTAMP)));
+
+    // the scan doesn't wait for the filters, and no row is lost
+    List<Row> rows = scan(operator);
+    assertEquals(2 * ROWS_PER_DEVICE, rows.size());
+    assertRows(rows.subList(0, ROWS_PER_DEVICE), ATTRIBUTE_OF_DEVICE0, 0, ROWS_PER_DEVICE - 1);
+    assertRows(
+        rows.subList(ROWS_PER_DEVICE, rows.size()), ATTRIBUTE_OF_DEVICE1, 0, ROWS_PER_DEVICE - 1);
+    assertNull(seriesScanOptions.getGlobalTimeFilter());
+  }
+
+  private static TableScanOperator createOperator(SeriesScanOptions seriesScanOptions) {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    PlanNodeId planNodeId = new PlanNodeId("1");
+    driverContext.addOperatorContext(1, planNodeId, TableScanOperator.class.getSimpleName());
+
+    IMeasurementSchema measurementSchema = measurementSchemas.get(2);
+    List<ColumnSchema> columnSchemas =
+        Arrays.asList(
+            new ColumnSchema(
+                measurementSchema.getMeasurementName(),
+                TypeFactory.getType(measurementSchema.getType()),
+                false,
+                TsTableColumnCategory.FIELD),
+            new ColumnSchema(
+                "tag", TypeFactory.getType(TSDataType.STRING), false, TsTableColumnCategory.TAG),
+            new ColumnSchema(
+                "attr",
+                TypeFactory.getType(TSDataType.STRING),
+                false,
+                TsTableColumnCategory.ATTRIBUTE),
+            new ColumnSchema(
+                "time",
+                TypeFactory.getType(TSDataType.TIMESTAMP),
+                false,
+                TsTableColumnCategory.TIME));
+    // the tag is the first segment after the table name, the attribute is the first one
+    int[] columnsIndexArray = new int[] {0, 0, 0, -1};
+
+    TableScanOperator operator =
+        new TableScanOperator(
+            new AbstractTableScanOperator.AbstractTableScanOperatorParameter(
+                seriesScanOptions.getAllSensors(),
+                driverContext.getOperatorContexts().get(0),
+                planNodeId,
+                columnSchemas,
+                columnsIndexArray,
+                deviceEntries,
+                Ordering.ASC,
+                seriesScanOptions,
+                Collections.singletonList(measurementSchema.getMeasurementName()),
+                Collections.singletonList(measurementSchema),
+                100));
+    operator.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+    return operator;
+  }
+
+  private static SeriesScanOptions createSeriesScanOptions() {
+    Set<String> allSensors = new HashSet<>();
+    allSensors.add(measurementSchemas.get(2).getMeasurementName());
+    // for time column
+    allSensors.add("");
+    SeriesScanOptions.Builder builder = new SeriesScanOptions.Builder();
+    builder.withAllSensors(allSensors);
+    return builder.build();
+  }
+
+  private static String tagOf(int deviceIndex) {
+    // +1 for skipping the table name segment
+    return (String) deviceEntries.get(deviceIndex).getNthSegment(1);
+  }
+
+  private static Type typeOf(TSDataType dataType) {
+    return TypeFactory.getType(dataType);
+  }
+
+  /** A ready dynamic filter whose build side contains the values. */
+  private static JoinDynamicFilter collect(TSDataType dataType, Object... values) {
+    JoinDynamicFilter dynamicFilter = new JoinDynamicFilter(0, typeOf(dataType));
+    collect(dynamicFilter, dataType, values);
+    return dynamicFilter;
+  }
+
+  private static void collect(
+      JoinDynamicFilter dynamicFilter, TSDataType dataType, Object... values) {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(dataType));
+    for (Object value : values) {
+      if (value instanceof Long) {
+        builder.getColumnBuilder(0).writeLong((Long) value);
+      } else {
+        builder
+            .getColumnBuilder(0)
+            .writeBinary(new Binary((String) value, TSFileConfig.STRING_CHARSET));
+      }
+      builder.declarePosition();
+    }
+    JoinHashTable hashTable =
+        new JoinHashTable(new int[] {0}, Collections.singletonList(typeOf(dataType)));
+    if (values.length > 0) {
+      hashTable.addBlock(
+          builder.build(new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, values.length)));
+    }
+    hashTable.build();
+    dynamicFilter.collect(hashTable);
+  }
+
+  private static List<Row> scan(TableScanOperator operator) throws Exception {
+    List<Row> rows = new ArrayList<>();
+    try {
+      while (operator.hasNext()) {
+        TsBlock tsBlock = operator.next();
+        if (tsBlock != null) {
+          appendRows(tsBlock, rows);
+        }
+      }
+    } finally {
+      operator.close();
+    }
+    return rows;
+  }
+
+  private static void appendRows(TsBlock tsBlock, List<Row> rows) {
+    for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+      rows.add(
+          new Row(
+              tsBlock.getColumn(ATTRIBUTE_COLUMN).getBinary(i).toString(),
+              tsBlock.getColumn(TIME_COLUMN).getLong(i)));
+    }
+  }
+
+  /** The rows are all of the device and have consecutive times in [startTime, endTime]. */
+  private static void assertRows(List<Row> rows, String attribute, long startTime, long endTime) {
+    assertEquals(endTime - startTime + 1, rows.size());
+    for (int i = 0; i < rows.size(); i++) {
+      assertEquals(attribute, rows.get(i).attribute);
+      assertEquals(startTime + i, rows.get(i).time);
+    }
+  }
+
+  private static class Row {
+    private final String attribute;
+    private final long time;
+
+    private Row(String attribute, long time) {
+      this.attribute = attribute;
+      this.time = time;
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.schedule.queue;
+
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.IDriver;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.DriverTaskHandle;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.WorkStealingMultilevelPriorityQueue;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskId;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskStatus;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+
+public class WorkStealingMultilevelPriorityQueueTest {
+
+  @Test
+  public void testPollBlocked() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1000, new DriverTask(), 2);
+    List<DriverTask> res = new ArrayList<>();
+    Thread worker = new Thread(() -> pollTasks(queue, 1, res));
+    worker.start();
+    Thread.sleep(100);
+    Assert.assertEquals(Thread.State.WAITING, worker.getState());
+    // tasks pushed to any shard wake up the idle worker
+    queue.push(mockDriverTask(queue, 0));
+    queue.push(mockDriverTask(queue, 1));
+    worker.join(10000);
+    Assert.assertEquals(Thread.State.TERMINATED, worker.getState());
+    Assert.assertEquals(1, res.size());
+    Assert.assertEquals(1, queue.size());
+  }
+
+  @Test
+  public void testSteal() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1000, new DriverTask(), 2);
+    // tasks pushed by threads other than the workers are spread over the workers
+    for (int i = 0; i < 4; i++) {
+      queue.push(mockDriverTask(queue, i));
+    }
+    Assert.assertEquals(4, queue.size());
+    Assert.assertEquals(2, queue.getWorkerQueueSize(0));
+    Assert.assertEquals(2, queue.getWorkerQueueSize(1));
+
+    List<DriverTask> res = new ArrayList<>();
+    Thread worker =
+        new Thread(
+            () -> {
+              pollTasks(queue, 4, res);
+              // tasks re-pushed by a worker go back to its own shard
+              res.forEach(queue::repush);
+            });
+    worker.start();
+    worker.join(10000);
+    Assert.assertEquals(4, res.size());
+    Assert.assertEquals(2, queue.getWorkerStealCount(0));
+    Assert.assertEquals(0, queue.getWorkerStealCount(1));
+    Assert.assertEquals(4, queue.size());
+    Assert.assertEquals(4, queue.getWorkerQueueSize(0));
+    Assert.assertEquals(0, queue.getWorkerQueueSize(1));
+  }
+
+  @Test
+  public void testRemove() {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1000, new DriverTask(), 2);
+    DriverTask e1 = mockDriverTask(queue, 0);
+    DriverTask e2 = mockDriverTask(queue, 1);
+    queue.push(e1);
+    queue.push(e2);
+    Assert.assertEquals(e2, queue.remove(e2.getDriverTaskId()));
+    Assert.assertNull(queue.remove(e2.getDriverTaskId()));
+    Assert.assertEquals(1, queue.size());
+    Assert.assertEquals(1, queue.getWorkerQueueSize(0));
+    Assert.assertEquals(0, queue.getWorkerQueueSize(1));
+  }
+
+  @Test
+  public void testPushExceedCapacity() {
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, 1, new DriverTask(), 2);
+    queue.push(mockDriverTask(queue, 0));
+    DriverTask e2 = mockDriverTask(queue, 1);
+    Assert.assertThrows(IllegalStateException.class, () -> queue.push(e2));
+  }
+
+  private void pollTasks(IndexedBlockingQueue<DriverTask> queue, int count, List<DriverTask> res) {
+    try {
+      for (int i = 0; i < count; i++) {
+        res.add(queue.poll());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private DriverTask mockDriverTask(WorkStealingMultilevelPriorityQueue queue, int instanceId) {
+    IDriver mockDriver = Mockito.mock(IDriver.class);
+    DriverTaskHandle driverTaskHandle =
+        new DriverTaskHandle(1, queue, OptionalInt.of(Integer.MAX_VALUE));
+    Mockito.when(mockDriver.getDriverTaskId())
+        .thenReturn(
+            new DriverTaskId(
+                new FragmentInstanceId(
+                    new PlanFragmentId(new QueryId("test"), 0), "inst-" + instanceId),
+                0));
+    return new DriverTask(mockDriver, 100L, DriverTaskStatus.READY, driverTaskHandle, 0, false);
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALByteBufferForTe
 
 import org.apache.tsfile.enums.TSDataType;
 import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.BitMap;
 import org.apache.tsfile.write.schema.MeasurementSchema;
 import org.junit.Assert;
 import org.junit.Test;
@@ -40,6 +41,9 @@ import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 public class InsertTabletNodeSerdeTest {
 
@@ -95,6 +99,60 @@ public class InsertTabletNodeSerdeTest {
     Assert.assertEquals(insertTabletNode, tmpNode);
   }
 
+  @Test
+  public void testSerializeRangesWithBitMapsForWAL() throws IllegalPathException, IOException {
+    int rowCount = 20;
+    long[] times = new long[rowCount];
+    long[] values = new long[rowCount];
+    BitMap bitMap = new BitMap(rowCount);
+    for (int r = 0; r < rowCount; r++) {
+      times[r] = r;
+      values[r] = r * 10L;
+      if (r % 3 == 0 || r == 17) {
+        bitMap.mark(r);
+      }
+    }
+    InsertTabletNode insertTabletNode =
+        new InsertTabletNode(
+            new PlanNodeId("plannode 1"),
+            new PartialPath("root.isp.d1"),
+            false,
+            new String[] {"s1"},
+            new TSDataType[] {TSDataType.INT64},
+            new MeasurementSchema[] {new MeasurementSchema("s1", TSDataType.INT64)},
+            times,
+            new BitMap[] {bitMap},
+            new Object[] {values},
+            rowCount);
+
+    List<List<int[]>> rangeLists =
+        Arrays.asList(
+            Collections.singletonList(new int[] {0, 13}),
+            Collections.singletonList(new int[] {8, 20}),
+            Collections.singletonList(new int[] {5, 12}),
+            Arrays.asList(new int[] {3, 7}, new int[] {8, 19}));
+    for (List<int[]> rangeList : rangeLists) {
+      byte[] bytes = new byte[insertTabletNode.serializedSize(rangeList)];
+      WALByteBufferForTest walBuffer = new WALByteBufferForTest(ByteBuffer.wrap(bytes));
+      insertTabletNode.serializeToWAL(walBuffer, rangeList);
+      Assert.assertFalse(walBuffer.getBuffer().hasRemaining());
+
+      DataInputStream dataInputStream = new DataInputStream(new ByteArrayInputStream(bytes));
+      Assert.assertEquals(PlanNodeType.INSERT_TABLET.getNodeType(), dataInputStream.readShort());
+      InsertTabletNode tmpNode = InsertTabletNode.deserializeFromWAL(dataInputStream);
+
+      int row = 0;
+      for (int[] startEnd : rangeList) {
+        for (int r = startEnd[0]; r < startEnd[1]; r++, row++) {
+          Assert.assertEquals(times[r], tmpNode.getTimes()[row]);
+          Assert.assertEquals(values[r], ((long[]) tmpNode.getColumns()[0])[row]);
+          Assert.assertEquals(bitMap.isMarked(r), tmpNode.getBitMaps()[0].isMarked(row));
+        }
+      }
+      Assert.assertEquals(row, tmpNode.getRowCount());
+    }
+  }
+
   @Test
   public void testSerializeAndDeserializeRelational() throws IllegalPathException {
     for (String tableName : new String[] {"table1", "ta`ble1", "root.table1"}) {
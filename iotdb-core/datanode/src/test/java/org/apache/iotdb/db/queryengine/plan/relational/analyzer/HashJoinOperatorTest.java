@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
+
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.process.join.hash.JoinDynamicFilter;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractHashJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashInnerJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashLeftJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashSemiJoinOperator;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.ThreadSafeMemoryReservationManager;
+
+import io.airlift.units.Duration;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.BinaryType;
+import org.apache.tsfile.read.common.type.LongType;
+import org.apache.tsfile.utils.Binary;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractTableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HashJoinOperatorTest {
+  private static final Binary D1 = new Binary("d1".getBytes());
+  private static final Binary D2 = new Binary("d2".getBytes());
+  private static final Binary D3 = new Binary("d3".getBytes());
+
+  private static final List<TSDataType> CHILD_TYPES =
+      Arrays.asList(TSDataType.TEXT, TSDataType.INT64);
+
+  // left table
+  // device, s1
+  // d1,     1
+  // d2,     2
+  // null,   3
+  // ----------- TsBlock-1
+  // d3,     4
+  // d1,     5
+  // ----------- TsBlock-2
+  private static final Binary[][] LEFT_DEVICES = {{D1, D2, null}, {D3, D1}};
+  private static final long[][] LEFT_VALUES = {{1, 2, 3}, {4, 5}};
+
+  // right table
+  // device, s2
+  // d1,     10
+  // d2,     20
+  // ----------- TsBlock-1
+  // d1,     11
+  // null,   30
+  // ----------- TsBlock-2
+  private static final Binary[][] RIGHT_DEVICES = {{D1, D2}, {D1, null}};
+  private static final long[][] RIGHT_VALUES = {{10, 20}, {11, 30}};
+
+  @Test
+  public void testInnerJoinOnBinaryKey() throws Exception {
+    OperatorContext operatorContext = mockOperatorContext();
+    HashInnerJoinOperator operator =
+        new HashInnerJoinOperator(
+            operatorContext,
+            new BlockListOperator(operatorContext, buildBlocks(LEFT_DEVICES, LEFT_VALUES)),
+            new int[] {0},
+            new int[] {1},
+            new BlockListOperator(operatorContext, buildBlocks(RIGHT_DEVICES, RIGHT_VALUES)),
+            new int[] {0},
+            new int[] {1},
+            Collections.singletonList(BinaryType.TEXT),
+            Arrays.asList(TSDataType.INT64, TSDataType.INT64));
+
+    // matches are output in the order of left rows, then in the order of right rows
+    assertEquals(
+        Arrays.asList("1,10", "1,11", "2,20", "5,10", "5,11"), collectLongPairs(operator));
+  }
+
+  @Test
+  public void testLeftJoinOnBinaryKey() throws Exception {
+    OperatorContext operatorContext = mockOperatorContext();
+    HashLeftJoinOperator operator =
+        new HashLeftJoinOperator(
+            operatorContext,
+            new BlockListOperator(operatorContext, buildBlocks(LEFT_DEVICES, LEFT_VALUES)),
+            new int[] {0},
+            new int[] {1},
+            new BlockListOperator(operatorContext, buildBlocks(RIGHT_DEVICES, RIGHT_VALUES)),
+            new int[] {0},
+            new int[] {1},
+            Collections.singletonList(BinaryType.TEXT),
+            Arrays.asList(TSDataType.INT64, TSDataType.INT64));
+
+    assertEquals(
+        Arrays.asList("1,10", "1,11", "2,20", "3,null", "4,null", "5,10", "5,11"),
+        collectLongPairs(operator));
+  }
+
+  @Test
+  public void testSemiJoinOnBinaryKey() throws Exception {
+    OperatorContext operatorContext = mockOperatorContext();
+    HashSemiJoinOperator operator =
+        new HashSemiJoinOperator(
+            operatorContext,
+            new BlockListOperator(operatorContext, buildBlocks(LEFT_DEVICES, LEFT_VALUES)),
+            0,
+            new int[] {1},
+            new BlockListOperator(operatorContext, buildBlocks(RIGHT_DEVICES, RIGHT_VALUES)),
+            0,
+            BinaryType.TEXT,
+            Arrays.asList(TSDataType.INT64, TSDataType.BOOLEAN));
+
+    // right table contains NULL, so the result of unmatched rows is NULL
+    assertEquals(
+        Arrays.asList("1,true", "2,true", "3,null", "4,null", "5,true"),
+        collectLongPairs(operator));
+  }
+
+  @Test
+  public void testJoinOnLongKey() throws Exception {
+    OperatorContext operatorContext = mockOperatorContext();
+    long[][] leftValues = {{1, 2}, {2, 3}};
+    long[][] rightValues = {{3, 2}, {3, 4}};
+    Binary[][] devices = {{D1, D1}, {D1, D1}};
+
+    HashInnerJoinOperator innerJoinOperator =
+        new HashInnerJoinOperator(
+            operatorContext,
+            new BlockListOperator(operatorContext, buildBlocks(devices, leftValues)),
+            new int[] {1},
+            new int[] {1},
+            new BlockListOperator(operatorContext, buildBlocks(devices, rightValues)),
+            new int[] {1},
+            new int[] {1},
+            Collections.singletonList(LongType.getInstance()),
+            Arrays.asList(TSDataType.INT64, TSDataType.INT64));
+    assertEquals(
+        Arrays.asList("2,2", "2,2", "3,3", "3,3"), collectLongPairs(innerJoinOperator));
+
+    HashSemiJoinOperator semiJoinOperator =
+        new HashSemiJoinOperator(
+            operatorContext,
+            new BlockListOperator(operatorContext, buildBlocks(devices, leftValues)),
+            1,
+            new int[] {1},
+            new BlockListOperator(operatorContext, buildBlocks(devices, rightValues)),
+            1,
+            LongType.getInstance(),
+            Arrays.asList(TSDataType.INT64, TSDataType.BOOLEAN));
+    assertEquals(
+        Arrays.asList("1,false", "2,true", "2,true", "3,true"),
+        collectLongPairs(semiJoinOperator));
+  }
+
+  @Test
+  public void testDynamicFilter() throws Exception {
+    OperatorContext operatorContext = mockOperatorContext();
+    JoinDynamicFilter deviceFilter = new JoinDynamicFilter(0, BinaryType.TEXT);
+    JoinDynamicFilter valueFilter = new JoinDynamicFilter(1, LongType.getInstance());
+    HashInnerJoinOperator operator =
+        new HashInnerJoinOperator(
+            operatorContext,
+            new BlockListOperator(operatorContext, buildBlocks(LEFT_DEVICES, LEFT_VALUES)),
+            new int[] {0},
+            new int[] {1},
+            new BlockListOperator(operatorContext, buildBlocks(RIGHT_DEVICES, RIGHT_VALUES)),
+            new int[] {0},
+            new int[] {1},
+            Collections.singletonList(BinaryType.TEXT),
+            Arrays.asList(TSDataType.INT64, TSDataType.INT64),
+            Arrays.asList(deviceFilter, valueFilter));
+    assertFalse(deviceFilter.isReady());
+
+    collectLongPairs(operator);
+    assertTrue(deviceFilter.isReady());
+    assertTrue(deviceFilter.mightContain(D1));
+    assertTrue(deviceFilter.mightContain(D2));
+    assertFalse(deviceFilter.mightContain(D3));
+    assertFalse(deviceFilter.mightContain(null));
+    assertFalse(deviceFilter.hasRange());
+
+    // row with NULL key is not in the hash table
+    assertTrue(valueFilter.hasRange());
+    assertEquals(10, valueFilter.getMin());
+    assertEquals(20, valueFilter.getMax());
+  }
+
+  private static OperatorContext mockOperatorContext() {
+    FragmentInstanceContext fragmentInstanceContext = Mockito.mock(FragmentInstanceContext.class);
+    Mockito.when(fragmentInstanceContext.getMemoryReservationContext())
+        .thenReturn(new ThreadSafeMemoryReservationManager(new QueryId("1"), "test"));
+    DriverContext driverContext = Mockito.mock(DriverContext.class);
+    Mockito.when(driverContext.getFragmentInstanceContext()).thenReturn(fragmentInstanceContext);
+    OperatorContext operatorContext = Mockito.mock(OperatorContext.class);
+    Mockito.when(operatorContext.getMaxRunTime()).thenReturn(new Duration(1, TimeUnit.SECONDS));
+    Mockito.when(operatorContext.getDriverContext()).thenReturn(driverContext);
+    return operatorContext;
+  }
+
+  private static List<TsBlock> buildBlocks(Binary[][] devices, long[][] values) {
+    List<TsBlock> blocks = new ArrayList<>(devices.length);
+    for (int i = 0; i < devices.length; i++) {
+      TsBlockBuilder builder = new TsBlockBuilder(devices[i].length, CHILD_TYPES);
+      for (int j = 0; j < devices[i].length; j++) {
+        if (devices[i][j] == null) {
+          builder.getColumnBuilder(0).appendNull();
+        } else {
+          builder.getColumnBuilder(0).writeBinary(devices[i][j]);
+        }
+        builder.getColumnBuilder(1).writeLong(values[i][j]);
+      }
+      builder.declarePositions(devices[i].length);
+      blocks.add(
+          builder.build(new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, devices[i].length)));
+    }
+    return blocks;
+  }
+
+  /** Collect the result rows as "column0,column1" strings. */
+  private static List<String> collectLongPairs(AbstractHashJoinOperator operator)
+      throws Exception {
+    List<String> result = new ArrayList<>();
+    while (!operator.isFinished()) {
+      operator.isBlocked().get();
+      TsBlock tsBlock = operator.next();
+      if (tsBlock == null) {
+        continue;
+      }
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        String second =
+            tsBlock.getColumn(1).isNull(i)
+                ? "null"
+                : String.valueOf(tsBlock.getColumn(1).getObject(i));
+        result.add(tsBlock.getColumn(0).getLong(i) + "," + second);
+      }
+    }
+    operator.close();
+    return result;
+  }
+
+  private static class BlockListOperator implements Operator {
+    private final OperatorContext operatorContext;
+    private final List<TsBlock> blocks;
+    private int index = 0;
+
+    private BlockListOperator(OperatorContext operatorContext, List<TsBlock> blocks) {
+      this.operatorContext = operatorContext;
+      this.blocks = blocks;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return operatorContext;
+    }
+
+    @Override
+    public TsBlock next() {
+      return blocks.get(index++);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < blocks.size();
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public boolean isFinished() {
+      return index >= blocks.size();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 64 * 1024;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 64 * 1024;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+      return 0;
+    }
+  }
+}
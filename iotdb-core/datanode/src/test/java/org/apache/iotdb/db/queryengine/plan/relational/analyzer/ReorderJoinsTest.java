@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.PlanTester;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ProjectNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SortNode;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.ALL_DEVICE_ENTRIES;
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.BEIJING_A1_DEVICE_ENTRY;
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.SHENZHEN_DEVICE_ENTRIES;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ReorderJoinsTest {
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  // table1 of all the 6 devices joins the 2 devices of shenzhen and the only device of beijing A1,
+  // there are no local data regions, so the row count of each scan is proportional to its devices
+  private static final String SQL =
+      "SELECT t1.time, t1.s1, t2.s1, t3.s1 FROM table1 t1 "
+          + "JOIN (SELECT * FROM table1 WHERE tag1='shenzhen') t2 ON t1.time = t2.time "
+          + "JOIN (SELECT * FROM table1 WHERE tag1='beijing' AND tag2='A1') t3 "
+          + "ON t1.time = t3.time";
+
+  private boolean enableJoinReorder;
+  private boolean enableHashJoin;
+
+  @Before
+  public void setUp() {
+    enableJoinReorder = CONFIG.isEnableJoinReorder();
+    enableHashJoin = CONFIG.isEnableHashJoin();
+    CONFIG.setEnableJoinReorder(true);
+    CONFIG.setEnableHashJoin(false);
+  }
+
+  @After
+  public void tearDown() {
+    CONFIG.setEnableJoinReorder(enableJoinReorder);
+    CONFIG.setEnableHashJoin(enableHashJoin);
+  }
+
+  @Test
+  public void reorderDisabledTest() {
+    CONFIG.setEnableJoinReorder(false);
+    PlanTester planTester = new PlanTester();
+    JoinNode root = findJoin(planTester.createPlan(SQL).getRootNode());
+
+    // joined in the written order: (t1 JOIN t2) JOIN t3
+    JoinNode bottom = (JoinNode) skipSortAndProject(root.getLeftChild());
+    assertEquals(ALL_DEVICE_ENTRIES, deviceEntries(bottom.getLeftChild()));
+    assertEquals(SHENZHEN_DEVICE_ENTRIES, deviceEntries(bottom.getRightChild()));
+    assertEquals(BEIJING_A1_DEVICE_ENTRY, deviceEntries(root.getRightChild()));
+  }
+
+  @Test
+  public void threeWayMergeSortJoinTest() {
+    PlanTester planTester = new PlanTester();
+    JoinNode root = findJoin(planTester.createPlan(SQL).getRootNode());
+    assertFalse(root.isHashJoin());
+
+    // the two small inputs are joined first, then the large one is joined with fewer rows
+    PlanNode left = skipSortAndProject(root.getLeftChild());
+    assertTrue(left instanceof JoinNode);
+    JoinNode bottom = (JoinNode) left;
+    assertEquals(BEIJING_A1_DEVICE_ENTRY, deviceEntries(bottom.getLeftChild()));
+    assertEquals(SHENZHEN_DEVICE_ENTRIES, deviceEntries(bottom.getRightChild()));
+    assertEquals(ALL_DEVICE_ENTRIES, deviceEntries(root.getRightChild()));
+  }
+
+  @Test
+  public void mergeSortJoinResortTest() {
+    PlanTester planTester = new PlanTester();
+    JoinNode root = findJoin(planTester.createPlan(SQL).getRootNode());
+
+    // the rebuilt joins have new join keys, each child must be sorted on them again
+    assertSortedOnCriteria(root);
+    assertSortedOnCriteria((JoinNode) skipSortAndProject(root.getLeftChild()));
+  }
+
+  @Test
+  public void threeWayHashJoinTest() {
+    CONFIG.setEnableHashJoin(true);
+    PlanTester planTester = new PlanTester();
+    JoinNode root = findJoin(planTester.createPlan(SQL).getRootNode());
+    assertTrue(root.isHashJoin());
+
+    // the hash tables are built on the smaller inputs: t2 JOIN (t1 JOIN t3)
+    assertEquals(SHENZHEN_DEVICE_ENTRIES, deviceEntries(root.getLeftChild()));
+    PlanNode right = skipProject(root.getRightChild());
+    assertTrue(right instanceof JoinNode);
+    JoinNode bottom = (JoinNode) right;
+    assertTrue(bottom.isHashJoin());
+    assertEquals(ALL_DEVICE_ENTRIES, deviceEntries(bottom.getLeftChild()));
+    assertEquals(BEIJING_A1_DEVICE_ENTRY, deviceEntries(bottom.getRightChild()));
+
+    // hash joins don't need sorted children
+    assertFalse(skipProject(root.getLeftChild()) instanceof SortNode);
+    assertFalse(skipProject(bottom.getLeftChild()) instanceof SortNode);
+    assertFalse(skipProject(bottom.getRightChild()) instanceof SortNode);
+  }
+
+  private static void assertSortedOnCriteria(JoinNode joinNode) {
+    assertFalse(joinNode.isHashJoin());
+    List<Symbol> leftKeys =
+        joinNode.getCriteria().stream()
+            .map(JoinNode.EquiJoinClause::getLeft)
+            .collect(Collectors.toList());
+    List<Symbol> rightKeys =
+        joinNode.getCriteria().stream()
+            .map(JoinNode.EquiJoinClause::getRight)
+            .collect(Collectors.toList());
+    PlanNode left = skipProject(joinNode.getLeftChild());
+    PlanNode right = skipProject(joinNode.getRightChild());
+    assertTrue(left instanceof SortNode);
+    assertTrue(right instanceof SortNode);
+    assertEquals(leftKeys, ((SortNode) left).getOrderingScheme().getOrderBy());
+    assertEquals(rightKeys, ((SortNode) right).getOrderingScheme().getOrderBy());
+  }
+
+  private static JoinNode findJoin(PlanNode node) {
+    if (node instanceof JoinNode) {
+      return (JoinNode) node;
+    }
+    for (PlanNode child : node.getChildren()) {
+      JoinNode joinNode = findJoin(child);
+      if (joinNode != null) {
+        return joinNode;
+      }
+    }
+    return null;
+  }
+
+  private static PlanNode skipProject(PlanNode node) {
+    while (node instanceof ProjectNode) {
+      node = ((ProjectNode) node).getChild();
+    }
+    return node;
+  }
+
+  private static PlanNode skipSortAndProject(PlanNode node) {
+    while (node instanceof ProjectNode || node instanceof SortNode) {
+      node = node.getChildren().get(0);
+    }
+    return node;
+  }
+
+  private static List<String> deviceEntries(PlanNode node) {
+    PlanNode scanNode = skipSortAndProject(node);
+    assertTrue(scanNode instanceof DeviceTableScanNode);
+    return ((DeviceTableScanNode) scanNode)
+        .getDeviceEntries().stream()
+            .map(d -> d.getDeviceID().toString())
+            .collect(Collectors.toList());
+  }
+}
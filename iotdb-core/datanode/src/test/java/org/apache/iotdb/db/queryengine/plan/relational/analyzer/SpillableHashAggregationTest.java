@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAggregator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.HashAggregationOperator;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.IntType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.AVG;
+import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.COUNT;
+import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.SUM;
+import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.getAggregationTypeByFuncName;
+import static org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractTableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.AccumulatorFactory.createGroupedAccumulator;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.GroupByHash.DEFAULT_GROUP_NUMBER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpillableHashAggregationTest {
+  private static final int GROUP_COUNT = 1000;
+  private static final int SPILL_GROUP_COUNT = 50;
+  private static final int BLOCK_COUNT = 3;
+
+  private File spillFolder;
+
+  @Before
+  public void setUp() throws Exception {
+    spillFolder = Files.createTempDirectory("hashAggSpill").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteFileOrDirectory(spillFolder, true);
+  }
+
+  @Test
+  public void spillEveryBlockTest() throws Exception {
+    // buffer size is 1 byte, so that the groups are spilled after each input block, and each
+    // spilled partition is split again when merging until the hash can't split it anymore
+    HashAggregationOperator operator = genHashAggregationOperator(1, SPILL_GROUP_COUNT);
+    checkResult(operator, SPILL_GROUP_COUNT);
+    Map<String, String> specifiedInfo = operator.getOperatorContext().getSpecifiedInfo();
+    assertEquals(Integer.toString(BLOCK_COUNT), specifiedInfo.get("SpillCount"));
+    assertTrue(Integer.parseInt(specifiedInfo.get("RepartitionCount")) > 0);
+  }
+
+  @Test
+  public void noSpillTest() throws Exception {
+    HashAggregationOperator operator = genHashAggregationOperator(Long.MAX_VALUE, GROUP_COUNT);
+    checkResult(operator, GROUP_COUNT);
+    Map<String, String> specifiedInfo = operator.getOperatorContext().getSpecifiedInfo();
+    assertFalse(specifiedInfo.containsKey("SpillCount"));
+  }
+
+  private void checkResult(HashAggregationOperator aggregationOperator, int groupCount)
+      throws Exception {
+    boolean[] seen = new boolean[groupCount];
+    int resultCount = 0;
+    try (HashAggregationOperator operator = aggregationOperator) {
+      while (!operator.isFinished() && operator.hasNext()) {
+        operator.isBlocked().get();
+        TsBlock tsBlock = operator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          int key = tsBlock.getColumn(0).getInt(i);
+          assertFalse("group " + key + " is output twice", seen[key]);
+          seen[key] = true;
+          assertEquals(key * BLOCK_COUNT, tsBlock.getColumn(1).getDouble(i), 0);
+          assertEquals(BLOCK_COUNT, tsBlock.getColumn(2).getLong(i));
+          assertEquals(key, tsBlock.getColumn(3).getDouble(i), 0);
+          resultCount++;
+        }
+      }
+    }
+    assertEquals(groupCount, resultCount);
+    // spilled files are deleted after the operator is closed
+    String[] leftFiles = spillFolder.list();
+    assertTrue(leftFiles == null || leftFiles.length == 0);
+  }
+
+  // each input block contains all the groups, whose value is the same as the group key
+  private HashAggregationOperator genHashAggregationOperator(
+      long spillBufferSize, int groupCount) {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(
+            instanceId,
+            IoTDBThreadPoolFactory.newFixedThreadPool(
+                1, "spillableHashAggregation-test-instance-notification"));
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    DriverContext driverContext = new DriverContext(fragmentInstanceContext, 0);
+    driverContext.addOperatorContext(
+        1, new PlanNodeId("1"), TableScanOperator.class.getSimpleName());
+    driverContext.addOperatorContext(
+        2, new PlanNodeId("2"), HashAggregationOperator.class.getSimpleName());
+    Operator childOperator =
+        new Operator() {
+          int outputCount = 0;
+
+          @Override
+          public OperatorContext getOperatorContext() {
+            return driverContext.getOperatorContexts().get(0);
+          }
+
+          @Override
+          public TsBlock next() {
+            TsBlockBuilder builder = new TsBlockBuilder(ImmutableList.of(TSDataType.INT32));
+            ColumnBuilder columnBuilder = builder.getValueColumnBuilders()[0];
+            for (int i = 0; i < groupCount; i++) {
+              columnBuilder.writeInt(i);
+            }
+            builder.declarePositions(groupCount);
+            outputCount++;
+            return builder.build(
+                new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, builder.getPositionCount()));
+          }
+
+          @Override
+          public boolean hasNext() {
+            return outputCount < BLOCK_COUNT;
+          }
+
+          @Override
+          public void close() {}
+
+          @Override
+          public boolean isFinished() {
+            return outputCount >= BLOCK_COUNT;
+          }
+
+          @Override
+          public long calculateMaxPeekMemory() {
+            return 0;
+          }
+
+          @Override
+          public long calculateMaxReturnSize() {
+            return 0;
+          }
+
+          @Override
+          public long calculateRetainedSizeAfterCallingNext() {
+            return 0;
+          }
+
+          @Override
+          public long ramBytesUsed() {
+            return 0;
+          }
+        };
+
+    return new HashAggregationOperator(
+        driverContext.getOperatorContexts().get(1),
+        childOperator,
+        ImmutableList.of(IntType.INT32),
+        Collections.singletonList(0),
+        ImmutableList.of(
+            genAggregator(SUM.getFunctionName(), TSDataType.DOUBLE, TSDataType.DOUBLE),
+            genAggregator(COUNT.getFunctionName(), TSDataType.INT64, TSDataType.INT64),
+            genAggregator(AVG.getFunctionName(), TSDataType.DOUBLE, TSDataType.BLOB)),
+        AggregationNode.Step.SINGLE,
+        DEFAULT_GROUP_NUMBER,
+        Long.MAX_VALUE,
+        true,
+        spillBufferSize,
+        spillFolder.getAbsolutePath() + File.separator);
+  }
+
+  private static GroupedAggregator genAggregator(
+      String functionName, TSDataType outputType, TSDataType intermediateType) {
+    List<TSDataType> inputTypes = ImmutableList.of(TSDataType.INT32);
+    return new GroupedAggregator(
+        createGroupedAccumulator(
+            functionName,
+            getAggregationTypeByFuncName(functionName),
+            inputTypes,
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            true,
+            false),
+        AggregationNode.Step.SINGLE,
+        outputType,
+        intermediateType,
+        ImmutableList.of(0),
+        OptionalInt.empty());
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.plan.planner.node.PlanNodeDeserializeHelper;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeType;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ExchangeNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.SemiJoinNode;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JoinNodeSerdeTest {
+
+  private static final Symbol LEFT_TIME = new Symbol("time");
+  private static final Symbol LEFT_S1 = new Symbol("s1");
+  private static final Symbol RIGHT_TIME = new Symbol("time_0");
+  private static final Symbol RIGHT_S1 = new Symbol("s1_0");
+
+  @Test
+  public void testMergeSortJoin() throws IllegalPathException {
+    JoinNode joinNode = createJoinNode(false);
+    ByteBuffer byteBuffer = serialize(joinNode);
+    // merge sort joins are serialized in the format of older versions
+    assertEquals(PlanNodeType.TABLE_JOIN_NODE.getNodeType(), byteBuffer.getShort(0));
+
+    JoinNode deserialized = (JoinNode) PlanNodeDeserializeHelper.deserialize(byteBuffer);
+    assertFalse(deserialized.isHashJoin());
+    assertJoinNodeEquals(joinNode, deserialized);
+  }
+
+  @Test
+  public void testHashJoin() throws IllegalPathException {
+    JoinNode joinNode = createJoinNode(true);
+    ByteBuffer byteBuffer = serialize(joinNode);
+    assertEquals(PlanNodeType.TABLE_HASH_JOIN_NODE.getNodeType(), byteBuffer.getShort(0));
+
+    JoinNode deserialized = (JoinNode) PlanNodeDeserializeHelper.deserialize(byteBuffer);
+    assertTrue(deserialized.isHashJoin());
+    assertJoinNodeEquals(joinNode, deserialized);
+  }
+
+  @Test
+  public void testSemiJoin() throws IllegalPathException {
+    for (boolean hashJoin : new boolean[] {false, true}) {
+      SemiJoinNode semiJoinNode =
+          new SemiJoinNode(
+              new PlanNodeId("semiJoin"),
+              createExchangeNode("left", ImmutableList.of(LEFT_TIME, LEFT_S1)),
+              createExchangeNode("right", ImmutableList.of(RIGHT_S1)),
+              LEFT_S1,
+              RIGHT_S1,
+              new Symbol("expr"),
+              hashJoin);
+      ByteBuffer byteBuffer = serialize(semiJoinNode);
+      assertEquals(
+          hashJoin
+              ? PlanNodeType.TABLE_HASH_SEMI_JOIN_NODE.getNodeType()
+              : PlanNodeType.TABLE_SEMI_JOIN_NODE.getNodeType(),
+          byteBuffer.getShort(0));
+
+      SemiJoinNode deserialized =
+          (SemiJoinNode) PlanNodeDeserializeHelper.deserialize(byteBuffer);
+      assertEquals(hashJoin, deserialized.isHashJoin());
+      assertEquals(semiJoinNode.getPlanNodeId(), deserialized.getPlanNodeId());
+      assertEquals(LEFT_S1, deserialized.getSourceJoinSymbol());
+      assertEquals(RIGHT_S1, deserialized.getFilteringSourceJoinSymbol());
+      assertEquals(semiJoinNode.getOutputSymbols(), deserialized.getOutputSymbols());
+    }
+  }
+
+  private static JoinNode createJoinNode(boolean hashJoin) {
+    ExchangeNode left = createExchangeNode("left", ImmutableList.of(LEFT_TIME, LEFT_S1));
+    ExchangeNode right = createExchangeNode("right", ImmutableList.of(RIGHT_TIME, RIGHT_S1));
+    return new JoinNode(
+        new PlanNodeId("join"),
+        JoinNode.JoinType.INNER,
+        left,
+        right,
+        ImmutableList.of(new JoinNode.EquiJoinClause(LEFT_TIME, RIGHT_TIME)),
+        Optional.empty(),
+        left.getOutputSymbols(),
+        right.getOutputSymbols(),
+        Optional.empty(),
+        Optional.empty(),
+        hashJoin);
+  }
+
+  private static ExchangeNode createExchangeNode(String id, ImmutableList<Symbol> outputSymbols) {
+    ExchangeNode exchangeNode = new ExchangeNode(new PlanNodeId(id));
+    exchangeNode.setUpstream(
+        new TEndPoint("127.0.0.1", 6667),
+        new FragmentInstanceId(new PlanFragmentId("q", 1), "i"),
+        new PlanNodeId(id + "_upstream"));
+    exchangeNode.setOutputSymbols(outputSymbols);
+    return exchangeNode;
+  }
+
+  private static ByteBuffer serialize(PlanNode planNode) {
+    ByteBuffer byteBuffer = ByteBuffer.allocate(4096);
+    planNode.serialize(byteBuffer);
+    byteBuffer.flip();
+    return byteBuffer;
+  }
+
+  private static void assertJoinNodeEquals(JoinNode expected, JoinNode actual) {
+    assertEquals(expected.getPlanNodeId(), actual.getPlanNodeId());
+    assertEquals(expected.getJoinType(), actual.getJoinType());
+    assertEquals(expected.getCriteria(), actual.getCriteria());
+    assertEquals(expected.getLeftOutputSymbols(), actual.getLeftOutputSymbols());
+    assertEquals(expected.getRightOutputSymbols(), actual.getRightOutputSymbols());
+    assertEquals(2, actual.getChildren().size());
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.sql.parser;
+
+import org.apache.iotdb.db.protocol.session.IClientSession;
+import org.apache.iotdb.db.protocol.session.InternalClientSession;
+import org.apache.iotdb.db.queryengine.plan.parser.ParseTreeCache;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Statement;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+
+import static org.apache.iotdb.db.queryengine.plan.relational.sql.util.SqlFormatter.formatSql;
+import static org.junit.Assert.assertEquals;
+
+public class ParseTreeCacheTest {
+  // the cache is disabled by default
+  private final SqlParser parser =
+      new SqlParser(new ParseTreeCache(100, SqlParser.LITERAL_TOKEN_TYPES));
+  private final IClientSession clientSession = new InternalClientSession("internal");
+
+  public ParseTreeCacheTest() {
+    clientSession.setDatabaseName("test");
+  }
+
+  private Statement createStatement(String sql) {
+    return parser.createStatement(sql, ZoneId.systemDefault(), clientSession);
+  }
+
+  @Test
+  public void testRebindLiterals() {
+    String template =
+        "SELECT s1 + %s FROM table1 WHERE time >= %s AND time < %s AND tag1 = %s LIMIT %s";
+    String first =
+        formatSql(createStatement(String.format(template, "777", "111", "222", "'a'", "333")));
+    // same shape with literals of different lengths and different whitespaces, parsed from the
+    // cached tree of the first statement
+    String second =
+        formatSql(
+            createStatement(
+                String.format(
+                    template.replace(" FROM", "\n  FROM"),
+                    "8",
+                    "1700000000000",
+                    "1700000300000",
+                    "'device_2'",
+                    "4444")));
+
+    assertEquals(
+        first
+            .replace("777", "8")
+            .replace("111", "1700000000000")
+            .replace("222", "1700000300000")
+            .replace("'a'", "'device_2'")
+            .replace("333", "4444"),
+        second);
+    // the first statement is still parsed correctly after the cached tree is rebound
+    assertEquals(
+        first,
+        formatSql(createStatement(String.format(template, "777", "111", "222", "'a'", "333"))));
+  }
+
+  @Test
+  public void testNonReservedIdentifier() {
+    // non-reserved keywords are replaced by identifier tokens while parsing
+    String first = formatSql(createStatement("SELECT first, count FROM t WHERE s > 123"));
+    String second = formatSql(createStatement("SELECT first, count FROM t WHERE s > 45678"));
+    assertEquals(first.replace("123", "45678"), second);
+  }
+}
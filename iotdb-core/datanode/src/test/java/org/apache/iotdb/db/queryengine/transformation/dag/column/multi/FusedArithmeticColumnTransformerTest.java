@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.transformation.dag.column.multi;
+
+import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.ConstantColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.leaf.IdentityColumnTransformer;
+import org.apache.iotdb.db.queryengine.transformation.dag.column.multi.FusedArithmeticColumnTransformer.Operator;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.tsfile.read.common.block.column.TimeColumnBuilder;
+import org.apache.tsfile.read.common.type.TypeFactory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+public class FusedArithmeticColumnTransformerTest {
+
+  private static final int POSITION_COUNT = 4;
+
+  // the third row of double column is null
+  private static final double[] doubleInput = new double[] {1.5, -2, 0, 4};
+
+  private static final int[] intInput = new int[] {2, 3, 0, -4};
+
+  private static TsBlock tsBlock;
+
+  @Before
+  public void setUp() {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(POSITION_COUNT, Arrays.asList(TSDataType.DOUBLE, TSDataType.INT32));
+    TimeColumnBuilder timeColumnBuilder = builder.getTimeColumnBuilder();
+    ColumnBuilder doubleColumnBuilder = builder.getColumnBuilder(0);
+    ColumnBuilder intColumnBuilder = builder.getColumnBuilder(1);
+    for (int i = 0; i < POSITION_COUNT; i++) {
+      timeColumnBuilder.writeLong(i);
+      if (i == 2) {
+        doubleColumnBuilder.appendNull();
+      } else {
+        doubleColumnBuilder.writeDouble(doubleInput[i]);
+      }
+      intColumnBuilder.writeInt(intInput[i]);
+      builder.declarePosition();
+    }
+    tsBlock = builder.build();
+  }
+
+  private static IdentityColumnTransformer identity(TSDataType dataType, int columnIndex) {
+    IdentityColumnTransformer transformer =
+        new IdentityColumnTransformer(TypeFactory.getType(dataType), columnIndex);
+    transformer.initFromTsBlock(tsBlock);
+    return transformer;
+  }
+
+  @Test
+  public void testInlinedChildren() {
+    // -(d * i + d) / i
+    IdentityColumnTransformer d = identity(TSDataType.DOUBLE, 0);
+    IdentityColumnTransformer i = identity(TSDataType.INT32, 1);
+    d.addReferenceCount();
+    i.addReferenceCount();
+    FusedArithmeticColumnTransformer multiplication =
+        FusedArithmeticColumnTransformer.binary(Operator.MULTIPLY, d, i);
+    multiplication.addReferenceCount();
+    d.addReferenceCount();
+    FusedArithmeticColumnTransformer addition =
+        FusedArithmeticColumnTransformer.binary(Operator.ADD, multiplication, d);
+    addition.addReferenceCount();
+    i.addReferenceCount();
+    FusedArithmeticColumnTransformer division =
+        FusedArithmeticColumnTransformer.binary(Operator.DIVIDE, addition, i);
+    division.addReferenceCount();
+    FusedArithmeticColumnTransformer negation = FusedArithmeticColumnTransformer.negation(division);
+    negation.addReferenceCount();
+
+    negation.tryEvaluate();
+    Column res = negation.getColumn();
+    Assert.assertEquals(POSITION_COUNT, res.getPositionCount());
+    for (int j = 0; j < POSITION_COUNT; j++) {
+      if (j == 2) {
+        Assert.assertTrue(res.isNull(j));
+      } else {
+        Assert.assertEquals(
+            -(doubleInput[j] * intInput[j] + doubleInput[j]) / intInput[j], res.getDouble(j), 0);
+      }
+    }
+    // inlined children are never evaluated by themselves
+    Assert.assertEquals(0, multiplication.getColumnCachePositionCount());
+    Assert.assertEquals(0, addition.getColumnCachePositionCount());
+  }
+
+  private static ConstantColumnTransformer constant(double value) {
+    ConstantColumnTransformer transformer =
+        new ConstantColumnTransformer(
+            TypeFactory.getType(TSDataType.DOUBLE),
+            new DoubleColumn(1, Optional.empty(), new double[] {value}));
+    transformer.initFromTsBlock(tsBlock);
+    return transformer;
+  }
+
+  @Test
+  public void testConstantOperands() {
+    // 10 - (d * 1.8 + 32) / i, constants on both sides of the operators
+    IdentityColumnTransformer d = identity(TSDataType.DOUBLE, 0);
+    IdentityColumnTransformer i = identity(TSDataType.INT32, 1);
+    ConstantColumnTransformer c1 = constant(1.8);
+    ConstantColumnTransformer c2 = constant(32);
+    ConstantColumnTransformer c3 = constant(10);
+    d.addReferenceCount();
+    c1.addReferenceCount();
+    FusedArithmeticColumnTransformer multiplication =
+        FusedArithmeticColumnTransformer.binary(Operator.MULTIPLY, d, c1);
+    multiplication.addReferenceCount();
+    c2.addReferenceCount();
+    FusedArithmeticColumnTransformer addition =
+        FusedArithmeticColumnTransformer.binary(Operator.ADD, multiplication, c2);
+    addition.addReferenceCount();
+    i.addReferenceCount();
+    FusedArithmeticColumnTransformer division =
+        FusedArithmeticColumnTransformer.binary(Operator.DIVIDE, addition, i);
+    division.addReferenceCount();
+    c3.addReferenceCount();
+    FusedArithmeticColumnTransformer subtraction =
+        FusedArithmeticColumnTransformer.binary(Operator.SUBTRACT, c3, division);
+    subtraction.addReferenceCount();
+
+    subtraction.tryEvaluate();
+    Column res = subtraction.getColumn();
+    Assert.assertEquals(POSITION_COUNT, res.getPositionCount());
+    for (int j = 0; j < POSITION_COUNT; j++) {
+      if (j == 2) {
+        Assert.assertTrue(res.isNull(j));
+      } else {
+        Assert.assertEquals(10 - (doubleInput[j] * 1.8 + 32) / intInput[j], res.getDouble(j), 0);
+      }
+    }
+  }
+
+  @Test
+  public void testSharedChild() {
+    // d * i is referenced by both (d * i) % i and the project list
+    IdentityColumnTransformer d = identity(TSDataType.DOUBLE, 0);
+    IdentityColumnTransformer i = identity(TSDataType.INT32, 1);
+    d.addReferenceCount();
+    i.addReferenceCount();
+    FusedArithmeticColumnTransformer multiplication =
+        FusedArithmeticColumnTransformer.binary(Operator.MULTIPLY, d, i);
+    multiplication.addReferenceCount();
+    i.addReferenceCount();
+    FusedArithmeticColumnTransformer modulus =
+        FusedArithmeticColumnTransformer.binary(Operator.MODULUS, multiplication, i);
+    modulus.addReferenceCount();
+    multiplication.addReferenceCount();
+
+    modulus.tryEvaluate();
+    multiplication.tryEvaluate();
+    Column modulusResult = modulus.getColumn();
+    Column multiplicationResult = multiplication.getColumn();
+    for (int j = 0; j < POSITION_COUNT; j++) {
+      if (j == 2) {
+        Assert.assertTrue(modulusResult.isNull(j));
+        Assert.assertTrue(multiplicationResult.isNull(j));
+      } else {
+        Assert.assertEquals(doubleInput[j] * intInput[j], multiplicationResult.getDouble(j), 0);
+        Assert.assertEquals(
+            doubleInput[j] * intInput[j] % intInput[j], modulusResult.getDouble(j), 0);
+      }
+    }
+  }
+
+  @Test
+  public void testCanFuse() {
+    IdentityColumnTransformer d = identity(TSDataType.DOUBLE, 0);
+    IdentityColumnTransformer i = identity(TSDataType.INT32, 1);
+    Assert.assertTrue(FusedArithmeticColumnTransformer.canFuse(d, i));
+    Assert.assertTrue(FusedArithmeticColumnTransformer.canFuse(d));
+    // int arithmetic checks overflow, which is left to the generated transformers
+    Assert.assertFalse(FusedArithmeticColumnTransformer.canFuse(i, i));
+    Assert.assertFalse(
+        FusedArithmeticColumnTransformer.canFuse(d, identity(TSDataType.TIMESTAMP, 1)));
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DataRegionException;
@@ -93,6 +94,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertRowNode;
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertTabletNode;
@@ -1060,6 +1064,57 @@ public class DataRegionTest {
     dataRegion1.syncDeleteDataFiles();
   }
 
+  @Test
+  public void testStripedInsertIntoMultiTimePartitions() throws Exception {
+    boolean defaultEnableStripedInsertLock = config.isEnableStripedInsertLock();
+    config.setEnableStripedInsertLock(true);
+    DataRegion dataRegion1 = new DummyDataRegion(systemDir, "root.striped");
+    int partitionNum = 4;
+    long timePartitionInterval = TimePartitionUtils.getTimePartitionInterval();
+    ExecutorService executor = Executors.newFixedThreadPool(partitionNum);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int p = 0; p < partitionNum; p++) {
+        long partitionStartTime = p * timePartitionInterval;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int j = 0; j < 100; j++) {
+                    TSRecord record = new TSRecord("root.striped", partitionStartTime + j);
+                    record.addTuple(
+                        DataPoint.getDataPoint(TSDataType.INT32, measurementId, String.valueOf(j)));
+                    dataRegion1.insert(buildInsertRowNodeByTSRecord(record));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+      dataRegion1.syncCloseAllWorkingTsFileProcessors();
+
+      IDeviceID tmpDeviceId = IDeviceID.Factory.DEFAULT_FACTORY.create("root.striped");
+      QueryDataSource queryDataSource =
+          dataRegion1.query(
+              Collections.singletonList(
+                  new NonAlignedFullPath(
+                      tmpDeviceId, new MeasurementSchema(measurementId, TSDataType.INT32))),
+              tmpDeviceId,
+              context,
+              null,
+              null);
+      Assert.assertEquals(partitionNum, queryDataSource.getSeqResources().size());
+      Assert.assertEquals(0, queryDataSource.getUnseqResources().size());
+      for (TsFileResource resource : queryDataSource.getSeqResources()) {
+        Assert.assertTrue(resource.isClosed());
+      }
+    } finally {
+      executor.shutdownNow();
+      dataRegion1.syncDeleteDataFiles();
+      config.setEnableStripedInsertLock(defaultEnableStripedInsertLock);
+    }
+  }
+
   @Test
   public void testSmallReportProportionInsertRow()
       throws WriteProcessException,
@@ -4782,6 +4782,81 @@ public class FastCrossCompactionPerformerTest extends AbstractCompactionTest {
             .longValue());
   }
 
+  @Test
+  public void testCrossSpaceCompactionOnlyRewriteOverlappedPages() throws Exception {
+    IoTDBDescriptor.getInstance().getConfig().setEnableCrossCompactionPageGranularRewrite(true);
+    try {
+      TsFileResource seqResource = createEmptyFileAndResource(true);
+      try (CompactionTestFileWriter writer = new CompactionTestFileWriter(seqResource)) {
+        writer.startChunkGroup("d0");
+        // the first page is 0 ~ 4 and 10 ~ 14, the following pages are 20 ~ 29, ..., 100 ~ 109
+        TimeRange[][][] pages = new TimeRange[1][10][];
+        pages[0][0] = new TimeRange[] {new TimeRange(0, 4), new TimeRange(10, 14)};
+        for (int i = 1; i < 10; i++) {
+          pages[0][i] = new TimeRange[] {new TimeRange(i * 10L + 10, i * 10L + 19)};
+        }
+        writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+            "s0", pages, TSEncoding.PLAIN, CompressionType.LZ4);
+        writer.endChunkGroup();
+        writer.endFile();
+      }
+      TsFileResource unseqResource = createEmptyFileAndResource(false);
+      try (CompactionTestFileWriter writer = new CompactionTestFileWriter(unseqResource)) {
+        writer.startChunkGroup("d0");
+        writer.generateSimpleNonAlignedSeriesToCurrentDevice(
+            "s0", new TimeRange[] {new TimeRange(5, 7)}, TSEncoding.PLAIN, CompressionType.LZ4);
+        writer.endChunkGroup();
+        writer.endFile();
+      }
+      seqResources.add(seqResource);
+      unseqResources.add(unseqResource);
+
+      targetResources.addAll(
+          CompactionFileGeneratorUtils.getCrossCompactionTargetTsFileResources(seqResources));
+      ICompactionPerformer performer =
+          new FastCompactionPerformer(seqResources, unseqResources, targetResources);
+      FastCompactionTaskSummary summary = new FastCompactionTaskSummary();
+      performer.setSummary(summary);
+      performer.perform();
+      CompactionUtils.moveTargetFile(targetResources, CompactionTaskType.CROSS, COMPACTION_TEST_SG);
+
+      // 13 points of the first page are rewritten, which leaves 3 points in the unsealed page, the
+      // unsealed page is sealed and the following 9 pages are flushed directly
+      Assert.assertEquals(0, summary.pageNoneOverlapButDeserialize);
+      Assert.assertEquals(13, summary.rewritePointNum);
+
+      IFullPath path =
+          new NonAlignedFullPath(
+              IDeviceID.Factory.DEFAULT_FACTORY.create(COMPACTION_TEST_SG + PATH_SEPARATOR + "d0"),
+              new MeasurementSchema("s0", TSDataType.INT64));
+      IDataBlockReader tsBlockReader =
+          new SeriesDataBlockReader(
+              path,
+              FragmentInstanceContext.createFragmentInstanceContextForCompaction(
+                  EnvironmentUtils.TEST_QUERY_CONTEXT.getQueryId()),
+              targetResources,
+              new ArrayList<>(),
+              true);
+      int count = 0;
+      long lastTime = Long.MIN_VALUE;
+      while (tsBlockReader.hasNextBatch()) {
+        TsBlock block = tsBlockReader.nextBatch();
+        IBatchDataIterator iterator = block.getTsBlockSingleColumnIterator();
+        while (iterator.hasNext()) {
+          Assert.assertTrue(iterator.currentTime() > lastTime);
+          assertEquals(iterator.currentTime(), iterator.currentValue());
+          lastTime = iterator.currentTime();
+          count++;
+          iterator.next();
+        }
+      }
+      tsBlockReader.close();
+      assertEquals(103, count);
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setEnableCrossCompactionPageGranularRewrite(false);
+    }
+  }
+
   private void validateSeqFiles() {
     TsFileValidationTool.clearMap(true);
     List<File> files = new ArrayList<>();
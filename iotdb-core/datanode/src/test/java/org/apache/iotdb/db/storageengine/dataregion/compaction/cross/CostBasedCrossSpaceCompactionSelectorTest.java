@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.cross;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.AbstractCompactionTest;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.CompactionScheduleContext;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.CostBasedCrossSpaceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.impl.RewriteCrossSpaceCompactionSelector;
+import org.apache.iotdb.db.storageengine.dataregion.compaction.selector.utils.CrossCompactionTaskResource;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+public class CostBasedCrossSpaceCompactionSelectorTest extends AbstractCompactionTest {
+
+  @Before
+  public void setUp()
+      throws IOException, WriteProcessException, MetadataException, InterruptedException {
+    super.setUp();
+    IoTDBDescriptor.getInstance().getConfig().setMinCrossCompactionUnseqFileLevel(0);
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    super.tearDown();
+    for (TsFileResource tsFileResource : seqResources) {
+      FileReaderManager.getInstance().closeFileAndRemoveReader(tsFileResource.getTsFileID());
+    }
+    for (TsFileResource tsFileResource : unseqResources) {
+      FileReaderManager.getInstance().closeFileAndRemoveReader(tsFileResource.getTsFileID());
+    }
+  }
+
+  @Test
+  public void testSkipLargeSeqFileOverlappedWithFewData()
+      throws IOException, MetadataException, WriteProcessException {
+    // seq files: 0 ~ 99, 100 ~ 199 and a large one 200 ~ 2199
+    createFiles(2, 2, 3, 100, 0, 0, 0, 0, false, true);
+    createFiles(1, 2, 3, 2000, 200, 0, 0, 0, false, true);
+    // three unseq files overlapping with each other in 0 ~ 49, and one in 300 ~ 349
+    for (int i = 0; i < 3; i++) {
+      createFiles(1, 2, 3, 50, 0, 10000, 0, 0, false, false);
+    }
+    createFiles(1, 2, 3, 50, 300, 10000, 0, 0, false, false);
+
+    List<CrossCompactionTaskResource> selected =
+        new RewriteCrossSpaceCompactionSelector("", "", 0, null, new CompactionScheduleContext())
+            .selectCrossSpaceTask(seqResources, unseqResources);
+    Assert.assertEquals(1, selected.size());
+    Assert.assertEquals(4, selected.get(0).getUnseqFiles().size());
+
+    selected =
+        new CostBasedCrossSpaceCompactionSelector(
+                "", "", 0, null, new CompactionScheduleContext())
+            .selectCrossSpaceTask(seqResources, unseqResources);
+    Assert.assertEquals(1, selected.size());
+    Assert.assertEquals(unseqResources.subList(0, 3), selected.get(0).getUnseqFiles());
+    Assert.assertEquals(seqResources.subList(0, 1), selected.get(0).getSeqFiles());
+  }
+}
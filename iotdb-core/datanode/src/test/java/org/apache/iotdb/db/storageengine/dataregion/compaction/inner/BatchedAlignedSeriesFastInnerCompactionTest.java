@@ -318,6 +318,39 @@ public class BatchedAlignedSeriesFastInnerCompactionTest extends AbstractCompact
     validate(targetResource);
   }
 
+  @Test
+  public void testCompactionWithParallelFollowingBatches() throws Exception {
+    // the following batches are more than the sub tasks
+    TsFileResource unseqResource1 =
+        generateSingleAlignedSeriesFile(
+            "d0",
+            Arrays.asList("s0", "s1", "s2", "s3", "s4", "s5", "s6", "s7", "s8", "s9", "s10"),
+            new TimeRange[][] {
+              new TimeRange[] {new TimeRange(100, 200), new TimeRange(500, 600)},
+              new TimeRange[] {new TimeRange(100000, 200000)}
+            },
+            TSEncoding.PLAIN,
+            CompressionType.LZ4,
+            Arrays.asList(
+                false, false, false, false, false, false, false, false, false, false, false),
+            false);
+    unseqResources.add(unseqResource1);
+
+    TsFileResource unseqResource2 =
+        generateSingleAlignedSeriesFile(
+            "d0",
+            Arrays.asList("s0", "s1", "s2", "s3", "s4", "s5", "s6", "s7", "s8", "s9"),
+            new TimeRange[] {new TimeRange(150, 550), new TimeRange(300000, 400000)},
+            TSEncoding.PLAIN,
+            CompressionType.LZ4,
+            Arrays.asList(false, false, false, false, false, false, false, false, false, false),
+            false);
+    unseqResources.add(unseqResource2);
+
+    TsFileResource targetResource = performCompaction();
+    validate(targetResource);
+  }
+
   @Test
   public void testCompactionByDeserializeWithLargeTimeChunk() throws Exception {
     long defaultMaxCachedTimeChunkSize = BatchCompactionPlan.getMaxCachedTimeChunksSize();
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.compaction.schedule;
+
+import org.apache.iotdb.db.storageengine.dataregion.compaction.schedule.constant.CompactionType;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjDoubleConsumer;
+
+public class CompactionIoGovernorTest {
+
+  private static final long TARGET_LATENCY_IN_NS = TimeUnit.MILLISECONDS.toNanos(10);
+  private static final double DELTA = 0.0001;
+
+  private static final String FOLDER_1 = "data1/sequence";
+  private static final String FOLDER_2 = "data2/sequence";
+
+  @Test
+  public void testScaleDownWhenQueryReadsAreSlow() {
+    List<Double> appliedRatios = new ArrayList<>();
+    CompactionIoGovernor governor =
+        createGovernor(TARGET_LATENCY_IN_NS, (folder, ratio) -> appliedRatios.add(ratio));
+
+    governor.recordQueryRead(FOLDER_1 + "/1-1-0-0.tsfile", TimeUnit.MILLISECONDS.toNanos(15));
+    governor.recordQueryRead(FOLDER_1 + "/2-2-0-0.tsfile", TimeUnit.MILLISECONDS.toNanos(25));
+    governor.adjust();
+    Assert.assertEquals(0.5, governor.getRateRatio(FOLDER_1), DELTA);
+
+    for (int i = 0; i < 10; i++) {
+      governor.recordQueryRead(FOLDER_1 + "/1-1-0-0.tsfile", TimeUnit.MILLISECONDS.toNanos(100));
+      governor.adjust();
+    }
+    Assert.assertEquals(
+        CompactionIoGovernor.MIN_RATE_RATIO, governor.getRateRatio(FOLDER_1), DELTA);
+    // the ratio is only applied when it changes
+    Assert.assertEquals(
+        CompactionIoGovernor.MIN_RATE_RATIO, appliedRatios.get(appliedRatios.size() - 1), DELTA);
+    Assert.assertTrue(appliedRatios.size() < 11);
+  }
+
+  @Test
+  public void testScaleUpWhenQueryReadsAreFastOrIdle() {
+    CompactionIoGovernor governor = createGovernor(TARGET_LATENCY_IN_NS, (folder, ratio) -> {});
+    governor.recordQueryRead(FOLDER_1 + "/1-1-0-0.tsfile", TimeUnit.MILLISECONDS.toNanos(20));
+    governor.adjust();
+    Assert.assertEquals(0.5, governor.getRateRatio(FOLDER_1), DELTA);
+
+    // fast query reads
+    governor.recordQueryRead(FOLDER_1 + "/1-1-0-0.tsfile", TimeUnit.MILLISECONDS.toNanos(5));
+    governor.adjust();
+    Assert.assertEquals(
+        0.5 + CompactionIoGovernor.RATE_RATIO_INCREMENT, governor.getRateRatio(FOLDER_1), DELTA);
+
+    // no query read
+    for (int i = 0; i < 10; i++) {
+      governor.adjust();
+    }
+    Assert.assertEquals(1.0, governor.getRateRatio(FOLDER_1), DELTA);
+  }
+
+  @Test
+  public void testScalePerFolder() {
+    List<String> appliedFolders = new ArrayList<>();
+    CompactionIoGovernor governor =
+        createGovernor(TARGET_LATENCY_IN_NS, (folder, ratio) -> appliedFolders.add(folder));
+
+    governor.recordQueryRead(FOLDER_1 + "/1-1-0-0.tsfile", TimeUnit.MILLISECONDS.toNanos(20));
+    governor.recordQueryRead(FOLDER_2 + "/1-1-0-0.tsfile", TimeUnit.MILLISECONDS.toNanos(1));
+    // not in any data folder
+    governor.recordQueryRead("tmp/1-1-0-0.tsfile", TimeUnit.MILLISECONDS.toNanos(20));
+    governor.adjust();
+
+    // only the folder of the slow query reads is throttled
+    Assert.assertEquals(0.5, governor.getRateRatio(FOLDER_1), DELTA);
+    Assert.assertEquals(1.0, governor.getRateRatio(FOLDER_2), DELTA);
+    Assert.assertEquals(1, appliedFolders.size());
+    Assert.assertEquals(FOLDER_1, appliedFolders.get(0));
+  }
+
+  @Test
+  public void testRateRatioOfCompactionTypes() {
+    for (CompactionType type : CompactionType.values()) {
+      Assert.assertEquals(1.0, CompactionIoGovernor.getRateRatio(1.0, type), DELTA);
+    }
+    // the compaction types of lower weights give way first
+    Assert.assertEquals(
+        0.5, CompactionIoGovernor.getRateRatio(0.5, CompactionType.INNER_SEQ_COMPACTION), DELTA);
+    Assert.assertEquals(
+        0.25, CompactionIoGovernor.getRateRatio(0.5, CompactionType.CROSS_COMPACTION), DELTA);
+    double innerUnseqRatio =
+        CompactionIoGovernor.getRateRatio(0.5, CompactionType.INNER_UNSEQ_COMPACTION);
+    Assert.assertTrue(innerUnseqRatio < 0.5 && innerUnseqRatio > 0.25);
+
+    // however slow the queries are, all the types keep the minimum ratio
+    for (CompactionType type : CompactionType.values()) {
+      Assert.assertEquals(
+          CompactionIoGovernor.MIN_RATE_RATIO,
+          CompactionIoGovernor.getRateRatio(CompactionIoGovernor.MIN_RATE_RATIO, type),
+          DELTA);
+    }
+  }
+
+  @Test
+  public void testDisabled() {
+    CompactionIoGovernor governor = createGovernor(0, (folder, ratio) -> {});
+    Assert.assertFalse(governor.isEnabled());
+    governor.recordQueryRead(FOLDER_1 + "/1-1-0-0.tsfile", TimeUnit.SECONDS.toNanos(1));
+    governor.adjust();
+    Assert.assertEquals(1.0, governor.getRateRatio(FOLDER_1), DELTA);
+  }
+
+  private static CompactionIoGovernor createGovernor(
+      long targetReadLatencyInNs, ObjDoubleConsumer<String> rateRatioApplier) {
+    return new CompactionIoGovernor(
+        targetReadLatencyInNs,
+        filePath ->
+            filePath.startsWith(FOLDER_1)
+                ? FOLDER_1
+                : filePath.startsWith(FOLDER_2) ? FOLDER_2 : null,
+        rateRatioApplier);
+  }
+}
@@ -20,19 +20,26 @@
 package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.storageengine.dataregion.flush.MemTableFlushTask;
+import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.db.utils.constant.TestConstant;
 
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.tsfile.write.writer.RestorableTsFileIOWriter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -161,4 +168,80 @@ public class MemTableFlushTaskTest {
     assertEquals(TSDataType.BOOLEAN, chunkMetaData.getDataType());
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
+
+  @Test
+  public void testFlushMemTableWithParallelEncoding()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    int originalThreadCount =
+        IoTDBDescriptor.getInstance().getConfig().getFlushEncodingThreadCount();
+    IoTDBDescriptor.getInstance().getConfig().setFlushEncodingThreadCount(4);
+    try {
+      flushAndCheckParallelEncodedMemTable();
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setFlushEncodingThreadCount(originalThreadCount);
+    }
+  }
+
+  @Test
+  public void testParallelEncodingWithinPendingMemoryLimit()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    int originalThreadCount =
+        IoTDBDescriptor.getInstance().getConfig().getFlushEncodingThreadCount();
+    int originalIoTaskQueueSize =
+        IoTDBDescriptor.getInstance().getConfig().getIoTaskQueueSizeForFlushing();
+    IoTDBDescriptor.getInstance().getConfig().setFlushEncodingThreadCount(4);
+    // the io task queue holds a single task, and one average chunk group per encoding thread is
+    // reserved for the encoded but unwritten chunk groups
+    IoTDBDescriptor.getInstance().getConfig().setIoTaskQueueSizeForFlushing(1);
+    double flushThreshold = SystemInfo.getInstance().getFlushThreshold();
+    try {
+      flushAndCheckParallelEncodedMemTable();
+      // the temporary memory reserved for the pending chunk groups is released
+      assertEquals(flushThreshold, SystemInfo.getInstance().getFlushThreshold(), 0.0);
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setFlushEncodingThreadCount(originalThreadCount);
+      IoTDBDescriptor.getInstance()
+          .getConfig()
+          .setIoTaskQueueSizeForFlushing(originalIoTaskQueueSize);
+    }
+  }
+
+  private void flushAndCheckParallelEncodedMemTable()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    List<IDeviceID> deviceIds = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      IDeviceID deviceId = IDeviceID.Factory.DEFAULT_FACTORY.create("d" + i);
+      deviceIds.add(deviceId);
+      MemTableTestUtils.produceData(
+          memTable,
+          startTime,
+          endTime + i,
+          deviceId,
+          MemTableTestUtils.measurementId0,
+          MemTableTestUtils.dataType0);
+    }
+    MemTableFlushTask memTableFlushTask =
+        new MemTableFlushTask(memTable, writer, storageGroup, dataRegionId);
+    memTableFlushTask.syncFlushMemTable();
+    writer.makeMetadataVisible();
+
+    // chunk groups are written in device order even though they are encoded in parallel
+    Collections.sort(deviceIds);
+    List<ChunkGroupMetadata> chunkGroupMetadataList = writer.getChunkGroupMetadataList();
+    assertEquals(deviceIds.size(), chunkGroupMetadataList.size());
+    for (int i = 0; i < deviceIds.size(); i++) {
+      assertEquals(deviceIds.get(i), chunkGroupMetadataList.get(i).getDevice());
+    }
+    for (int i = 0; i < 20; i++) {
+      List<ChunkMetadata> chunkMetadataList =
+          writer.getVisibleMetadataList(
+              IDeviceID.Factory.DEFAULT_FACTORY.create("d" + i),
+              MemTableTestUtils.measurementId0,
+              MemTableTestUtils.dataType0);
+      assertEquals(1, chunkMetadataList.size());
+      assertEquals(startTime, chunkMetadataList.get(0).getStartTime());
+      assertEquals(endTime + i, chunkMetadataList.get(0).getEndTime());
+      assertEquals(endTime + i - startTime + 1, chunkMetadataList.get(0).getNumOfPoints());
+    }
+  }
 }
@@ -44,6 +44,7 @@ import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.execution.schedule.IDriverScheduler;
 import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
 import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.modification.ModEntry;
@@ -583,6 +584,64 @@ public class PrimitiveMemTableTest {
     return node;
   }
 
+  @Test
+  public void testInsertAlignedRows() throws IllegalPathException {
+    IMemTable expectedMemTable = new PrimitiveMemTable(database, dataRegionId);
+    IMemTable memTable = new PrimitiveMemTable(database, dataRegionId);
+    List<InsertRowNode> insertRowNodes = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      // the last column is only written since the 50th row
+      int columnNum = i < 50 ? 3 : 4;
+      String[] measurements = new String[columnNum];
+      TSDataType[] dataTypes = new TSDataType[columnNum];
+      Object[] values = new Object[columnNum];
+      MeasurementSchema[] schemas = new MeasurementSchema[columnNum];
+      for (int j = 0; j < columnNum; j++) {
+        measurements[j] = "s" + j;
+        dataTypes[j] = j % 2 == 0 ? TSDataType.INT64 : TSDataType.TEXT;
+        values[j] =
+            j % 2 == 0 ? (Object) (long) i : new Binary("v" + i, TSFileConfig.STRING_CHARSET);
+        schemas[j] = new MeasurementSchema(measurements[j], dataTypes[j]);
+      }
+      if (i % 10 == 0) {
+        values[1] = null;
+      }
+      InsertRowNode insertRowNode =
+          new InsertRowNode(
+              new PlanNodeId(""),
+              new PartialPath("root.test.d1"),
+              true,
+              measurements,
+              dataTypes,
+              i,
+              values,
+              false);
+      insertRowNode.setMeasurementSchemas(schemas);
+      insertRowNodes.add(insertRowNode);
+      expectedMemTable.insertAlignedRow(insertRowNode);
+    }
+    memTable.insertAlignedRows(insertRowNodes);
+
+    Assert.assertEquals(expectedMemTable.getTotalPointsNum(), memTable.getTotalPointsNum());
+    Assert.assertEquals(expectedMemTable.memSize(), memTable.memSize());
+    Assert.assertEquals(expectedMemTable.getSeriesNumber(), memTable.getSeriesNumber());
+    IDeviceID alignedDeviceID = insertRowNodes.get(0).getDeviceID();
+    TVList expectedList =
+        ((AlignedWritableMemChunkGroup) expectedMemTable.getMemTableMap().get(alignedDeviceID))
+            .getAlignedMemChunk()
+            .getWorkingTVList();
+    TVList list =
+        ((AlignedWritableMemChunkGroup) memTable.getMemTableMap().get(alignedDeviceID))
+            .getAlignedMemChunk()
+            .getWorkingTVList();
+    Assert.assertEquals(expectedList.rowCount(), list.rowCount());
+    for (int i = 0; i < list.rowCount(); i++) {
+      Assert.assertEquals(expectedList.getTime(i), list.getTime(i));
+      Assert.assertEquals(
+          expectedList.getAlignedValue(i).toString(), list.getAlignedValue(i).toString());
+    }
+  }
+
   @Test
   public void testSerializeSize()
       throws IOException, QueryProcessException, MetadataException, WriteProcessException {
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.reader.chunk;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class ChunkPrefetcherTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private int originalChunkPrefetchNum;
+
+  @Before
+  public void setUp() {
+    originalChunkPrefetchNum = CONFIG.getChunkPrefetchNum();
+    CONFIG.setChunkPrefetchNum(2);
+  }
+
+  @After
+  public void tearDown() {
+    CONFIG.setChunkPrefetchNum(originalChunkPrefetchNum);
+  }
+
+  @Test
+  public void testPrefetchWindow() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    DiskChunkLoader chunkLoader = Mockito.mock(DiskChunkLoader.class);
+    Mockito.doAnswer(
+            invocation -> {
+              latch.await();
+              return null;
+            })
+        .when(chunkLoader)
+        .prefetchChunk(Mockito.any());
+    List<IChunkMetadata> chunkMetadataList = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      ChunkMetadata chunkMetadata = Mockito.mock(ChunkMetadata.class);
+      Mockito.when(chunkMetadata.getChunkLoader()).thenReturn(chunkLoader);
+      chunkMetadataList.add(chunkMetadata);
+    }
+
+    // descending scan reads the last chunk first
+    ChunkPrefetcher prefetcher =
+        ChunkPrefetcher.create(
+            new QueryContext(),
+            Comparator.<IChunkMetadata>comparingInt(chunkMetadataList::indexOf).reversed());
+    assertNotNull(prefetcher);
+    // chunks of different TimeseriesMetadata are read ahead in the order of the scan
+    prefetcher.addChunks(chunkMetadataList.subList(0, 2));
+    prefetcher.addChunks(chunkMetadataList.subList(2, 4));
+    Mockito.verify(chunkLoader, Mockito.timeout(10000)).prefetchChunk(chunkMetadataList.get(1));
+    ListenableFuture<?> loadingFuture = prefetcher.getLoadingFuture(chunkMetadataList.get(1));
+    assertNotNull(loadingFuture);
+    assertNull(prefetcher.getLoadingFuture(chunkMetadataList.get(3)));
+
+    latch.countDown();
+    loadingFuture.get(10, TimeUnit.SECONDS);
+    assertNull(prefetcher.getLoadingFuture(chunkMetadataList.get(1)));
+    Mockito.verify(chunkLoader, Mockito.timeout(10000)).prefetchChunk(chunkMetadataList.get(0));
+    // the first TimeseriesMetadata fills the window, the chunks added later wait for it
+    Mockito.verify(chunkLoader, Mockito.never()).prefetchChunk(chunkMetadataList.get(3));
+
+    // the fourth chunk is skipped before it's read ahead
+    prefetcher.onChunkConsumed(chunkMetadataList.get(3));
+    prefetcher.onChunkConsumed(chunkMetadataList.get(1));
+    Mockito.verify(chunkLoader, Mockito.timeout(10000)).prefetchChunk(chunkMetadataList.get(2));
+    Mockito.verify(chunkLoader, Mockito.never()).prefetchChunk(chunkMetadataList.get(3));
+
+    prefetcher.onChunkConsumed(chunkMetadataList.get(2));
+    prefetcher.onChunkConsumed(chunkMetadataList.get(0));
+    prefetcher.close();
+  }
+
+  @Test
+  public void testCloseWaitsForRunningReads() throws Exception {
+    CountDownLatch latch = new CountDownLatch(1);
+    DiskChunkLoader chunkLoader = Mockito.mock(DiskChunkLoader.class);
+    Mockito.doAnswer(
+            invocation -> {
+              latch.await();
+              return null;
+            })
+        .when(chunkLoader)
+        .prefetchChunk(Mockito.any());
+    List<IChunkMetadata> chunkMetadataList = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      ChunkMetadata chunkMetadata = Mockito.mock(ChunkMetadata.class);
+      Mockito.when(chunkMetadata.getChunkLoader()).thenReturn(chunkLoader);
+      chunkMetadataList.add(chunkMetadata);
+    }
+
+    ChunkPrefetcher prefetcher =
+        ChunkPrefetcher.create(
+            new QueryContext(), Comparator.<IChunkMetadata>comparingInt(chunkMetadataList::indexOf));
+    assertNotNull(prefetcher);
+    prefetcher.addChunks(chunkMetadataList);
+    Mockito.verify(chunkLoader, Mockito.timeout(10000)).prefetchChunk(chunkMetadataList.get(0));
+
+    // the query is aborted while the first chunk is being read
+    CompletableFuture<Void> closeFuture = CompletableFuture.runAsync(prefetcher::close);
+    try {
+      closeFuture.get(200, TimeUnit.MILLISECONDS);
+      fail("close should wait for the chunk being read");
+    } catch (TimeoutException e) {
+      // expected
+    }
+    latch.countDown();
+    closeFuture.get(10, TimeUnit.SECONDS);
+
+    // nothing is read ahead after closing
+    prefetcher.onChunkConsumed(chunkMetadataList.get(0));
+    prefetcher.onChunkConsumed(chunkMetadataList.get(1));
+    Mockito.verify(chunkLoader, Mockito.never()).prefetchChunk(chunkMetadataList.get(2));
+    assertNull(prefetcher.getLoadingFuture(chunkMetadataList.get(1)));
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.buffer;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALMode;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * WAL buffer write benchmark. Bench the throughput (entries/sec) of {@link WALBuffer} with
+ * different wal_serialize_thread_count when writing large {@link InsertTabletNode}s concurrently.
+ */
+public class WALBufferBenchmark {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final String logDirectory = TestConstant.BASE_OUTPUT_PATH.concat("wal-bench");
+  private static final String devicePath = "root.test_sg.test_d";
+
+  private static int numOfWriter = 16;
+  private static int numOfEntryPerWriter = 100;
+  private static int numOfMeasurement = 100;
+  private static int numOfRow = 1000;
+  private static int[] serializeThreadCounts = new int[] {1, 2, 4, 8};
+
+  public static void main(String[] args) throws Exception {
+    InsertTabletNode insertTabletNode = getInsertTabletNode();
+    int prevWalSerializeThreadCount = config.getWalSerializeThreadCount();
+    WALMode prevWalMode = config.getWalMode();
+    // wait for fsync of each entry
+    config.setWalMode(WALMode.SYNC);
+    try {
+      for (int serializeThreadCount : serializeThreadCounts) {
+        config.setWalSerializeThreadCount(serializeThreadCount);
+        EnvironmentUtils.cleanDir(logDirectory);
+        WALBuffer walBuffer = new WALBuffer(String.valueOf(serializeThreadCount), logDirectory);
+        ExecutorService writers = Executors.newFixedThreadPool(numOfWriter);
+        final long startTime = System.currentTimeMillis();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < numOfWriter; i++) {
+          int memTableId = i;
+          futures.add(
+              writers.submit(
+                  () -> {
+                    for (int j = 0; j < numOfEntryPerWriter; j++) {
+                      WALEntry walEntry =
+                          new WALInfoEntry(
+                              memTableId,
+                              insertTabletNode,
+                              Collections.singletonList(new int[] {0, numOfRow}));
+                      walBuffer.write(walEntry);
+                      walEntry.getWalFlushListener().waitForResult();
+                    }
+                  }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+        final long endTime = System.currentTimeMillis();
+        writers.shutdown();
+        walBuffer.close();
+        long entryNum = (long) numOfWriter * numOfEntryPerWriter;
+        System.out.println(
+            String.format(
+                "Serialize threads: %d, "
+                    + "Num of entries: %d, "
+                    + "The total time: %d ms, "
+                    + "Throughput: %.2f entries/sec. ",
+                serializeThreadCount,
+                entryNum,
+                endTime - startTime,
+                entryNum * 1000.0 / Math.max(1, endTime - startTime)));
+      }
+    } finally {
+      config.setWalSerializeThreadCount(prevWalSerializeThreadCount);
+      config.setWalMode(prevWalMode);
+      EnvironmentUtils.cleanDir(logDirectory);
+    }
+  }
+
+  private static InsertTabletNode getInsertTabletNode() throws IllegalPathException {
+    String[] measurements = new String[numOfMeasurement];
+    TSDataType[] dataTypes = new TSDataType[numOfMeasurement];
+    MeasurementSchema[] schemas = new MeasurementSchema[numOfMeasurement];
+    Object[] columns = new Object[numOfMeasurement];
+    for (int i = 0; i < numOfMeasurement; i++) {
+      measurements[i] = "s" + i;
+      dataTypes[i] = TSDataType.DOUBLE;
+      schemas[i] = new MeasurementSchema(measurements[i], dataTypes[i]);
+      double[] values = new double[numOfRow];
+      for (int r = 0; r < numOfRow; r++) {
+        values[r] = r * 1.5;
+      }
+      columns[i] = values;
+    }
+    long[] times = new long[numOfRow];
+    for (int r = 0; r < numOfRow; r++) {
+      times[r] = r;
+    }
+    return new InsertTabletNode(
+        new PlanNodeId(""),
+        new PartialPath(devicePath),
+        false,
+        measurements,
+        dataTypes,
+        schemas,
+        times,
+        null,
+        columns,
+        numOfRow);
+  }
+}
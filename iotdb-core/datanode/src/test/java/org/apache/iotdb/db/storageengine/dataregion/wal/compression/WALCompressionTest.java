@@ -32,6 +32,7 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.io.LogWriter;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALByteBufReader;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALFileVersion;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALInputStream;
+import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALMappedByteBufReader;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALReader;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALWriter;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileStatus;
@@ -369,6 +370,20 @@ public class WALCompressionTest {
         Assert.assertEquals(entryList.get(i).serializedSize(), buffer.array().length);
       }
     }
+    checkMappedByteBufReader(walFiles[0]);
+  }
+
+  private void checkMappedByteBufReader(File walFile) throws IOException {
+    try (WALByteBufReader reader = new WALByteBufReader(walFile);
+        WALMappedByteBufReader mappedReader = new WALMappedByteBufReader(walFile)) {
+      Assert.assertEquals(
+          reader.getMetaData().getBuffersSize(), mappedReader.getMetaData().getBuffersSize());
+      while (reader.hasNext()) {
+        Assert.assertTrue(mappedReader.hasNext());
+        Assert.assertEquals(reader.next(), mappedReader.next());
+      }
+      Assert.assertFalse(mappedReader.hasNext());
+    }
   }
 
   @Test
@@ -442,5 +457,6 @@ public class WALCompressionTest {
         Assert.assertEquals(entryList.get(i).serializedSize(), buffer.array().length);
       }
     }
+    checkMappedByteBufReader(walFiles[0]);
   }
 }
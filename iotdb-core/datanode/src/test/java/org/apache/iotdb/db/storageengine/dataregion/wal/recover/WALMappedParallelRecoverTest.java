@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.recover;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.After;
+import org.junit.Before;
+
+/** Runs all cases of {@link WALRecoverManagerTest} with mapped readers and parallel redo. */
+public class WALMappedParallelRecoverTest extends WALRecoverManagerTest {
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private boolean prevEnableWalMmapRecovery;
+  private int prevWalRecoverRedoThreadCount;
+
+  @Before
+  public void enableMappedParallelRecovery() {
+    prevEnableWalMmapRecovery = config.isEnableWalMmapRecovery();
+    prevWalRecoverRedoThreadCount = config.getWalRecoverRedoThreadCount();
+    config.setEnableWalMmapRecovery(true);
+    config.setWalRecoverRedoThreadCount(4);
+  }
+
+  @After
+  public void restoreRecoveryConfig() {
+    config.setEnableWalMmapRecovery(prevEnableWalMmapRecovery);
+    config.setWalRecoverRedoThreadCount(prevWalRecoverRedoThreadCount);
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.memory;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class FlushVictimSelectorTest {
+
+  private static List<FlushVictimSelector.Candidate> hotAndColdCandidates() {
+    List<FlushVictimSelector.Candidate> candidates = new ArrayList<>();
+    // hot region: young memtable receiving 100k points per second
+    candidates.add(new FlushVictimSelector.Candidate(null, 100, 10_000, 1, 1_000_000));
+    // cold region: slightly smaller memtable idling for 10 minutes and pinning many WAL files
+    candidates.add(new FlushVictimSelector.Candidate(null, 80, 600_000, 5, 6_000));
+    return candidates;
+  }
+
+  @Test
+  public void testSizePolicy() {
+    List<FlushVictimSelector.Candidate> ranked =
+        new FlushVictimSelector(FlushVictimSelectionPolicy.SIZE).rank(hotAndColdCandidates());
+    assertEquals(100, ranked.get(0).getRamCost());
+    assertEquals(80, ranked.get(1).getRamCost());
+    assertEquals(FlushVictimSelector.Reason.SIZE, ranked.get(0).getReason());
+    assertEquals(FlushVictimSelector.Reason.SIZE, ranked.get(1).getReason());
+  }
+
+  @Test
+  public void testAdaptivePolicy() {
+    List<FlushVictimSelector.Candidate> ranked =
+        new FlushVictimSelector(FlushVictimSelectionPolicy.ADAPTIVE).rank(hotAndColdCandidates());
+    assertEquals(80, ranked.get(0).getRamCost());
+    assertEquals(100, ranked.get(1).getRamCost());
+    assertEquals(FlushVictimSelector.Reason.AGE, ranked.get(0).getReason());
+    assertEquals(FlushVictimSelector.Reason.SIZE, ranked.get(1).getReason());
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.memory;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.storageengine.rescon.memory.PrimitiveArrayManager.ARRAY_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class OffHeapArrayManagerTest {
+
+  @Before
+  public void setUp() {
+    OffHeapArrayManager.close();
+  }
+
+  @After
+  public void tearDown() {
+    OffHeapArrayManager.close();
+  }
+
+  @Test
+  public void testCarveBlocksFromSlab() {
+    ByteBuffer block = OffHeapArrayManager.allocate(TSDataType.INT64);
+    long slabMemorySize = OffHeapArrayManager.getSlabMemorySize();
+    assertTrue(block.isDirect());
+    assertEquals(ARRAY_SIZE * Long.BYTES, block.capacity());
+    assertTrue(slabMemorySize > block.capacity());
+
+    // the following blocks are carved from the same slab
+    List<ByteBuffer> blocks = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      blocks.add(OffHeapArrayManager.allocate(TSDataType.DOUBLE));
+    }
+    assertEquals(slabMemorySize, OffHeapArrayManager.getSlabMemorySize());
+
+    OffHeapArrayManager.release(block);
+    assertSame(block, OffHeapArrayManager.allocate(TSDataType.TIMESTAMP));
+  }
+
+  @Test
+  public void testChargeIdleBlocksToMemtableMemory() {
+    double flushThreshold = SystemInfo.getInstance().getFlushThreshold();
+    List<ByteBuffer> blocks = new ArrayList<>();
+    // allocate blocks from several slabs
+    ByteBuffer first = OffHeapArrayManager.allocate(TSDataType.INT32);
+    blocks.add(first);
+    long slabMemorySize = OffHeapArrayManager.getSlabMemorySize();
+    while (OffHeapArrayManager.getSlabMemorySize() < 3 * slabMemorySize) {
+      blocks.add(OffHeapArrayManager.allocate(TSDataType.INT32));
+    }
+    // most of the slab memory is in use and charged by the TVLists
+    assertTrue(OffHeapArrayManager.getChargedMemorySize() < slabMemorySize);
+
+    // the idle blocks are charged in steps of a slab
+    blocks.forEach(OffHeapArrayManager::release);
+    assertTrue(
+        OffHeapArrayManager.getSlabMemorySize() - OffHeapArrayManager.getChargedMemorySize()
+            < slabMemorySize);
+    assertTrue(SystemInfo.getInstance().getFlushThreshold() < flushThreshold);
+
+    OffHeapArrayManager.close();
+    assertEquals(0, OffHeapArrayManager.getChargedMemorySize());
+    assertEquals(flushThreshold, SystemInfo.getInstance().getFlushThreshold(), 0.0);
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.rescon.memory;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveArrayManagerTest {
+
+  @Before
+  public void setUp() {
+    PrimitiveArrayManager.close();
+  }
+
+  @After
+  public void tearDown() {
+    PrimitiveArrayManager.close();
+  }
+
+  @Test
+  public void testReuseLocalArray() {
+    Object array = PrimitiveArrayManager.allocate(TSDataType.INT64);
+    PrimitiveArrayManager.release(array);
+    assertSame(array, PrimitiveArrayManager.allocate(TSDataType.INT64));
+  }
+
+  @Test
+  public void testReuseArrayReleasedByOtherThread() throws InterruptedException {
+    List<Object> arrays = new ArrayList<>();
+    for (int i = 0; i <= PrimitiveArrayManager.LOCAL_ARRAYS_SIZE; i++) {
+      arrays.add(PrimitiveArrayManager.allocate(TSDataType.DOUBLE));
+    }
+    // the first arrays fill a magazine, which is handed over to other threads
+    arrays.forEach(PrimitiveArrayManager::release);
+    assertEquals(
+        PrimitiveArrayManager.LOCAL_ARRAYS_SIZE,
+        PrimitiveArrayManager.getPooledArrayCount(TSDataType.DOUBLE));
+
+    AtomicReference<Object> allocated = new AtomicReference<>();
+    Thread thread =
+        new Thread(() -> allocated.set(PrimitiveArrayManager.allocate(TSDataType.DOUBLE)));
+    thread.start();
+    thread.join();
+    assertSame(arrays.get(PrimitiveArrayManager.LOCAL_ARRAYS_SIZE - 1), allocated.get());
+    assertEquals(0, PrimitiveArrayManager.getPooledArrayCount(TSDataType.DOUBLE));
+  }
+
+  @Test
+  public void testArraysOfExitedThreadsNotCounted() throws Exception {
+    Set<Object> releasedArrays = ConcurrentHashMap.newKeySet();
+    int arrayCount = 2 * PrimitiveArrayManager.LOCAL_ARRAYS_SIZE + 1;
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        // each short-lived thread leaves some arrays in its magazine when it exits
+        futures.add(
+            executor.submit(
+                () -> {
+                  Thread thread =
+                      new Thread(
+                          () -> {
+                            List<Object> arrays = new ArrayList<>();
+                            for (int j = 0; j < arrayCount; j++) {
+                              arrays.add(PrimitiveArrayManager.allocate(TSDataType.INT32));
+                            }
+                            releasedArrays.addAll(arrays);
+                            arrays.forEach(PrimitiveArrayManager::release);
+                          });
+                  thread.start();
+                  thread.join();
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // only the arrays handed over to the shared stack are counted, all of them can be allocated
+    int pooledArrayCount = PrimitiveArrayManager.getPooledArrayCount(TSDataType.INT32);
+    assertTrue(pooledArrayCount > 0);
+    assertEquals(0, pooledArrayCount % PrimitiveArrayManager.LOCAL_ARRAYS_SIZE);
+    for (int i = 0; i < pooledArrayCount; i++) {
+      assertTrue(releasedArrays.contains(PrimitiveArrayManager.allocate(TSDataType.INT32)));
+    }
+    assertEquals(0, PrimitiveArrayManager.getPooledArrayCount(TSDataType.INT32));
+  }
+
+  @Test
+  public void testDropLocalArraysAfterClose() {
+    Object array = PrimitiveArrayManager.allocate(TSDataType.FLOAT);
+    PrimitiveArrayManager.release(array);
+    PrimitiveArrayManager.close();
+    assertNotSame(array, PrimitiveArrayManager.allocate(TSDataType.FLOAT));
+  }
+}
@@ -143,6 +143,33 @@ public class QueryDataSetUtilsTest {
     compareTsBlock(res);
   }
 
+  @Test
+  public void testConvertQueryResultByFetchCredit() throws IoTDBException, IOException {
+    IQueryExecution queryExecution = buildQueryExecution();
+    ByteBuffer readyTsBlock = queryExecution.getByteBufferBatchResult().get();
+    Mockito.when(queryExecution.getByteBufferBatchResult())
+        .thenReturn(Optional.of(readyTsBlock.duplicate()), Optional.empty());
+    Mockito.when(queryExecution.getReadyByteBufferBatchResult())
+        .thenReturn(
+            Optional.of(readyTsBlock.duplicate()),
+            Optional.of(readyTsBlock.duplicate()),
+            Optional.empty());
+
+    // the TsBlocks already produced are returned after fetchSize rows until the credit is used up
+    Pair<List<ByteBuffer>, Boolean> res =
+        QueryDataSetUtils.convertQueryResultByFetchSize(
+            queryExecution, 2, readyTsBlock.remaining() * 2L);
+    assertEquals(2, res.left.size());
+    Mockito.verify(queryExecution, Mockito.times(1)).getReadyByteBufferBatchResult();
+
+    // stop when no more TsBlocks are ready, rather than waiting for them
+    Mockito.when(queryExecution.getByteBufferBatchResult())
+        .thenReturn(Optional.of(readyTsBlock.duplicate()), Optional.empty());
+    res = QueryDataSetUtils.convertQueryResultByFetchSize(queryExecution, 2, Long.MAX_VALUE);
+    assertEquals(2, res.left.size());
+    Mockito.verify(queryExecution, Mockito.times(3)).getReadyByteBufferBatchResult();
+  }
+
   private void compareTsBlock(Pair<List<ByteBuffer>, Boolean> res) {
     final double delta = 0.00001d;
 
@@ -27,6 +27,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class AlignedTVListTest {
@@ -142,6 +143,76 @@ public class AlignedTVListTest {
     }
   }
 
+  @Test
+  public void testPutAlignedRows() {
+    List<TSDataType> dataTypes = new ArrayList<>();
+    dataTypes.add(TSDataType.BOOLEAN);
+    dataTypes.add(TSDataType.INT32);
+    dataTypes.add(TSDataType.INT64);
+    dataTypes.add(TSDataType.FLOAT);
+    dataTypes.add(TSDataType.DOUBLE);
+    dataTypes.add(TSDataType.TEXT);
+    AlignedTVList expectedList = AlignedTVList.newAlignedList(new ArrayList<>(dataTypes));
+    AlignedTVList tvList = AlignedTVList.newAlignedList(new ArrayList<>(dataTypes));
+    int rowCount = 1001;
+    long[] times = new long[rowCount];
+    Object[][] rows = new Object[rowCount][];
+    for (int i = 0; i < rowCount; i++) {
+      times[i] = i % 7 == 0 ? rowCount - i : i;
+      Object[] value = new Object[6];
+      value[0] = i % 2 == 0;
+      value[1] = i;
+      value[2] = (long) i;
+      value[3] = i * 0.1f;
+      value[4] = i * 0.2d;
+      value[5] = new Binary("Test" + i, TSFileConfig.STRING_CHARSET);
+      if (i % 10 == 0) {
+        value[i % 6] = null;
+      }
+      rows[i] = value;
+      if (i % 13 == 0) {
+        // rows reordered before extending columns are shorter than the list
+        value[5] = null;
+        rows[i] = Arrays.copyOf(value, 5);
+      }
+      expectedList.putAlignedValue(times[i], value);
+    }
+    // write rows in several batches to cover appending to a partially filled array
+    tvList.putAlignedRows(times, rows, 0, 10);
+    tvList.putAlignedRows(times, rows, 10, 500);
+    tvList.putAlignedRows(times, rows, 500, rowCount);
+
+    Assert.assertEquals(rowCount, tvList.rowCount());
+    Assert.assertEquals(expectedList.isSorted(), tvList.isSorted());
+    Assert.assertEquals(expectedList.getMinTime(), tvList.getMinTime());
+    Assert.assertEquals(expectedList.getMaxTime(), tvList.getMaxTime());
+    for (int i = 0; i < rowCount; i++) {
+      Assert.assertEquals(expectedList.getTime(i), tvList.getTime(i));
+      Assert.assertEquals(
+          expectedList.getAlignedValue(i).toString(), tvList.getAlignedValue(i).toString());
+    }
+  }
+
+  @Test
+  public void testPutAlignedRowsKeepsSortedWithUnusedTimes() {
+    List<TSDataType> dataTypes = new ArrayList<>();
+    dataTypes.add(TSDataType.INT64);
+    AlignedTVList tvList = AlignedTVList.newAlignedList(dataTypes);
+    // only the first 100 rows are valid, the trailing times are left as 0
+    long[] times = new long[128];
+    Object[][] rows = new Object[128][];
+    for (int i = 0; i < 100; i++) {
+      times[i] = i + 1;
+      rows[i] = new Object[] {(long) i};
+    }
+    tvList.putAlignedRows(times, rows, 0, 50);
+    tvList.putAlignedRows(times, rows, 50, 100);
+
+    Assert.assertEquals(100, tvList.rowCount());
+    Assert.assertTrue(tvList.isSorted());
+    Assert.assertEquals(100, tvList.seqRowCount());
+  }
+
   @Test
   public void testClone() {
     List<TSDataType> dataTypes = new ArrayList<>();
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class IncrementalSortTest {
+
+  @Test
+  public void testSortMostlyOrderedLongTVList() {
+    Random random = new Random(1);
+    LongTVList tvList = new IncLongTVList();
+    List<long[]> inputs = new ArrayList<>();
+    long value = 0;
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 3000; i++) {
+        // about 5% of the rows are late, and some of them have duplicated timestamps
+        long time = random.nextInt(100) < 5 ? random.nextInt((int) value + 1) : value;
+        tvList.putLong(time, value);
+        inputs.add(new long[] {time, value});
+        value++;
+      }
+      // sort as a query on the working memtable does, then keep on writing
+      tvList.sort();
+      assertSorted(tvList, inputs);
+    }
+  }
+
+  @Test
+  public void testSortReversedLongTVList() {
+    LongTVList tvList = new IncLongTVList();
+    List<long[]> inputs = new ArrayList<>();
+    for (long i = 0; i < 2000; i++) {
+      tvList.putLong(i, i);
+      inputs.add(new long[] {i, i});
+    }
+    tvList.sort();
+    // all the appended rows are smaller than the sorted rows
+    for (long i = 0; i < 2000; i++) {
+      tvList.putLong(-i, 2000 + i);
+      inputs.add(new long[] {-i, 2000 + i});
+    }
+    tvList.sort();
+    assertSorted(tvList, inputs);
+  }
+
+  @Test
+  public void testSortAlignedTVList() {
+    Random random = new Random(2);
+    List<TSDataType> dataTypes = new ArrayList<>();
+    dataTypes.add(TSDataType.INT64);
+    dataTypes.add(TSDataType.INT32);
+    AlignedTVList tvList = new IncAlignedTVList(dataTypes);
+    List<long[]> inputs = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      long time = random.nextInt(10) == 0 ? random.nextInt(i + 1) : i;
+      tvList.putAlignedValue(time, new Object[] {(long) i, i});
+      inputs.add(new long[] {time, i});
+      if (i % 1000 == 999) {
+        tvList.sort();
+      }
+    }
+    tvList.sort();
+    inputs.sort(Comparator.comparingLong(input -> input[0]));
+    for (int i = 0; i < tvList.rowCount(); i++) {
+      Assert.assertEquals(inputs.get(i)[0], tvList.getTime(i));
+      // the value index of a row is the order of its insertion
+      Assert.assertEquals(inputs.get(i)[1], tvList.getValueIndex(i));
+    }
+  }
+
+  private void assertSorted(LongTVList tvList, List<long[]> inputs) {
+    List<long[]> expected = new ArrayList<>(inputs);
+    // stable sort, the rows with the same time keep the order of insertion
+    expected.sort(Comparator.comparingLong(input -> input[0]));
+    Assert.assertTrue(tvList.isSorted());
+    Assert.assertEquals(expected.size(), tvList.rowCount());
+    for (int i = 0; i < tvList.rowCount(); i++) {
+      Assert.assertEquals(expected.get(i)[0], tvList.getTime(i));
+      Assert.assertEquals(expected.get(i)[1], tvList.getLong(i));
+    }
+  }
+}
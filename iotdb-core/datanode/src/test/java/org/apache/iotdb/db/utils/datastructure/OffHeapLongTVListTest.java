@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class OffHeapLongTVListTest extends LongTVListTest {
+
+  private static boolean originalOffHeapValueEnabled;
+
+  @BeforeClass
+  public static void setUp() {
+    originalOffHeapValueEnabled =
+        IoTDBDescriptor.getInstance().getConfig().isTvListOffHeapValueEnabled();
+    IoTDBDescriptor.getInstance().getConfig().setTvListOffHeapValueEnabled(true);
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setTvListOffHeapValueEnabled(originalOffHeapValueEnabled);
+  }
+
+  @Test
+  public void testValuesStoredOffHeap() {
+    LongTVList tvList = LongTVList.newList();
+    for (long i = 0; i < 1000; i++) {
+      tvList.putLong(i, i * 2);
+    }
+    Assert.assertNotNull(tvList.offHeapValues);
+    Assert.assertTrue(tvList.values.isEmpty());
+    Assert.assertEquals(tvList.timestamps.size(), tvList.offHeapValues.size());
+
+    // blocks are returned to the pool on clear and reused by the next list
+    tvList.clear();
+    Assert.assertTrue(tvList.offHeapValues.isEmpty());
+    LongTVList newTvList = LongTVList.newList();
+    for (long i = 0; i < 1000; i++) {
+      newTvList.putLong(i, -i);
+    }
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(-i, newTvList.getLong(i));
+    }
+    newTvList.clear();
+  }
+}
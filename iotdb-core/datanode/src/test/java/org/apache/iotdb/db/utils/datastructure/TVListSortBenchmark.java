@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compare the sort algorithms of TVList on mostly ordered data which is sorted repeatedly while
+ * being written, as the working TVList of a memtable is sorted by every query on it.
+ */
+public class TVListSortBenchmark {
+
+  private static final int ROW_COUNT = 1_000_000;
+  private static final int ROWS_BETWEEN_SORTS = 10_000;
+  private static final int OUT_OF_ORDER_PERCENT = 1;
+  private static final int ROUNDS = 5;
+
+  public static void main(String[] args) {
+    Map<TVListSortAlgorithm, Supplier<LongTVList>> lists = new EnumMap<>(TVListSortAlgorithm.class);
+    lists.put(TVListSortAlgorithm.TIM, TimLongTVList::new);
+    lists.put(TVListSortAlgorithm.QUICK, QuickLongTVList::new);
+    lists.put(TVListSortAlgorithm.BACKWARD, BackLongTVList::new);
+    lists.put(TVListSortAlgorithm.INCREMENTAL, IncLongTVList::new);
+
+    for (int round = 0; round < ROUNDS; round++) {
+      for (Map.Entry<TVListSortAlgorithm, Supplier<LongTVList>> entry : lists.entrySet()) {
+        long sortTime = run(entry.getValue().get());
+        // the first round is for warming up
+        if (round > 0) {
+          System.out.printf(
+              "round %d, %s: %d rows, sorted every %d rows, %d%% out of order, sort cost %d ms%n",
+              round,
+              entry.getKey(),
+              ROW_COUNT,
+              ROWS_BETWEEN_SORTS,
+              OUT_OF_ORDER_PERCENT,
+              sortTime / 1_000_000);
+        }
+      }
+    }
+  }
+
+  private static long run(LongTVList tvList) {
+    Random random = new Random(0);
+    long sortTime = 0;
+    for (int i = 0; i < ROW_COUNT; i++) {
+      long time =
+          random.nextInt(100) < OUT_OF_ORDER_PERCENT
+              ? i - random.nextInt(ROWS_BETWEEN_SORTS * 2)
+              : i;
+      tvList.putLong(time, i);
+      if ((i + 1) % ROWS_BETWEEN_SORTS == 0) {
+        long start = System.nanoTime();
+        tvList.sort();
+        sortTime += System.nanoTime() - start;
+      }
+    }
+    tvList.clear();
+    return sortTime;
+  }
+}
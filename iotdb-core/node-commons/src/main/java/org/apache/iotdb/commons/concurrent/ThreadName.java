@@ -35,6 +35,7 @@ public enum ThreadName {
   FRAGMENT_INSTANCE_NOTIFICATION("Fragment-Instance-Notification"),
   FRAGMENT_INSTANCE_DISPATCH("Fragment-Instance-Dispatch"),
   DRIVER_TASK_SCHEDULER_NOTIFICATION("Driver-Task-Scheduler-Notification"),
+  CHUNK_PREFETCH("Chunk-Prefetch"),
   // -------------------------- MPP --------------------------
   MPP_COORDINATOR_SCHEDULED_EXECUTOR("MPP-Coordinator-Scheduled-Executor"),
   MPP_DATA_EXCHANGE_TASK_EXECUTOR("MPP-Data-Exchange-Task-Executors"),
@@ -50,18 +51,23 @@ public enum ThreadName {
   COMPACTION_WORKER("Compaction-Worker"),
   COMPACTION_SUB_TASK("Compaction-Sub-Task"),
   COMPACTION_SCHEDULE("Compaction-Schedule"),
+  COMPACTION_IO_GOVERNOR("Compaction-IO-Governor"),
   // -------------------------- Wal --------------------------
   WAL_SERIALIZE("WAL-Serialize"),
+  WAL_PRE_SERIALIZE("WAL-Pre-Serialize"),
   WAL_SYNC("WAL-Sync"),
   WAL_DELETE("WAL-Delete"),
   WAL_RECOVER("WAL-Recover"),
+  WAL_RECOVER_REDO("WAL-Recover-Redo"),
   TSFILE_RECOVER("TsFile-Recover"),
   // -------------------------- Flush --------------------------
   FLUSH("Flush"),
   FLUSH_SUB_TASK("Flush-SubTask"),
+  FLUSH_ENCODING_TASK("Flush-Encoding-Task"),
   FLUSH_TASK_SUBMIT("FlushTask-Submit-Pool"),
   TIMED_FLUSH_SEQ_MEMTABLE("Timed-Flush-Seq-Memtable"),
   TIMED_FLUSH_UNSEQ_MEMTABLE("Timed-Flush-Unseq-Memtable"),
+  PROACTIVE_FLUSH_MEMTABLE("Proactive-Flush-Memtable"),
   // -------------------------- SchemaEngine --------------------------
   SCHEMA_REGION_RELEASE_PROCESSOR("SchemaRegion-Release-Task-Processor"),
   SCHEMA_REGION_RECOVER_TASK("SchemaRegion-Recover-Task"),
@@ -215,7 +221,8 @@ public enum ThreadName {
               TIMED_QUERY_SQL_COUNT,
               FRAGMENT_INSTANCE_MANAGEMENT,
               FRAGMENT_INSTANCE_NOTIFICATION,
-              DRIVER_TASK_SCHEDULER_NOTIFICATION));
+              DRIVER_TASK_SCHEDULER_NOTIFICATION,
+              CHUNK_PREFETCH));
   private static final Set<ThreadName> mppThreadNames =
       new HashSet<>(
           Arrays.asList(
@@ -230,20 +237,31 @@ public enum ThreadName {
               MPP_COORDINATOR_WRITE_EXECUTOR,
               ASYNC_DATANODE_MPP_DATA_EXCHANGE_CLIENT_POOL));
   private static final Set<ThreadName> compactionThreadNames =
-      new HashSet<>(Arrays.asList(COMPACTION_WORKER, COMPACTION_SUB_TASK, COMPACTION_SCHEDULE));
+      new HashSet<>(
+          Arrays.asList(
+              COMPACTION_WORKER, COMPACTION_SUB_TASK, COMPACTION_SCHEDULE, COMPACTION_IO_GOVERNOR));
 
   private static final Set<ThreadName> walThreadNames =
       new HashSet<>(
-          Arrays.asList(WAL_SERIALIZE, WAL_SYNC, WAL_DELETE, WAL_RECOVER, TSFILE_RECOVER));
+          Arrays.asList(
+              WAL_SERIALIZE,
+              WAL_PRE_SERIALIZE,
+              WAL_SYNC,
+              WAL_DELETE,
+              WAL_RECOVER,
+              WAL_RECOVER_REDO,
+              TSFILE_RECOVER));
 
   private static final Set<ThreadName> flushThreadNames =
       new HashSet<>(
           Arrays.asList(
               FLUSH,
               FLUSH_SUB_TASK,
+              FLUSH_ENCODING_TASK,
               FLUSH_TASK_SUBMIT,
               TIMED_FLUSH_SEQ_MEMTABLE,
-              TIMED_FLUSH_UNSEQ_MEMTABLE));
+              TIMED_FLUSH_UNSEQ_MEMTABLE,
+              PROACTIVE_FLUSH_MEMTABLE));
   private static final Set<ThreadName> schemaEngineThreadNames =
       new HashSet<>(
           Arrays.asList(
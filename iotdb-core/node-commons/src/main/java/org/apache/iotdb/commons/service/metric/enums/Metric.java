@@ -80,10 +80,12 @@ public enum Metric {
   PENDING_FLUSH_TASK("pending_flush_task"),
   WAL_COST("wal_cost"),
   WAL_QUEUE_MEM_COST("wal_queue_mem_cost"),
+  WAL_RECOVER("wal_recover"),
   FLUSH_COST("flush_cost"),
   FLUSH_SUB_TASK_COST("flush_sub_task_cost"),
   MEMTABLE_THRESHOLD("memtable_threshold"),
   FLUSH_MEMTABLE_COUNT("flush_memtable_count"),
+  FLUSH_VICTIM("flush_victim"),
   ACTIVE_MEMTABLE_COUNT("active_memtable_count"),
   ACTIVE_TIME_PARTITION_COUNT("active_time_partition_count"),
   MEMTABLE_LIVE_DURATION("memtable_live_duration"),
@@ -91,6 +93,7 @@ public enum Metric {
   PAM_RELEASED_COUNT("primitive_array_manager_released_count"),
   PAM_ALLOCATED_FAILURE_COUNT("primitive_array_manager_allocated_failure_count"),
   PAM_RELEASED_FAILURE_COUNT("primitive_array_manager_released_failure_count"),
+  PAM_LOCAL_ALLOCATED_COUNT("primitive_array_manager_local_allocated_count"),
 
   // compaction related
   DATA_WRITTEN("data_written"),
@@ -103,6 +106,7 @@ public enum Metric {
   COMPACTION_TASK_SELECTED_FILE("compaction_task_selected_file"),
   COMPACTION_TASK_SELECTED_FILE_SIZE("compaction_task_selected_file_size"),
   COMPACTION_SELECTION_CACHED_TIME_INDEX_SIZE("compaction_selection_cached_time_index_size"),
+  COMPACTION_WRITE_AMPLIFICATION("compaction_write_amplification"),
   // schema engine related
   MEM("mem"),
   CACHE("cache"),
@@ -174,6 +174,9 @@ struct TSFetchResultsReq{
   5: required bool isAlign
   6: optional i64 timeout
   7: optional i64 statementId
+  // Bytes of results the client can buffer, the server may return more than fetchSize rows
+  // that are already produced until the credit is used up
+  8: optional i64 fetchCreditInBytes
 }
 
 struct TSFetchResultsResp{
@@ -90,10 +90,14 @@ struct TGetDataBlockRequest {
   3: required i32 endSequenceId
   // Index of upstream SinkChannel
   4: required i32 index
+  // CompressionType the receiver accepts for the TsBlocks, not set if they should be uncompressed
+  5: optional i8 compressionType
 }
 
 struct TGetDataBlockResponse {
   1: required list<binary> tsBlocks
+  // CompressionType the TsBlocks are compressed with, not set if they are uncompressed
+  2: optional i8 compressionType
 }
 
 struct TAcknowledgeDataBlockEvent {